@@ -0,0 +1,12 @@
+package com.daniel.core.domain.entity;
+
+/**
+ * Último valor conhecido de um benchmark do BCB ({@code CDI}, {@code SELIC},
+ * {@code IPCA}), já normalizado para taxa anual decimal (0.1325 = 13,25% a.a.).
+ * {@code updatedAtMillis} é quando o valor foi obtido da API (epoch millis).
+ */
+public record BenchmarkRate(
+        String series,
+        double annualRate,
+        long updatedAtMillis
+) {}
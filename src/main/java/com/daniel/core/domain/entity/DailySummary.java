@@ -1,7 +1,8 @@
 package com.daniel.core.domain.entity;
 
+import com.daniel.core.util.LongLongMap;
+
 import java.time.LocalDate;
-import java.util.Map;
 
 public record DailySummary(
         LocalDate date,
@@ -9,6 +10,6 @@ public record DailySummary(
         long totalProfitTodayCents,
         long cashTodayCents,
         long cashDeltaCents,
-        Map<Long, Long> investmentTodayCents,
-        Map<Long, Long> investmentProfitTodayCents
+        LongLongMap investmentTodayCents,
+        LongLongMap investmentProfitTodayCents
 ) {}
@@ -0,0 +1,14 @@
+package com.daniel.core.domain.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Um ponto de uma série histórica do SGS/BCB: o valor publicado para
+ * {@code date}, em % do período da série (% ao dia para CDI/SELIC, % no mês
+ * para o IPCA, cuja data é o primeiro dia do mês).
+ */
+public record IndexPoint(
+        String series,
+        LocalDate date,
+        double valuePercent
+) {}
@@ -0,0 +1,17 @@
+package com.daniel.core.domain.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Cotação de um ticker num dia. {@code updatedAtMillis} é o instante em que
+ * o valor foi obtido da fonte (epoch millis).
+ */
+public record Quote(
+        String ticker,
+        LocalDate date,
+        double price,
+        double change,
+        double changePercent,
+        long volume,
+        long updatedAtMillis
+) {}
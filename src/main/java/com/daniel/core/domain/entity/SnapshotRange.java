@@ -0,0 +1,104 @@
+package com.daniel.core.domain.entity;
+
+import com.daniel.core.util.LongLongMap;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Snapshots de caixa e de investimentos num intervalo fechado de datas, em
+ * formato colunar: um {@code long[]} por série, indexado pelo dia relativo a
+ * {@link #from()}. Dias sem snapshot valem 0 — mesma convenção de
+ * {@code loadEntry}.
+ */
+public final class SnapshotRange {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long[] cashCents;
+    private final Map<Long, long[]> investmentCents = new LinkedHashMap<>();
+
+    public SnapshotRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to < from: " + from + " / " + to);
+        }
+        this.from = from;
+        this.to = to;
+        this.cashCents = new long[days()];
+    }
+
+    public LocalDate from() {
+        return from;
+    }
+
+    public LocalDate to() {
+        return to;
+    }
+
+    /** Número de dias do intervalo (inclusivo). */
+    public int days() {
+        return (int) ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    public LocalDate dateAt(int dayIndex) {
+        return from.plusDays(dayIndex);
+    }
+
+    public int indexOf(LocalDate date) {
+        if (!contains(date)) {
+            throw new IllegalArgumentException("Data fora do intervalo: " + date);
+        }
+        return (int) ChronoUnit.DAYS.between(from, date);
+    }
+
+    public void putCash(LocalDate date, long cents) {
+        putCashAt(indexOf(date), cents);
+    }
+
+    public void putInvestment(LocalDate date, long investmentTypeId, long cents) {
+        putInvestmentAt(indexOf(date), investmentTypeId, cents);
+    }
+
+    /** Como {@link #putCash}, pelo índice do dia (sem montar um LocalDate por linha). */
+    public void putCashAt(int dayIndex, long cents) {
+        cashCents[Objects.checkIndex(dayIndex, cashCents.length)] = cents;
+    }
+
+    public void putInvestmentAt(int dayIndex, long investmentTypeId, long cents) {
+        Objects.checkIndex(dayIndex, cashCents.length);
+        investmentCents.computeIfAbsent(investmentTypeId, k -> new long[cashCents.length])[dayIndex] = cents;
+    }
+
+    public long cashCents(LocalDate date) {
+        return cashCents[indexOf(date)];
+    }
+
+    public long investmentCents(LocalDate date, long investmentTypeId) {
+        long[] series = investmentCents.get(investmentTypeId);
+        return series == null ? 0L : series[indexOf(date)];
+    }
+
+    /** Ids de investimento com pelo menos um snapshot no intervalo. */
+    public Set<Long> investmentIds() {
+        return Collections.unmodifiableSet(investmentCents.keySet());
+    }
+
+    /** Valores do dia por investimento (apenas os que têm série no intervalo). */
+    public LongLongMap investmentsOn(LocalDate date) {
+        int i = indexOf(date);
+        LongLongMap out = new LongLongMap(investmentCents.size());
+        for (var e : investmentCents.entrySet()) {
+            out.put(e.getKey().longValue(), e.getValue()[i]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,13 @@
+package com.daniel.core.domain.repository;
+
+import com.daniel.core.domain.entity.BenchmarkRate;
+
+import java.util.Map;
+
+public interface IBenchmarkRateRepository {
+    /** Último valor salvo de cada série, por nome da série. */
+    Map<String, BenchmarkRate> loadAll();
+
+    /** Insere ou substitui o valor da série. */
+    void upsert(BenchmarkRate rate);
+}
@@ -3,6 +3,7 @@ package com.daniel.core.domain.repository;
 import com.daniel.core.domain.entity.Flow;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface IFlowRepository {
@@ -10,4 +11,13 @@ public interface IFlowRepository {
     void save(Flow flow);
     void delete(long id);
     long create(Flow flow);
+
+    /** Flows with date in [from, to], ordered by date. */
+    default List<Flow> listBetween(LocalDate from, LocalDate to) {
+        List<Flow> out = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            out.addAll(listForDate(d));
+        }
+        return out;
+    }
 }
@@ -0,0 +1,18 @@
+package com.daniel.core.domain.repository;
+
+import com.daniel.core.domain.entity.IndexPoint;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface IIndexHistoryRepository {
+    /** Insere ou substitui os pontos numa única transação. */
+    void upsertAll(Collection<IndexPoint> points);
+
+    /** Todos os pontos da série, em ordem crescente de data. */
+    List<IndexPoint> load(String series);
+
+    /** Data do ponto mais recente da série, ou null se não há nenhum. */
+    LocalDate lastDate(String series);
+}
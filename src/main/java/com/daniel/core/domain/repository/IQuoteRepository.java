@@ -0,0 +1,28 @@
+package com.daniel.core.domain.repository;
+
+import com.daniel.core.domain.entity.Quote;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IQuoteRepository {
+    /** Insere ou substitui a cotação do (ticker, dia). */
+    void upsert(Quote quote);
+
+    /** Igual a {@link #upsert}, para várias cotações numa única transação. */
+    void upsertAll(Collection<Quote> quotes);
+
+    /** Última cotação conhecida de cada ticker salvo. */
+    Map<String, Quote> latestAll();
+
+    /** Última cotação conhecida do ticker, ou null. */
+    Quote latest(String ticker);
+
+    /** Última cotação de cada ticker pedido que tenha alguma salva, numa única consulta. */
+    Map<String, Quote> latest(Collection<String> tickers);
+
+    /** Cotações diárias do ticker entre as datas (inclusive), em ordem crescente. */
+    List<Quote> history(String ticker, LocalDate from, LocalDate to);
+}
@@ -1,12 +1,16 @@
 package com.daniel.core.domain.repository;
 
+import com.daniel.core.domain.entity.SnapshotRange;
+import com.daniel.core.util.LongLongMap;
+
 import java.time.LocalDate;
 import java.util.Map;
+import java.util.TreeMap;
 
 public interface ISnapshotRepository {
     long getCash(LocalDate date);
     void setCash(LocalDate date);
-    Map<Long, Long> getAllInvestimentsForDate(LocalDate date);
+    LongLongMap getAllInvestimentsForDate(LocalDate date);
     void setInvestimentValue(LocalDate date, long typeId, long cents);
     Map<String, Long> seriesForInvestiments(long investimentsTypeId);
 
@@ -16,4 +20,48 @@ public interface ISnapshotRepository {
     /** Upsert an investment snapshot for a given date and investment type. */
     default void upsertInvestment(LocalDate date, long investmentTypeId,
                                   long valueCents, String note) {}
+
+    /** Upsert many investment snapshots for a date (typeId → cents) at once. */
+    default void upsertInvestments(LocalDate date, Map<Long, Long> valuesCents) {
+        upsertSnapshot(date, null, valuesCents);
+    }
+
+    /**
+     * Upsert a whole day: optional cash plus investment values. Implementations
+     * backed by a database should write everything in a single transaction.
+     */
+    default void upsertSnapshot(LocalDate date, Long cashCents, Map<Long, Long> investmentValuesCents) {
+        if (cashCents != null) upsertCash(date, cashCents);
+        for (var e : investmentValuesCents.entrySet()) {
+            upsertInvestment(date, e.getKey(), e.getValue(), null);
+        }
+    }
+
+    /**
+     * Streams one investment's snapshots as (epochDay, cents) pairs, in
+     * ascending date order. Database-backed implementations should read them
+     * straight from an index, without building an intermediate map.
+     */
+    default void scanSeries(long investmentTypeId, LongLongMap.LongLongConsumer sink) {
+        Map<Long, Long> byDay = new TreeMap<>();
+        for (var e : seriesForInvestiments(investmentTypeId).entrySet()) {
+            byDay.put(LocalDate.parse(e.getKey()).toEpochDay(), e.getValue());
+        }
+        byDay.forEach(sink::accept);
+    }
+
+    /**
+     * All cash and investment snapshots in [from, to]. Database-backed
+     * implementations should read the range in one ordered scan.
+     */
+    default SnapshotRange loadRange(LocalDate from, LocalDate to) {
+        SnapshotRange range = new SnapshotRange(from, to);
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            range.putCash(d, getCash(d));
+            for (var e : getAllInvestimentsForDate(d).entrySet()) {
+                range.putInvestment(d, e.getKey(), e.getValue());
+            }
+        }
+        return range;
+    }
 }
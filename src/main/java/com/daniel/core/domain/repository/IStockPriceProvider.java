@@ -1,9 +1,34 @@
 package com.daniel.core.domain.repository;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
 public interface IStockPriceProvider {
     /**
      * Returns the current market price (BRL) for the given ticker,
      * or null if the price is unavailable (network error, invalid ticker, etc.).
      */
     Double fetchPrice(String ticker);
+
+    /**
+     * Returns current prices for several tickers at once, keyed by the ticker
+     * strings exactly as passed in. Tickers without a price are absent from
+     * the map. Duplicates are fetched only once.
+     *
+     * The default implementation falls back to one {@link #fetchPrice} per ticker.
+     */
+    default Map<String, Double> fetchPrices(Collection<String> tickers) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (String ticker : new LinkedHashSet<>(tickers)) {
+            try {
+                Double price = fetchPrice(ticker);
+                if (price != null) out.put(ticker, price);
+            } catch (RuntimeException ignored) {
+                // preço indisponível para este ticker
+            }
+        }
+        return out;
+    }
 }
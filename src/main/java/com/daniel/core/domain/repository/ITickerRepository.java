@@ -0,0 +1,15 @@
+package com.daniel.core.domain.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ITickerRepository {
+    /** Todos os tickers negociáveis salvos, em ordem alfabética. */
+    List<String> loadAll();
+
+    /** Troca a lista inteira numa única transação, registrando quando foi baixada. */
+    void replaceAll(Collection<String> tickers, long updatedAtMillis);
+
+    /** Momento (epoch millis) da última lista salva, ou 0 se nunca foi baixada. */
+    long lastUpdatedMillis();
+}
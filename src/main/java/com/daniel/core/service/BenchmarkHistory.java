@@ -0,0 +1,59 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.repository.IIndexHistoryRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Séries históricas dos benchmarks guardadas localmente, prontas para as
+ * contas de rentabilidade sem rede: {@link #reload()} lê o banco (depois de
+ * cada ingestão); {@link #series(String)} só consulta a memória.
+ */
+public final class BenchmarkHistory {
+
+    public static final String CDI = "CDI";
+    public static final String SELIC = "SELIC";
+    public static final String IPCA = "IPCA";
+
+    private static final Map<String, BenchmarkSeries.Periodicity> PERIODICITY = Map.of(
+            CDI, BenchmarkSeries.Periodicity.DAILY,
+            SELIC, BenchmarkSeries.Periodicity.DAILY,
+            IPCA, BenchmarkSeries.Periodicity.MONTHLY);
+
+    private final IIndexHistoryRepository repo;
+    private volatile Map<String, BenchmarkSeries> series;
+
+    public BenchmarkHistory(IIndexHistoryRepository repo) {
+        this.repo = repo;
+    }
+
+    /** Relê todas as séries do banco. */
+    public void reload() {
+        Map<String, BenchmarkSeries> loaded = new HashMap<>();
+        for (var e : PERIODICITY.entrySet()) {
+            loaded.put(e.getKey(), BenchmarkSeries.of(e.getKey(), e.getValue(), repo.load(e.getKey())));
+        }
+        series = Map.copyOf(loaded);
+    }
+
+    /** Carrega do banco na primeira chamada; depois não faz nada. */
+    public void ensureLoaded() {
+        if (series == null) {
+            synchronized (this) {
+                if (series == null) reload();
+            }
+        }
+    }
+
+    /**
+     * Série em memória; vazia se ainda não foi carregada, não foi ingerida ou
+     * não é CDI/SELIC/IPCA (ex.: IBOVESPA).
+     */
+    public BenchmarkSeries series(String name) {
+        Map<String, BenchmarkSeries> current = series;
+        BenchmarkSeries s = current == null ? null : current.get(name);
+        if (s != null) return s;
+        return BenchmarkSeries.empty(name, PERIODICITY.getOrDefault(name, BenchmarkSeries.Periodicity.DAILY));
+    }
+}
@@ -0,0 +1,103 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.entity.IndexPoint;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Série histórica de um índice (CDI, SELIC, IPCA) em formato colunar: dias
+ * epoch crescentes e a taxa decimal de cada período.
+ *
+ * Períodos diários: o ponto do dia {@code d} rende de {@code d} até o dia
+ * seguinte; {@link #factor} multiplica os pontos com data em {@code [from, to)}.
+ * Períodos mensais: o ponto do dia 1 vale o mês inteiro; meses cobertos em
+ * parte entram pro rata pelos dias corridos.
+ *
+ * Intervalos fora do histórico são recortados a {@code [firstDate, coveredUntil)}:
+ * o fator é sempre de dados publicados, sem projeção.
+ *
+ * Os fatores saem da {@link IndexFactorTable} montada junto com a série.
+ */
+public final class BenchmarkSeries {
+
+    public enum Periodicity { DAILY, MONTHLY }
+
+    private final String name;
+    private final Periodicity periodicity;
+    private final int[] days;
+    private final IndexFactorTable table;
+
+    private BenchmarkSeries(String name, Periodicity periodicity, int[] days, double[] rates) {
+        this.name = name;
+        this.periodicity = periodicity;
+        this.days = days;
+        this.table = new IndexFactorTable(periodicity, days, rates);
+    }
+
+    /** Monta a série a partir dos pontos do SGS (em % do período), em qualquer ordem. */
+    public static BenchmarkSeries of(String name, Periodicity periodicity, List<IndexPoint> points) {
+        IndexPoint[] sorted = points.toArray(IndexPoint[]::new);
+        Arrays.sort(sorted, (a, b) -> a.date().compareTo(b.date()));
+        int[] days = new int[sorted.length];
+        double[] rates = new double[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            days[i] = (int) sorted[i].date().toEpochDay();
+            rates[i] = sorted[i].valuePercent() / 100.0;
+        }
+        return new BenchmarkSeries(name, periodicity, days, rates);
+    }
+
+    public static BenchmarkSeries empty(String name, Periodicity periodicity) {
+        return new BenchmarkSeries(name, periodicity, new int[0], new double[0]);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Periodicity periodicity() {
+        return periodicity;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    /** Primeiro dia com dado; null se vazia. */
+    public LocalDate firstDate() {
+        return isEmpty() ? null : LocalDate.ofEpochDay(days[0]);
+    }
+
+    /** Fim (exclusivo) do período do último ponto; null se vazia. */
+    public LocalDate coveredUntil() {
+        if (isEmpty()) return null;
+        LocalDate last = LocalDate.ofEpochDay(days[days.length - 1]);
+        return periodicity == Periodicity.DAILY ? last.plusDays(1) : last.plusMonths(1);
+    }
+
+    /** Há histórico desde {@code from} (inclusive)? */
+    public boolean coversStart(LocalDate from) {
+        return !isEmpty() && !from.isBefore(firstDate());
+    }
+
+    /** Fator acumulado de {@code from} até {@code to} (1.0 se o intervalo é vazio). */
+    public double factor(LocalDate from, LocalDate to) {
+        return table.factor(from, to);
+    }
+
+    /** Tabela de fatores acumulados da série (para X% do índice e projeção). */
+    public IndexFactorTable table() {
+        return table;
+    }
+
+    /** Rentabilidade acumulada (decimal) de {@code from} até {@code to}. */
+    public double accumulatedRate(LocalDate from, LocalDate to) {
+        return factor(from, to) - 1;
+    }
+}
@@ -1,14 +1,19 @@
 package com.daniel.core.service;
 
 import com.daniel.core.domain.entity.*;
+import com.daniel.core.domain.entity.Enums.IndexTypeEnum;
 import com.daniel.core.domain.entity.Enums.InvestmentTypeEnum;
 import com.daniel.core.domain.repository.*;
+import com.daniel.core.util.LongLongMap;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 public final class DailyTrackingUseCase {
 
@@ -17,20 +22,52 @@ public final class DailyTrackingUseCase {
     private final ISnapshotRepository snapshotRepo;
     private final ITransactionRepository txRepo;
     private final IStockPriceProvider priceProvider;
+    private final TimeSeriesStore seriesStore;
+    private final BenchmarkHistory benchmarks;
 
     private static final NumberFormat BRL = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
 
+    // Incrementada a cada escrita feita por este use case (ou nova cotação);
+    // a PortfolioValuation em cache só vale para a versão em que foi calculada.
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final Object valuationLock = new Object();
+    private volatile CachedValuation cachedValuation;
+
+    // Sem escritas a versão não muda: a idade limita quanto tempo os preços
+    // da valuation em cache ficam sem passar de novo pelo provedor de cotações.
+    private volatile long valuationMaxAgeMillis = Long.MAX_VALUE;
+    private volatile LongSupplier clock = System::currentTimeMillis;
+
+    private record CachedValuation(PortfolioValuation valuation, long computedAtMillis) {}
+
     public DailyTrackingUseCase(
             IFlowRepository flowRepo,
             IInvestmentTypeRepository typeRepo,
             ISnapshotRepository snapshotRepo,
             ITransactionRepository txRepo,
             IStockPriceProvider priceProvider) {
+        this(flowRepo, typeRepo, snapshotRepo, txRepo, priceProvider, null);
+    }
+
+    /**
+     * @param benchmarks histórico do CDI/SELIC/IPCA para marcar posições
+     *                   pós-fixadas e híbridas; {@code null} usa só a
+     *                   rentabilidade informada
+     */
+    public DailyTrackingUseCase(
+            IFlowRepository flowRepo,
+            IInvestmentTypeRepository typeRepo,
+            ISnapshotRepository snapshotRepo,
+            ITransactionRepository txRepo,
+            IStockPriceProvider priceProvider,
+            BenchmarkHistory benchmarks) {
         this.flowRepo = flowRepo;
         this.typeRepo = typeRepo;
         this.snapshotRepo = snapshotRepo;
         this.txRepo = txRepo;
         this.priceProvider = priceProvider;
+        this.seriesStore = new TimeSeriesStore(snapshotRepo);
+        this.benchmarks = benchmarks;
     }
 
     // ========== INVESTMENT TYPES ==========
@@ -41,14 +78,18 @@ public final class DailyTrackingUseCase {
 
     public void createType(String name) {
         typeRepo.save(name);
+        invalidateValuation();
     }
 
     public void renameType(int id, String newName) {
         typeRepo.rename(id, newName);
+        invalidateValuation();
     }
 
     public void deleteType(int id) {
         typeRepo.delete(id);
+        seriesStore.invalidate(id);
+        invalidateValuation();
     }
 
     public int createTypeFull(String name, String category, String liquidity,
@@ -56,9 +97,11 @@ public final class DailyTrackingUseCase {
                               BigDecimal investedValue, String typeOfInvestment,
                               String indexType, BigDecimal indexPercentage,
                               String ticker, BigDecimal purchasePrice, Integer quantity) {
-        return typeRepo.createFull(name, category, liquidity, investmentDate,
+        int id = typeRepo.createFull(name, category, liquidity, investmentDate,
                 profitability, investedValue, typeOfInvestment,
                 indexType, indexPercentage, ticker, purchasePrice, quantity);
+        invalidateValuation();
+        return id;
     }
 
     public void updateTypeFull(int id, String name, String category, String liquidity,
@@ -69,6 +112,7 @@ public final class DailyTrackingUseCase {
         typeRepo.updateFull(id, name, category, liquidity, investmentDate,
                 profitability, investedValue, typeOfInvestment,
                 indexType, indexPercentage, ticker, purchasePrice, quantity);
+        invalidateValuation();
     }
 
     // ========== TRANSAÇÕES (COMPRA/VENDA) ==========
@@ -79,6 +123,7 @@ public final class DailyTrackingUseCase {
         Transaction tx = new Transaction(0, date, investmentTypeId,
                 Transaction.BUY, name, ticker, quantity, unitPriceCents, totalCents, null);
         txRepo.insert(tx);
+        invalidateValuation();
     }
 
     public void recordSell(int investmentTypeId, String name, String ticker,
@@ -87,6 +132,7 @@ public final class DailyTrackingUseCase {
         Transaction tx = new Transaction(0, date, investmentTypeId,
                 Transaction.SELL, name, ticker, quantity, unitPriceCents, totalCents, note);
         txRepo.insert(tx);
+        invalidateValuation();
     }
 
     public List<Transaction> listTransactions(java.time.YearMonth month) {
@@ -98,22 +144,27 @@ public final class DailyTrackingUseCase {
     // ========== SNAPSHOT AUTOMÁTICO ==========
 
     public void takeSnapshotIfNeeded(LocalDate date) {
-        Map<Long, Long> existing = snapshotRepo.getAllInvestimentsForDate(date);
+        LongLongMap existing = snapshotRepo.getAllInvestimentsForDate(date);
         if (!existing.isEmpty()) {
             return;
         }
 
-        List<InvestmentType> all = typeRepo.listAll();
-        if (all.isEmpty()) {
+        PortfolioValuation valuation = valuation(date);
+        if (valuation.isEmpty()) {
             return;
         }
 
-        for (InvestmentType inv : all) {
-            long valueCents = getCurrentValue(inv, date);
+        LongLongMap values = new LongLongMap(valuation.investments().size());
+        for (InvestmentType inv : valuation.investments()) {
+            long valueCents = valuation.currentValueCents(inv.id());
             if (valueCents > 0) {
-                snapshotRepo.upsertInvestment(date, inv.id(), valueCents, null);
+                values.put(inv.id(), valueCents);
             }
         }
+        if (!values.isEmpty()) {
+            snapshotRepo.upsertInvestments(date, values);
+            seriesStore.record(date, values);
+        }
     }
 
     // ========== CÁLCULO AUTOMÁTICO DE VALOR ATUAL ==========
@@ -162,13 +213,84 @@ public final class DailyTrackingUseCase {
         return Math.round(currentValue * 100);
     }
 
-    public Map<Long, Long> getAllCurrentValues(LocalDate date) {
+    public LongLongMap getAllCurrentValues(LocalDate date) {
+        return LongLongMap.copyOf(valuation(date).currentValuesCents());
+    }
+
+    // ========== VALUATION ==========
+
+    /**
+     * Valuation da carteira na data, reaproveitada enquanto nenhuma escrita
+     * (ou nova cotação) mudar a versão dos dados. Um refresh de página deve
+     * chamar isto uma vez e ler tudo do resultado.
+     */
+    public PortfolioValuation valuation(LocalDate date) {
+        CachedValuation cached = cachedValuation;
+        if (isCurrent(cached, date)) return cached.valuation();
+
+        synchronized (valuationLock) {
+            cached = cachedValuation;
+            if (isCurrent(cached, date)) return cached.valuation();
+
+            long computedAt = clock.getAsLong();
+            PortfolioValuation fresh = computeValuation(date, dataVersion.get());
+            // Interrompida no meio, a valuation pode ter caído no preço de compra.
+            if (!Thread.currentThread().isInterrupted()) cachedValuation = new CachedValuation(fresh, computedAt);
+            return fresh;
+        }
+    }
+
+    /**
+     * Idade máxima da valuation em cache, normalmente o TTL das cotações:
+     * passado esse tempo, o próximo {@link #valuation} consulta o provedor de
+     * novo, que serve o preço vencido e dispara a revalidação.
+     */
+    public void expireValuationAfter(Duration maxAge) {
+        expireValuationAfter(maxAge, System::currentTimeMillis);
+    }
+
+    public void expireValuationAfter(Duration maxAge, LongSupplier clockMillis) {
+        this.clock = clockMillis;
+        this.valuationMaxAgeMillis = maxAge.toMillis();
+    }
+
+    /** Descarta a valuation em cache (escrita em repositório ou cotação nova). */
+    public void invalidateValuation() {
+        dataVersion.incrementAndGet();
+    }
+
+    public long dataVersion() {
+        return dataVersion.get();
+    }
+
+    private boolean isCurrent(CachedValuation c, LocalDate date) {
+        if (c == null) return false;
+        PortfolioValuation v = c.valuation();
+        return v.dataVersion() == dataVersion.get() && v.date().equals(date)
+                && clock.getAsLong() - c.computedAtMillis() <= valuationMaxAgeMillis;
+    }
+
+    private PortfolioValuation computeValuation(LocalDate date, long version) {
         List<InvestmentType> all = typeRepo.listAll();
-        Map<Long, Long> values = new HashMap<>();
+        Map<String, Double> prices = fetchPricesFor(all);
+
+        LongLongMap current = new LongLongMap(all.size());
+        LongLongMap invested = new LongLongMap(all.size());
+        long totalCurrent = 0L;
+        long totalInvested = 0L;
 
         for (InvestmentType inv : all) {
-            long value = getCurrentValue(inv, date);
-            values.put((long) inv.id(), value);
+            long value = currentValue(inv, date, prices);
+            current.put(inv.id(), value);
+            totalCurrent += value;
+
+            if (inv.investedValue() != null) {
+                long investedCents = inv.investedValue()
+                        .multiply(BigDecimal.valueOf(100))
+                        .longValue();
+                invested.put(inv.id(), investedCents);
+                totalInvested += investedCents;
+            }
 
             // DEBUG
             if (value > 0) {
@@ -178,15 +300,82 @@ public final class DailyTrackingUseCase {
             }
         }
 
-        return values;
+        return new PortfolioValuation(date, version, all, current, invested, totalCurrent, totalInvested);
     }
 
     public long getCurrentValue(InvestmentType inv, LocalDate today) {
-        if (inv.ticker() != null && !inv.ticker().isBlank() &&
-                inv.quantity() != null && inv.purchasePrice() != null) {
+        return currentValue(inv, today, null);
+    }
+
+    /**
+     * Busca de uma vez os preços de todos os tickers das posições de ações.
+     * Retorna mapa vazio se não houver tickers ou se o provedor falhar.
+     */
+    private Map<String, Double> fetchPricesFor(List<InvestmentType> investments) {
+        Set<String> tickers = new LinkedHashSet<>();
+        for (InvestmentType inv : investments) {
+            if (isPricedByTicker(inv)) tickers.add(inv.ticker());
+        }
+        if (tickers.isEmpty()) return Map.of();
+
+        try {
+            return priceProvider.fetchPrices(tickers);
+        } catch (Exception e) {
+            System.err.println("⚠️ [BRAPI ERRO] lote de " + tickers.size() + " tickers: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Valor de posição pós-fixada ou híbrida pelo histórico real do índice
+     * (desde a data de investimento); -1 se não há histórico que cubra o
+     * início ou a posição não é indexada.
+     */
+    private long indexedValue(InvestmentType inv, LocalDate today) {
+        if (benchmarks == null || inv.investedValue() == null || inv.investmentDate() == null) return -1;
+        InvestmentTypeEnum type = inv.getInvestmentTypeEnum();
+        IndexTypeEnum index = inv.getIndexTypeEnum();
+        if (index == null || (type != InvestmentTypeEnum.POS_FIXADO && type != InvestmentTypeEnum.HIBRIDO)) return -1;
+
+        benchmarks.ensureLoaded();
+        BenchmarkSeries series = benchmarks.series(index.name());
+        if (!series.coversStart(inv.investmentDate())) return -1;
+
+        double investedCents = inv.investedValue().multiply(BigDecimal.valueOf(100)).doubleValue();
+        double value;
+        if (type == InvestmentTypeEnum.POS_FIXADO) {
+            double percent = inv.indexPercentage() != null ? inv.indexPercentage().doubleValue() / 100.0 : 1.0;
+            value = InvestmentCalculator.calculatePosfixado(
+                    investedCents, percent, series.table(), inv.investmentDate(), today);
+        } else {
+            double spread = inv.profitability() != null ? inv.profitability().doubleValue() / 100.0 : 0.0;
+            value = InvestmentCalculator.calculateHibrido(
+                    investedCents, spread, series.table(), inv.investmentDate(), today);
+        }
+
+        System.out.println(String.format(
+                "✅ [INDEXADO] %s: %s × %s desde %s = %s",
+                inv.name(), brl((long) investedCents), index.name(), inv.investmentDate(), brl((long) value)
+        ));
+        return (long) value;
+    }
+
+    private static boolean isPricedByTicker(InvestmentType inv) {
+        return inv.ticker() != null && !inv.ticker().isBlank() &&
+                inv.quantity() != null && inv.purchasePrice() != null;
+    }
+
+    /**
+     * @param prices preços já buscados em lote; {@code null} para buscar o
+     *               ticker individualmente no provedor
+     */
+    private long currentValue(InvestmentType inv, LocalDate today, Map<String, Double> prices) {
+        if (isPricedByTicker(inv)) {
 
             try {
-                Double currentPrice = priceProvider.fetchPrice(inv.ticker());
+                Double currentPrice = prices != null
+                        ? prices.get(inv.ticker())
+                        : priceProvider.fetchPrice(inv.ticker());
                 if (currentPrice != null) {
                     int quantity = inv.quantity();
                     long valueCents = (long)(currentPrice * quantity * 100);
@@ -218,6 +407,9 @@ public final class DailyTrackingUseCase {
             return valueCents;
         }
 
+        long indexedCents = indexedValue(inv, today);
+        if (indexedCents >= 0) return indexedCents;
+
         if (inv.profitability() != null && inv.investedValue() != null &&
                 inv.investmentDate() != null) {
 
@@ -265,39 +457,19 @@ public final class DailyTrackingUseCase {
     }
 
     public long getTotalPatrimony(LocalDate today) {
-        Map<Long, Long> values = getAllCurrentValues(today);
-        long total = values.values().stream()
-                .mapToLong(Long::longValue)
-                .sum();
+        long total = valuation(today).totalCurrentCents();
 
         System.out.println(String.format("💰 PATRIMÔNIO TOTAL: %s", brl(total)));
         return total;
     }
 
     public long getTotalProfit(LocalDate today) {
-        List<InvestmentType> all = typeRepo.listAll();
-        Map<Long, Long> currentValues = getAllCurrentValues(today);
-
-        long totalInvested = 0L;
-        long totalCurrent = 0L;
-
-        for (InvestmentType inv : all) {
-            if (inv.investedValue() != null) {
-                long invested = inv.investedValue()
-                        .multiply(BigDecimal.valueOf(100))
-                        .longValue();
-                totalInvested += invested;
-            }
-
-            long current = currentValues.getOrDefault((long)inv.id(), 0L);
-            totalCurrent += current;
-        }
-
-        long profit = totalCurrent - totalInvested;
+        PortfolioValuation v = valuation(today);
+        long profit = v.totalProfitCents();
 
         System.out.println(String.format(
                 "📊 LUCRO/PREJUÍZO: %s - %s = %s",
-                brl(totalCurrent), brl(totalInvested), brl(profit)
+                brl(v.totalCurrentCents()), brl(v.totalInvestedCents()), brl(profit)
         ));
 
         return profit;
@@ -382,14 +554,14 @@ public final class DailyTrackingUseCase {
     // ========== DAILY ENTRY ==========
 
     public DailyEntry loadEntry(LocalDate date) {
-        Map<Long, Long> invMap = snapshotRepo.getAllInvestimentsForDate(date);
+        LongLongMap invMap = snapshotRepo.getAllInvestimentsForDate(date);
         long cashCents = snapshotRepo.getCash(date);
 
         List<InvestmentType> allTypes = typeRepo.listAll();
 
         Map<InvestmentType, Long> investments = new LinkedHashMap<>();
         for (InvestmentType t : allTypes) {
-            long cents = invMap.getOrDefault((long) t.id(), 0L);
+            long cents = invMap.getOrDefault(t.id(), 0L);
             investments.put(t, cents);
         }
 
@@ -399,19 +571,22 @@ public final class DailyTrackingUseCase {
     public void saveEntry(DailyEntry entry) {
         if (entry == null) return;
 
-        // Salvar caixa
-        if (entry.cashCents() >= 0) {
-            snapshotRepo.upsertCash(entry.date(), entry.cashCents());
-        }
+        Long cash = entry.cashCents() >= 0 ? entry.cashCents() : null;
 
+        LongLongMap values = new LongLongMap(entry.investmentValuesCents().size());
         for (var e : entry.investmentValuesCents().entrySet()) {
             InvestmentType type = e.getKey();
             Long cents = e.getValue();
             if (cents != null && cents >= 0) {
-                snapshotRepo.setInvestimentValue(entry.date(), type.id(), cents);
-                snapshotRepo.upsertInvestment(entry.date(), type.id(), cents, null);
+                values.put(type.id(), cents);
             }
         }
+
+        // Caixa + posições numa única gravação
+        if (cash != null || !values.isEmpty()) {
+            snapshotRepo.upsertSnapshot(entry.date(), cash, values);
+            seriesStore.record(entry.date(), values);
+        }
     }
 
     // ========== FLOWS ==========
@@ -422,10 +597,12 @@ public final class DailyTrackingUseCase {
 
     public void createFlow(Flow flow) {
         flowRepo.save(flow);
+        invalidateValuation();
     }
 
     public void deleteFlow(long flowId) {
         flowRepo.delete(flowId);
+        invalidateValuation();
     }
 
     // ========== SUMMARY ==========
@@ -438,55 +615,97 @@ public final class DailyTrackingUseCase {
     }
 
     public DailySummary summaryFor(LocalDate date) {
-        DailyEntry entry = loadEntry(date);
+        return summaryAt(typeRepo.listAll(), date);
+    }
+
+    private DailySummary summaryAt(List<InvestmentType> types, LocalDate date) {
+        // Dia anterior entra no mesmo scan para calcular delta e lucro
+        SnapshotRange range = snapshotRepo.loadRange(date.minusDays(1), date);
+        FlowTotals flows = FlowTotals.of(flowsFor(date));
+        return summaryFrom(range, types, date, flows);
+    }
+
+    /**
+     * Resumos de todos os dias de [from, to] a partir de uma única leitura de
+     * snapshots (o intervalo começa um dia antes para o delta do primeiro dia).
+     */
+    public List<DailySummary> summariesBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return List.of();
+
+        SnapshotRange range = snapshotRepo.loadRange(from.minusDays(1), to);
+        List<InvestmentType> types = typeRepo.listAll();
+        Map<LocalDate, FlowTotals> flowsByDate = FlowTotals.byDate(flowRepo.listBetween(from, to));
+
+        List<DailySummary> out = new ArrayList<>(range.days() - 1);
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            out.add(summaryFrom(range, types, d, flowsByDate.getOrDefault(d, FlowTotals.EMPTY)));
+        }
+        return out;
+    }
 
-        // Buscar dia anterior para calcular delta e lucro
+    /**
+     * Entradas e saídas do dia já somadas por id de investimento, para o
+     * resumo consultar cada posição em O(1).
+     */
+    private record FlowTotals(LongLongMap inCents, LongLongMap outCents) {
+        static final FlowTotals EMPTY = new FlowTotals(new LongLongMap().freeze(), new LongLongMap().freeze());
+
+        static FlowTotals of(List<Flow> flows) {
+            LongLongMap in = new LongLongMap();
+            LongLongMap out = new LongLongMap();
+            for (Flow f : flows) {
+                if (f.toInvestmentTypeId() != null) in.addTo(f.toInvestmentTypeId(), f.amountCents());
+                if (f.fromInvestmentTypeId() != null) out.addTo(f.fromInvestmentTypeId(), f.amountCents());
+            }
+            return new FlowTotals(in, out);
+        }
+
+        static Map<LocalDate, FlowTotals> byDate(List<Flow> flows) {
+            Map<LocalDate, List<Flow>> grouped = new HashMap<>();
+            for (Flow f : flows) {
+                grouped.computeIfAbsent(f.date(), k -> new ArrayList<>()).add(f);
+            }
+            Map<LocalDate, FlowTotals> out = new HashMap<>();
+            grouped.forEach((d, list) -> out.put(d, of(list)));
+            return out;
+        }
+
+        long in(long investmentTypeId) {
+            return inCents.getOrDefault(investmentTypeId, 0L);
+        }
+
+        long out(long investmentTypeId) {
+            return outCents.getOrDefault(investmentTypeId, 0L);
+        }
+    }
+
+    /** {@code range} precisa conter {@code date} e o dia anterior. */
+    private DailySummary summaryFrom(SnapshotRange range, List<InvestmentType> types, LocalDate date,
+                                     FlowTotals flows) {
         LocalDate prev = date.minusDays(1);
-        DailyEntry prevEntry = loadEntry(prev);
 
-        long cashCents = entry.cashCents();
-        long prevCashCents = prevEntry.cashCents();
+        long cashCents = range.cashCents(date);
+        long prevCashCents = range.cashCents(prev);
         long cashDeltaCents = cashCents - prevCashCents;
 
-        Map<Long, Long> investmentTodayCents = new HashMap<>();
-        Map<Long, Long> investmentProfitTodayCents = new HashMap<>();
+        LongLongMap investmentTodayCents = new LongLongMap(types.size());
+        LongLongMap investmentProfitTodayCents = new LongLongMap(types.size());
 
         long totalInvCents = 0;
         long totalProfitCents = 0;
 
-        for (var entryMap : entry.investmentValuesCents().entrySet()) {
-            InvestmentType t = entryMap.getKey();
-            long todayCents = entryMap.getValue() != null ? entryMap.getValue() : 0L;
-
-            // Buscar valor de ontem
-            long yesterdayCents = 0L;
-            for (var prevMap : prevEntry.investmentValuesCents().entrySet()) {
-                if (prevMap.getKey().id() == t.id()) {
-                    yesterdayCents = prevMap.getValue() != null ? prevMap.getValue() : 0L;
-                    break;
-                }
-            }
+        for (InvestmentType t : types) {
+            long todayCents = range.investmentCents(date, t.id());
+            long yesterdayCents = range.investmentCents(prev, t.id());
 
-            investmentTodayCents.put((long) t.id(), todayCents);
+            investmentTodayCents.put(t.id(), todayCents);
 
-            // Calcular lucro considerando fluxos
-            List<Flow> flows = flowsFor(date);
-            long flowsInCents = 0;
-            long flowsOutCents = 0;
-
-            for (Flow f : flows) {
-                // Fluxo para este investimento
-                if (f.toInvestmentTypeId() != null && f.toInvestmentTypeId() == t.id()) {
-                    flowsInCents += f.amountCents();
-                }
-                // Fluxo saindo deste investimento
-                if (f.fromInvestmentTypeId() != null && f.fromInvestmentTypeId() == t.id()) {
-                    flowsOutCents += f.amountCents();
-                }
-            }
+            // Calcular lucro considerando fluxos (entrando e saindo deste investimento)
+            long flowsInCents = flows.in(t.id());
+            long flowsOutCents = flows.out(t.id());
 
             long profitCents = todayCents - yesterdayCents - flowsInCents + flowsOutCents;
-            investmentProfitTodayCents.put((long) t.id(), profitCents);
+            investmentProfitTodayCents.put(t.id(), profitCents);
 
             totalInvCents += todayCents;
             totalProfitCents += profitCents;
@@ -510,35 +729,45 @@ public final class DailyTrackingUseCase {
     public record SeriesPoint(LocalDate date, long valueCents) {}
 
     public List<SeriesPoint> seriesForInvestment(int investmentTypeId) {
-        Map<String, Long> data = snapshotRepo.seriesForInvestiments(investmentTypeId);
-        List<SeriesPoint> points = new ArrayList<>();
-
-        for (var entry : data.entrySet()) {
-            LocalDate date = LocalDate.parse(entry.getKey());
-            points.add(new SeriesPoint(date, entry.getValue()));
+        TimeSeriesStore.Window all = seriesStore.all(investmentTypeId);
+        List<SeriesPoint> points = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i++) {
+            points.add(new SeriesPoint(all.dateAt(i), all.centsAt(i)));
         }
-
         return points;
     }
 
+    /** Últimos {@code days} dias da série do ativo, direto do cache em memória. */
+    public TimeSeriesStore.Window seriesWindow(int investmentTypeId, int days) {
+        return seriesStore.lastDays(investmentTypeId, days);
+    }
+
+    public TimeSeriesStore.Window seriesWindow(int investmentTypeId, LocalDate from, LocalDate to) {
+        return seriesStore.window(investmentTypeId, from, to);
+    }
+
     // ========== RANGE SUMMARY ==========
 
     public record RangeSummary(
             long totalProfitCents,
-            Map<Long, Long> profitByInvestmentCents
+            LongLongMap profitByInvestmentCents
     ) {}
 
     public RangeSummary rangeSummary(LocalDate from, LocalDate to) {
-        DailySummary first = summaryFor(from);
-        DailySummary last = summaryFor(to);
+        // Só os dois extremos (cada um com o dia anterior): o custo não cresce
+        // com o tamanho do período
+        List<InvestmentType> types = typeRepo.listAll();
+        DailySummary first = summaryAt(types, from);
+        DailySummary last = from.equals(to) ? first : summaryAt(types, to);
 
         long totalProfit = last.totalProfitTodayCents() - first.totalProfitTodayCents();
 
-        Map<Long, Long> profitByInv = new HashMap<>();
-        for (Long invId : last.investmentProfitTodayCents().keySet()) {
-            long lastProfit = last.investmentProfitTodayCents().getOrDefault(invId, 0L);
-            long firstProfit = first.investmentProfitTodayCents().getOrDefault(invId, 0L);
-            profitByInv.put(invId, lastProfit - firstProfit);
+        LongLongMap lastProfits = last.investmentProfitTodayCents();
+        LongLongMap firstProfits = first.investmentProfitTodayCents();
+        LongLongMap profitByInv = new LongLongMap(lastProfits.size());
+        for (int i = 0; i < lastProfits.size(); i++) {
+            long invId = lastProfits.keyAt(i);
+            profitByInv.put(invId, lastProfits.valueAt(i) - firstProfits.getOrDefault(invId, 0L));
         }
 
         return new RangeSummary(totalProfit, profitByInv);
@@ -2,6 +2,7 @@ package com.daniel.core.service;
 
 import com.daniel.core.domain.entity.Enums.CategoryEnum;
 import com.daniel.core.domain.entity.InvestmentType;
+import com.daniel.core.util.LongLongMap;
 
 import java.util.*;
 
@@ -30,6 +31,14 @@ public final class DiversificationCalculator {
     public static DiversificationData calculateCurrent(
             List<InvestmentType> investments,
             Map<Long, Long> currentValues
+    ) {
+        return calculateCurrent(investments, LongLongMap.copyOf(currentValues));
+    }
+
+    /** Mesmo cálculo, sem boxing por posição. */
+    public static DiversificationData calculateCurrent(
+            List<InvestmentType> investments,
+            LongLongMap currentValues
     ) {
         Map<CategoryEnum, Long> valuesByCategory = new HashMap<>();
         long total = 0L;
@@ -40,7 +49,7 @@ public final class DiversificationCalculator {
 
             try {
                 CategoryEnum cat = CategoryEnum.valueOf(inv.category());
-                long value = currentValues.getOrDefault((long) inv.id(), 0L);
+                long value = currentValues.getOrDefault(inv.id(), 0L);
 
                 valuesByCategory.merge(cat, value, Long::sum);
                 total += value;
@@ -94,6 +103,24 @@ public final class DiversificationCalculator {
             long currentValueCents,
             int months,
             double cdiAnnualRate
+    ) {
+        // Calcular projeção CDI
+        double monthlyRate = Math.pow(1 + cdiAnnualRate, 1.0 / 12) - 1;
+        double cdiMultiplier = Math.pow(1 + monthlyRate, months);
+        return compareWithCDIFactor(initialValueCents, currentValueCents, cdiMultiplier);
+    }
+
+    /**
+     * Igual a {@link #compareWithCDI}, mas com o fator acumulado real do CDI
+     * no período (ex.: {@link BenchmarkSeries#factor}) em vez de uma taxa
+     * anual constante projetada para trás.
+     *
+     * @param cdiMultiplier Fator acumulado do CDI (ex: 1.12 = +12% no período)
+     */
+    public static CDIComparison compareWithCDIFactor(
+            long initialValueCents,
+            long currentValueCents,
+            double cdiMultiplier
     ) {
         // Calcular rentabilidade da carteira
         long portfolioProfit = currentValueCents - initialValueCents;
@@ -101,9 +128,6 @@ public final class DiversificationCalculator {
                 ? (portfolioProfit * 100.0 / initialValueCents)
                 : 0.0;
 
-        // Calcular projeção CDI
-        double monthlyRate = Math.pow(1 + cdiAnnualRate, 1.0 / 12) - 1;
-        double cdiMultiplier = Math.pow(1 + monthlyRate, months);
         long cdiProjected = Math.round(initialValueCents * cdiMultiplier);
         long cdiProfit = cdiProjected - initialValueCents;
         double cdiRate = initialValueCents > 0
@@ -130,6 +154,9 @@ public final class DiversificationCalculator {
      * Calcula o patrimônio total somando cash + investimentos
      */
     public static long calculateTotalPatrimony(long cashCents, Map<Long, Long> investmentValues) {
+        if (investmentValues instanceof LongLongMap primitive) {
+            return cashCents + primitive.sumValues();
+        }
         long total = cashCents;
         for (long value : investmentValues.values()) {
             total += value;
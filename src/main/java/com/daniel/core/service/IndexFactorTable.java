@@ -0,0 +1,158 @@
+package com.daniel.core.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fatores acumulados de um índice (CDI, SELIC, IPCA) pré-calculados uma vez
+ * por carga do histórico: {@code cum[i]} é o produto de {@code (1 + taxa)} dos
+ * {@code i} primeiros períodos, e {@code rank} leva cada dia coberto direto ao
+ * primeiro período que começa nele ou depois.
+ *
+ * O fator entre duas datas sai de duas consultas e uma divisão
+ * ({@code cum[rank(to)] / cum[rank(from)]}); no IPCA mensal os meses das
+ * pontas entram pro rata pelos dias corridos. Para X% do índice a tabela
+ * escalada ({@code 1 + X·taxa}) é montada na primeira consulta daquele
+ * percentual e reaproveitada.
+ *
+ * Imutável depois de construída (o cache de percentuais é concorrente):
+ * pode ser compartilhada entre threads.
+ */
+public final class IndexFactorTable {
+
+    /** Dias úteis por ano na convenção do CDI/SELIC. */
+    static final double BUSINESS_DAYS_PER_YEAR = 252.0;
+
+    // Limita quantas tabelas escaladas ficam em memória (cada uma ~8 bytes por período)
+    private static final int MAX_SCALED_TABLES = 32;
+
+    private final BenchmarkSeries.Periodicity periodicity;
+    private final int[] days;
+    private final int[] ends;
+    private final double[] rates;
+    private final double[] cum;
+    private final int firstDay;
+    private final int endDay;
+    private final int[] rank;
+    private final Map<Double, double[]> scaled = new ConcurrentHashMap<>();
+
+    /**
+     * @param days  dias epoch crescentes do início de cada período
+     * @param rates taxa decimal de cada período
+     */
+    IndexFactorTable(BenchmarkSeries.Periodicity periodicity, int[] days, double[] rates) {
+        this.periodicity = periodicity;
+        this.days = days;
+        this.rates = rates;
+
+        int n = days.length;
+        this.ends = new int[n];
+        for (int i = 0; i < n; i++) {
+            ends[i] = periodicity == BenchmarkSeries.Periodicity.DAILY
+                    ? days[i] + 1
+                    : (int) LocalDate.ofEpochDay(days[i]).plusMonths(1).toEpochDay();
+        }
+        this.cum = prefix(rates, 1.0);
+
+        this.firstDay = n == 0 ? 0 : days[0];
+        this.endDay = n == 0 ? 0 : ends[n - 1];
+        this.rank = new int[endDay - firstDay + 1];
+        int i = 0;
+        for (int d = firstDay; d <= endDay; d++) {
+            while (i < n && days[i] < d) i++;
+            rank[d - firstDay] = i;
+        }
+    }
+
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    /** Fator de {@code from} até {@code to} a 100% do índice, recortado ao histórico. */
+    public double factor(LocalDate from, LocalDate to) {
+        return factor(from, to, 1.0);
+    }
+
+    /**
+     * Fator de {@code from} até {@code to} a {@code percentOfIndex} do índice
+     * (1.10 = 110%), recortado a {@code [primeiro dado, fim do último período)}.
+     * 1.0 se o intervalo é vazio.
+     */
+    public double factor(LocalDate from, LocalDate to, double percentOfIndex) {
+        if (isEmpty() || !from.isBefore(to)) return 1.0;
+        int s = clamp((int) from.toEpochDay());
+        int e = clamp((int) to.toEpochDay());
+        if (s >= e) return 1.0;
+
+        double[] c = cumFor(percentOfIndex);
+        if (periodicity == BenchmarkSeries.Periodicity.DAILY) {
+            return c[rankOf(e)] / c[rankOf(s)];
+        }
+
+        // Mensal: meses inteiros pela tabela, meses das pontas pro rata
+        int i = rankOf(s + 1) - 1;
+        int j = rankOf(e) - 1;
+        if (i == j) return partial(i, e - s, percentOfIndex);
+        double head = partial(i, ends[i] - s, percentOfIndex);
+        double tail = partial(j, e - days[j], percentOfIndex);
+        return head * (c[j] / c[i + 1]) * tail;
+    }
+
+    /**
+     * Como {@link #factor(LocalDate, LocalDate, double)}, mas o trecho depois
+     * do último dado publicado é projetado repetindo a última taxa (CDI/SELIC
+     * em 252 dias úteis por ano, IPCA em 12 meses por ano). Para marcação de
+     * posições até hoje, quando o BCB ainda não publicou os dias mais recentes.
+     */
+    public double projectedFactor(LocalDate from, LocalDate to, double percentOfIndex) {
+        if (isEmpty() || !from.isBefore(to)) return 1.0;
+        int s = (int) from.toEpochDay();
+        int e = (int) to.toEpochDay();
+        double f = factor(from, to, percentOfIndex);
+
+        int tailDays = e - Math.max(s, endDay);
+        if (tailDays <= 0) return f;
+        double periodsPerYear = periodicity == BenchmarkSeries.Periodicity.DAILY ? BUSINESS_DAYS_PER_YEAR : 12.0;
+        double last = 1 + percentOfIndex * rates[rates.length - 1];
+        return f * Math.pow(last, tailDays * periodsPerYear / 365.0);
+    }
+
+    /** Taxa decimal do último período publicado (0 se vazia). */
+    public double lastRate() {
+        return isEmpty() ? 0.0 : rates[rates.length - 1];
+    }
+
+    private double partial(int month, int overlap, double percentOfIndex) {
+        double base = 1 + percentOfIndex * rates[month];
+        int length = ends[month] - days[month];
+        return overlap == length ? base : Math.pow(base, overlap / (double) length);
+    }
+
+    private double[] cumFor(double percentOfIndex) {
+        if (percentOfIndex == 1.0) return cum;
+        double[] c = scaled.get(percentOfIndex);
+        if (c != null) return c;
+        c = prefix(rates, percentOfIndex);
+        if (scaled.size() < MAX_SCALED_TABLES) scaled.putIfAbsent(percentOfIndex, c);
+        return c;
+    }
+
+    private static double[] prefix(double[] rates, double scale) {
+        double[] c = new double[rates.length + 1];
+        c[0] = 1.0;
+        for (int i = 0; i < rates.length; i++) {
+            c[i + 1] = c[i] * (1 + scale * rates[i]);
+        }
+        return c;
+    }
+
+    private int clamp(int day) {
+        return Math.max(firstDay, Math.min(endDay, day));
+    }
+
+    /** Primeiro período com início >= {@code day} (dia já recortado). */
+    private int rankOf(int day) {
+        return rank[day - firstDay];
+    }
+}
@@ -1,5 +1,8 @@
 package com.daniel.core.service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
 public final class InvestmentCalculator {
 
     // 1. Prefixado
@@ -18,6 +21,15 @@ public final class InvestmentCalculator {
         return capitalInicial * Math.pow(1 + taxaEfetiva, tempo);
     }
 
+    // 2b. Pós-fixado pelo histórico do índice (X% do CDI/SELIC/IPCA entre duas datas)
+    public static double calculatePosfixado(double capitalInicial,
+                                            double percentualIndice,
+                                            IndexFactorTable indice,
+                                            LocalDate inicio,
+                                            LocalDate fim) {
+        return capitalInicial * indice.projectedFactor(inicio, fim, percentualIndice);
+    }
+
     // 3. Híbrido (Inflação)
     public static double calculateHibrido(double capitalInicial,
                                           double taxaFixa,
@@ -27,6 +39,18 @@ public final class InvestmentCalculator {
         return capitalInicial * Math.pow(1 + taxaFinal, tempo);
     }
 
+    // 3b. Híbrido pelo histórico da inflação: índice acumulado × taxa fixa em dias corridos
+    public static double calculateHibrido(double capitalInicial,
+                                          double taxaFixa,
+                                          IndexFactorTable inflacao,
+                                          LocalDate inicio,
+                                          LocalDate fim) {
+        long dias = ChronoUnit.DAYS.between(inicio, fim);
+        if (dias <= 0) return capitalInicial;
+        return capitalInicial * inflacao.projectedFactor(inicio, fim, 1.0)
+                * Math.pow(1 + taxaFixa, dias / 365.0);
+    }
+
     // 4. Ações
     public record StockCalculation(
             double valorInvestido,
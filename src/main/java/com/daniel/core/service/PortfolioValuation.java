@@ -0,0 +1,45 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.entity.InvestmentType;
+import com.daniel.core.util.LongLongMap;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fotografia imutável da carteira numa data: valor atual e valor investido de
+ * cada posição, mais os totais. Calculada uma vez por (data, versão dos dados)
+ * em {@link DailyTrackingUseCase#valuation(LocalDate)} e compartilhada por
+ * todas as páginas durante um refresh.
+ */
+public record PortfolioValuation(
+        LocalDate date,
+        long dataVersion,
+        List<InvestmentType> investments,
+        LongLongMap currentValuesCents,
+        LongLongMap investedValuesCents,
+        long totalCurrentCents,
+        long totalInvestedCents
+) {
+    public PortfolioValuation {
+        investments = List.copyOf(investments);
+        currentValuesCents = LongLongMap.copyOf(currentValuesCents).freeze();
+        investedValuesCents = LongLongMap.copyOf(investedValuesCents).freeze();
+    }
+
+    public long totalProfitCents() {
+        return totalCurrentCents - totalInvestedCents;
+    }
+
+    public long currentValueCents(long investmentId) {
+        return currentValuesCents.getOrDefault(investmentId, 0L);
+    }
+
+    public long investedValueCents(long investmentId) {
+        return investedValuesCents.getOrDefault(investmentId, 0L);
+    }
+
+    public boolean isEmpty() {
+        return investments.isEmpty();
+    }
+}
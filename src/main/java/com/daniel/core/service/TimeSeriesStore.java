@@ -0,0 +1,169 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.repository.ISnapshotRepository;
+import com.daniel.core.util.LongLongMap;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Histórico de valor de cada investimento em memória, em formato colunar:
+ * um {@code int[]} de dias epoch (crescente) e um {@code long[]} de centavos
+ * por ativo.
+ *
+ * A série de um ativo é lida do banco na primeira consulta (via
+ * {@link ISnapshotRepository#scanSeries}) e, a partir daí, mantida em dia
+ * por {@link #record(LocalDate, Map)} a cada snapshot gravado. Janelas por
+ * data saem por busca binária, sem voltar ao banco.
+ */
+public final class TimeSeriesStore {
+
+    /** Recorte de uma série: dias epoch e centavos, em ordem crescente de data. */
+    public record Window(int[] days, long[] cents) {
+
+        public static final Window EMPTY = new Window(new int[0], new long[0]);
+
+        public int size() {
+            return days.length;
+        }
+
+        public boolean isEmpty() {
+            return days.length == 0;
+        }
+
+        public LocalDate dateAt(int i) {
+            return LocalDate.ofEpochDay(days[i]);
+        }
+
+        public long centsAt(int i) {
+            return cents[i];
+        }
+    }
+
+    private final ISnapshotRepository snapshotRepo;
+    private final Map<Long, Column> columns = new HashMap<>();
+
+    public TimeSeriesStore(ISnapshotRepository snapshotRepo) {
+        this.snapshotRepo = snapshotRepo;
+    }
+
+    /** Pontos com data em [from, to]. */
+    public synchronized Window window(long investmentTypeId, LocalDate from, LocalDate to) {
+        Column c = column(investmentTypeId);
+        int start = c.lowerBound(toDay(from));
+        int end = c.lowerBound(toDay(to) + 1);
+        return c.slice(start, end);
+    }
+
+    /**
+     * Os últimos {@code days} dias corridos da série, terminando no último
+     * ponto registrado (não em hoje: uma série parada continua visível).
+     */
+    public synchronized Window lastDays(long investmentTypeId, int days) {
+        Column c = column(investmentTypeId);
+        if (c.size == 0 || days <= 0) return Window.EMPTY;
+        int lastDay = c.days[c.size - 1];
+        return c.slice(c.lowerBound(lastDay - days + 1), c.size);
+    }
+
+    /** A série inteira. */
+    public synchronized Window all(long investmentTypeId) {
+        Column c = column(investmentTypeId);
+        return c.slice(0, c.size);
+    }
+
+    /**
+     * Aplica valores recém-gravados (id → centavos) às séries já carregadas.
+     * Séries ainda não lidas são ignoradas: virão do banco, já com eles.
+     */
+    public synchronized void record(LocalDate date, Map<Long, Long> valuesCents) {
+        if (columns.isEmpty() || valuesCents.isEmpty()) return;
+        int day = toDay(date);
+        if (valuesCents instanceof LongLongMap primitive) {
+            for (int i = 0; i < primitive.size(); i++) {
+                Column c = columns.get(primitive.keyAt(i));
+                if (c != null) c.put(day, primitive.valueAt(i));
+            }
+        } else {
+            for (var e : valuesCents.entrySet()) {
+                Column c = columns.get(e.getKey());
+                if (c != null) c.put(day, e.getValue());
+            }
+        }
+    }
+
+    /** Descarta a série do ativo; a próxima consulta relê do banco. */
+    public synchronized void invalidate(long investmentTypeId) {
+        columns.remove(investmentTypeId);
+    }
+
+    public synchronized void clear() {
+        columns.clear();
+    }
+
+    public synchronized boolean isLoaded(long investmentTypeId) {
+        return columns.containsKey(investmentTypeId);
+    }
+
+    // ---------------- internals ----------------
+
+    private Column column(long investmentTypeId) {
+        Column c = columns.get(investmentTypeId);
+        if (c == null) {
+            Column loaded = new Column();
+            snapshotRepo.scanSeries(investmentTypeId, (day, cents) -> loaded.put(Math.toIntExact(day), cents));
+            columns.put(investmentTypeId, loaded);
+            c = loaded;
+        }
+        return c;
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private static final class Column {
+        int[] days = new int[16];
+        long[] cents = new long[16];
+        int size;
+
+        /** Primeira posição com dia >= {@code day} (ou {@code size}). */
+        int lowerBound(int day) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] < day) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /** Insere ou sobrescreve; o caso comum (dia novo no fim) é um append. */
+        void put(int day, long value) {
+            int i = (size == 0 || days[size - 1] < day) ? size : lowerBound(day);
+            if (i < size && days[i] == day) {
+                cents[i] = value;
+                return;
+            }
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            if (i < size) {
+                System.arraycopy(days, i, days, i + 1, size - i);
+                System.arraycopy(cents, i, cents, i + 1, size - i);
+            }
+            days[i] = day;
+            cents[i] = value;
+            size++;
+        }
+
+        Window slice(int from, int to) {
+            if (from >= to) return Window.EMPTY;
+            return new Window(Arrays.copyOfRange(days, from, to), Arrays.copyOfRange(cents, from, to));
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.daniel.core.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Mapa long → long sem boxing, para ids de investimento → centavos.
+ *
+ * As entradas ficam em dois arrays densos (ordem de inserção; uma remoção
+ * move a última entrada para o buraco) e um índice de endereçamento aberto
+ * com sondagem linear aponta para elas. As operações primitivas
+ * ({@link #getOrDefault(long, long)}, {@link #put(long, long)},
+ * {@link #addTo(long, long)}, {@link #keyAt(int)}/{@link #valueAt(int)})
+ * não alocam.
+ *
+ * Também é um {@code Map<Long, Long>} completo, para circular pelas APIs que
+ * já recebem mapas boxed; equals/hashCode seguem o contrato de {@link Map}.
+ */
+public final class LongLongMap extends AbstractMap<Long, Long> {
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    // índice: posição da entrada + 1 (0 = vazio); tamanho potência de 2
+    private int[] slots;
+    private int mask;
+
+    private boolean frozen;
+
+    public LongLongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongLongMap(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        keys = new long[capacity];
+        values = new long[capacity];
+        allocateSlots(tableSizeFor(capacity));
+    }
+
+    /** Cópia mutável de qualquer {@code Map<Long, Long>}. */
+    public static LongLongMap copyOf(Map<Long, Long> source) {
+        if (source instanceof LongLongMap other) {
+            LongLongMap copy = new LongLongMap(other.size);
+            for (int i = 0; i < other.size; i++) {
+                copy.put(other.keys[i], other.values[i]);
+            }
+            return copy;
+        }
+        LongLongMap copy = new LongLongMap(source.size());
+        for (var e : source.entrySet()) {
+            copy.put(e.getKey().longValue(), e.getValue().longValue());
+        }
+        return copy;
+    }
+
+    /** Torna este mapa somente leitura e o devolve. */
+    public LongLongMap freeze() {
+        frozen = true;
+        return this;
+    }
+
+    // ---------------- API primitiva ----------------
+
+    public long getOrDefault(long key, long defaultValue) {
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public void put(long key, long value) {
+        checkMutable();
+        int i = indexOf(key);
+        if (i >= 0) {
+            values[i] = value;
+        } else {
+            insert(key, value);
+        }
+    }
+
+    /** Soma {@code delta} ao valor da chave (0 se ausente) e devolve o resultado. */
+    public long addTo(long key, long delta) {
+        checkMutable();
+        int i = indexOf(key);
+        if (i >= 0) {
+            return values[i] += delta;
+        }
+        insert(key, delta);
+        return delta;
+    }
+
+    /** Chave da i-ésima entrada, {@code 0 <= i < size()}. */
+    public long keyAt(int i) {
+        return keys[checkIndex(i)];
+    }
+
+    /** Valor da i-ésima entrada, {@code 0 <= i < size()}. */
+    public long valueAt(int i) {
+        return values[checkIndex(i)];
+    }
+
+    public void forEachEntry(LongLongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    public long sumValues() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += values[i];
+        return total;
+    }
+
+    // ---------------- Map<Long, Long> ----------------
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Long k && indexOf(k) >= 0;
+    }
+
+    @Override
+    public Long get(Object key) {
+        if (!(key instanceof Long k)) return null;
+        int i = indexOf(k);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public Long put(Long key, Long value) {
+        checkMutable();
+        int i = indexOf(key);
+        if (i >= 0) {
+            long previous = values[i];
+            values[i] = value;
+            return previous;
+        }
+        insert(key, value);
+        return null;
+    }
+
+    @Override
+    public Long remove(Object key) {
+        checkMutable();
+        if (!(key instanceof Long k)) return null;
+        int slot = slotOf(k);
+        if (slot < 0) return null;
+        int i = slots[slot] - 1;
+        long removed = values[i];
+        deleteSlot(slot);
+
+        int last = size - 1;
+        if (i != last) {
+            keys[i] = keys[last];
+            values[i] = values[last];
+            slots[slotOf(keys[i])] = i + 1;
+        }
+        size--;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<Long, Long>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Long, Long>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Map.Entry<Long, Long> next() {
+                        if (next >= size) throw new NoSuchElementException();
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(keys[i], values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // ---------------- internals ----------------
+
+    private int indexOf(long key) {
+        int slot = slotOf(key);
+        return slot < 0 ? -1 : slots[slot] - 1;
+    }
+
+    private int slotOf(long key) {
+        for (int s = hash(key) & mask; ; s = (s + 1) & mask) {
+            int ref = slots[s];
+            if (ref == 0) return -1;
+            if (keys[ref - 1] == key) return s;
+        }
+    }
+
+    private void insert(long key, long value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+
+        if (size * 2 > slots.length) {
+            allocateSlots(slots.length * 2);
+            for (int i = 0; i < size; i++) place(i);
+        } else {
+            place(size - 1);
+        }
+    }
+
+    private void place(int entry) {
+        int s = hash(keys[entry]) & mask;
+        while (slots[s] != 0) s = (s + 1) & mask;
+        slots[s] = entry + 1;
+    }
+
+    /** Remoção com deslocamento para trás: mantém as cadeias de sondagem sem lápides. */
+    private void deleteSlot(int hole) {
+        slots[hole] = 0;
+        for (int s = (hole + 1) & mask; slots[s] != 0; s = (s + 1) & mask) {
+            int home = hash(keys[slots[s] - 1]) & mask;
+            if (((s - home) & mask) >= ((s - hole) & mask)) {
+                slots[hole] = slots[s];
+                slots[s] = 0;
+                hole = s;
+            }
+        }
+    }
+
+    private void allocateSlots(int tableSize) {
+        slots = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(Math.max(MIN_CAPACITY, capacity) * 2 - 1) * 2;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return i;
+    }
+
+    private void checkMutable() {
+        if (frozen) throw new UnsupportedOperationException("LongLongMap congelado");
+    }
+}
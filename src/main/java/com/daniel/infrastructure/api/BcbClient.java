@@ -1,17 +1,31 @@
 package com.daniel.infrastructure.api;
 
+import com.daniel.core.domain.entity.BenchmarkRate;
+import com.daniel.core.domain.entity.IndexPoint;
+import com.daniel.core.domain.repository.IBenchmarkRateRepository;
+import com.daniel.infrastructure.config.AppExecutors;
 import okhttp3.*;
-import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 public final class BcbClient {
 
     private static final String BASE_URL = "https://api.bcb.gov.br/dados/serie/bcdata.sgs.";
     private static final String SUFFIX = "/dados/ultimos/1?formato=json";
+    private static final DateTimeFormatter SGS_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     // SELIC (432): taxa anual em % → decimal anual (ex: 13.25 → 0.1325)
     // CDI   (12):  taxa DIÁRIA em % → convertida para decimal anual
@@ -22,12 +36,7 @@ public final class BcbClient {
 
     private static final long CACHE_TTL_MS = TimeUnit.HOURS.toMillis(1);
 
-    private static final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(10, TimeUnit.SECONDS)
-            .build();
-
-    private static final Gson gson = new Gson();
+    private static final OkHttpClient client = HttpTransport.newClient().build();
 
     private record CachedRate(double value, long timestamp) {
         boolean isExpired() {
@@ -37,6 +46,68 @@ public final class BcbClient {
 
     private static final Map<Integer, CachedRate> cache = new ConcurrentHashMap<>();
 
+    // Persistência do último valor de cada série; definida pelo AppConfig
+    // (o bloco estático não pode tocar no banco).
+    private static volatile IBenchmarkRateRepository store;
+
+    /**
+     * Últimos valores conhecidos de CDI, SELIC e IPCA (taxa anual decimal), o
+     * instante da consulta mais recente entre eles (0 se nenhum) e se as três
+     * estão dentro da validade do cache.
+     */
+    public record Rates(Optional<Double> cdi, Optional<Double> selic, Optional<Double> ipca,
+                        long updatedAtMillis, boolean upToDate) {
+        public boolean isComplete() {
+            return cdi.isPresent() && selic.isPresent() && ipca.isPresent();
+        }
+    }
+
+    /**
+     * Liga o cache ao banco: carrega os valores salvos (valem mesmo vencidos,
+     * até a próxima consulta) e passa a gravar cada valor novo.
+     */
+    public static void useStore(IBenchmarkRateRepository repository) {
+        store = repository;
+        try {
+            for (BenchmarkRate r : repository.loadAll().values()) {
+                Integer seriesId = seriesId(r.series());
+                if (seriesId != null) {
+                    cache.merge(seriesId, new CachedRate(r.annualRate(), r.updatedAtMillis()),
+                            (mem, disk) -> mem.timestamp >= disk.timestamp ? mem : disk);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[BCB] Falha ao carregar taxas salvas: " + e.getMessage());
+        }
+    }
+
+    /** Taxas em memória/salvas, sem rede: para a tela abrir já com números. */
+    public static Rates cachedRates() {
+        return new Rates(cachedValue(SERIES_CDI), cachedValue(SERIES_SELIC), cachedValue(SERIES_IPCA),
+                lastUpdated(SERIES_CDI, SERIES_SELIC, SERIES_IPCA),
+                isFresh(SERIES_CDI) && isFresh(SERIES_SELIC) && isFresh(SERIES_IPCA));
+    }
+
+    /**
+     * Busca as três séries em paralelo (as que estiverem no cache há menos de
+     * uma hora não vão à rede). Série que falhar mantém o último valor
+     * conhecido. Nunca completa com exceção; cancelar aborta as chamadas.
+     */
+    public static CompletableFuture<Rates> refreshRatesAsync() {
+        CompletableFuture<Optional<Double>> cdi = fetchCdiAsync();
+        CompletableFuture<Optional<Double>> selic = fetchSelicAsync();
+        CompletableFuture<Optional<Double>> ipca = fetchIpcaAsync();
+        CompletableFuture<Rates> all = CompletableFuture.allOf(cdi, selic, ipca).thenApply(v -> cachedRates());
+        all.whenComplete((v, e) -> {
+            if (all.isCancelled()) {
+                cdi.cancel(true);
+                selic.cancel(true);
+                ipca.cancel(true);
+            }
+        });
+        return all;
+    }
+
     public static Optional<Double> fetchSelic() {
         return fetchRate(SERIES_SELIC);
     }
@@ -49,57 +120,219 @@ public final class BcbClient {
         return fetchRate(SERIES_IPCA);
     }
 
+    /** Versões assíncronas (enqueue): nunca completam com exceção; cancelar aborta a chamada. */
+    public static CompletableFuture<Optional<Double>> fetchSelicAsync() {
+        return fetchRateAsync(SERIES_SELIC);
+    }
+
+    public static CompletableFuture<Optional<Double>> fetchCdiAsync() {
+        return fetchRateAsync(SERIES_CDI);
+    }
+
+    public static CompletableFuture<Optional<Double>> fetchIpcaAsync() {
+        return fetchRateAsync(SERIES_IPCA);
+    }
+
     private static Optional<Double> fetchRate(int seriesId) {
         CachedRate cached = cache.get(seriesId);
         if (cached != null && !cached.isExpired()) {
             return Optional.of(cached.value);
         }
 
-        try {
-            String url = BASE_URL + seriesId + SUFFIX;
+        try (Response response = client.newCall(rateRequest(seriesId)).execute()) {
+            return decodeRate(seriesId, response);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
 
-            Request request = new Request.Builder()
-                    .url(url)
-                    .get()
-                    .addHeader("User-Agent", "Investment-Tracker/1.0")
-                    .build();
+    private static CompletableFuture<Optional<Double>> fetchRateAsync(int seriesId) {
+        CachedRate cached = cache.get(seriesId);
+        if (cached != null && !cached.isExpired()) {
+            return CompletableFuture.completedFuture(Optional.of(cached.value));
+        }
+        return HttpFutures.enqueue(client, rateRequest(seriesId),
+                response -> decodeRate(seriesId, response), e -> Optional.empty());
+    }
 
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful() || response.body() == null) {
-                    return Optional.empty();
-                }
+    private static Request rateRequest(int seriesId) {
+        return new Request.Builder()
+                .url(BASE_URL + seriesId + SUFFIX)
+                .get()
+                .addHeader("User-Agent", "Investment-Tracker/1.0")
+                .build();
+    }
 
-                String json = response.body().string();
-                JsonArray array = gson.fromJson(json, JsonArray.class);
+    private static Optional<Double> decodeRate(int seriesId, Response response) throws IOException {
+        if (!response.isSuccessful() || response.body() == null) {
+            return Optional.empty();
+        }
 
-                if (array == null || array.isEmpty()) {
-                    return Optional.empty();
+        double percent = readLastValue(response.body().charStream());
+        if (Double.isNaN(percent)) {
+            return Optional.empty();
+        }
+
+        // Normalizar para decimal anual
+        double decimal;
+        if (seriesId == SERIES_CDI) {
+            // CDI retorna taxa DIÁRIA em % → converter para anual
+            double dailyDecimal = percent / 100.0;
+            decimal = Math.pow(1 + dailyDecimal, 252) - 1;
+        } else if (seriesId == SERIES_IPCA) {
+            // IPCA retorna variação MENSAL em % → converter para anual
+            double monthlyDecimal = percent / 100.0;
+            decimal = Math.pow(1 + monthlyDecimal, 12) - 1;
+        } else {
+            // SELIC retorna taxa ANUAL em % → apenas dividir por 100
+            decimal = percent / 100.0;
+        }
+
+        long now = System.currentTimeMillis();
+        cache.put(seriesId, new CachedRate(decimal, now));
+        persist(seriesId, decimal, now);
+        return Optional.of(decimal);
+    }
+
+    private static void persist(int seriesId, double annualRate, long updatedAtMillis) {
+        IBenchmarkRateRepository repository = store;
+        if (repository == null) return;
+        BenchmarkRate rate = new BenchmarkRate(seriesName(seriesId), annualRate, updatedAtMillis);
+
+        // decodeRate chega aqui pelo callback do OkHttp; o upsert não segura o dispatcher
+        try {
+            AppExecutors.io().execute(() -> {
+                try {
+                    repository.upsert(rate);
+                } catch (RuntimeException e) {
+                    System.err.println("[BCB] Falha ao salvar taxa: " + e.getMessage());
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            // app encerrando: a taxa fica só no cache em memória
+        }
+    }
 
-                JsonObject entry = array.get(0).getAsJsonObject();
-                String valorStr = entry.get("valor").getAsString();
-                double percent = Double.parseDouble(valorStr.replace(",", "."));
-
-                // Normalizar para decimal anual
-                double decimal;
-                if (seriesId == SERIES_CDI) {
-                    // CDI retorna taxa DIÁRIA em % → converter para anual
-                    double dailyDecimal = percent / 100.0;
-                    decimal = Math.pow(1 + dailyDecimal, 252) - 1;
-                } else if (seriesId == SERIES_IPCA) {
-                    // IPCA retorna variação MENSAL em % → converter para anual
-                    double monthlyDecimal = percent / 100.0;
-                    decimal = Math.pow(1 + monthlyDecimal, 12) - 1;
-                } else {
-                    // SELIC retorna taxa ANUAL em % → apenas dividir por 100
-                    decimal = percent / 100.0;
+    private static Optional<Double> cachedValue(int seriesId) {
+        CachedRate cached = cache.get(seriesId);
+        return cached == null ? Optional.empty() : Optional.of(cached.value);
+    }
+
+    private static boolean isFresh(int seriesId) {
+        CachedRate cached = cache.get(seriesId);
+        return cached != null && !cached.isExpired();
+    }
+
+    private static long lastUpdated(int... seriesIds) {
+        long latest = 0;
+        for (int id : seriesIds) {
+            CachedRate cached = cache.get(id);
+            if (cached != null) latest = Math.max(latest, cached.timestamp);
+        }
+        return latest;
+    }
+
+    static String seriesName(int seriesId) {
+        return switch (seriesId) {
+            case SERIES_CDI -> "CDI";
+            case SERIES_SELIC -> "SELIC";
+            case SERIES_IPCA -> "IPCA";
+            default -> String.valueOf(seriesId);
+        };
+    }
+
+    static Integer seriesId(String name) {
+        return switch (name) {
+            case "CDI" -> SERIES_CDI;
+            case "SELIC" -> SERIES_SELIC;
+            case "IPCA" -> SERIES_IPCA;
+            default -> null;
+        };
+    }
+
+    /**
+     * Pontos da série SGS {@code seriesId} entre as datas (inclusive), em %
+     * do período, com o nome {@code seriesName}. Intervalo sem dados (o SGS
+     * responde 404) devolve lista vazia; falha de rede ou resposta inválida
+     * lança exceção, para quem ingere não avançar sobre um buraco.
+     */
+    public static List<IndexPoint> fetchSeries(String seriesName, int seriesId, LocalDate from, LocalDate to) {
+        HttpUrl url = HttpUrl.parse(BASE_URL + seriesId + "/dados").newBuilder()
+                .addQueryParameter("formato", "json")
+                .addQueryParameter("dataInicial", from.format(SGS_DATE))
+                .addQueryParameter("dataFinal", to.format(SGS_DATE))
+                .build();
+        Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .addHeader("User-Agent", "Investment-Tracker/1.0")
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) return List.of();
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("HTTP " + response.code());
+            }
+            return readSeries(seriesName, response.body().charStream());
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Falha ao baixar série " + seriesId + " do BCB: " + e.getMessage(), e);
+        }
+    }
+
+    /** Lê em streaming {@code [{"data": "dd/MM/yyyy", "valor": "..."}]}; itens sem data ou valor são ignorados. */
+    static List<IndexPoint> readSeries(String seriesName, Reader in) throws IOException {
+        try (JsonReader r = new JsonReader(in)) {
+            List<IndexPoint> points = new ArrayList<>();
+            r.beginArray();
+            while (r.hasNext()) {
+                String date = null;
+                String value = null;
+                r.beginObject();
+                while (r.hasNext()) {
+                    String name = r.nextName();
+                    if (r.peek() == JsonToken.NULL) {
+                        r.nextNull();
+                    } else if (name.equals("data")) {
+                        date = r.nextString();
+                    } else if (name.equals("valor")) {
+                        value = r.nextString();
+                    } else {
+                        r.skipValue();
+                    }
+                }
+                r.endObject();
+                if (date != null && value != null && !value.isBlank()) {
+                    points.add(new IndexPoint(seriesName, LocalDate.parse(date, SGS_DATE),
+                            Double.parseDouble(value.replace(",", "."))));
                 }
+            }
+            r.endArray();
+            return points;
+        }
+    }
 
-                cache.put(seriesId, new CachedRate(decimal, System.currentTimeMillis()));
-                return Optional.of(decimal);
+    /**
+     * Lê em streaming a resposta do SGS ({@code [{"data": "...", "valor": "..."}]})
+     * e devolve o {@code valor} do último item, em %; NaN se não houver.
+     * Aceita vírgula decimal.
+     */
+    static double readLastValue(Reader in) throws IOException {
+        try (JsonReader r = new JsonReader(in)) {
+            double last = Double.NaN;
+            r.beginArray();
+            while (r.hasNext()) {
+                r.beginObject();
+                while (r.hasNext()) {
+                    if (r.nextName().equals("valor") && r.peek() != JsonToken.NULL) {
+                        last = Double.parseDouble(r.nextString().replace(",", "."));
+                    } else {
+                        r.skipValue();
+                    }
+                }
+                r.endObject();
             }
-        } catch (Exception e) {
-            return Optional.empty();
+            r.endArray();
+            return last;
         }
     }
 }
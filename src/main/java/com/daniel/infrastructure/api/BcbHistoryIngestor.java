@@ -0,0 +1,87 @@
+package com.daniel.infrastructure.api;
+
+import com.daniel.core.domain.entity.IndexPoint;
+import com.daniel.core.domain.repository.IIndexHistoryRepository;
+import com.daniel.core.service.BenchmarkHistory;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ingestão incremental das séries históricas do SGS no banco local: para
+ * cada série pede só o que falta depois do último ponto salvo (ou tudo desde
+ * {@code start}, na primeira vez), em janelas de {@link #WINDOW_YEARS} anos —
+ * o SGS recusa consultas longas de séries diárias.
+ *
+ * Cada janela é gravada assim que chega: uma falha no meio não perde o que
+ * já veio, e a próxima ingestão continua do ponto onde parou.
+ */
+public final class BcbHistoryIngestor {
+
+    /** Série do SGS com o nome usado no banco. */
+    public record Series(String name, int sgsId) {}
+
+    // CDI (12) e SELIC diária (11): % ao dia útil; IPCA (433): % no mês.
+    // A SELIC daqui é a taxa diária efetiva, não a meta anual (432) do BcbClient.
+    public static final List<Series> DEFAULT_SERIES = List.of(
+            new Series(BenchmarkHistory.CDI, 12),
+            new Series(BenchmarkHistory.SELIC, 11),
+            new Series(BenchmarkHistory.IPCA, 433));
+
+    public static final LocalDate DEFAULT_START = LocalDate.of(2000, 1, 1);
+    static final int WINDOW_YEARS = 5;
+
+    @FunctionalInterface
+    interface Fetcher {
+        List<IndexPoint> fetch(String seriesName, int sgsId, LocalDate from, LocalDate to);
+    }
+
+    private final IIndexHistoryRepository repo;
+    private final List<Series> series;
+    private final LocalDate start;
+    private final Fetcher fetcher;
+
+    public BcbHistoryIngestor(IIndexHistoryRepository repo) {
+        this(repo, DEFAULT_SERIES, DEFAULT_START, BcbClient::fetchSeries);
+    }
+
+    BcbHistoryIngestor(IIndexHistoryRepository repo, List<Series> series, LocalDate start, Fetcher fetcher) {
+        this.repo = repo;
+        this.series = series;
+        this.start = start;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Baixa o que falta de todas as séries até {@code today}. Uma série que
+     * falha não impede as outras. Devolve quantos pontos novos foram gravados.
+     */
+    public int ingestAll(LocalDate today) {
+        int total = 0;
+        for (Series s : series) {
+            try {
+                total += ingest(s, today);
+            } catch (RuntimeException e) {
+                System.err.println("[BCB] Ingestão de " + s.name() + " interrompida: " + e.getMessage());
+            }
+        }
+        return total;
+    }
+
+    int ingest(Series s, LocalDate today) {
+        LocalDate last = repo.lastDate(s.name());
+        LocalDate from = last == null ? start : last.plusDays(1);
+
+        int added = 0;
+        while (!from.isAfter(today)) {
+            LocalDate to = from.plusYears(WINDOW_YEARS).minusDays(1);
+            if (to.isAfter(today)) to = today;
+
+            List<IndexPoint> points = fetcher.fetch(s.name(), s.sgsId(), from, to);
+            repo.upsertAll(points);
+            added += points.size();
+            from = to.plusDays(1);
+        }
+        return added;
+    }
+}
@@ -1,12 +1,21 @@
 package com.daniel.infrastructure.api;
 
+import com.daniel.core.domain.entity.Quote;
+import com.daniel.core.domain.repository.IQuoteRepository;
+import com.daniel.infrastructure.config.AppExecutors;
 import com.daniel.infrastructure.persistence.repository.AppSettingsRepository;
+import com.daniel.infrastructure.persistence.repository.QuoteRepository;
+import com.daniel.infrastructure.persistence.repository.TickerRepository;
 import okhttp3.*;
 import com.google.gson.*;
+import com.google.gson.stream.MalformedJsonException;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 public final class BrapiClient {
@@ -17,13 +26,55 @@ public final class BrapiClient {
 
     public static final String SETTINGS_KEY_TOKEN = "brapi_token";
 
-    private static final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(10, TimeUnit.SECONDS)
+    // Limite de requisições: ajustável ao plano contratado via SETTINGS_KEY_RATE_LIMIT
+    public static final String SETTINGS_KEY_RATE_LIMIT = "brapi_requests_per_minute";
+    public static final int DEFAULT_REQUESTS_PER_MINUTE = 60;
+    private static final int RATE_BURST = 10;
+
+    private static final ResilienceInterceptor resilience = new ResilienceInterceptor(
+            TokenBucket.perMinute(DEFAULT_REQUESTS_PER_MINUTE, RATE_BURST),
+            new RetryBudget(0.2, 10),
+            new CircuitBreaker(5, Duration.ofSeconds(30)),
+            Duration.ofSeconds(3));
+
+    private static final OkHttpClient client = HttpTransport.newClient()
+            .addInterceptor(resilience)
             .build();
 
     private static final Gson gson = new Gson();
     private static final AppSettingsRepository settingsRepo = new AppSettingsRepository();
+    private static final IQuoteRepository quoteRepo = new QuoteRepository();
+
+    // Pedidos idênticos simultâneos viram uma só chamada HTTP
+    private record FlightKey(String tickers, String token) {}
+    private static final SingleFlight<FlightKey, StockData> quoteFlights = new SingleFlight<>();
+    private static final SingleFlight<FlightKey, Map<String, StockData>> batchFlights = new SingleFlight<>();
+
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final TickerUniverse tickerUniverse = new TickerUniverse(
+            TickerUniverse.DEFAULT_REFRESH_INTERVAL,
+            BrapiClient::fetchAvailableTickers,
+            new TickerRepository(),
+            AppExecutors.io());
+
+    /** Limite salvo em {@link #SETTINGS_KEY_RATE_LIMIT} (requisições/minuto) ou o padrão. */
+    public static int requestsPerMinuteFrom(AppSettingsRepository settings) {
+        return settings.get(SETTINGS_KEY_RATE_LIMIT)
+                .map(String::trim)
+                .filter(v -> v.matches("\\d+"))
+                .map(Integer::parseInt)
+                .filter(v -> v > 0)
+                .orElse(DEFAULT_REQUESTS_PER_MINUTE);
+    }
+
+    public static void setRequestsPerMinute(int requestsPerMinute) {
+        resilience.setRateLimiter(TokenBucket.perMinute(requestsPerMinute, Math.min(RATE_BURST, requestsPerMinute)));
+    }
+
+    /** Estado do disjuntor, do limitador de taxa e do orçamento de retentativas. */
+    public static ResilienceInterceptor.Status resilienceStatus() {
+        return resilience.status();
+    }
 
     private static String getToken() {
         return settingsRepo.get(SETTINGS_KEY_TOKEN).orElse(null);
@@ -90,109 +141,139 @@ public final class BrapiClient {
 
     public static StockData fetchStockDataWithToken(String ticker, String token) throws IOException {
         if (ticker == null || ticker.isBlank()) {
-            return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0, "Ticker inválido");
+            return errorData(ticker, "Ticker inválido");
         }
 
+        return quoteFlights.run(new FlightKey(normalizeTicker(ticker), token), () -> {
+            try (Response response = client.newCall(quoteRequest(ticker, token)).execute()) {
+                return decodeSingle(ticker, response);
+            } catch (Exception e) {
+                return failedData(ticker, e);
+            }
+        });
+    }
+
+    /**
+     * Versão assíncrona de {@link #fetchStockData}: não ocupa thread enquanto
+     * espera a rede. Nunca completa com exceção (erros vêm em
+     * {@link StockData#error()}); cancelar o future aborta a chamada.
+     */
+    public static CompletableFuture<StockData> fetchStockDataAsync(String ticker) {
+        return fetchStockDataWithTokenAsync(ticker, getToken());
+    }
+
+    public static CompletableFuture<StockData> fetchStockDataWithTokenAsync(String ticker, String token) {
+        if (ticker == null || ticker.isBlank()) {
+            return CompletableFuture.completedFuture(errorData(ticker, "Ticker inválido"));
+        }
+        return quoteFlights.submit(new FlightKey(normalizeTicker(ticker), token),
+                () -> HttpFutures.enqueue(client, quoteRequest(ticker, token),
+                        response -> decodeSingle(ticker, response),
+                        e -> failedData(ticker, e)));
+    }
+
+    /**
+     * Chamadas HTTP feitas versus pedidos atendidos por uma chamada idêntica
+     * já em curso (cotação única e em lote somadas).
+     */
+    public static SingleFlight.Stats requestCoalescingStats() {
+        return quoteFlights.stats().plus(batchFlights.stats());
+    }
+
+    private static String normalizeTicker(String ticker) {
+        return ticker.toUpperCase().trim();
+    }
+
+    /** Conjunto de tickers em forma canônica: "vale3, PETR4" e "PETR4,VALE3" viram a mesma chave. */
+    static String canonicalTickers(String tickers) {
+        TreeSet<String> set = new TreeSet<>();
+        for (String t : tickers.split(",")) {
+            String n = normalizeTicker(t);
+            if (!n.isEmpty()) set.add(n);
+        }
+        return String.join(",", set);
+    }
+
+    private static Request quoteRequest(String tickers, String token) {
         String url = appendToken(
-                BASE_URL + QUOTE_ENDPOINT + "/" + ticker.toUpperCase().trim(), token);
+                BASE_URL + QUOTE_ENDPOINT + "/" + tickers.toUpperCase().trim(), token);
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
                 .get()
+                .cacheControl(HttpTransport.NO_STORE)
                 .addHeader("User-Agent", "Investment-Tracker/1.0")
                 .build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0,
-                        "Erro HTTP: " + response.code());
-            }
+    private static StockData decodeSingle(String ticker, Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            return errorData(ticker, "Erro HTTP: " + response.code());
+        }
 
-            String jsonResponse = response.body().string();
-            JsonObject root = gson.fromJson(jsonResponse, JsonObject.class);
+        BrapiJson.Quotes quotes = BrapiJson.readQuotes(response.body().charStream());
 
-            if (root.has("error")) {
-                String errorMsg = root.get("error").getAsString();
-                return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0, errorMsg);
-            }
+        if (quotes.hasError()) {
+            return errorData(ticker, quotes.error());
+        }
 
-            JsonArray results = root.getAsJsonArray("results");
-            if (results == null || results.size() == 0) {
-                return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0,
-                        "Ação não encontrada");
-            }
+        if (quotes.results().isEmpty()) {
+            return errorData(ticker, "Ação não encontrada");
+        }
 
-            JsonObject stock = results.get(0).getAsJsonObject();
-
-            return new StockData(
-                    getStringOrNull(stock, "symbol"),
-                    getStringOrNull(stock, "logourl"),
-                    getStringOrNull(stock, "longName"),
-                    getDoubleOrZero(stock, "regularMarketPrice"),
-                    getDoubleOrZero(stock, "regularMarketChange"),
-                    getDoubleOrZero(stock, "regularMarketChangePercent"),
-                    getDoubleOrZero(stock, "regularMarketOpen"),
-                    getDoubleOrZero(stock, "regularMarketDayHigh"),
-                    getDoubleOrZero(stock, "regularMarketDayLow"),
-                    getLongOrZero(stock, "regularMarketVolume"),
-                    getDoubleOrZero(stock, "fiftyTwoWeekHigh"),
-                    getDoubleOrZero(stock, "fiftyTwoWeekLow"),
-                    getDoubleOrZero(stock, "twoHundredDayAverage"),
-                    getStringOrNull(stock, "currency"),
-                    getDoubleOrZero(stock, "dividendYield"),
-                    null
-            );
-
-        } catch (JsonSyntaxException e) {
-            return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0,
-                    "Erro ao parsear JSON: " + e.getMessage());
-        } catch (Exception e) {
-            return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0,
-                    "Erro: " + e.getMessage());
+        StockData data = quotes.results().get(0);
+        persistQuotes(List.of(data));
+        return data;
+    }
+
+    private static StockData errorData(String ticker, String error) {
+        return new StockData(ticker, null, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0, error);
+    }
+
+    static StockData failedData(String ticker, Throwable e) {
+        if (e instanceof JsonSyntaxException || e instanceof MalformedJsonException
+                || e instanceof IllegalStateException) {
+            return errorData(ticker, "Erro ao parsear JSON: " + e.getMessage());
         }
+        return errorData(ticker, "Erro: " + e.getMessage());
     }
 
     /**
-     * Busca tickers por nome/código (autocomplete)
+     * Busca tickers por código (autocomplete), no universo salvo localmente
+     * ({@link TickerUniverse}); prefixos vêm antes de ocorrências no meio.
      */
     public static List<TickerSuggestion> searchTickers(String query) throws IOException {
         if (query == null || query.isBlank() || query.length() < 2) {
             return new ArrayList<>();
         }
 
-        String url = BASE_URL + AVAILABLE_ENDPOINT;
+        List<TickerSuggestion> suggestions = new ArrayList<>();
+        for (String ticker : tickerUniverse.search(query, MAX_SUGGESTIONS)) {
+            suggestions.add(new TickerSuggestion(ticker, ticker, "stock"));
+        }
+        return suggestions;
+    }
 
+    /**
+     * Lista completa de tickers negociáveis ({@code /available}); vazia em
+     * caso de erro. Usada pelo {@link TickerUniverse}.
+     */
+    public static List<String> fetchAvailableTickers() {
         Request request = new Request.Builder()
-                .url(url)
+                .url(BASE_URL + AVAILABLE_ENDPOINT)
                 .get()
                 .addHeader("User-Agent", "Investment-Tracker/1.0")
                 .build();
 
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
-                return new ArrayList<>();
-            }
-
-            String jsonResponse = response.body().string();
-            JsonObject root = gson.fromJson(jsonResponse, JsonObject.class);
-
-            List<TickerSuggestion> suggestions = new ArrayList<>();
-
-            if (root.has("stocks")) {
-                JsonArray stocks = root.getAsJsonArray("stocks");
-                for (JsonElement element : stocks) {
-                    String ticker = element.getAsString();
-                    if (ticker.toLowerCase().contains(query.toLowerCase())) {
-                        suggestions.add(new TickerSuggestion(ticker, ticker, "stock"));
-                    }
-                }
+                return List.of();
             }
 
-            // Limitar a 10 sugestões
-            return suggestions.size() > 10 ? suggestions.subList(0, 10) : suggestions;
+            return BrapiJson.readAvailable(response.body().charStream());
 
         } catch (Exception e) {
-            return new ArrayList<>();
+            return List.of();
         }
     }
 
@@ -221,78 +302,100 @@ public final class BrapiClient {
      * Busca múltiplas ações de uma vez
      */
     public static Map<String, StockData> fetchMultipleStocks(String tickers) throws IOException {
-        Map<String, StockData> results = new HashMap<>();
+        String canonical = canonicalTickers(tickers);
+        String token = getToken();
+        return batchFlights.run(new FlightKey(canonical, token), () -> {
+            try (Response response = client.newCall(quoteRequest(canonical, token)).execute()) {
+                return decodeMultiple(response);
+            } catch (Exception e) {
+                return Map.of();
+            }
+        });
+    }
 
-        String url = appendToken(
-                BASE_URL + QUOTE_ENDPOINT + "/" + tickers.toUpperCase().trim(), getToken());
+    /**
+     * Versão assíncrona de {@link #fetchMultipleStocks}; falhas viram mapa vazio.
+     * O mapa pode ser compartilhado com outros chamadores e é imutável.
+     */
+    public static CompletableFuture<Map<String, StockData>> fetchMultipleStocksAsync(String tickers) {
+        String canonical = canonicalTickers(tickers);
+        String token = getToken();
+        return batchFlights.submit(new FlightKey(canonical, token),
+                () -> HttpFutures.enqueue(client, quoteRequest(canonical, token),
+                        BrapiClient::decodeMultiple, e -> Map.of()));
+    }
 
-        Request request = new Request.Builder()
-                .url(url)
-                .get()
-                .addHeader("User-Agent", "Investment-Tracker/1.0")
-                .build();
+    private static Map<String, StockData> decodeMultiple(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            return Map.of();
+        }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                return results;
+        BrapiJson.Quotes quotes = BrapiJson.readQuotes(response.body().charStream());
+        if (quotes.hasError()) {
+            return Map.of();
+        }
+
+        Map<String, StockData> results = new HashMap<>();
+        for (StockData data : quotes.results()) {
+            if (data.ticker() != null) {
+                results.put(data.ticker(), data);
             }
+        }
 
-            String jsonResponse = response.body().string();
-            JsonObject root = gson.fromJson(jsonResponse, JsonObject.class);
+        persistQuotes(results.values());
+        return Collections.unmodifiableMap(results);
+    }
 
-            if (root.has("error")) {
-                return results;
-            }
+    // ── Persistência das cotações (write-through) ──
 
-            JsonArray resultsArray = root.getAsJsonArray("results");
-            if (resultsArray == null) {
-                return results;
+    /** Salva as cotações válidas como a cotação do dia de cada ticker. */
+    private static void persistQuotes(Collection<StockData> data) {
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        List<Quote> quotes = new ArrayList<>();
+        for (StockData d : data) {
+            if (d != null && d.isValid() && d.ticker() != null) {
+                quotes.add(toQuote(d, today, now));
             }
+        }
+        if (quotes.isEmpty()) return;
 
-            for (JsonElement element : resultsArray) {
-                JsonObject stock = element.getAsJsonObject();
-                String symbol = getStringOrNull(stock, "symbol");
-
-                if (symbol != null) {
-                    StockData data = new StockData(
-                            symbol,
-                            getStringOrNull(stock, "logourl"),
-                            getStringOrNull(stock, "longName"),
-                            getDoubleOrZero(stock, "regularMarketPrice"),
-                            getDoubleOrZero(stock, "regularMarketChange"),
-                            getDoubleOrZero(stock, "regularMarketChangePercent"),
-                            getDoubleOrZero(stock, "regularMarketOpen"),
-                            getDoubleOrZero(stock, "regularMarketDayHigh"),
-                            getDoubleOrZero(stock, "regularMarketDayLow"),
-                            getLongOrZero(stock, "regularMarketVolume"),
-                            getDoubleOrZero(stock, "fiftyTwoWeekHigh"),
-                            getDoubleOrZero(stock, "fiftyTwoWeekLow"),
-                            getDoubleOrZero(stock, "twoHundredDayAverage"),
-                            getStringOrNull(stock, "currency"),
-                            getDoubleOrZero(stock, "dividendYield"),
-                            null
-                    );
-
-                    results.put(symbol, data);
+        // A decodificação roda na thread do dispatcher do OkHttp: a escrita
+        // (que espera a vez no banco) vai para o executor de I/O
+        try {
+            AppExecutors.io().execute(() -> {
+                try {
+                    quoteRepo.upsertAll(quotes);
+                } catch (RuntimeException e) {
+                    System.err.println("[QUOTES] Falha ao salvar cotações: " + e.getMessage());
                 }
-            }
-
-            return results;
-
-        } catch (Exception e) {
-            return results;
+            });
+        } catch (RejectedExecutionException e) {
+            // app encerrando: a cotação só não fica salva
         }
     }
 
-    // Helper methods
+    static Quote toQuote(StockData d, LocalDate date, long updatedAtMillis) {
+        return new Quote(
+                d.ticker().trim().toUpperCase(),
+                date,
+                d.regularMarketPrice(),
+                d.regularMarketChange(),
+                d.regularMarketChangePercent(),
+                d.regularMarketVolume(),
+                updatedAtMillis
+        );
+    }
 
-    private static String getStringOrNull(JsonObject obj, String key) {
-        if (!obj.has(key) || obj.get(key).isJsonNull()) {
-            return null;
-        }
-        return obj.get(key).getAsString();
+    /** StockData mínimo (preço, variação, volume) a partir de uma cotação salva. */
+    public static StockData fromQuote(Quote q) {
+        return new StockData(q.ticker(), null, null,
+                q.price(), q.change(), q.changePercent(),
+                0, 0, 0, q.volume(), 0, 0, 0, "BRL", 0, null);
     }
 
+    // Helper methods
+
     private static double getDoubleOrZero(JsonObject obj, String key) {
         if (!obj.has(key) || obj.get(key).isJsonNull()) {
             return 0.0;
@@ -304,17 +407,6 @@ public final class BrapiClient {
         }
     }
 
-    private static long getLongOrZero(JsonObject obj, String key) {
-        if (!obj.has(key) || obj.get(key).isJsonNull()) {
-            return 0L;
-        }
-        try {
-            return obj.get(key).getAsLong();
-        } catch (Exception e) {
-            return 0L;
-        }
-    }
-
     // ── Cache para retorno anualizado do IBOVESPA ──
     private static final long IBOV_CACHE_TTL_MS = TimeUnit.HOURS.toMillis(1);
     private static volatile double cachedIbovReturn = Double.NaN;
@@ -325,10 +417,8 @@ public final class BrapiClient {
      * Requer token configurado. Retorna decimal anual (ex: 0.15 = 15%).
      */
     public static Optional<Double> fetchIbovespaReturn() {
-        if (!Double.isNaN(cachedIbovReturn)
-                && System.currentTimeMillis() - cachedIbovTimestamp < IBOV_CACHE_TTL_MS) {
-            return Optional.of(cachedIbovReturn);
-        }
+        Optional<Double> cached = cachedIbov();
+        if (cached.isPresent()) return cached;
 
         String token = getToken();
         if (token == null || token.isBlank()) {
@@ -337,28 +427,21 @@ public final class BrapiClient {
         }
 
         // Tentar histórico 3mo (máximo do plano gratuito)
-        Optional<Double> hist = fetchIbovFromHistorical(token);
+        Optional<Double> hist;
+        try (Response response = client.newCall(ibovHistoricalRequest(token)).execute()) {
+            hist = decodeIbovHistorical(response);
+        } catch (Exception e) {
+            hist = ibovHistoricalFailed(e);
+        }
         if (hist.isPresent()) {
-            cachedIbovReturn = hist.get();
-            cachedIbovTimestamp = System.currentTimeMillis();
-            return hist;
+            return cacheIbov(hist.get());
         }
 
         // Fallback: quote básico — usa regularMarketChangePercent (variação diária)
         // anualizado como estimativa grosseira
         System.err.println("[IBOV] Histórico falhou, tentando quote básico...");
         try {
-            StockData data = fetchStockData("^BVSP");
-            if (data != null && data.isValid()) {
-                double dailyPct = data.regularMarketChangePercent() / 100.0;
-                double annualized = Math.pow(1 + dailyPct, 252) - 1;
-                cachedIbovReturn = annualized;
-                cachedIbovTimestamp = System.currentTimeMillis();
-                System.err.println("[IBOV] Fallback quote: diário="
-                        + String.format("%.4f%%", dailyPct * 100)
-                        + " anualizado=" + String.format("%.2f%%", annualized * 100));
-                return Optional.of(annualized);
-            }
+            return ibovFromQuote(fetchStockData("^BVSP"));
         } catch (Exception e) {
             System.err.println("[IBOV] Fallback quote falhou: " + e.getMessage());
         }
@@ -366,104 +449,149 @@ public final class BrapiClient {
         return Optional.empty();
     }
 
-    private static Optional<Double> fetchIbovFromHistorical(String token) {
-        try {
-            HttpUrl httpUrl = HttpUrl.parse(BASE_URL + QUOTE_ENDPOINT + "/%5EBVSP")
-                    .newBuilder()
-                    .addQueryParameter("range", "3mo")
-                    .addQueryParameter("interval", "1mo")
-                    .addQueryParameter("token", token.trim())
-                    .build();
-
-            System.err.println("[IBOV] URL: " + httpUrl.toString().replaceAll("token=.*", "token=***"));
-
-            Request request = new Request.Builder()
-                    .url(httpUrl)
-                    .get()
-                    .addHeader("User-Agent", "Investment-Tracker/1.0")
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                if (response.body() == null) {
-                    System.err.println("[IBOV] body nulo, HTTP " + response.code());
-                    return Optional.empty();
-                }
+    /** Versão assíncrona de {@link #fetchIbovespaReturn}; cancelar aborta o histórico em curso. */
+    public static CompletableFuture<Optional<Double>> fetchIbovespaReturnAsync() {
+        Optional<Double> cached = cachedIbov();
+        if (cached.isPresent()) return CompletableFuture.completedFuture(cached);
 
-                String jsonResponse = response.body().string();
+        String token = getToken();
+        if (token == null || token.isBlank()) {
+            System.err.println("[IBOV] Token não encontrado");
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
 
-                if (!response.isSuccessful()) {
-                    System.err.println("[IBOV] HTTP " + response.code() + " body: " + jsonResponse);
-                    return Optional.empty();
-                }
+        CompletableFuture<Optional<Double>> hist = HttpFutures.enqueue(client, ibovHistoricalRequest(token),
+                BrapiClient::decodeIbovHistorical, BrapiClient::ibovHistoricalFailed);
+        return HttpFutures.linked(hist.thenCompose(h -> {
+            if (h.isPresent()) return CompletableFuture.completedFuture(cacheIbov(h.get()));
+            System.err.println("[IBOV] Histórico falhou, tentando quote básico...");
+            return fetchStockDataAsync("^BVSP").thenApply(BrapiClient::ibovFromQuote);
+        }), hist);
+    }
 
-                System.err.println("[IBOV] Resposta (500 chars): "
-                        + jsonResponse.substring(0, Math.min(jsonResponse.length(), 500)));
-
-                JsonObject root = gson.fromJson(jsonResponse, JsonObject.class);
-
-                // Checar campo error (pode ser boolean true ou string)
-                if (root.has("error")) {
-                    JsonElement errEl = root.get("error");
-                    if (errEl.isJsonPrimitive()) {
-                        JsonPrimitive ep = errEl.getAsJsonPrimitive();
-                        if ((ep.isBoolean() && ep.getAsBoolean()) || ep.isString()) {
-                            System.err.println("[IBOV] error: " + errEl);
-                            return Optional.empty();
-                        }
-                    } else {
-                        System.err.println("[IBOV] error (objeto): " + errEl);
-                        return Optional.empty();
-                    }
-                }
+    private static Optional<Double> cachedIbov() {
+        if (!Double.isNaN(cachedIbovReturn)
+                && System.currentTimeMillis() - cachedIbovTimestamp < IBOV_CACHE_TTL_MS) {
+            return Optional.of(cachedIbovReturn);
+        }
+        return Optional.empty();
+    }
 
-                JsonArray results = root.getAsJsonArray("results");
-                if (results == null || results.isEmpty()) {
-                    System.err.println("[IBOV] results vazio/nulo");
-                    return Optional.empty();
-                }
+    private static Optional<Double> cacheIbov(double annualReturn) {
+        cachedIbovReturn = annualReturn;
+        cachedIbovTimestamp = System.currentTimeMillis();
+        return Optional.of(annualReturn);
+    }
 
-                JsonObject result = results.get(0).getAsJsonObject();
-                System.err.println("[IBOV] Result keys: " + result.keySet());
+    private static Optional<Double> ibovFromQuote(StockData data) {
+        if (data == null || !data.isValid()) return Optional.empty();
+        double dailyPct = data.regularMarketChangePercent() / 100.0;
+        double annualized = Math.pow(1 + dailyPct, 252) - 1;
+        System.err.println("[IBOV] Fallback quote: diário="
+                + String.format("%.4f%%", dailyPct * 100)
+                + " anualizado=" + String.format("%.2f%%", annualized * 100));
+        return cacheIbov(annualized);
+    }
 
-                JsonArray hist = result.getAsJsonArray("historicalDataPrice");
-                if (hist == null || hist.isEmpty()) {
-                    System.err.println("[IBOV] historicalDataPrice nulo/vazio");
-                    return Optional.empty();
-                }
+    private static Request ibovHistoricalRequest(String token) {
+        HttpUrl httpUrl = HttpUrl.parse(BASE_URL + QUOTE_ENDPOINT + "/%5EBVSP")
+                .newBuilder()
+                .addQueryParameter("range", "3mo")
+                .addQueryParameter("interval", "1mo")
+                .addQueryParameter("token", token.trim())
+                .build();
+
+        System.err.println("[IBOV] URL: " + httpUrl.toString().replaceAll("token=.*", "token=***"));
+
+        return new Request.Builder()
+                .url(httpUrl)
+                .get()
+                .cacheControl(HttpTransport.NO_STORE)
+                .addHeader("User-Agent", "Investment-Tracker/1.0")
+                .build();
+    }
+
+    private static Optional<Double> ibovHistoricalFailed(Throwable e) {
+        System.err.println("[IBOV] Exceção hist: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        return Optional.empty();
+    }
 
-                System.err.println("[IBOV] hist entries=" + hist.size()
-                        + " primeira=" + hist.get(0)
-                        + " última=" + hist.get(hist.size() - 1));
+    private static Optional<Double> decodeIbovHistorical(Response response) throws IOException {
+        if (response.body() == null) {
+            System.err.println("[IBOV] body nulo, HTTP " + response.code());
+            return Optional.empty();
+        }
 
-                // Extrair preço: close → adjustedClose → open (fallback)
-                double firstPrice = extractPrice(hist.get(0).getAsJsonObject());
-                double lastPrice = extractPrice(hist.get(hist.size() - 1).getAsJsonObject());
+        String jsonResponse = response.body().string();
 
-                // Se último preço é 0 (mês incompleto), pegar o penúltimo
-                if (lastPrice <= 0 && hist.size() > 2) {
-                    lastPrice = extractPrice(hist.get(hist.size() - 2).getAsJsonObject());
-                }
+        if (!response.isSuccessful()) {
+            System.err.println("[IBOV] HTTP " + response.code() + " body: " + jsonResponse);
+            return Optional.empty();
+        }
 
-                System.err.println("[IBOV] firstPrice=" + firstPrice + " lastPrice=" + lastPrice);
+        System.err.println("[IBOV] Resposta (500 chars): "
+                + jsonResponse.substring(0, Math.min(jsonResponse.length(), 500)));
 
-                if (firstPrice <= 0 || lastPrice <= 0) {
-                    System.err.println("[IBOV] preço inválido");
+        JsonObject root = gson.fromJson(jsonResponse, JsonObject.class);
+
+        // Checar campo error (pode ser boolean true ou string)
+        if (root.has("error")) {
+            JsonElement errEl = root.get("error");
+            if (errEl.isJsonPrimitive()) {
+                JsonPrimitive ep = errEl.getAsJsonPrimitive();
+                if ((ep.isBoolean() && ep.getAsBoolean()) || ep.isString()) {
+                    System.err.println("[IBOV] error: " + errEl);
                     return Optional.empty();
                 }
+            } else {
+                System.err.println("[IBOV] error (objeto): " + errEl);
+                return Optional.empty();
+            }
+        }
+
+        JsonArray results = root.getAsJsonArray("results");
+        if (results == null || results.isEmpty()) {
+            System.err.println("[IBOV] results vazio/nulo");
+            return Optional.empty();
+        }
 
-                double retornoPeriodo = (lastPrice / firstPrice) - 1;
-                int meses = Math.max(hist.size() - 1, 1);
-                double retornoAnual = Math.pow(1 + retornoPeriodo, 12.0 / meses) - 1;
+        JsonObject result = results.get(0).getAsJsonObject();
+        System.err.println("[IBOV] Result keys: " + result.keySet());
 
-                System.err.println("[IBOV] Retorno " + meses + "m: "
-                        + String.format("%.2f%%", retornoPeriodo * 100)
-                        + " → anual: " + String.format("%.2f%%", retornoAnual * 100));
-                return Optional.of(retornoAnual);
-            }
-        } catch (Exception e) {
-            System.err.println("[IBOV] Exceção hist: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        JsonArray hist = result.getAsJsonArray("historicalDataPrice");
+        if (hist == null || hist.isEmpty()) {
+            System.err.println("[IBOV] historicalDataPrice nulo/vazio");
+            return Optional.empty();
+        }
+
+        System.err.println("[IBOV] hist entries=" + hist.size()
+                + " primeira=" + hist.get(0)
+                + " última=" + hist.get(hist.size() - 1));
+
+        // Extrair preço: close → adjustedClose → open (fallback)
+        double firstPrice = extractPrice(hist.get(0).getAsJsonObject());
+        double lastPrice = extractPrice(hist.get(hist.size() - 1).getAsJsonObject());
+
+        // Se último preço é 0 (mês incompleto), pegar o penúltimo
+        if (lastPrice <= 0 && hist.size() > 2) {
+            lastPrice = extractPrice(hist.get(hist.size() - 2).getAsJsonObject());
+        }
+
+        System.err.println("[IBOV] firstPrice=" + firstPrice + " lastPrice=" + lastPrice);
+
+        if (firstPrice <= 0 || lastPrice <= 0) {
+            System.err.println("[IBOV] preço inválido");
             return Optional.empty();
         }
+
+        double retornoPeriodo = (lastPrice / firstPrice) - 1;
+        int meses = Math.max(hist.size() - 1, 1);
+        double retornoAnual = Math.pow(1 + retornoPeriodo, 12.0 / meses) - 1;
+
+        System.err.println("[IBOV] Retorno " + meses + "m: "
+                + String.format("%.2f%%", retornoPeriodo * 100)
+                + " → anual: " + String.format("%.2f%%", retornoAnual * 100));
+        return Optional.of(retornoAnual);
     }
 
     private static double extractPrice(JsonObject entry) {
@@ -491,6 +619,12 @@ public final class BrapiClient {
         }
     }
 
+    /** Versão assíncrona de {@link #testConnectionWithToken}. */
+    public static CompletableFuture<Boolean> testConnectionWithTokenAsync(String token) {
+        CompletableFuture<StockData> test = fetchStockDataWithTokenAsync("PETR4", token);
+        return HttpFutures.linked(test.thenApply(StockData::isValid), test);
+    }
+
     public static boolean hasToken() {
         String token = getToken();
         return token != null && !token.isBlank();
@@ -0,0 +1,179 @@
+package com.daniel.infrastructure.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodificadores em streaming ({@link JsonReader}) das respostas da brapi.
+ *
+ * Leem direto do corpo da resposta para os records, sem montar a árvore
+ * {@code JsonObject} nem o corpo inteiro em {@code String}; campos que não
+ * interessam (ex.: {@code historicalDataPrice}) são pulados sem alocação.
+ * Tipos inesperados viram null/0, como nos antigos {@code getXOrZero}.
+ */
+final class BrapiJson {
+
+    /** Resultado de {@code /quote}: as cotações ou a mensagem do campo {@code error}. */
+    record Quotes(List<BrapiClient.StockData> results, String error) {
+        boolean hasError() {
+            return error != null;
+        }
+    }
+
+    private BrapiJson() {
+    }
+
+    /** Corpo de {@code /quote/{tickers}}. */
+    static Quotes readQuotes(Reader in) throws IOException {
+        try (JsonReader r = new JsonReader(in)) {
+            List<BrapiClient.StockData> results = new ArrayList<>();
+            String error = null;
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "results" -> {
+                        if (r.peek() != JsonToken.BEGIN_ARRAY) {
+                            r.skipValue();
+                            continue;
+                        }
+                        r.beginArray();
+                        while (r.hasNext()) {
+                            if (r.peek() == JsonToken.BEGIN_OBJECT) results.add(readStock(r));
+                            else r.skipValue();
+                        }
+                        r.endArray();
+                    }
+                    case "error" -> error = readError(r);
+                    default -> r.skipValue();
+                }
+            }
+            r.endObject();
+            return new Quotes(results, error);
+        }
+    }
+
+    /** Corpo de {@code /available}: só o array {@code stocks}. */
+    static List<String> readAvailable(Reader in) throws IOException {
+        try (JsonReader r = new JsonReader(in)) {
+            List<String> tickers = new ArrayList<>();
+            r.beginObject();
+            while (r.hasNext()) {
+                if (!r.nextName().equals("stocks") || r.peek() != JsonToken.BEGIN_ARRAY) {
+                    r.skipValue();
+                    continue;
+                }
+                r.beginArray();
+                while (r.hasNext()) {
+                    String t = readString(r);
+                    if (t != null) tickers.add(t);
+                }
+                r.endArray();
+            }
+            r.endObject();
+            return tickers;
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    private static BrapiClient.StockData readStock(JsonReader r) throws IOException {
+        String symbol = null;
+        String logoUrl = null;
+        String longName = null;
+        String currency = null;
+        double price = 0, change = 0, changePercent = 0, open = 0, high = 0, low = 0;
+        double high52 = 0, low52 = 0, avg200 = 0, dividendYield = 0;
+        long volume = 0;
+
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "symbol" -> symbol = readString(r);
+                case "logourl" -> logoUrl = readString(r);
+                case "longName" -> longName = readString(r);
+                case "currency" -> currency = readString(r);
+                case "regularMarketPrice" -> price = readDouble(r);
+                case "regularMarketChange" -> change = readDouble(r);
+                case "regularMarketChangePercent" -> changePercent = readDouble(r);
+                case "regularMarketOpen" -> open = readDouble(r);
+                case "regularMarketDayHigh" -> high = readDouble(r);
+                case "regularMarketDayLow" -> low = readDouble(r);
+                case "regularMarketVolume" -> volume = readLong(r);
+                case "fiftyTwoWeekHigh" -> high52 = readDouble(r);
+                case "fiftyTwoWeekLow" -> low52 = readDouble(r);
+                case "twoHundredDayAverage" -> avg200 = readDouble(r);
+                case "dividendYield" -> dividendYield = readDouble(r);
+                default -> r.skipValue();
+            }
+        }
+        r.endObject();
+
+        return new BrapiClient.StockData(symbol, logoUrl, longName,
+                price, change, changePercent, open, high, low, volume,
+                high52, low52, avg200, currency, dividendYield, null);
+    }
+
+    /** {@code error} pode vir como string, {@code true} ou objeto; false/null não é erro. */
+    private static String readError(JsonReader r) throws IOException {
+        return switch (r.peek()) {
+            case STRING -> r.nextString();
+            case BOOLEAN -> r.nextBoolean() ? "Erro na resposta da API" : null;
+            case NULL -> {
+                r.nextNull();
+                yield null;
+            }
+            default -> {
+                r.skipValue();
+                yield "Erro na resposta da API";
+            }
+        };
+    }
+
+    private static String readString(JsonReader r) throws IOException {
+        return switch (r.peek()) {
+            case STRING, NUMBER -> r.nextString();
+            case BOOLEAN -> Boolean.toString(r.nextBoolean());
+            default -> {
+                r.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static double readDouble(JsonReader r) throws IOException {
+        JsonToken t = r.peek();
+        if (t == JsonToken.NUMBER) return r.nextDouble();
+        if (t == JsonToken.STRING) {
+            try {
+                return Double.parseDouble(r.nextString());
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+        r.skipValue();
+        return 0.0;
+    }
+
+    private static long readLong(JsonReader r) throws IOException {
+        JsonToken t = r.peek();
+        if (t == JsonToken.NUMBER || t == JsonToken.STRING) {
+            String s = r.nextString();
+            try {
+                return Long.parseLong(s);
+            } catch (NumberFormatException e) {
+                try {
+                    return (long) Double.parseDouble(s);
+                } catch (NumberFormatException e2) {
+                    return 0L;
+                }
+            }
+        }
+        r.skipValue();
+        return 0L;
+    }
+}
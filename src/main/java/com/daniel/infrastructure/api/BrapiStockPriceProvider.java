@@ -1,17 +1,262 @@
 package com.daniel.infrastructure.api;
 
+import com.daniel.core.domain.entity.Quote;
+import com.daniel.core.domain.repository.IQuoteRepository;
 import com.daniel.core.domain.repository.IStockPriceProvider;
+import com.daniel.infrastructure.config.AppExecutors;
+import com.daniel.infrastructure.persistence.repository.AppSettingsRepository;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class BrapiStockPriceProvider implements IStockPriceProvider {
 
+    // brapi aceita vários tickers separados por vírgula em /quote/{tickers};
+    // limitamos por quantidade e por tamanho para manter a URL segura.
+    static final int MAX_TICKERS_PER_REQUEST = 20;
+    static final int MAX_TICKERS_CHARS_PER_REQUEST = 400;
+    private static final int MAX_PARALLEL_REQUESTS = 4;
+
+    // Lotes e revalidações rodam no executor de I/O (threads virtuais); o
+    // semáforo mantém o teto de requisições simultâneas à brapi.
+    private static final Semaphore parallelRequests = new Semaphore(MAX_PARALLEL_REQUESTS);
+
+    public static final String SETTINGS_KEY_QUOTE_TTL = "quote_cache_ttl_seconds";
+    public static final Duration DEFAULT_QUOTE_TTL = Duration.ofMinutes(5);
+    public static final int DEFAULT_QUOTE_CACHE_SIZE = 1_000;
+
+    private final QuoteCache quoteCache;
+    private final IQuoteRepository quoteRepo;
+
+    public BrapiStockPriceProvider() {
+        this(DEFAULT_QUOTE_TTL, DEFAULT_QUOTE_CACHE_SIZE, null);
+    }
+
+    /**
+     * @param quoteRepo cotações persistidas: semeiam o cache na partida (a tela
+     *                  abre com os últimos preços salvos enquanto a brapi é
+     *                  consultada em segundo plano) e servem de fallback quando
+     *                  a brapi não responde. Pode ser null.
+     */
+    public BrapiStockPriceProvider(Duration quoteTtl, int maxCachedQuotes, IQuoteRepository quoteRepo) {
+        this(quoteTtl, maxCachedQuotes, quoteRepo,
+                BrapiStockPriceProvider::loadOne, BrapiStockPriceProvider::loadMany);
+    }
+
+    BrapiStockPriceProvider(Duration quoteTtl, int maxCachedQuotes, IQuoteRepository quoteRepo,
+                            Function<String, BrapiClient.StockData> loader,
+                            Function<Collection<String>, Map<String, BrapiClient.StockData>> batchLoader) {
+        this(new QuoteCache(quoteTtl, maxCachedQuotes, loader, batchLoader, AppExecutors.io()), quoteRepo);
+    }
+
+    BrapiStockPriceProvider(QuoteCache quoteCache, IQuoteRepository quoteRepo) {
+        this.quoteRepo = quoteRepo;
+        this.quoteCache = quoteCache;
+        seedFromPersistedQuotes();
+    }
+
+    private void seedFromPersistedQuotes() {
+        if (quoteRepo == null) return;
+        try {
+            for (Quote q : quoteRepo.latestAll().values()) {
+                quoteCache.seed(BrapiClient.fromQuote(q), q.updatedAtMillis());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[QUOTES] Falha ao carregar cotações salvas: " + e.getMessage());
+        }
+    }
+
+    /** Última cotação persistida, usada quando a brapi não devolve o ticker. */
+    private BrapiClient.StockData persistedQuote(String ticker) {
+        if (quoteRepo == null) return null;
+        try {
+            Quote q = quoteRepo.latest(QuoteCache.normalize(ticker));
+            return q != null ? BrapiClient.fromQuote(q) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Últimas cotações persistidas dos tickers (já normalizados), numa única consulta. */
+    private Map<String, BrapiClient.StockData> persistedQuotes(Collection<String> tickers) {
+        if (quoteRepo == null || tickers.isEmpty()) return Map.of();
+        try {
+            Map<String, BrapiClient.StockData> out = new HashMap<>();
+            for (Quote q : quoteRepo.latest(tickers).values()) {
+                out.put(q.ticker(), BrapiClient.fromQuote(q));
+            }
+            return out;
+        } catch (RuntimeException e) {
+            return Map.of();
+        }
+    }
+
+    /** TTL salvo em {@link #SETTINGS_KEY_QUOTE_TTL} (segundos) ou o padrão. */
+    public static Duration quoteTtlFrom(AppSettingsRepository settings) {
+        return settings.get(SETTINGS_KEY_QUOTE_TTL)
+                .map(String::trim)
+                .filter(v -> v.matches("\\d+"))
+                .map(v -> Duration.ofSeconds(Long.parseLong(v)))
+                .orElse(DEFAULT_QUOTE_TTL);
+    }
+
+    public QuoteCache quoteCache() {
+        return quoteCache;
+    }
+
+    public QuoteCache.Stats quoteCacheStats() {
+        return quoteCache.stats();
+    }
+
     @Override
     public Double fetchPrice(String ticker) {
+        if (ticker == null || ticker.isBlank()) return null;
+        BrapiClient.StockData data = quoteCache.get(ticker);
+        // erro HTTP, ticker desconhecido, disjuntor aberto ou limite de taxa
+        // chegam como StockData inválido: vale a última cotação salva
+        if (data == null || !data.isValid()) data = persistedQuote(ticker);
+        if (data != null && data.isValid()) {
+            return data.regularMarketPrice();
+        }
+        return null;
+    }
+
+    /**
+     * Deduplica os tickers e resolve tudo pelo cache de cotações; as faltas
+     * vão em lote para {@link #loadMany} e, se ainda faltar, para a última
+     * cotação persistida.
+     */
+    @Override
+    public Map<String, Double> fetchPrices(Collection<String> tickers) {
+        // ticker normalizado → grafias originais pedidas pelo chamador
+        Map<String, List<String>> requested = new LinkedHashMap<>();
+        for (String t : tickers) {
+            if (t == null || t.isBlank()) continue;
+            requested.computeIfAbsent(QuoteCache.normalize(t), k -> new ArrayList<>()).add(t);
+        }
+        if (requested.isEmpty()) return Map.of();
+
+        Map<String, BrapiClient.StockData> quotes = quoteCache.getAll(requested.keySet());
+
+        // Faltas (offline, disjuntor aberto, ticker fora do lote): uma só consulta ao banco
+        List<String> missing = new ArrayList<>();
+        for (String t : requested.keySet()) {
+            BrapiClient.StockData data = quotes.get(t);
+            if (data == null || !data.isValid()) missing.add(t);
+        }
+        Map<String, BrapiClient.StockData> persisted = persistedQuotes(missing);
+
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (var e : requested.entrySet()) {
+            BrapiClient.StockData data = quotes.get(e.getKey());
+            if (data == null || !data.isValid()) data = persisted.get(e.getKey());
+            if (data == null || !data.isValid()) continue;
+            for (String original : e.getValue()) {
+                out.put(original, data.regularMarketPrice());
+            }
+        }
+        return out;
+    }
+
+    private static BrapiClient.StockData loadOne(String ticker) {
         try {
-            BrapiClient.StockData data = BrapiClient.fetchStockData(ticker);
-            if (data != null && data.isValid()) {
-                return data.regularMarketPrice();
+            return BrapiClient.fetchStockData(ticker);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Divide os tickers em lotes e busca os lotes em paralelo via
+     * {@link BrapiClient#fetchMultipleStocks}. Só quando um lote respondeu mas
+     * deixou algum ticker de fora (ex.: plano que só aceita um ticker por
+     * requisição) esse ticker é buscado individualmente; um lote que falhou
+     * inteiro (offline, 429, 5xx) fica para a cotação persistida, em vez de
+     * virar uma requisição por ticker.
+     */
+    private static Map<String, BrapiClient.StockData> loadMany(Collection<String> tickers) {
+        Map<String, BrapiClient.StockData> byTicker = new ConcurrentHashMap<>();
+        Set<String> omitted = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (List<String> chunk : chunk(tickers)) {
+            batches.add(CompletableFuture.runAsync(() -> {
+                Map<String, BrapiClient.StockData> quotes = limited(() -> fetchChunk(chunk));
+                if (quotes == null) return;
+                for (String t : chunk) {
+                    BrapiClient.StockData data = quotes.get(t);
+                    if (data != null && data.isValid()) byTicker.put(t, data);
+                    else omitted.add(t);
+                }
+            }, AppExecutors.io()));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+
+        List<CompletableFuture<Void>> singles = new ArrayList<>();
+        for (String t : omitted) {
+            singles.add(CompletableFuture.runAsync(() -> {
+                BrapiClient.StockData data = limited(() -> loadOne(t));
+                if (data != null && data.isValid()) byTicker.put(t, data);
+            }, AppExecutors.io()));
+        }
+        CompletableFuture.allOf(singles.toArray(CompletableFuture[]::new)).join();
+        return byTicker;
+    }
+
+    /** Executa {@code call} ocupando uma das {@link #MAX_PARALLEL_REQUESTS} vagas. */
+    private static <T> T limited(Supplier<T> call) {
+        parallelRequests.acquireUninterruptibly();
+        try {
+            return call.get();
+        } finally {
+            parallelRequests.release();
+        }
+    }
+
+    /**
+     * Cotações do lote por ticker normalizado, ou null se o lote falhou —
+     * {@link BrapiClient#fetchMultipleStocks} devolve mapa vazio em erro.
+     */
+    private static Map<String, BrapiClient.StockData> fetchChunk(List<String> chunk) {
+        Map<String, BrapiClient.StockData> data;
+        try {
+            data = BrapiClient.fetchMultipleStocks(String.join(",", chunk));
+        } catch (Exception e) {
+            return null;
+        }
+        if (data == null || data.isEmpty()) return null;
+
+        Map<String, BrapiClient.StockData> quotes = new HashMap<>();
+        for (var e : data.entrySet()) {
+            if (e.getValue() != null) {
+                quotes.put(QuoteCache.normalize(e.getKey()), e.getValue());
             }
-        } catch (Exception ignored) {}
-        return null;
+        }
+        return quotes;
+    }
+
+    static List<List<String>> chunk(Collection<String> tickers) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int chars = 0;
+        for (String t : tickers) {
+            int extra = t.length() + (current.isEmpty() ? 0 : 1);
+            if (!current.isEmpty() &&
+                    (current.size() >= MAX_TICKERS_PER_REQUEST
+                            || chars + extra > MAX_TICKERS_CHARS_PER_REQUEST)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                chars = 0;
+                extra = t.length();
+            }
+            current.add(t);
+            chars += extra;
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
     }
 }
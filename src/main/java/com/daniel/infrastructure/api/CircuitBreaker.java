@@ -0,0 +1,102 @@
+package com.daniel.infrastructure.api;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor: depois de {@code failureThreshold} falhas seguidas abre e
+ * recusa chamadas por {@code openFor}; então deixa passar uma única
+ * chamada de teste (meia-abertura), que fecha ou reabre o circuito.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openForMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean trialInFlight;
+    private long rejected;
+    private long opens;
+
+    public CircuitBreaker(int failureThreshold, Duration openFor) {
+        this(failureThreshold, openFor, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openFor, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openForMillis = openFor.toMillis();
+        this.clock = clock;
+    }
+
+    /** false = circuito aberto: falhar rápido sem chamar a API. */
+    public synchronized boolean allowRequest() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (clock.getAsLong() - openedAtMillis < openForMillis) {
+                    rejected++;
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    rejected++;
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) opens++;
+            state = State.OPEN;
+            openedAtMillis = clock.getAsLong();
+        }
+    }
+
+    /** Chamada liberada que terminou sem veredito (ex.: cancelada); libera o teste da meia-abertura. */
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /** Quanto falta para a próxima chamada de teste; 0 se não está aberto. */
+    public synchronized long openRemainingMillis() {
+        if (state != State.OPEN) return 0;
+        return Math.max(0, openForMillis - (clock.getAsLong() - openedAtMillis));
+    }
+
+    public synchronized long rejected() {
+        return rejected;
+    }
+
+    public synchronized long opens() {
+        return opens;
+    }
+}
@@ -0,0 +1,124 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Ponte entre o {@code enqueue} do OkHttp e {@link CompletableFuture}.
+ *
+ * A chamada roda nas threads do {@link Dispatcher} do cliente, não no
+ * ForkJoin comum; o corpo é decodificado ali mesmo e a resposta é sempre
+ * fechada. Cancelar o future devolvido cancela a chamada HTTP.
+ *
+ * As requisições saem marcadas como assíncronas para o
+ * {@link ResilienceInterceptor}, que então não dorme na thread do dispatcher:
+ * a espera por ficha e a retentativa voltam como
+ * {@link ResilienceInterceptor.RetryLaterException} e são reenfileiradas aqui
+ * depois do atraso pedido.
+ */
+final class HttpFutures {
+
+    /** Converte a resposta (ainda aberta) no resultado. */
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(Response response) throws IOException;
+    }
+
+    // Só agenda o reenfileiramento (não faz rede nem bloqueia)
+    private static final ScheduledExecutorService retryScheduler =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "http-retry");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private HttpFutures() {
+    }
+
+    /**
+     * Enfileira {@code request}; falhas de rede/decodificação viram
+     * {@code onFailure.apply(erro)} em vez de completar com exceção.
+     */
+    static <T> CompletableFuture<T> enqueue(OkHttpClient client, Request request,
+                                            Decoder<T> decoder, Function<Throwable, T> onFailure) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicReference<Call> current = new AtomicReference<>();
+        future.whenComplete((v, e) -> {
+            Call call = current.get();
+            if (future.isCancelled() && call != null) call.cancel();
+        });
+        attempt(client, request, ResilienceInterceptor.AsyncAttempt.FIRST, decoder, onFailure, future, current);
+        return future;
+    }
+
+    private static <T> void attempt(OkHttpClient client, Request request, ResilienceInterceptor.AsyncAttempt pass,
+                                    Decoder<T> decoder, Function<Throwable, T> onFailure,
+                                    CompletableFuture<T> future, AtomicReference<Call> current) {
+        if (future.isDone()) return;
+        Call call = client.newCall(request.newBuilder()
+                .tag(ResilienceInterceptor.AsyncAttempt.class, pass)
+                .build());
+        current.set(call);
+        if (future.isCancelled()) {
+            call.cancel();
+            return;
+        }
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (future.isDone()) return;
+                if (e instanceof ResilienceInterceptor.RetryLaterException retry) {
+                    retryScheduler.schedule(
+                            () -> attempt(client, request, retry.next(), decoder, onFailure, future, current),
+                            retry.delayMillis(), TimeUnit.MILLISECONDS);
+                    return;
+                }
+                future.complete(onFailure.apply(e));
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (response) {
+                    future.complete(decoder.decode(response));
+                } catch (Exception e) {
+                    future.complete(onFailure.apply(e));
+                }
+            }
+        });
+    }
+
+    /** Cancelar {@code derived} (ex.: um {@code thenApply}) cancela também {@code source}. */
+    static <T> CompletableFuture<T> linked(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((v, e) -> {
+            if (derived.isCancelled()) source.cancel(true);
+        });
+        return derived;
+    }
+
+    /**
+     * Dispatcher com teto de chamadas simultâneas (total e por host) e
+     * threads daemon, que não seguram o fechamento do app.
+     */
+    static Dispatcher boundedDispatcher(String threadName, int maxRequests, int maxRequestsPerHost) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, threadName);
+                    t.setDaemon(true);
+                    return t;
+                });
+        Dispatcher dispatcher = new Dispatcher(executor);
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return dispatcher;
+    }
+}
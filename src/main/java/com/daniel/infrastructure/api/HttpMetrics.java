@@ -0,0 +1,182 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Métricas por endpoint ({@code host/seg1/seg2} — tickers e ids ficam de
+ * fora): histograma de latência, erros, acertos no cache em disco e bytes
+ * recebidos pela rede.
+ *
+ * São dois interceptors. {@link #networkInterceptor()} mede cada ida à rede:
+ * latência até os cabeçalhos, erro (falha de rede ou status 4xx/5xx) e os
+ * bytes que de fato vieram pelo fio (ainda comprimidos, antes do gunzip do
+ * OkHttp). {@link #interceptor()} (aplicação) só registra as respostas
+ * servidas pelo cache em disco, que nunca chegam à rede.
+ *
+ * Assim o que a camada de resiliência faz por conta própria — disjuntor
+ * aberto, espera por ficha, backoff entre retentativas — não aparece como
+ * erro nem como latência do endpoint; cada retentativa que sai de fato conta
+ * como uma requisição.
+ */
+public final class HttpMetrics {
+
+    /** Limites superiores (ms) das faixas do histograma; a última faixa é "acima de". */
+    static final long[] BUCKET_BOUNDS_MILLIS = {50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    public record EndpointStats(
+            String endpoint,
+            long requests,
+            long errors,
+            long cacheHits,
+            long bytesReceived,
+            double meanMillis,
+            long p50Millis,
+            long p95Millis,
+            long[] histogram
+    ) {}
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    public HttpMetrics() {
+        this(System::nanoTime);
+    }
+
+    HttpMetrics(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    public Interceptor interceptor() {
+        return chain -> {
+            long t0 = nanoClock.getAsLong();
+            Response response = chain.proceed(chain.request());
+            if (response.cacheResponse() != null && response.networkResponse() == null) {
+                endpoint(chain.request().url()).record(nanoClock.getAsLong() - t0, false, true);
+            }
+            return response;
+        };
+    }
+
+    public Interceptor networkInterceptor() {
+        return chain -> {
+            Endpoint e = endpoint(chain.request().url());
+            long t0 = nanoClock.getAsLong();
+            Response response;
+            try {
+                response = chain.proceed(chain.request());
+            } catch (IOException | RuntimeException ex) {
+                e.record(nanoClock.getAsLong() - t0, true, false);
+                throw ex;
+            }
+            // 304 de uma revalidação do cache é sucesso
+            e.record(nanoClock.getAsLong() - t0, response.code() >= 400, false);
+
+            ResponseBody body = response.body();
+            if (body == null) return response;
+            BufferedSource counted = Okio.buffer(new ForwardingSource(body.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long n = super.read(sink, byteCount);
+                    if (n > 0) e.bytes.add(n);
+                    return n;
+                }
+            });
+            return response.newBuilder()
+                    .body(ResponseBody.create(counted, body.contentType(), body.contentLength()))
+                    .build();
+        };
+    }
+
+    /** Uma linha por endpoint, em ordem alfabética. */
+    public List<EndpointStats> snapshot() {
+        List<EndpointStats> out = new ArrayList<>();
+        endpoints.forEach((name, e) -> out.add(e.stats(name)));
+        out.sort(Comparator.comparing(EndpointStats::endpoint));
+        return out;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    // ---------------- internals ----------------
+
+    static String endpointName(HttpUrl url) {
+        StringBuilder sb = new StringBuilder(url.host());
+        List<String> segments = url.pathSegments();
+        for (int i = 0; i < Math.min(2, segments.size()); i++) {
+            if (segments.get(i).isEmpty()) break;
+            sb.append('/').append(segments.get(i));
+        }
+        return sb.toString();
+    }
+
+    static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            if (millis <= BUCKET_BOUNDS_MILLIS[i]) return i;
+        }
+        return BUCKET_BOUNDS_MILLIS.length;
+    }
+
+    /** Limite superior da faixa que contém o quantil {@code q}; -1 se vazio. */
+    static long quantileMillis(long[] histogram, double q) {
+        long total = 0;
+        for (long c : histogram) total += c;
+        if (total == 0) return -1;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i < BUCKET_BOUNDS_MILLIS.length ? BUCKET_BOUNDS_MILLIS[i] : Long.MAX_VALUE;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private Endpoint endpoint(HttpUrl url) {
+        return endpoints.computeIfAbsent(endpointName(url), k -> new Endpoint());
+    }
+
+    private static final class Endpoint {
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder cacheHits = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+
+        void record(long nanos, boolean error, boolean cacheHit) {
+            requests.increment();
+            totalNanos.add(nanos);
+            if (error) errors.increment();
+            if (cacheHit) cacheHits.increment();
+            buckets.incrementAndGet(bucketOf(nanos / 1_000_000));
+        }
+
+        EndpointStats stats(String name) {
+            long[] histogram = new long[buckets.length()];
+            for (int i = 0; i < histogram.length; i++) histogram[i] = buckets.get(i);
+            long n = requests.sum();
+            double mean = n == 0 ? 0.0 : totalNanos.sum() / 1e6 / n;
+            return new EndpointStats(name, n, errors.sum(), cacheHits.sum(), bytes.sum(), mean,
+                    quantileMillis(histogram, 0.50), quantileMillis(histogram, 0.95), histogram);
+        }
+    }
+}
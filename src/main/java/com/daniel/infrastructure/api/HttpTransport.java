@@ -0,0 +1,75 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transporte HTTP único da brapi e do BCB: um só pool de conexões,
+ * dispatcher, cache em disco e métricas. Cada cliente deriva o seu
+ * {@link OkHttpClient} com {@link #newClient()} e acrescenta o que é dele
+ * (ex.: o {@link ResilienceInterceptor} da brapi) sem duplicar pool nem
+ * threads.
+ *
+ * O cache em disco segue ETag/Cache-Control/Last-Modified das respostas;
+ * gzip é negociado e descomprimido pelo próprio OkHttp (não definimos
+ * {@code Accept-Encoding} nas requisições para não desligar isso).
+ * Cotações não passam pelo disco ({@link #NO_STORE}): têm o próprio
+ * {@link QuoteCache}.
+ */
+public final class HttpTransport {
+
+    static final File CACHE_DIR = new File("http-cache");
+    static final long CACHE_MAX_BYTES = 20L * 1024 * 1024;
+
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final int KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_REQUESTS = 16;
+    private static final int MAX_REQUESTS_PER_HOST = 8;
+
+    /** Para respostas que não devem ir ao cache em disco. */
+    public static final CacheControl NO_STORE = new CacheControl.Builder().noStore().build();
+
+    private static final HttpMetrics metrics = new HttpMetrics();
+    private static final Cache cache = new Cache(CACHE_DIR, CACHE_MAX_BYTES);
+
+    private static final OkHttpClient shared = new OkHttpClient.Builder()
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(10, TimeUnit.SECONDS)
+            .callTimeout(30, TimeUnit.SECONDS)
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .dispatcher(HttpFutures.boundedDispatcher("http", MAX_REQUESTS, MAX_REQUESTS_PER_HOST))
+            .cache(cache)
+            .addInterceptor(metrics.interceptor())
+            .addNetworkInterceptor(metrics.networkInterceptor())
+            .build();
+
+    private HttpTransport() {
+    }
+
+    /** Builder que compartilha pool, dispatcher, cache e métricas do transporte. */
+    public static OkHttpClient.Builder newClient() {
+        return shared.newBuilder();
+    }
+
+    public static HttpMetrics metrics() {
+        return metrics;
+    }
+
+    /** Respostas vindas do cache em disco (inclui revalidações 304), idas à rede, total de pedidos. */
+    public record CacheStats(int hits, int networkCount, int requests, long sizeBytes) {}
+
+    public static CacheStats cacheStats() {
+        long size;
+        try {
+            size = cache.size();
+        } catch (Exception e) {
+            size = 0;
+        }
+        return new CacheStats(cache.hitCount(), cache.networkCount(), cache.requestCount(), size);
+    }
+}
@@ -0,0 +1,271 @@
+package com.daniel.infrastructure.api;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de cotações por ticker com TTL, limite de tamanho (LRU) e
+ * stale-while-revalidate: uma entrada vencida ainda é devolvida na hora
+ * enquanto uma atualização roda em segundo plano. Só faltas de verdade
+ * (ticker nunca visto ou despejado) bloqueiam o chamador.
+ *
+ * Apenas cotações válidas ({@link BrapiClient.StockData#isValid()}) são
+ * guardadas.
+ */
+public final class QuoteCache {
+
+    public record Stats(
+            long hits,
+            long staleHits,
+            long misses,
+            long refreshes,
+            long refreshFailures,
+            long totalRefreshNanos,
+            int size
+    ) {
+        public double hitRate() {
+            long total = hits + staleHits + misses;
+            return total == 0 ? 0.0 : (hits + staleHits) / (double) total;
+        }
+
+        public double avgRefreshMillis() {
+            return refreshes == 0 ? 0.0 : totalRefreshNanos / 1_000_000.0 / refreshes;
+        }
+    }
+
+    private record Entry(BrapiClient.StockData data, long loadedAtMillis) {}
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Function<String, BrapiClient.StockData> loader;
+    private final Function<Collection<String>, Map<String, BrapiClient.StockData>> batchLoader;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> entries;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<BrapiClient.StockData>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder totalRefreshNanos = new LongAdder();
+
+    public QuoteCache(Duration ttl, int maxEntries,
+                      Function<String, BrapiClient.StockData> loader,
+                      Function<Collection<String>, Map<String, BrapiClient.StockData>> batchLoader,
+                      Executor refreshExecutor) {
+        this(ttl, maxEntries, loader, batchLoader, refreshExecutor, System::currentTimeMillis);
+    }
+
+    QuoteCache(Duration ttl, int maxEntries,
+               Function<String, BrapiClient.StockData> loader,
+               Function<Collection<String>, Map<String, BrapiClient.StockData>> batchLoader,
+               Executor refreshExecutor, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.loader = loader;
+        this.batchLoader = batchLoader;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > QuoteCache.this.maxEntries;
+            }
+        };
+    }
+
+    /** Cotação do ticker; carrega de forma síncrona apenas em caso de falta. */
+    public BrapiClient.StockData get(String ticker) {
+        String key = normalize(ticker);
+        Entry e = lookup(key);
+        if (e != null) {
+            if (isStale(e)) {
+                staleHits.increment();
+                refreshAsync(List.of(key));
+            } else {
+                hits.increment();
+            }
+            return e.data();
+        }
+
+        misses.increment();
+        BrapiClient.StockData data = timedLoad(() -> loader.apply(key));
+        store(key, data, false);
+        return data;
+    }
+
+    /**
+     * Cotações de vários tickers (chaves normalizadas em maiúsculas). Entradas
+     * vencidas são devolvidas e revalidadas juntas em um único lote de fundo;
+     * as faltas são buscadas juntas em um lote síncrono.
+     */
+    public Map<String, BrapiClient.StockData> getAll(Collection<String> tickers) {
+        Map<String, BrapiClient.StockData> out = new LinkedHashMap<>();
+        List<String> stale = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String t : new LinkedHashSet<>(tickers)) {
+            String key = normalize(t);
+            Entry e = lookup(key);
+            if (e == null) {
+                misses.increment();
+                missing.add(key);
+                continue;
+            }
+            if (isStale(e)) {
+                staleHits.increment();
+                stale.add(key);
+            } else {
+                hits.increment();
+            }
+            out.put(key, e.data());
+        }
+
+        if (!stale.isEmpty()) refreshAsync(stale);
+
+        if (!missing.isEmpty()) {
+            Map<String, BrapiClient.StockData> loaded = timedLoad(() -> batchLoader.apply(missing));
+            if (loaded != null) {
+                for (var e : loaded.entrySet()) {
+                    String key = normalize(e.getKey());
+                    if (store(key, e.getValue(), false)) out.put(key, e.getValue());
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Guarda uma cotação obtida por fora (ex.: tela de detalhes). */
+    public void put(BrapiClient.StockData data) {
+        if (data != null && data.ticker() != null) {
+            store(normalize(data.ticker()), data, true);
+        }
+    }
+
+    /**
+     * Pré-carrega uma cotação conhecida (ex.: persistida na última execução)
+     * com o instante em que foi obtida. Se já vencida, é servida como stale e
+     * revalidada no primeiro acesso. Não sobrescreve entradas existentes.
+     */
+    public void seed(BrapiClient.StockData data, long loadedAtMillis) {
+        if (data == null || data.ticker() == null || !data.isValid()) return;
+        synchronized (entries) {
+            entries.putIfAbsent(normalize(data.ticker()), new Entry(data, loadedAtMillis));
+        }
+    }
+
+    /** Tempo até uma cotação ser servida como vencida e revalidada. */
+    public Duration ttl() {
+        return Duration.ofMillis(ttlMillis);
+    }
+
+    /** Notificado sempre que uma revalidação de fundo traz cotação nova. */
+    public void addRefreshListener(Consumer<BrapiClient.StockData> listener) {
+        listeners.add(listener);
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(),
+                refreshes.sum(), refreshFailures.sum(), totalRefreshNanos.sum(), size);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    private Entry lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private boolean isStale(Entry e) {
+        return clock.getAsLong() - e.loadedAtMillis() > ttlMillis;
+    }
+
+    private boolean store(String key, BrapiClient.StockData data, boolean notify) {
+        if (data == null || !data.isValid()) return false;
+        Entry previous;
+        synchronized (entries) {
+            previous = entries.put(key, new Entry(data, clock.getAsLong()));
+        }
+        if (notify && (previous == null
+                || previous.data().regularMarketPrice() != data.regularMarketPrice())) {
+            for (Consumer<BrapiClient.StockData> l : listeners) {
+                try {
+                    l.accept(data);
+                } catch (RuntimeException ignored) {}
+            }
+        }
+        return true;
+    }
+
+    private void refreshAsync(List<String> keys) {
+        List<String> toRefresh = new ArrayList<>();
+        for (String k : keys) {
+            if (refreshing.add(k)) toRefresh.add(k);
+        }
+        if (toRefresh.isEmpty()) return;
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Map<String, BrapiClient.StockData> loaded = toRefresh.size() == 1
+                            ? singleton(toRefresh.get(0), timedLoad(() -> loader.apply(toRefresh.get(0))))
+                            : timedLoad(() -> batchLoader.apply(toRefresh));
+                    if (loaded != null) {
+                        for (var e : loaded.entrySet()) {
+                            store(normalize(e.getKey()), e.getValue(), true);
+                        }
+                    }
+                } finally {
+                    toRefresh.forEach(refreshing::remove);
+                }
+            });
+        } catch (RuntimeException e) {
+            toRefresh.forEach(refreshing::remove);
+        }
+    }
+
+    private <T> T timedLoad(java.util.function.Supplier<T> load) {
+        long t0 = System.nanoTime();
+        try {
+            T result = load.get();
+            if (result == null) refreshFailures.increment();
+            return result;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            return null;
+        } finally {
+            refreshes.increment();
+            totalRefreshNanos.add(System.nanoTime() - t0);
+        }
+    }
+
+    private static Map<String, BrapiClient.StockData> singleton(String key, BrapiClient.StockData data) {
+        return data == null ? Map.of() : Map.of(key, data);
+    }
+
+    static String normalize(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,309 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Camada de resiliência das chamadas HTTP (interceptor do OkHttp, vale para
+ * chamadas síncronas e {@code enqueue}):
+ *
+ *   1. disjuntor aberto → falha na hora ({@link CircuitOpenException}), e
+ *      quem chamou cai para a cotação em cache/persistida;
+ *   2. limitador de taxa → espera uma ficha por até {@code maxRateWait};
+ *      sem ficha, {@link RateLimitedException};
+ *   3. erro de rede, 429 ou 5xx → retentativa com backoff exponencial e
+ *      jitter total, se o {@link RetryBudget} global permitir. {@code Retry-After}
+ *      (em segundos) é respeitado quando cabe no teto do backoff.
+ *
+ * O resultado final (sucesso ou falha) alimenta o disjuntor.
+ *
+ * Chamadas via {@code enqueue} ({@link HttpFutures}, marcadas com
+ * {@link AsyncAttempt}) rodam nas threads do dispatcher e nunca dormem aqui:
+ * tanto a espera pela ficha (com o mesmo teto {@code maxRateWait}) quanto a
+ * retentativa saem como {@link RetryLaterException} para o
+ * {@link HttpFutures} reagendar a chamada.
+ */
+public final class ResilienceInterceptor implements Interceptor {
+
+    /** Circuito aberto: nenhuma chamada foi feita. */
+    public static final class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CircuitOpenException(long remainingMillis) {
+            super("Circuito aberto: API indisponível, nova tentativa em " + (remainingMillis / 1000) + "s");
+        }
+    }
+
+    /** Sem ficha do limitador dentro da espera máxima: nenhuma chamada foi feita. */
+    public static final class RateLimitedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RateLimitedException() {
+            super("Limite de requisições atingido");
+        }
+    }
+
+    /**
+     * Marca de chamada assíncrona: {@code number} é a passagem (0 = primeira),
+     * {@code retries} as retentativas já feitas e {@code rateDeadlineNanos}
+     * até quando esperar ficha (0 = ainda não esperou).
+     */
+    record AsyncAttempt(int number, int retries, long rateDeadlineNanos) {
+        static final AsyncAttempt FIRST = new AsyncAttempt(0, 0, 0);
+
+        AsyncAttempt retry() {
+            return new AsyncAttempt(number + 1, retries + 1, 0);
+        }
+
+        AsyncAttempt awaitToken(long deadlineNanos) {
+            return new AsyncAttempt(number + 1, retries, deadlineNanos);
+        }
+    }
+
+    /** Chamada assíncrona a repetir como {@code next} depois de {@code delayMillis}. */
+    static final class RetryLaterException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final long delayMillis;
+        private final transient AsyncAttempt next;
+
+        RetryLaterException(long delayMillis, AsyncAttempt next, Throwable cause) {
+            super("Nova tentativa em " + delayMillis + "ms", cause);
+            this.delayMillis = delayMillis;
+            this.next = next;
+        }
+
+        long delayMillis() {
+            return delayMillis;
+        }
+
+        AsyncAttempt next() {
+            return next;
+        }
+    }
+
+    public record Status(
+            CircuitBreaker.State circuit,
+            int consecutiveFailures,
+            long circuitOpenRemainingMillis,
+            long rejectedByCircuit,
+            long circuitOpens,
+            double ratePerMinute,
+            double rateTokens,
+            long rateLimited,
+            double retryTokens,
+            long retries,
+            long retriesDenied
+    ) {}
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    static final int MAX_RETRIES = 2;
+    private static final long BACKOFF_BASE_MILLIS = 250;
+    private static final long BACKOFF_CAP_MILLIS = 4_000;
+
+    private volatile TokenBucket rateLimiter;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker breaker;
+    private final Duration maxRateWait;
+    private final Sleeper sleeper;
+    private final LongSupplier nanoClock;
+
+    private long rateLimited;
+
+    public ResilienceInterceptor(TokenBucket rateLimiter, RetryBudget retryBudget,
+                                 CircuitBreaker breaker, Duration maxRateWait) {
+        this(rateLimiter, retryBudget, breaker, maxRateWait, Thread::sleep, System::nanoTime);
+    }
+
+    ResilienceInterceptor(TokenBucket rateLimiter, RetryBudget retryBudget, CircuitBreaker breaker,
+                          Duration maxRateWait, Sleeper sleeper, LongSupplier nanoClock) {
+        this.rateLimiter = rateLimiter;
+        this.retryBudget = retryBudget;
+        this.breaker = breaker;
+        this.maxRateWait = maxRateWait;
+        this.sleeper = sleeper;
+        this.nanoClock = nanoClock;
+    }
+
+    /** Troca o limitador (ex.: plano da brapi mudou). */
+    public void setRateLimiter(TokenBucket rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        AsyncAttempt async = chain.request().tag(AsyncAttempt.class);
+        return async == null ? interceptBlocking(chain) : interceptAsync(chain, async);
+    }
+
+    /** {@code execute()}: espera ficha e backoff na própria thread de quem chamou. */
+    private Response interceptBlocking(Chain chain) throws IOException {
+        if (!breaker.allowRequest()) {
+            throw new CircuitOpenException(breaker.openRemainingMillis());
+        }
+        retryBudget.onRequest();
+
+        for (int attempt = 0; ; attempt++) {
+            if (!acquireRateToken()) {
+                breaker.onIgnored();
+                throw new RateLimitedException();
+            }
+
+            Response response;
+            try {
+                response = chain.proceed(chain.request());
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    breaker.onIgnored();
+                    throw e;
+                }
+                if (attempt < MAX_RETRIES && retryBudget.tryRetry()) {
+                    pause(backoffMillis(attempt));
+                    continue;
+                }
+                breaker.onFailure();
+                throw e;
+            }
+
+            if (!isRetryable(response.code())) {
+                breaker.onSuccess();
+                return response;
+            }
+            if (attempt < MAX_RETRIES && !chain.call().isCanceled() && retryBudget.tryRetry()) {
+                long wait = retryAfterMillis(response, attempt);
+                response.close();
+                pause(wait);
+                continue;
+            }
+            breaker.onFailure();
+            return response;
+        }
+    }
+
+    /** {@code enqueue}: uma única tentativa por passagem, sem dormir. */
+    private Response interceptAsync(Chain chain, AsyncAttempt pass) throws IOException {
+        if (pass.number() == 0) {
+            if (!breaker.allowRequest()) {
+                throw new CircuitOpenException(breaker.openRemainingMillis());
+            }
+            retryBudget.onRequest();
+        }
+        TokenBucket limiter = rateLimiter;
+        if (!limiter.tryAcquire()) {
+            long now = nanoClock.getAsLong();
+            long deadline = pass.rateDeadlineNanos() != 0
+                    ? pass.rateDeadlineNanos()
+                    : now + maxRateWait.toNanos();
+            long wait = limiter.nanosUntilAvailable();
+            if (now + wait <= deadline) {
+                throw new RetryLaterException(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)),
+                        pass.awaitToken(deadline), null);
+            }
+            synchronized (this) {
+                rateLimited++;
+            }
+            breaker.onIgnored();
+            throw new RateLimitedException();
+        }
+        int attempt = pass.retries();
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                breaker.onIgnored();
+                throw e;
+            }
+            if (attempt < MAX_RETRIES && retryBudget.tryRetry()) {
+                throw new RetryLaterException(backoffMillis(attempt), pass.retry(), e);
+            }
+            breaker.onFailure();
+            throw e;
+        }
+
+        if (!isRetryable(response.code())) {
+            breaker.onSuccess();
+            return response;
+        }
+        if (attempt < MAX_RETRIES && !chain.call().isCanceled() && retryBudget.tryRetry()) {
+            long wait = retryAfterMillis(response, attempt);
+            response.close();
+            throw new RetryLaterException(wait, pass.retry(), null);
+        }
+        breaker.onFailure();
+        return response;
+    }
+
+    public Status status() {
+        TokenBucket limiter = rateLimiter;
+        long limited;
+        synchronized (this) {
+            limited = rateLimited;
+        }
+        return new Status(
+                breaker.state(), breaker.consecutiveFailures(), breaker.openRemainingMillis(),
+                breaker.rejected(), breaker.opens(),
+                limiter.ratePerMinute(), limiter.available(), limited,
+                retryBudget.available(), retryBudget.retries(), retryBudget.denied());
+    }
+
+    // ---------------- internals ----------------
+
+    /** 429 (limite da API) e erros 5xx de servidor/gateway. */
+    static boolean isRetryable(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /** Jitter total: uniforme em [0, min(teto, base·2^tentativa)]. */
+    static long backoffMillis(int attempt) {
+        long ceiling = Math.min(BACKOFF_CAP_MILLIS, BACKOFF_BASE_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static long retryAfterMillis(Response response, int attempt) {
+        String header = response.header("Retry-After");
+        if (header != null && header.trim().matches("\\d+")) {
+            long millis = Long.parseLong(header.trim()) * 1000;
+            if (millis <= BACKOFF_CAP_MILLIS) return millis;
+        }
+        return backoffMillis(attempt);
+    }
+
+    private boolean acquireRateToken() throws IOException {
+        long deadline = nanoClock.getAsLong() + maxRateWait.toNanos();
+        while (true) {
+            TokenBucket limiter = rateLimiter;
+            if (limiter.tryAcquire()) return true;
+            long wait = limiter.nanosUntilAvailable();
+            if (nanoClock.getAsLong() + wait > deadline) {
+                synchronized (this) {
+                    rateLimited++;
+                }
+                return false;
+            }
+            pause(Math.max(1, wait / 1_000_000));
+        }
+    }
+
+    private void pause(long millis) throws IOException {
+        if (millis <= 0) return;
+        try {
+            sleeper.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando nova tentativa");
+        }
+    }
+}
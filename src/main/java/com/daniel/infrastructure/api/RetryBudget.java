@@ -0,0 +1,49 @@
+package com.daniel.infrastructure.api;
+
+/**
+ * Orçamento global de retentativas: cada requisição deposita {@code ratio}
+ * de ficha (até {@code maxTokens}) e cada retentativa gasta uma. Com a API
+ * fora do ar, as retentativas param logo em vez de multiplicar a carga.
+ */
+public final class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+
+    private double tokens;
+    private long retries;
+    private long denied;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /** Gasta uma ficha se houver; false = retentativa negada. */
+    public synchronized boolean tryRetry() {
+        if (tokens >= 1) {
+            tokens -= 1;
+            retries++;
+            return true;
+        }
+        denied++;
+        return false;
+    }
+
+    public synchronized double available() {
+        return tokens;
+    }
+
+    public synchronized long retries() {
+        return retries;
+    }
+
+    public synchronized long denied() {
+        return denied;
+    }
+}
@@ -0,0 +1,178 @@
+package com.daniel.infrastructure.api;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalescência de requisições ("single-flight"): pedidos simultâneos com a
+ * mesma chave compartilham uma única chamada em curso em vez de dispararem
+ * cada um a sua. Terminada a chamada, a chave sai do mapa — não é cache; o
+ * próximo pedido faz uma chamada nova.
+ *
+ * Cada chamador assíncrono recebe o próprio future: cancelá-lo só o tira da
+ * fila. A chamada compartilhada só é cancelada quando todos desistem.
+ */
+public final class SingleFlight<K, V> {
+
+    /** {@code calls}: chamadas feitas de fato; {@code coalesced}: pedidos que pegaram carona (chamadas poupadas). */
+    public record Stats(long calls, long coalesced) {
+        public long requests() {
+            return calls + coalesced;
+        }
+
+        public double savedRate() {
+            long total = requests();
+            return total == 0 ? 0.0 : coalesced / (double) total;
+        }
+
+        public Stats plus(Stats other) {
+            return new Stats(calls + other.calls, coalesced + other.coalesced);
+        }
+    }
+
+    private final ConcurrentHashMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Devolve o resultado da chamada em curso para {@code key} ou, se não
+     * houver, dispara {@code call}.
+     */
+    public CompletableFuture<V> submit(K key, Supplier<CompletableFuture<V>> call) {
+        while (true) {
+            Flight mine = new Flight(key);
+            Flight current = inFlight.putIfAbsent(key, mine);
+            if (current == null) {
+                calls.increment();
+                mine.join();
+                CompletableFuture<V> view = mine.view();
+                CompletableFuture<V> source;
+                try {
+                    source = call.get();
+                } catch (Throwable e) {
+                    mine.finish(null, e);
+                    return view;
+                }
+                mine.start(source);
+                return view;
+            }
+            if (current.join()) {
+                coalesced.increment();
+                return current.view();
+            }
+            inFlight.remove(key, current);   // cancelada por todos: tenta de novo
+        }
+    }
+
+    /**
+     * Versão bloqueante: o primeiro chamador executa {@code call} no próprio
+     * thread; os simultâneos esperam o mesmo resultado.
+     */
+    public V run(K key, Supplier<V> call) {
+        while (true) {
+            Flight mine = new Flight(key);
+            Flight current = inFlight.putIfAbsent(key, mine);
+            if (current == null) {
+                calls.increment();
+                mine.join();
+                // Throwable: um Error do líder também precisa liberar a chave e os que esperam
+                try {
+                    V value = call.get();
+                    mine.finish(value, null);
+                    return value;
+                } catch (Throwable e) {
+                    mine.finish(null, e);
+                    throw e;
+                }
+            }
+            if (current.join()) {
+                coalesced.increment();
+                try {
+                    return current.result.join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException re) throw re;
+                    if (e.getCause() instanceof Error err) throw err;
+                    throw e;
+                }
+            }
+            inFlight.remove(key, current);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(calls.sum(), coalesced.sum());
+    }
+
+    /** Chaves com chamada em curso (para testes e diagnóstico). */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // ---------------- internals ----------------
+
+    private final class Flight {
+        final K key;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        private CompletableFuture<V> source;
+        private int waiters;
+        private boolean closed;
+
+        Flight(K key) {
+            this.key = key;
+        }
+
+        /** Entra como interessado; false se a chamada já foi abandonada. */
+        synchronized boolean join() {
+            if (closed) return false;
+            waiters++;
+            return true;
+        }
+
+        synchronized void start(CompletableFuture<V> source) {
+            this.source = source;
+            if (closed) {
+                source.cancel(true);
+                return;
+            }
+            source.whenComplete(this::finish);
+        }
+
+        void finish(V value, Throwable error) {
+            inFlight.remove(key, this);
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                result.complete(value);
+            }
+        }
+
+        CompletableFuture<V> view() {
+            CompletableFuture<V> view = new CompletableFuture<>();
+            result.whenComplete((v, e) -> {
+                if (e != null) view.completeExceptionally(e);
+                else view.complete(v);
+            });
+            view.whenComplete((v, e) -> {
+                if (view.isCancelled()) leave();
+            });
+            return view;
+        }
+
+        private void leave() {
+            CompletableFuture<V> toCancel;
+            synchronized (this) {
+                if (--waiters > 0 || result.isDone()) return;
+                closed = true;
+                toCancel = source;
+            }
+            inFlight.remove(key, this);
+            if (toCancel != null) toCancel.cancel(true);
+            result.completeExceptionally(new CancellationException("todos os chamadores desistiram"));
+        }
+    }
+}
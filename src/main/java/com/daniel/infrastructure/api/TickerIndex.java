@@ -0,0 +1,141 @@
+package com.daniel.infrastructure.api;
+
+import java.util.*;
+
+/**
+ * Índice imutável do universo de tickers para o autocomplete.
+ *
+ * Prefixos saem por busca binária num array ordenado; ocorrências no meio do
+ * código (ex.: "TR4" em PETR4) saem de um índice de bigramas, verificando só
+ * os candidatos da lista de postings mais curta. Ordem do resultado: match
+ * exato, depois prefixos (mais curtos primeiro), depois o resto.
+ */
+public final class TickerIndex {
+
+    public static final TickerIndex EMPTY = new TickerIndex(new String[0]);
+
+    private final String[] sorted;
+    private final Map<Integer, int[]> bigrams;
+
+    private TickerIndex(String[] sorted) {
+        this.sorted = sorted;
+        this.bigrams = buildBigrams(sorted);
+    }
+
+    /** Normaliza (trim, maiúsculas), remove duplicados e ordena. */
+    public static TickerIndex of(Collection<String> tickers) {
+        TreeSet<String> unique = new TreeSet<>();
+        for (String t : tickers) {
+            if (t == null) continue;
+            String n = normalize(t);
+            if (!n.isEmpty()) unique.add(n);
+        }
+        return unique.isEmpty() ? EMPTY : new TickerIndex(unique.toArray(new String[0]));
+    }
+
+    public int size() {
+        return sorted.length;
+    }
+
+    public boolean isEmpty() {
+        return sorted.length == 0;
+    }
+
+    /** Tickers normalizados, em ordem alfabética. */
+    public List<String> tickers() {
+        return List.of(sorted);
+    }
+
+    /** Até {@code limit} tickers que contêm {@code query}, já ranqueados. */
+    public List<String> search(String query, int limit) {
+        if (query == null || limit <= 0 || sorted.length == 0) return List.of();
+        String q = normalize(query);
+        if (q.isEmpty()) return List.of();
+
+        List<String> out = new ArrayList<>(Math.min(limit, 16));
+
+        // prefixos: faixa contígua no array ordenado
+        int from = lowerBound(q);
+        int to = from;
+        while (to < sorted.length && sorted[to].startsWith(q)) to++;
+        String[] prefixed = Arrays.copyOfRange(sorted, from, to);
+        Arrays.sort(prefixed, Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        for (String t : prefixed) {
+            if (out.size() == limit) return out;
+            out.add(t);
+        }
+
+        // ocorrências fora do início (o que já casou como prefixo fica de fora)
+        List<String> inner = new ArrayList<>();
+        if (q.length() == 1) {
+            for (String t : sorted) {
+                if (t.charAt(0) != q.charAt(0) && t.indexOf(q.charAt(0), 1) > 0) inner.add(t);
+            }
+        } else {
+            for (int i : shortestPostings(q)) {
+                String t = sorted[i];
+                if (!t.startsWith(q) && t.indexOf(q, 1) > 0) inner.add(t);
+            }
+        }
+        inner.sort(Comparator.<String>comparingInt(t -> t.indexOf(q, 1))
+                .thenComparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder()));
+        for (String t : inner) {
+            if (out.size() == limit) break;
+            out.add(t);
+        }
+        return out;
+    }
+
+    // ---------------- internals ----------------
+
+    private static String normalize(String s) {
+        return s.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Postings do bigrama mais raro da consulta; vazio se algum bigrama não existe. */
+    private int[] shortestPostings(String q) {
+        int[] best = null;
+        for (int i = 0; i + 1 < q.length(); i++) {
+            int[] p = bigrams.get(bigram(q.charAt(i), q.charAt(i + 1)));
+            if (p == null) return new int[0];
+            if (best == null || p.length < best.length) best = p;
+        }
+        return best;
+    }
+
+    private static int bigram(char a, char b) {
+        return (a << 16) | b;
+    }
+
+    private static Map<Integer, int[]> buildBigrams(String[] sorted) {
+        Map<Integer, List<Integer>> lists = new HashMap<>();
+        for (int i = 0; i < sorted.length; i++) {
+            String t = sorted[i];
+            Set<Integer> seen = new HashSet<>();
+            for (int j = 0; j + 1 < t.length(); j++) {
+                int key = bigram(t.charAt(j), t.charAt(j + 1));
+                if (seen.add(key)) lists.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<Integer, int[]> out = new HashMap<>(lists.size() * 2);
+        for (var e : lists.entrySet()) {
+            List<Integer> l = e.getValue();
+            int[] arr = new int[l.size()];
+            for (int i = 0; i < arr.length; i++) arr[i] = l.get(i);
+            out.put(e.getKey(), arr);
+        }
+        return out;
+    }
+}
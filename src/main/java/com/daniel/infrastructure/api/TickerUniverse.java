@@ -0,0 +1,142 @@
+package com.daniel.infrastructure.api;
+
+import com.daniel.core.domain.repository.ITickerRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Lista de tickers negociáveis para o autocomplete, baixada uma vez e
+ * guardada no banco. As buscas rodam num {@link TickerIndex} em memória;
+ * a rede só é usada na primeira execução (sem lista salva) e, depois,
+ * em segundo plano quando a lista passa de {@code refreshInterval}.
+ *
+ * Falha no download mantém a lista atual e só tenta de novo após
+ * {@link #RETRY_BACKOFF}, para não bater na API a cada tecla quando offline.
+ */
+public final class TickerUniverse {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofDays(1);
+    static final Duration RETRY_BACKOFF = Duration.ofMinutes(5);
+
+    private final long refreshIntervalMillis;
+    private final Supplier<List<String>> downloader;
+    private final ITickerRepository store;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+    private volatile TickerIndex index = TickerIndex.EMPTY;
+    private volatile long updatedAtMillis;
+    private volatile long retryAfterMillis;
+
+    public TickerUniverse(Duration refreshInterval,
+                          Supplier<List<String>> downloader,
+                          ITickerRepository store,
+                          Executor refreshExecutor) {
+        this(refreshInterval, downloader, store, refreshExecutor, System::currentTimeMillis);
+    }
+
+    TickerUniverse(Duration refreshInterval,
+                   Supplier<List<String>> downloader,
+                   ITickerRepository store,
+                   Executor refreshExecutor,
+                   LongSupplier clock) {
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.downloader = downloader;
+        this.store = store;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Até {@code limit} tickers que casam com {@code query} (prefixo primeiro).
+     * Pode bloquear na primeira chamada, enquanto a lista é lida ou baixada.
+     */
+    public List<String> search(String query, int limit) {
+        ensureLoaded();
+        refreshIfStale();
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** Momento (epoch millis) da lista em uso; 0 se ainda não há lista. */
+    public long updatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    /** Baixa a lista agora, no thread atual. Devolve false se o download falhou. */
+    public boolean refresh() {
+        long now = clock.getAsLong();
+        List<String> tickers;
+        try {
+            tickers = downloader.get();
+        } catch (RuntimeException e) {
+            tickers = null;
+        }
+        if (tickers == null || tickers.isEmpty()) {
+            retryAfterMillis = now + RETRY_BACKOFF.toMillis();
+            return false;
+        }
+
+        TickerIndex fresh = TickerIndex.of(tickers);
+        try {
+            store.replaceAll(fresh.tickers(), now);
+        } catch (RuntimeException e) {
+            // sem persistência a lista vale só para esta execução
+        }
+        index = fresh;
+        updatedAtMillis = now;
+        return true;
+    }
+
+    // ---------------- internals ----------------
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (loadLock) {
+            if (loaded) return;
+            try {
+                List<String> saved = store.loadAll();
+                if (!saved.isEmpty()) {
+                    index = TickerIndex.of(saved);
+                    updatedAtMillis = store.lastUpdatedMillis();
+                }
+            } catch (RuntimeException e) {
+                // banco indisponível: segue para o download
+            }
+            loaded = true;
+        }
+        if (index.isEmpty() && clock.getAsLong() >= retryAfterMillis) {
+            if (refreshing.compareAndSet(false, true)) {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            }
+        }
+    }
+
+    private void refreshIfStale() {
+        long now = clock.getAsLong();
+        if (now - updatedAtMillis < refreshIntervalMillis || now < retryAfterMillis) return;
+        if (!refreshing.compareAndSet(false, true)) return;
+        refreshExecutor.execute(() -> {
+            try {
+                refresh();
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.daniel.infrastructure.api;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de taxa por balde de fichas: até {@code capacity} chamadas em
+ * rajada e, depois, reposição contínua de {@code tokensPerPeriod} fichas por
+ * {@code period}.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, int tokensPerPeriod, Duration period) {
+        this(capacity, tokensPerPeriod, period, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, int tokensPerPeriod, Duration period, LongSupplier nanoClock) {
+        if (capacity < 1 || tokensPerPeriod < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Parâmetros inválidos do limitador de taxa");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = tokensPerPeriod / (double) period.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /** {@code requestsPerMinute} por minuto, com rajada de até {@code burst}. */
+    public static TokenBucket perMinute(int requestsPerMinute, int burst) {
+        return new TokenBucket(burst, requestsPerMinute, Duration.ofMinutes(1));
+    }
+
+    /** Consome uma ficha se houver; nunca espera. */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /** Quanto falta para a próxima ficha (0 se já há uma). */
+    public synchronized long nanosUntilAvailable() {
+        refill();
+        if (tokens >= 1) return 0;
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    /** Fichas repostas por minuto. */
+    public double ratePerMinute() {
+        return refillPerNano * Duration.ofMinutes(1).toNanos();
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
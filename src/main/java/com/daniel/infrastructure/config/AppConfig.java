@@ -3,13 +3,20 @@ package com.daniel.infrastructure.config;
 import com.daniel.core.domain.repository.IFlowRepository;
 import com.daniel.core.domain.repository.IInvestmentTypeRepository;
 import com.daniel.core.domain.repository.ISnapshotRepository;
-import com.daniel.core.domain.repository.IStockPriceProvider;
 import com.daniel.core.domain.repository.ITransactionRepository;
+import com.daniel.core.service.BenchmarkHistory;
 import com.daniel.core.service.DailyTrackingUseCase;
+import com.daniel.infrastructure.api.BcbClient;
+import com.daniel.infrastructure.api.BcbHistoryIngestor;
+import com.daniel.infrastructure.api.BrapiClient;
 import com.daniel.infrastructure.api.BrapiStockPriceProvider;
 import com.daniel.infrastructure.persistence.config.Database;
+import com.daniel.infrastructure.persistence.repository.AppSettingsRepository;
+import com.daniel.infrastructure.persistence.repository.BenchmarkRateRepository;
 import com.daniel.infrastructure.persistence.repository.FlowRepository;
+import com.daniel.infrastructure.persistence.repository.IndexHistoryRepository;
 import com.daniel.infrastructure.persistence.repository.InvestmentTypeRepository;
+import com.daniel.infrastructure.persistence.repository.QuoteRepository;
 import com.daniel.infrastructure.persistence.repository.SnapshotRepository;
 import com.daniel.infrastructure.persistence.repository.TransactionRepository;
 
@@ -19,23 +26,62 @@ public class AppConfig {
 
     private final Connection connection;
     private final DailyTrackingUseCase dailyTrackingUseCase;
+    private final BrapiStockPriceProvider priceProvider;
+    private final BenchmarkHistory benchmarkHistory;
+    private final BcbHistoryIngestor benchmarkIngestor;
 
     public AppConfig() {
         this.connection = Database.open();
+        BrapiClient.setRequestsPerMinute(BrapiClient.requestsPerMinuteFrom(new AppSettingsRepository()));
+        BcbClient.useStore(new BenchmarkRateRepository());
 
         IFlowRepository flowRepo = new FlowRepository();
         IInvestmentTypeRepository invRepo = new InvestmentTypeRepository();
         ISnapshotRepository snapRepo = new SnapshotRepository();
         ITransactionRepository txRepo = new TransactionRepository();
-        IStockPriceProvider priceProvider = new BrapiStockPriceProvider();
+        BrapiStockPriceProvider priceProvider = new BrapiStockPriceProvider(
+                BrapiStockPriceProvider.quoteTtlFrom(new AppSettingsRepository()),
+                BrapiStockPriceProvider.DEFAULT_QUOTE_CACHE_SIZE,
+                new QuoteRepository());
 
-        this.dailyTrackingUseCase = new DailyTrackingUseCase(flowRepo, invRepo, snapRepo, txRepo, priceProvider);
+        IndexHistoryRepository indexRepo = new IndexHistoryRepository();
+        this.benchmarkHistory = new BenchmarkHistory(indexRepo);
+        this.benchmarkIngestor = new BcbHistoryIngestor(indexRepo);
+
+        this.dailyTrackingUseCase = new DailyTrackingUseCase(
+                flowRepo, invRepo, snapRepo, txRepo, priceProvider, benchmarkHistory);
+
+        // cotação nova em segundo plano → valuation em cache fica obsoleta; e
+        // a valuation vence junto com as cotações, para a revalidação acontecer
+        priceProvider.quoteCache().addRefreshListener(q -> dailyTrackingUseCase.invalidateValuation());
+        dailyTrackingUseCase.expireValuationAfter(priceProvider.quoteCache().ttl());
+        this.priceProvider = priceProvider;
+    }
+
+    /**
+     * Baixa o que falta das séries do BCB e, se veio algo novo, recarrega o
+     * histórico em memória (e as tabelas de fatores) e descarta a valuation
+     * em cache. Faz rede: chamar fora da FX thread.
+     */
+    public void ingestBenchmarkHistory() {
+        if (benchmarkIngestor.ingestAll(java.time.LocalDate.now()) > 0) {
+            benchmarkHistory.reload();
+            dailyTrackingUseCase.invalidateValuation();
+        }
     }
 
     public DailyTrackingUseCase getDailyTrackingUseCase() {
         return dailyTrackingUseCase;
     }
 
+    public BenchmarkHistory getBenchmarkHistory() {
+        return benchmarkHistory;
+    }
+
+    public BrapiStockPriceProvider getPriceProvider() {
+        return priceProvider;
+    }
+
     public Connection getConnection() {
         return connection;
     }
@@ -0,0 +1,85 @@
+package com.daniel.infrastructure.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executores do app, no lugar do ForkJoin comum de {@code supplyAsync}:
+ *
+ *   - {@link #io()}: uma thread virtual por tarefa, para trabalho que
+ *     bloqueia (HTTP síncrono, JDBC). Bloquear não prende thread de
+ *     plataforma, então não há limite de tamanho — quem precisa limitar
+ *     chamadas a um serviço externo usa um semáforo próprio;
+ *   - {@link #cpu()}: pool fixo (núcleos − 1, mínimo 1) para cálculo pesado
+ *     que não pode disputar CPU com a FX thread.
+ *
+ * Estáticos (como os clientes HTTP), sem dependência de banco: podem ser
+ * usados antes do {@link AppConfig} existir.
+ */
+public final class AppExecutors {
+
+    /** Contadores de um executor: tarefas rodando, esperando e concluídas. */
+    public record Stats(String name, int active, int queued, long completed) {}
+
+    private static final TrackedExecutor IO = new TrackedExecutor("io",
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("io-", 0).factory()));
+
+    private static final int CPU_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final AtomicInteger cpuThreadSeq = new AtomicInteger();
+
+    private static final TrackedExecutor CPU = new TrackedExecutor("cpu",
+            new ThreadPoolExecutor(CPU_THREADS, CPU_THREADS, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "cpu-" + cpuThreadSeq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }));
+
+    private AppExecutors() {
+    }
+
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    public static ExecutorService cpu() {
+        return CPU;
+    }
+
+    public static List<Stats> stats() {
+        return List.of(IO.stats(), CPU.stats());
+    }
+
+    /**
+     * Encerra os dois executores: não aceitam tarefas novas e as em andamento
+     * (ex.: snapshot ou ingestão dentro de uma transação) têm até
+     * {@code timeout} para terminar antes de serem interrompidas.
+     *
+     * @return true se tudo terminou dentro do prazo
+     */
+    public static boolean shutdown(Duration timeout) {
+        IO.shutdown();
+        CPU.shutdown();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            boolean done = IO.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                    && CPU.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!done) {
+                IO.shutdownNow();
+                CPU.shutdownNow();
+            }
+            return done;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IO.shutdownNow();
+            CPU.shutdownNow();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.daniel.infrastructure.config;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor que conta tarefas enfileiradas, em execução e concluídas antes
+ * de repassá-las ao {@code delegate}. {@code submit} (e o cancelamento do
+ * {@code Future}) vêm de {@link AbstractExecutorService}.
+ */
+final class TrackedExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+
+    TrackedExecutor(String name, ExecutorService delegate) {
+        this.name = name;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    AppExecutors.Stats stats() {
+        return new AppExecutors.Stats(name, active.get(), queued.get(), completed.sum());
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,306 @@
+package com.daniel.infrastructure.persistence.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantém uma conexão de escrita de longa duração (mais conexões de leitura
+ * opcionais) e entrega "leases": {@link Connection}s cujo {@code close()}
+ * apenas devolve a conexão ao gerenciador, sem fechá-la de verdade.
+ *
+ * O lease de escrita é exclusivo e reentrante por thread, então uma
+ * transação aberta por um repositório não é intercalada com comandos de
+ * outra thread. Leases de leitura vêm de um pool fixo e só existem para
+ * bancos em arquivo; para {@code :memory:} (ou pool zero) a leitura usa
+ * o lease de escrita.
+ *
+ * O schema é criado (e migrado, via {@link SchemaMigrator}) uma única vez,
+ * na primeira conexão.
+ */
+public final class ConnectionManager {
+
+    public record Stats(
+            long opens,
+            long schemaRuns,
+            long writerLeases,
+            long readerLeases,
+            long totalWaitNanos,
+            long maxWaitNanos,
+            long totalHoldNanos
+    ) {
+        public long leases() {
+            return writerLeases + readerLeases;
+        }
+
+        public double avgWaitMicros() {
+            long n = leases();
+            return n == 0 ? 0.0 : totalWaitNanos / 1_000.0 / n;
+        }
+
+        public double avgHoldMicros() {
+            long n = leases();
+            return n == 0 ? 0.0 : totalHoldNanos / 1_000.0 / n;
+        }
+    }
+
+    private final String jdbcUrl;
+    private final int readPoolSize;
+
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final Object openLock = new Object();
+    private volatile Connection writer;
+    private volatile boolean schemaReady;
+
+    private final BlockingQueue<Connection> idleReaders;
+    private final List<Connection> allReaders = new ArrayList<>();
+
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder schemaRuns = new LongAdder();
+    private final LongAdder writerLeases = new LongAdder();
+    private final LongAdder readerLeases = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder totalHoldNanos = new LongAdder();
+
+    public ConnectionManager(String jdbcUrl, int readPoolSize) {
+        this.jdbcUrl = jdbcUrl;
+        this.readPoolSize = isInMemory(jdbcUrl) ? 0 : Math.max(0, readPoolSize);
+        this.idleReaders = new ArrayBlockingQueue<>(Math.max(1, this.readPoolSize));
+    }
+
+    public String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    /**
+     * Conexão de escrita "crua". Só deve ser usada por quem controla o ciclo
+     * de vida do gerenciador; repositórios devem usar {@link #leaseWriter()}.
+     */
+    public Connection writerConnection() {
+        synchronized (openLock) {
+            try {
+                if (writer == null || writer.isClosed()) {
+                    if (writer != null) {
+                        System.out.println("⚠️ Connection estava fechada, reabrindo...");
+                    }
+                    writer = openPhysical();
+                    if (!schemaReady) {
+                        System.out.println("🔧 Criando tabelas...");
+                        createTables(writer);
+                        schemaReady = true;
+                        System.out.println("✅ Banco de dados pronto!");
+                    }
+                }
+                return writer;
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao conectar ao banco: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Lease exclusivo da conexão de escrita; {@code close()} libera o lease. */
+    public Connection leaseWriter() {
+        long t0 = System.nanoTime();
+        writerLock.lock();
+        try {
+            Connection conn = writerConnection();
+            recordWait(System.nanoTime() - t0);
+            writerLeases.increment();
+            return lease(conn, writerLock::unlock);
+        } catch (RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Lease de leitura. Sem pool de leitura (ou dentro de um lease de escrita
+     * da mesma thread, para enxergar a transação em andamento) cai no writer.
+     */
+    public Connection leaseReader() {
+        if (readPoolSize == 0 || writerLock.isHeldByCurrentThread()) {
+            return leaseWriter();
+        }
+
+        writerConnection(); // garante o schema antes de abrir leitores
+        long t0 = System.nanoTime();
+        Connection conn = idleReaders.poll();
+        if (conn == null) {
+            conn = openReaderIfRoom();
+        }
+        try {
+            if (conn == null) {
+                conn = idleReaders.take();
+            }
+            if (conn.isClosed()) {
+                conn = replaceReader(conn);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando conexão de leitura", e);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao conectar ao banco: " + e.getMessage(), e);
+        }
+        recordWait(System.nanoTime() - t0);
+        readerLeases.increment();
+
+        Connection leased = conn;
+        return lease(leased, () -> idleReaders.offer(leased));
+    }
+
+    public Stats stats() {
+        return new Stats(
+                opens.sum(),
+                schemaRuns.sum(),
+                writerLeases.sum(),
+                readerLeases.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get(),
+                totalHoldNanos.sum()
+        );
+    }
+
+    public void close() {
+        synchronized (openLock) {
+            closeQuietly(writer);
+            writer = null;
+            synchronized (allReaders) {
+                allReaders.forEach(ConnectionManager::closeQuietly);
+                allReaders.clear();
+            }
+            idleReaders.clear();
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    private Connection openPhysical() throws SQLException {
+        System.out.println("🔧 Criando conexão com o banco de dados...");
+        Connection conn = DriverManager.getConnection(jdbcUrl);
+        opens.increment();
+        try (Statement st = conn.createStatement()) {
+            if (!isInMemory(jdbcUrl)) {
+                st.execute("PRAGMA journal_mode = WAL");
+                st.execute("PRAGMA synchronous = NORMAL");
+            }
+        }
+        return conn;
+    }
+
+    private Connection openReaderIfRoom() {
+        synchronized (allReaders) {
+            if (allReaders.size() >= readPoolSize) return null;
+            try {
+                Connection conn = openPhysical();
+                allReaders.add(conn);
+                return conn;
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao conectar ao banco: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private Connection replaceReader(Connection dead) throws SQLException {
+        synchronized (allReaders) {
+            allReaders.remove(dead);
+            Connection conn = openPhysical();
+            allReaders.add(conn);
+            return conn;
+        }
+    }
+
+    private void createTables(Connection conn) {
+        try {
+            SchemaMigrator.migrate(conn);
+            schemaRuns.increment();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Erro ao criar tabelas: " + e.getMessage());
+            throw new RuntimeException("Erro ao criar tabelas: " + e.getMessage(), e);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection lease(Connection target, Runnable release) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler(target, release));
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private final Connection target;
+        private final Runnable release;
+        private final long leasedAt = System.nanoTime();
+        private boolean released;
+
+        LeaseHandler(Connection target, Runnable release) {
+            this.target = target;
+            this.release = release;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        totalHoldNanos.add(System.nanoTime() - leasedAt);
+                        release.run();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released || target.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Lease[" + target + "]";
+                }
+                default -> {
+                    if (released) {
+                        throw new SQLException("Lease de conexão já foi liberado");
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isInMemory(String url) {
+        return url != null && (url.contains(":memory:") || url.contains("mode=memory"));
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            if (conn != null && !conn.isClosed()) conn.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
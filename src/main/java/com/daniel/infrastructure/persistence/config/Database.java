@@ -1,15 +1,14 @@
 package com.daniel.infrastructure.persistence.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-import java.sql.Statement;
 
 public final class Database {
 
     private static final String DEFAULT_URL = "jdbc:sqlite:investment_tracker.db";
+    private static final int DEFAULT_READ_POOL_SIZE = 2;
+
     private static String jdbcUrl = DEFAULT_URL;
-    private static Connection connection = null;
+    private static ConnectionManager manager = null;
 
     private Database() {
         // Singleton
@@ -26,57 +25,40 @@ public final class Database {
         jdbcUrl = (url != null) ? url : DEFAULT_URL;
     }
 
-    public static synchronized Connection open() {
-        try {
-            if (connection == null) {
-                System.out.println("🔧 Criando conexão com o banco de dados...");
-                connection = DriverManager.getConnection(jdbcUrl);
-
-                // Criar tabelas
-                System.out.println("🔧 Criando tabelas...");
-                createTables();
-                System.out.println("✅ Banco de dados pronto!");
-            }
-
-            if (connection.isClosed()) {
-                System.out.println("⚠️ Connection estava fechada, reabrindo...");
-                connection = DriverManager.getConnection(jdbcUrl);
-                createTables();
-            }
+    /**
+     * Returns the long-lived writer connection, creating it (and the schema)
+     * on first use. Callers must NOT close it — use {@link #lease()} or
+     * {@link #leaseRead()} inside try-with-resources instead.
+     */
+    public static Connection open() {
+        return manager().writerConnection();
+    }
 
-            return connection;
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao conectar ao banco: " + e.getMessage(), e);
-        }
+    /** Exclusive lease on the writer connection; closing it releases the lease. */
+    public static Connection lease() {
+        return manager().leaseWriter();
     }
 
-    private static void createTables() {
-        try (Statement stmt = connection.createStatement()) {
-            String sql = Schema.createTables();
+    /** Lease on a read connection (falls back to the writer for in-memory DBs). */
+    public static Connection leaseRead() {
+        return manager().leaseReader();
+    }
 
-            for (String statement : sql.split(";")) {
-                String trimmed = statement.trim();
-                if (!trimmed.isEmpty()) {
-                    stmt.execute(trimmed);
-                }
-            }
+    public static ConnectionManager.Stats stats() {
+        return manager().stats();
+    }
 
-        } catch (SQLException e) {
-            System.err.println("⚠️ Erro ao criar tabelas: " + e.getMessage());
-            throw new RuntimeException("Erro ao criar tabelas: " + e.getMessage(), e);
+    public static synchronized ConnectionManager manager() {
+        if (manager == null) {
+            manager = new ConnectionManager(jdbcUrl, DEFAULT_READ_POOL_SIZE);
         }
+        return manager;
     }
 
-    public static void close() {
-        try {
-            if (connection != null) {
-                if (!connection.isClosed()) {
-                    connection.close();
-                }
-                connection = null;
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    public static synchronized void close() {
+        if (manager != null) {
+            manager.close();
+            manager = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,244 @@
+package com.daniel.infrastructure.persistence.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DDL de cada migração do {@link SchemaMigrator}, congelado na versão em que
+ * ela foi escrita. Não muda depois de publicado: alterações de schema entram
+ * como uma migração nova com o seu próprio DDL aqui, e {@link Schema} passa a
+ * retratar o resultado final.
+ */
+final class MigrationDdl {
+
+    private MigrationDdl() {
+    }
+
+    /** Versão 1: tabelas do app antes das migrações versionadas (datas TEXT ISO). */
+    static final List<String> V1_TABLES = List.of(
+            """
+            CREATE TABLE IF NOT EXISTS investment_type (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                category TEXT,
+                liquidity TEXT,
+                investment_date TEXT,
+                profitability REAL,
+                invested_value REAL,
+                type_of_investment TEXT,
+                index_type TEXT,
+                index_percentage REAL,
+                ticker TEXT,
+                purchase_price REAL,
+                quantity INTEGER
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS flows (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                date TEXT NOT NULL,
+                from_kind TEXT NOT NULL,
+                from_investment_type_id INTEGER,
+                to_kind TEXT NOT NULL,
+                to_investment_type_id INTEGER,
+                amount_cents INTEGER NOT NULL,
+                note TEXT,
+                FOREIGN KEY (from_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE,
+                FOREIGN KEY (to_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS cash_snapshots (
+                date TEXT PRIMARY KEY,
+                value_cents INTEGER NOT NULL
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS investment_snapshots (
+                date TEXT NOT NULL,
+                investment_type_id INTEGER NOT NULL,
+                value_cents INTEGER NOT NULL,
+                note TEXT,
+                PRIMARY KEY (date, investment_type_id),
+                FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS transactions (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                date TEXT NOT NULL,
+                investment_type_id INTEGER NOT NULL,
+                type TEXT NOT NULL,
+                name TEXT NOT NULL,
+                ticker TEXT,
+                quantity INTEGER,
+                unit_price_cents INTEGER,
+                total_cents INTEGER NOT NULL,
+                note TEXT,
+                FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS quotes (
+                ticker TEXT NOT NULL,
+                date TEXT NOT NULL,
+                price REAL NOT NULL,
+                change REAL,
+                change_percent REAL,
+                volume INTEGER,
+                updated_at INTEGER NOT NULL,
+                PRIMARY KEY (ticker, date)
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS app_settings (
+                key TEXT PRIMARY KEY,
+                value TEXT
+            )"""
+    );
+
+    /**
+     * Versão 2: colunas que investment_type ganhou depois da primeira versão,
+     * por nome de coluna. Cada uma só é adicionada se ainda faltar.
+     */
+    static final Map<String, String> V2_COLUMNS = v2Columns();
+
+    private static Map<String, String> v2Columns() {
+        Map<String, String> c = new LinkedHashMap<>();
+        c.put("type_of_investment", "ALTER TABLE investment_type ADD COLUMN type_of_investment TEXT");
+        c.put("index_type", "ALTER TABLE investment_type ADD COLUMN index_type TEXT");
+        c.put("index_percentage", "ALTER TABLE investment_type ADD COLUMN index_percentage REAL");
+        c.put("ticker", "ALTER TABLE investment_type ADD COLUMN ticker TEXT");
+        c.put("purchase_price", "ALTER TABLE investment_type ADD COLUMN purchase_price REAL");
+        c.put("quantity", "ALTER TABLE investment_type ADD COLUMN quantity INTEGER");
+        return Collections.unmodifiableMap(c);
+    }
+
+    /** Versão 4: índices da base. */
+    static final List<String> V4_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_investment_ticker ON investment_type(ticker)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_date ON investment_type(investment_date)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_category ON investment_type(category)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(date DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_type_id ON transactions(investment_type_id)",
+            "CREATE INDEX IF NOT EXISTS idx_flows_date ON flows(date DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_flows_from_type ON flows(from_investment_type_id)",
+            "CREATE INDEX IF NOT EXISTS idx_flows_to_type ON flows(to_investment_type_id)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_date ON investment_snapshots(date DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_type ON investment_snapshots(investment_type_id)"
+    );
+
+    /**
+     * Versão 5: colunas das tabelas reconstruídas com {@code date INTEGER}
+     * (dia epoch). Só o corpo; o nome entra em {@link #v5CreateTable}.
+     */
+    private static final Map<String, String> V5_TABLES = v5Tables();
+
+    private static Map<String, String> v5Tables() {
+        Map<String, String> t = new LinkedHashMap<>();
+        t.put("flows", """
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    date INTEGER NOT NULL,
+                    from_kind TEXT NOT NULL,
+                    from_investment_type_id INTEGER,
+                    to_kind TEXT NOT NULL,
+                    to_investment_type_id INTEGER,
+                    amount_cents INTEGER NOT NULL,
+                    note TEXT,
+                    FOREIGN KEY (from_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE,
+                    FOREIGN KEY (to_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE""");
+        t.put("cash_snapshots", """
+                    date INTEGER PRIMARY KEY,
+                    value_cents INTEGER NOT NULL""");
+        t.put("investment_snapshots", """
+                    date INTEGER NOT NULL,
+                    investment_type_id INTEGER NOT NULL,
+                    value_cents INTEGER NOT NULL,
+                    note TEXT,
+                    PRIMARY KEY (date, investment_type_id),
+                    FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE""");
+        t.put("transactions", """
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    date INTEGER NOT NULL,
+                    investment_type_id INTEGER NOT NULL,
+                    type TEXT NOT NULL,
+                    name TEXT NOT NULL,
+                    ticker TEXT,
+                    quantity INTEGER,
+                    unit_price_cents INTEGER,
+                    total_cents INTEGER NOT NULL,
+                    note TEXT,
+                    FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE""");
+        t.put("quotes", """
+                    ticker TEXT NOT NULL,
+                    date INTEGER NOT NULL,
+                    price REAL NOT NULL,
+                    change REAL,
+                    change_percent REAL,
+                    volume INTEGER,
+                    updated_at INTEGER NOT NULL,
+                    PRIMARY KEY (ticker, date)""");
+        return t;
+    }
+
+    /** Tabelas que a versão 5 reconstrói, na ordem da reconstrução. */
+    static List<String> v5Rebuilt() {
+        return List.copyOf(V5_TABLES.keySet());
+    }
+
+    /** CREATE TABLE com as colunas de {@code table} na versão 5, sob {@code newName}. */
+    static String v5CreateTable(String table, String newName) {
+        String columns = V5_TABLES.get(table);
+        if (columns == null) {
+            throw new IllegalArgumentException("Tabela desconhecida: " + table);
+        }
+        return "CREATE TABLE " + newName + " (\n" + columns + "\n)";
+    }
+
+    /** Índices substituídos na versão 5 por pares (tipo, data). */
+    static final List<String> V5_DROPPED_INDEXES = List.of(
+            "DROP INDEX IF EXISTS idx_transactions_type_id",
+            "DROP INDEX IF EXISTS idx_investment_snapshots_type"
+    );
+
+    /** Versão 5: índices sobre as tabelas reconstruídas. */
+    static final List<String> V5_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_investment_ticker ON investment_type(ticker)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_date ON investment_type(investment_date)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_category ON investment_type(category)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(date DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_type_date ON transactions(investment_type_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_flows_date ON flows(date DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_flows_from_type ON flows(from_investment_type_id)",
+            "CREATE INDEX IF NOT EXISTS idx_flows_to_type ON flows(to_investment_type_id)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_date ON investment_snapshots(date DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_type_date ON investment_snapshots(investment_type_id, date)"
+    );
+
+    /** Versão 6: o índice (tipo, data) dos snapshots vira um índice de cobertura. */
+    static final List<String> V6_INDEXES = List.of(
+            "DROP INDEX IF EXISTS idx_investment_snapshots_type_date",
+            "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_series "
+                    + "ON investment_snapshots(investment_type_id, date, value_cents)"
+    );
+
+    /** Versão 7: universo de tickers negociáveis. */
+    static final String V7_TICKERS = """
+            CREATE TABLE IF NOT EXISTS tickers (
+                ticker TEXT PRIMARY KEY,
+                updated_at INTEGER NOT NULL
+            )""";
+
+    /** Versão 8: último valor de CDI/SELIC/IPCA. */
+    static final String V8_BENCHMARK_RATES = """
+            CREATE TABLE IF NOT EXISTS benchmark_rates (
+                series TEXT PRIMARY KEY,
+                annual_rate REAL NOT NULL,
+                updated_at INTEGER NOT NULL
+            )""";
+
+    /** Versão 9: séries históricas do SGS/BCB. */
+    static final String V9_INDEX_HISTORY = """
+            CREATE TABLE IF NOT EXISTS index_history (
+                series TEXT NOT NULL,
+                date INTEGER NOT NULL,
+                value REAL NOT NULL,
+                PRIMARY KEY (series, date)
+            )""";
+}
@@ -1,19 +1,44 @@
 package com.daniel.infrastructure.persistence.config;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public final class Schema {
 
     private Schema() {
     }
 
+    /**
+     * DDL completo do schema atual (tabelas e índices), como um único script.
+     * Quem cria e atualiza os bancos é o {@link SchemaMigrator}, com o DDL
+     * congelado de cada migração; {@link #tables()} e {@link #indexes()} são o
+     * retrato do resultado, e os testes conferem que as migrações chegam nele.
+     */
     public static String createTables() {
-        return """
-                -- Tipos de Investimento
-                CREATE TABLE IF NOT EXISTS investment_type (
+        List<String> all = new ArrayList<>(tables());
+        all.addAll(indexes());
+        return String.join(";\n\n", all) + ";\n";
+    }
+
+    /**
+     * Colunas de cada tabela, na ordem em que as migrações as deixam (em
+     * investment_type, investment_date foi recriada no fim). Datas são INTEGER
+     * com o dia epoch ({@link java.time.LocalDate#toEpochDay()}): comparação
+     * numérica nos intervalos e leitura sem {@code LocalDate.parse}.
+     */
+    private static final Map<String, String> TABLES = tableDefinitions();
+
+    private static Map<String, String> tableDefinitions() {
+        Map<String, String> t = new LinkedHashMap<>();
+        // Tipos de Investimento
+        t.put("investment_type", """
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
                     name TEXT NOT NULL,
                     category TEXT,
                     liquidity TEXT,
-                    investment_date TEXT,
                     profitability REAL,
                     invested_value REAL,
                     type_of_investment TEXT,
@@ -21,17 +46,12 @@ public final class Schema {
                     index_percentage REAL,
                     ticker TEXT,
                     purchase_price REAL,
-                    quantity INTEGER
-                );
-                
-                CREATE INDEX IF NOT EXISTS idx_investment_ticker ON investment_type(ticker);
-                CREATE INDEX IF NOT EXISTS idx_investment_date ON investment_type(investment_date);
-                CREATE INDEX IF NOT EXISTS idx_investment_category ON investment_type(category);
-                
-                -- Fluxos
-                CREATE TABLE IF NOT EXISTS flows (
+                    quantity INTEGER,
+                    investment_date INTEGER""");
+        // Fluxos
+        t.put("flows", """
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    date TEXT NOT NULL,
+                    date INTEGER NOT NULL,
                     from_kind TEXT NOT NULL,
                     from_investment_type_id INTEGER,
                     to_kind TEXT NOT NULL,
@@ -39,29 +59,23 @@ public final class Schema {
                     amount_cents INTEGER NOT NULL,
                     note TEXT,
                     FOREIGN KEY (from_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE,
-                    FOREIGN KEY (to_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE
-                );
-                
-                -- Snapshots de Caixa
-                CREATE TABLE IF NOT EXISTS cash_snapshots (
-                    date TEXT PRIMARY KEY,
-                    value_cents INTEGER NOT NULL
-                );
-                
-                -- Snapshots de Investimentos
-                CREATE TABLE IF NOT EXISTS investment_snapshots (
-                    date TEXT NOT NULL,
+                    FOREIGN KEY (to_investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE""");
+        // Snapshots de Caixa
+        t.put("cash_snapshots", """
+                    date INTEGER PRIMARY KEY,
+                    value_cents INTEGER NOT NULL""");
+        // Snapshots de Investimentos
+        t.put("investment_snapshots", """
+                    date INTEGER NOT NULL,
                     investment_type_id INTEGER NOT NULL,
                     value_cents INTEGER NOT NULL,
                     note TEXT,
                     PRIMARY KEY (date, investment_type_id),
-                    FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE
-                );
-                
-                -- Transações (append-only: compra/venda)
-                CREATE TABLE IF NOT EXISTS transactions (
+                    FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE""");
+        // Transações (append-only: compra/venda)
+        t.put("transactions", """
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    date TEXT NOT NULL,
+                    date INTEGER NOT NULL,
                     investment_type_id INTEGER NOT NULL,
                     type TEXT NOT NULL,
                     name TEXT NOT NULL,
@@ -70,67 +84,63 @@ public final class Schema {
                     unit_price_cents INTEGER,
                     total_cents INTEGER NOT NULL,
                     note TEXT,
-                    FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE
-                );
-
-                CREATE INDEX IF NOT EXISTS idx_transactions_date
-                    ON transactions(date DESC);
-
-                CREATE INDEX IF NOT EXISTS idx_transactions_type_id
-                    ON transactions(investment_type_id);
-
-                -- Índices para performance
-                CREATE INDEX IF NOT EXISTS idx_flows_date
-                    ON flows(date DESC);
-                
-                CREATE INDEX IF NOT EXISTS idx_flows_from_type 
-                    ON flows(from_investment_type_id);
-                
-                CREATE INDEX IF NOT EXISTS idx_flows_to_type 
-                    ON flows(to_investment_type_id);
-                
-                CREATE INDEX IF NOT EXISTS idx_investment_snapshots_date 
-                    ON investment_snapshots(date DESC);
-                
-                CREATE INDEX IF NOT EXISTS idx_investment_snapshots_type
-                    ON investment_snapshots(investment_type_id);
-
-                -- Configurações do app
-                CREATE TABLE IF NOT EXISTS app_settings (
+                    FOREIGN KEY (investment_type_id) REFERENCES investment_type(id) ON DELETE CASCADE""");
+        // Cotações (última do dia por ticker, vira histórico local de preços)
+        t.put("quotes", """
+                    ticker TEXT NOT NULL,
+                    date INTEGER NOT NULL,
+                    price REAL NOT NULL,
+                    change REAL,
+                    change_percent REAL,
+                    volume INTEGER,
+                    updated_at INTEGER NOT NULL,
+                    PRIMARY KEY (ticker, date)""");
+        // Universo de tickers negociáveis (autocomplete), baixado de tempos em tempos
+        t.put("tickers", """
+                    ticker TEXT PRIMARY KEY,
+                    updated_at INTEGER NOT NULL""");
+        // Último valor de CDI/SELIC/IPCA (taxa anual decimal), sobrevive a reinícios
+        t.put("benchmark_rates", """
+                    series TEXT PRIMARY KEY,
+                    annual_rate REAL NOT NULL,
+                    updated_at INTEGER NOT NULL""");
+        // Séries históricas do SGS/BCB (CDI, SELIC, IPCA): valor em % do período por data (dia epoch)
+        t.put("index_history", """
+                    series TEXT NOT NULL,
+                    date INTEGER NOT NULL,
+                    value REAL NOT NULL,
+                    PRIMARY KEY (series, date)""");
+        // Configurações do app
+        t.put("app_settings", """
                     key TEXT PRIMARY KEY,
-                    value TEXT
-                );
-                """;
+                    value TEXT""");
+        return Collections.unmodifiableMap(t);
     }
 
-    public static String migrationScript() {
-        return """
-                -- Adicionar novas colunas se não existirem
-                ALTER TABLE investment_type ADD COLUMN type_of_investment TEXT;
-                ALTER TABLE investment_type ADD COLUMN index_type TEXT;
-                ALTER TABLE investment_type ADD COLUMN index_percentage REAL;
-                ALTER TABLE investment_type ADD COLUMN ticker TEXT;
-                ALTER TABLE investment_type ADD COLUMN purchase_price REAL;
-                ALTER TABLE investment_type ADD COLUMN quantity INTEGER;
-                """;
+    /** CREATE TABLE IF NOT EXISTS de todas as tabelas, um comando por item. */
+    public static List<String> tables() {
+        List<String> out = new ArrayList<>(TABLES.size());
+        for (var e : TABLES.entrySet()) {
+            out.add("CREATE TABLE IF NOT EXISTS " + e.getKey() + " (\n" + e.getValue() + "\n)");
+        }
+        return out;
     }
 
-    public static boolean needsMigration(java.sql.Connection conn) {
-        try (var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("PRAGMA table_info(investment_type)")) {
-
-            boolean hasTypeField = false;
-            while (rs.next()) {
-                String colName = rs.getString("name");
-                if ("type_of_investment".equals(colName)) {
-                    hasTypeField = true;
-                    break;
-                }
-            }
-            return !hasTypeField;
-
-        } catch (java.sql.SQLException e) {
-            return true;
-        }
+    /** Índices do schema atual, sobre as colunas de {@link #tables()}. */
+    public static List<String> indexes() {
+        return List.of(
+                "CREATE INDEX IF NOT EXISTS idx_investment_ticker ON investment_type(ticker)",
+                "CREATE INDEX IF NOT EXISTS idx_investment_date ON investment_type(investment_date)",
+                "CREATE INDEX IF NOT EXISTS idx_investment_category ON investment_type(category)",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(date DESC)",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_type_date ON transactions(investment_type_id, date)",
+                "CREATE INDEX IF NOT EXISTS idx_flows_date ON flows(date DESC)",
+                "CREATE INDEX IF NOT EXISTS idx_flows_from_type ON flows(from_investment_type_id)",
+                "CREATE INDEX IF NOT EXISTS idx_flows_to_type ON flows(to_investment_type_id)",
+                "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_date ON investment_snapshots(date DESC)",
+                // cobre a série de um ativo inteira, sem tocar na tabela
+                "CREATE INDEX IF NOT EXISTS idx_investment_snapshots_series "
+                        + "ON investment_snapshots(investment_type_id, date, value_cents)"
+        );
     }
-}
\ No newline at end of file
+}
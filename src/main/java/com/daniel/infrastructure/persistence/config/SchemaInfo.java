@@ -0,0 +1,23 @@
+package com.daniel.infrastructure.persistence.config;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Layout do banco lido por {@link SchemaMigrator#inspect}: versão
+ * ({@code PRAGMA user_version}) e colunas de cada tabela. Depois das
+ * migrações todo banco tem o mesmo layout, então os repositórios não
+ * precisam consultar isto; serve para conferir o resultado de uma migração.
+ */
+public record SchemaInfo(int version, Map<String, Set<String>> columnsByTable) {
+
+    public SchemaInfo {
+        columnsByTable = Map.copyOf(columnsByTable);
+    }
+
+    public boolean hasColumn(String table, String column) {
+        Set<String> cols = columnsByTable.get(table);
+        return cols != null && cols.contains(column);
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.daniel.infrastructure.persistence.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Migrações versionadas por {@code PRAGMA user_version}.
+ *
+ * Cada migração roda uma única vez, em ordem, dentro da sua própria
+ * transação, que também grava a nova versão — ou aplica tudo, ou nada.
+ * Bancos criados antes deste mecanismo estão na versão 0 e passam por
+ * todas as etapas; por isso cada uma tolera o que já existir. O DDL de cada
+ * etapa fica congelado em {@link MigrationDdl}.
+ */
+public final class SchemaMigrator {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    public record Migration(int version, String description, Step step) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "tabelas base", conn -> executeAll(conn, MigrationDdl.V1_TABLES)),
+            new Migration(2, "colunas novas de investment_type", SchemaMigrator::addInvestmentTypeColumns),
+            new Migration(3, "amount_cents -> value_cents nos snapshots", SchemaMigrator::renameLegacyValueColumns),
+            new Migration(4, "índices", conn -> executeAll(conn, MigrationDdl.V4_INDEXES)),
+            new Migration(5, "datas TEXT -> dia epoch INTEGER", SchemaMigrator::convertDatesToEpochDays),
+            new Migration(6, "índice de cobertura das séries", conn -> executeAll(conn, MigrationDdl.V6_INDEXES)),
+            new Migration(7, "universo de tickers", conn -> executeAll(conn, List.of(MigrationDdl.V7_TICKERS))),
+            new Migration(8, "cache persistente das taxas do BCB", SchemaMigrator::addBenchmarkRates),
+            new Migration(9, "histórico das séries do BCB",
+                    conn -> executeAll(conn, List.of(MigrationDdl.V9_INDEX_HISTORY)))
+    );
+
+    private SchemaMigrator() {
+    }
+
+    public static List<Migration> migrations() {
+        return MIGRATIONS;
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /** Aplica as migrações pendentes e devolve o layout resultante (versão e colunas). */
+    public static SchemaInfo migrate(Connection conn) throws SQLException {
+        return migrate(conn, MIGRATIONS);
+    }
+
+    static SchemaInfo migrate(Connection conn, List<Migration> migrations) throws SQLException {
+        int current = userVersion(conn);
+        for (Migration m : migrations) {
+            if (m.version() <= current) continue;
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                m.step().apply(conn);
+                try (Statement st = conn.createStatement()) {
+                    st.execute("PRAGMA user_version = " + m.version());
+                }
+                conn.commit();
+                System.out.println("🔧 Migração " + m.version() + " aplicada: " + m.description());
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw new SQLException("Falha na migração " + m.version() + " (" + m.description() + "): "
+                        + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            current = m.version();
+        }
+        return inspect(conn);
+    }
+
+    public static int userVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** Lê versão e colunas de todas as tabelas do banco. */
+    public static SchemaInfo inspect(Connection conn) throws SQLException {
+        Map<String, Set<String>> columns = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'")) {
+            while (rs.next()) {
+                String table = rs.getString(1);
+                columns.put(table, columnsOf(conn, table));
+            }
+        }
+        return new SchemaInfo(userVersion(conn), columns);
+    }
+
+    // ---------------- etapas ----------------
+
+    private static void addInvestmentTypeColumns(Connection conn) throws SQLException {
+        Set<String> existing = columnsOf(conn, "investment_type");
+        try (Statement st = conn.createStatement()) {
+            for (var e : MigrationDdl.V2_COLUMNS.entrySet()) {
+                if (!existing.contains(e.getKey())) st.execute(e.getValue());
+            }
+        }
+    }
+
+    private static void renameLegacyValueColumns(Connection conn) throws SQLException {
+        for (String table : List.of("cash_snapshots", "investment_snapshots")) {
+            Set<String> cols = columnsOf(conn, table);
+            if (cols.contains("amount_cents") && !cols.contains("value_cents")) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("ALTER TABLE " + table + " RENAME COLUMN amount_cents TO value_cents");
+                }
+            }
+        }
+    }
+
+    /**
+     * SQLite não muda o tipo de uma coluna: as tabelas filhas são recriadas
+     * com o DDL da versão 5 e copiadas convertendo a data; em investment_type,
+     * que é referenciada pelas outras, a coluna é trocada no lugar. Os índices
+     * só de tipo da base saem explicitamente, já que uma tabela que não passou
+     * pela reconstrução ainda os teria.
+     *
+     * As tabelas reconstruídas exigem {@code date NOT NULL}: linhas com data
+     * vazia ou ilegível não têm como ser convertidas e ficam de fora (com
+     * aviso no log), em vez de impedir a migração e a partida do app.
+     */
+    private static void convertDatesToEpochDays(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String table : MigrationDdl.v5Rebuilt()) {
+                if (!"TEXT".equalsIgnoreCase(columnType(conn, table, "date"))) continue;
+
+                long invalid = countInvalidDates(st, table);
+                if (invalid > 0) {
+                    System.err.println("⚠️ Migração 5: " + invalid + " linha(s) de " + table
+                            + " com data inválida descartadas");
+                }
+
+                List<String> columns = List.copyOf(columnsOf(conn, table));
+                List<String> select = columns.stream()
+                        .map(c -> c.equals("date") ? epochDayOf("date") : c)
+                        .toList();
+                String tmp = table + "_new";
+                st.execute(MigrationDdl.v5CreateTable(table, tmp));
+                st.execute("INSERT INTO " + tmp + "(" + String.join(", ", columns) + ") "
+                        + "SELECT " + String.join(", ", select) + " FROM " + table
+                        + " WHERE " + epochDayOf("date") + " IS NOT NULL");
+                st.execute("DROP TABLE " + table);
+                st.execute("ALTER TABLE " + tmp + " RENAME TO " + table);
+            }
+
+            if ("TEXT".equalsIgnoreCase(columnType(conn, "investment_type", "investment_date"))) {
+                st.execute("DROP INDEX IF EXISTS idx_investment_date");
+                st.execute("ALTER TABLE investment_type ADD COLUMN investment_day INTEGER");
+                st.execute("UPDATE investment_type SET investment_day = " + epochDayOf("investment_date"));
+                st.execute("ALTER TABLE investment_type DROP COLUMN investment_date");
+                st.execute("ALTER TABLE investment_type RENAME COLUMN investment_day TO investment_date");
+            }
+        }
+        // DROP TABLE levou os índices das tabelas reconstruídas junto
+        executeAll(conn, MigrationDdl.V5_DROPPED_INDEXES);
+        executeAll(conn, MigrationDdl.V5_INDEXES);
+    }
+
+    /** 'AAAA-MM-DD' -> dia epoch; NULL, vazio ou texto que não é data viram NULL. */
+    private static String epochDayOf(String column) {
+        return "CAST(julianday(" + column + ") - 2440587.5 AS INTEGER)";
+    }
+
+    private static long countInvalidDates(Statement st, String table) throws SQLException {
+        try (ResultSet rs = st.executeQuery(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + epochDayOf("date") + " IS NULL")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    /**
+     * Cria {@code benchmark_rates} e importa os valores que a tela de
+     * configurações guardava em {@code app_settings} ({@code rate_cdi} etc.).
+     * Entram com {@code updated_at = 0}: aparecem na partida, mas a primeira
+     * consulta ao BCB já os substitui.
+     */
+    private static void addBenchmarkRates(Connection conn) throws SQLException {
+        List<String> imports = new ArrayList<>();
+        imports.add(MigrationDdl.V8_BENCHMARK_RATES);
+        for (String series : List.of("CDI", "SELIC", "IPCA")) {
+            imports.add("INSERT OR IGNORE INTO benchmark_rates(series, annual_rate, updated_at) "
+                    + "SELECT '" + series + "', CAST(value AS REAL), 0 FROM app_settings "
+                    + "WHERE key = 'rate_" + series.toLowerCase() + "' AND CAST(value AS REAL) > 0");
+        }
+        executeAll(conn, imports);
+    }
+
+    private static void executeAll(Connection conn, List<String> statements) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String sql : statements) {
+                st.execute(sql);
+            }
+        }
+    }
+
+    private static String columnType(Connection conn, String table, String column) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equals(rs.getString("name"))) return rs.getString("type");
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> columnsOf(Connection conn, String table) throws SQLException {
+        Set<String> cols = new LinkedHashSet<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                cols.add(rs.getString("name"));
+            }
+        }
+        return cols;
+    }
+}
@@ -9,7 +9,7 @@ public final class AppSettingsRepository {
 
     public Optional<String> get(String key) {
         String sql = "SELECT value FROM app_settings WHERE key = ?";
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.leaseRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, key);
             try (ResultSet rs = ps.executeQuery()) {
@@ -26,7 +26,7 @@ public final class AppSettingsRepository {
     public void set(String key, String value) {
         String sql = "INSERT INTO app_settings (key, value) VALUES (?, ?) " +
                 "ON CONFLICT(key) DO UPDATE SET value = excluded.value";
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, key);
             ps.setString(2, value);
@@ -38,7 +38,7 @@ public final class AppSettingsRepository {
 
     public void delete(String key) {
         String sql = "DELETE FROM app_settings WHERE key = ?";
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, key);
             ps.executeUpdate();
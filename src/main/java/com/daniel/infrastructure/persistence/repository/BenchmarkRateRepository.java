@@ -0,0 +1,50 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.entity.BenchmarkRate;
+import com.daniel.core.domain.repository.IBenchmarkRateRepository;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class BenchmarkRateRepository implements IBenchmarkRateRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO benchmark_rates(series, annual_rate, updated_at)
+            VALUES(?, ?, ?)
+            ON CONFLICT(series) DO UPDATE SET
+                annual_rate = excluded.annual_rate,
+                updated_at = excluded.updated_at
+            """;
+
+    @Override
+    public Map<String, BenchmarkRate> loadAll() {
+        String sql = "SELECT series, annual_rate, updated_at FROM benchmark_rates";
+        Map<String, BenchmarkRate> out = new HashMap<>();
+        try (Connection conn = Database.leaseRead();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                BenchmarkRate r = new BenchmarkRate(rs.getString(1), rs.getDouble(2), rs.getLong(3));
+                out.put(r.series(), r);
+            }
+            return out;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load benchmark rates", e);
+        }
+    }
+
+    @Override
+    public void upsert(BenchmarkRate rate) {
+        try (Connection conn = Database.lease();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+            ps.setString(1, rate.series());
+            ps.setDouble(2, rate.annualRate());
+            ps.setLong(3, rate.updatedAtMillis());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save benchmark rate", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * Conversão entre {@link LocalDate} e as colunas de data do banco, gravadas
+ * como INTEGER com o dia epoch. Só aritmética: nada de formatar ou fazer
+ * parse de string por linha.
+ */
+final class DateCodec {
+
+    private DateCodec() {
+    }
+
+    static void bind(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setLong(index, date.toEpochDay());
+        }
+    }
+
+    /** Data da coluna, ou {@code null} se a coluna for NULL. */
+    static LocalDate read(ResultSet rs, int column) throws SQLException {
+        long day = rs.getLong(column);
+        return rs.wasNull() ? null : LocalDate.ofEpochDay(day);
+    }
+
+    static LocalDate read(ResultSet rs, String column) throws SQLException {
+        long day = rs.getLong(column);
+        return rs.wasNull() ? null : LocalDate.ofEpochDay(day);
+    }
+}
@@ -13,24 +13,30 @@ import java.util.List;
 public final class FlowRepository implements IFlowRepository {
 
     public List<Flow> listForDate(LocalDate date) {
+        return listBetween(date, date);
+    }
+
+    @Override
+    public List<Flow> listBetween(LocalDate from, LocalDate to) {
         String sql = """
             SELECT id, date,
                    from_kind, from_investment_type_id,
                    to_kind, to_investment_type_id,
                    amount_cents, note
             FROM flows
-            WHERE date = ?
-            ORDER BY id ASC
+            WHERE date BETWEEN ? AND ?
+            ORDER BY date ASC, id ASC
             """;
 
         List<Flow> out = new ArrayList<>();
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.leaseRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, date.toString());
+            DateCodec.bind(ps, 1, from);
+            DateCodec.bind(ps, 2, to);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     long id = rs.getLong("id");
-                    LocalDate d = LocalDate.parse(rs.getString("date"));
+                    LocalDate d = DateCodec.read(rs, "date");
 
                     FlowKind fromKind = FlowKind.valueOf(rs.getString("from_kind"));
                     Long fromInvId = toNullableLong(rs.getObject("from_investment_type_id"));
@@ -60,9 +66,9 @@ public final class FlowRepository implements IFlowRepository {
             VALUES(?, ?, ?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, f.date().toString());
+            DateCodec.bind(ps, 1, f.date());
             ps.setString(2, f.fromKind().name());
             if (f.fromInvestmentTypeId() == null) ps.setNull(3, java.sql.Types.INTEGER);
             else ps.setLong(3, f.fromInvestmentTypeId());
@@ -86,7 +92,7 @@ public final class FlowRepository implements IFlowRepository {
     }
 
     public void delete(long id) {
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement("DELETE FROM flows WHERE id = ?")) {
             ps.setLong(1, id);
             ps.executeUpdate();
@@ -0,0 +1,84 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.entity.IndexPoint;
+import com.daniel.core.domain.repository.IIndexHistoryRepository;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class IndexHistoryRepository implements IIndexHistoryRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO index_history(series, date, value)
+            VALUES(?, ?, ?)
+            ON CONFLICT(series, date) DO UPDATE SET
+                value = excluded.value
+            """;
+
+    @Override
+    public void upsertAll(Collection<IndexPoint> points) {
+        if (points.isEmpty()) return;
+
+        try (Connection conn = Database.lease()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+                for (IndexPoint p : points) {
+                    ps.setString(1, p.series());
+                    ps.setLong(2, p.date().toEpochDay());
+                    ps.setDouble(3, p.valuePercent());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save index history", e);
+        }
+    }
+
+    @Override
+    public List<IndexPoint> load(String series) {
+        String sql = "SELECT date, value FROM index_history WHERE series = ? ORDER BY date";
+        List<IndexPoint> out = new ArrayList<>();
+        try (Connection conn = Database.leaseRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, series);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new IndexPoint(series, LocalDate.ofEpochDay(rs.getLong(1)), rs.getDouble(2)));
+                }
+            }
+            return out;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load index history", e);
+        }
+    }
+
+    @Override
+    public LocalDate lastDate(String series) {
+        String sql = "SELECT MAX(date) FROM index_history WHERE series = ?";
+        try (Connection conn = Database.leaseRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, series);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    long day = rs.getLong(1);
+                    return rs.wasNull() ? null : LocalDate.ofEpochDay(day);
+                }
+                return null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load index history date", e);
+        }
+    }
+}
@@ -17,7 +17,7 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
         String sql = "SELECT * FROM investment_type ORDER BY name";
 
         List<InvestmentType> list = new ArrayList<>();
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.leaseRead();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
 
@@ -34,7 +34,7 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
     public void save(String name) {
         String sql = "INSERT INTO investment_type (name) VALUES (?)";
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, name);
             ps.executeUpdate();
@@ -55,12 +55,12 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, name);
             ps.setString(2, category);
             ps.setString(3, liquidity);
-            ps.setString(4, investmentDate != null ? investmentDate.toString() : null);
+            DateCodec.bind(ps, 4, investmentDate);
             ps.setBigDecimal(5, profitability);
             ps.setBigDecimal(6, investedValue);
             ps.setString(7, typeOfInvestment);
@@ -100,12 +100,12 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
             WHERE id = ?
             """;
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, name);
             ps.setString(2, category);
             ps.setString(3, liquidity);
-            ps.setString(4, investmentDate != null ? investmentDate.toString() : null);
+            DateCodec.bind(ps, 4, investmentDate);
             ps.setBigDecimal(5, profitability);
             ps.setBigDecimal(6, investedValue);
             ps.setString(7, typeOfInvestment);
@@ -129,7 +129,7 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
     public void rename(int id, String newName) {
         String sql = "UPDATE investment_type SET name = ? WHERE id = ?";
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, newName);
             ps.setInt(2, id);
@@ -143,7 +143,7 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
     public void delete(long id) {
         String sql = "DELETE FROM investment_type WHERE id = ?";
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, id);
             ps.executeUpdate();
@@ -158,9 +158,7 @@ public final class InvestmentTypeRepository implements IInvestmentTypeRepository
         String category = rs.getString("category");
         String liquidity = rs.getString("liquidity");
 
-        String dateStr = rs.getString("investment_date");
-        LocalDate investmentDate = dateStr != null && !dateStr.isBlank() ?
-                LocalDate.parse(dateStr) : null;
+        LocalDate investmentDate = DateCodec.read(rs, "investment_date");
 
         BigDecimal profitability = rs.getBigDecimal("profitability");
         BigDecimal investedValue = rs.getBigDecimal("invested_value");
@@ -0,0 +1,179 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.entity.Quote;
+import com.daniel.core.domain.repository.IQuoteRepository;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+
+public final class QuoteRepository implements IQuoteRepository {
+
+    private static final int MAX_IN_PARAMS = 500;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO quotes(ticker, date, price, change, change_percent, volume, updated_at)
+            VALUES(?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(ticker, date) DO UPDATE SET
+                price = excluded.price,
+                change = excluded.change,
+                change_percent = excluded.change_percent,
+                volume = excluded.volume,
+                updated_at = excluded.updated_at
+            """;
+
+    @Override
+    public void upsert(Quote quote) {
+        upsertAll(List.of(quote));
+    }
+
+    @Override
+    public void upsertAll(Collection<Quote> quotes) {
+        if (quotes.isEmpty()) return;
+
+        try (Connection conn = Database.lease()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+                for (Quote q : quotes) {
+                    ps.setString(1, q.ticker());
+                    ps.setLong(2, q.date().toEpochDay());
+                    ps.setDouble(3, q.price());
+                    ps.setDouble(4, q.change());
+                    ps.setDouble(5, q.changePercent());
+                    ps.setLong(6, q.volume());
+                    ps.setLong(7, q.updatedAtMillis());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to upsert quotes", e);
+        }
+    }
+
+    @Override
+    public Map<String, Quote> latestAll() {
+        String sql = """
+            SELECT q.ticker, q.date, q.price, q.change, q.change_percent, q.volume, q.updated_at
+            FROM quotes q
+            JOIN (SELECT ticker, MAX(date) AS date FROM quotes GROUP BY ticker) last
+              ON last.ticker = q.ticker AND last.date = q.date
+            """;
+
+        Map<String, Quote> out = new LinkedHashMap<>();
+        try (Connection conn = Database.leaseRead();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                Quote q = mapRow(rs);
+                out.put(q.ticker(), q);
+            }
+            return out;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load latest quotes", e);
+        }
+    }
+
+    @Override
+    public Quote latest(String ticker) {
+        String sql = """
+            SELECT ticker, date, price, change, change_percent, volume, updated_at
+            FROM quotes
+            WHERE ticker = ?
+            ORDER BY date DESC
+            LIMIT 1
+            """;
+
+        try (Connection conn = Database.leaseRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, ticker);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load quote", e);
+        }
+    }
+
+    @Override
+    public Map<String, Quote> latest(Collection<String> tickers) {
+        Map<String, Quote> out = new LinkedHashMap<>();
+        List<String> all = List.copyOf(new LinkedHashSet<>(tickers));
+        if (all.isEmpty()) return out;
+
+        try (Connection conn = Database.leaseRead()) {
+            // Lotes abaixo do limite de parâmetros do SQLite
+            for (int from = 0; from < all.size(); from += MAX_IN_PARAMS) {
+                List<String> chunk = all.subList(from, Math.min(all.size(), from + MAX_IN_PARAMS));
+                String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                String sql = """
+                    SELECT q.ticker, q.date, q.price, q.change, q.change_percent, q.volume, q.updated_at
+                    FROM quotes q
+                    JOIN (SELECT ticker, MAX(date) AS date FROM quotes
+                          WHERE ticker IN (%s) GROUP BY ticker) last
+                      ON last.ticker = q.ticker AND last.date = q.date
+                    """.formatted(in);
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Quote q = mapRow(rs);
+                            out.put(q.ticker(), q);
+                        }
+                    }
+                }
+            }
+            return out;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load quotes", e);
+        }
+    }
+
+    @Override
+    public List<Quote> history(String ticker, LocalDate from, LocalDate to) {
+        String sql = """
+            SELECT ticker, date, price, change, change_percent, volume, updated_at
+            FROM quotes
+            WHERE ticker = ? AND date >= ? AND date <= ?
+            ORDER BY date ASC
+            """;
+
+        List<Quote> out = new ArrayList<>();
+        try (Connection conn = Database.leaseRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, ticker);
+            ps.setLong(2, from.toEpochDay());
+            ps.setLong(3, to.toEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(mapRow(rs));
+                }
+            }
+            return out;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load quote history", e);
+        }
+    }
+
+    private Quote mapRow(ResultSet rs) throws SQLException {
+        return new Quote(
+                rs.getString(1),
+                LocalDate.ofEpochDay(rs.getLong(2)),
+                rs.getDouble(3),
+                rs.getDouble(4),
+                rs.getDouble(5),
+                rs.getLong(6),
+                rs.getLong(7)
+        );
+    }
+}
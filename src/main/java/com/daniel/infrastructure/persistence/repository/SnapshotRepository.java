@@ -1,28 +1,26 @@
 package com.daniel.infrastructure.persistence.repository;
 
+import com.daniel.core.domain.entity.SnapshotRange;
 import com.daniel.core.domain.repository.ISnapshotRepository;
+import com.daniel.core.util.LongLongMap;
 import com.daniel.infrastructure.persistence.config.Database;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.*;
 
+/**
+ * Snapshots diários de caixa e investimentos.
+ *
+ * Bancos antigos gravavam o valor em {@code amount_cents}; a migração 3 de
+ * {@link com.daniel.infrastructure.persistence.config.SchemaMigrator} renomeia
+ * para {@code value_cents} na abertura, então todo o SQL daqui usa só a
+ * coluna nova.
+ */
 public final class SnapshotRepository implements ISnapshotRepository {
 
     public long getCash(LocalDate date) {
-        try {
-            return querySingleLong(
-                    "SELECT value_cents FROM cash_snapshots WHERE date = ?",
-                    date
-            );
-        } catch (RuntimeException ex) {
-            if (!looksLikeMissingColumn(ex)) throw ex;
-
-            return querySingleLong(
-                    "SELECT amount_cents FROM cash_snapshots WHERE date = ?",
-                    date
-            );
-        }
+        return querySingleLong("SELECT value_cents FROM cash_snapshots WHERE date = ?", date);
     }
 
     @Override
@@ -30,7 +28,7 @@ public final class SnapshotRepository implements ISnapshotRepository {
     }
 
     @Override
-    public Map<Long, Long> getAllInvestimentsForDate(LocalDate date) {
+    public LongLongMap getAllInvestimentsForDate(LocalDate date) {
         return getAllInvestmentsForDate(date);
     }
 
@@ -45,105 +43,140 @@ public final class SnapshotRepository implements ISnapshotRepository {
     }
 
     public void upsertCash(LocalDate date, long cashCents) {
-        try {
-            execUpdate("""
-                INSERT INTO cash_snapshots(date, value_cents)
-                VALUES(?, ?)
-                ON CONFLICT(date) DO UPDATE SET value_cents = excluded.value_cents
-            """, date, cashCents);
-        } catch (RuntimeException ex) {
-            if (!looksLikeMissingColumn(ex)) throw ex;
-
-            execUpdate("""
-                INSERT INTO cash_snapshots(date, amount_cents)
-                VALUES(?, ?)
-                ON CONFLICT(date) DO UPDATE SET amount_cents = excluded.amount_cents
-            """, date, cashCents);
-        }
+        execUpdate("""
+            INSERT INTO cash_snapshots(date, value_cents)
+            VALUES(?, ?)
+            ON CONFLICT(date) DO UPDATE SET value_cents = excluded.value_cents
+        """, date, cashCents);
     }
 
-    public Map<Long, Long> getAllInvestmentsForDate(LocalDate date) {
-        try {
-            return queryInvestmentMap("""
-                SELECT investment_type_id, value_cents
-                FROM investment_snapshots
-                WHERE date = ?
-            """, date);
-        } catch (RuntimeException ex) {
-            if (!looksLikeMissingColumn(ex)) throw ex;
-
-            return queryInvestmentMap("""
-                SELECT investment_type_id, amount_cents
-                FROM investment_snapshots
-                WHERE date = ?
-            """, date);
-        }
+    public LongLongMap getAllInvestmentsForDate(LocalDate date) {
+        return queryInvestmentMap("""
+            SELECT investment_type_id, value_cents
+            FROM investment_snapshots
+            WHERE date = ?
+        """, date);
     }
 
     public void upsertInvestment(LocalDate date, long investmentTypeId, long valueCents, String note) {
         String normalizedNote = (note == null || note.isBlank()) ? null : note.trim();
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement("""
                 INSERT INTO investment_snapshots(date, investment_type_id, value_cents, note)
                 VALUES(?, ?, ?, ?)
                 ON CONFLICT(date, investment_type_id)
                 DO UPDATE SET value_cents = excluded.value_cents, note = excluded.note
             """)) {
-            ps.setString(1, date.toString());
+            DateCodec.bind(ps, 1, date);
             ps.setLong(2, investmentTypeId);
             ps.setLong(3, valueCents);
             ps.setString(4, normalizedNote);
             ps.executeUpdate();
         } catch (SQLException e) {
-            RuntimeException wrapped = new RuntimeException("Failed to upsert investment snapshot", e);
-            if (!looksLikeMissingColumn(wrapped)) throw wrapped;
-
-            try (Connection conn = Database.open();
-                 PreparedStatement ps = conn.prepareStatement("""
-                    INSERT INTO investment_snapshots(date, investment_type_id, amount_cents, note)
-                    VALUES(?, ?, ?, ?)
-                    ON CONFLICT(date, investment_type_id)
-                    DO UPDATE SET amount_cents = excluded.amount_cents, note = excluded.note
-                """)) {
-                ps.setString(1, date.toString());
-                ps.setLong(2, investmentTypeId);
-                ps.setLong(3, valueCents);
-                ps.setString(4, normalizedNote);
-                ps.executeUpdate();
-            } catch (SQLException e2) {
-                e.addSuppressed(e2);
-                throw new RuntimeException("Failed to upsert investment snapshot (legacy)", e);
-            }
+            throw new RuntimeException("Failed to upsert investment snapshot", e);
         }
     }
 
+    /**
+     * Grava caixa (se informado) e todos os valores do dia numa única transação
+     * com addBatch: um snapshot diário inteiro custa um commit só.
+     */
+    @Override
+    public void upsertSnapshot(LocalDate date, Long cashCents, Map<Long, Long> investmentValuesCents) {
+        if (cashCents == null && investmentValuesCents.isEmpty()) return;
+        writeSnapshot(date, cashCents, investmentValuesCents);
+    }
+
+    /**
+     * Caixa e investimentos do intervalo numa única leitura ordenada por data
+     * (UNION ALL das duas tabelas; investment_type_id NULL marca o caixa).
+     */
+    @Override
+    public SnapshotRange loadRange(LocalDate from, LocalDate to) {
+        return queryRange(from, to);
+    }
+
     public Map<String, Long> seriesForInvestment(long investmentTypeId) {
-        try {
-            return querySeries("""
-                SELECT date, value_cents
-                FROM investment_snapshots
-                WHERE investment_type_id = ?
-                ORDER BY date ASC
-            """, investmentTypeId);
-        } catch (RuntimeException ex) {
-            if (!looksLikeMissingColumn(ex)) throw ex;
+        return querySeries("""
+            SELECT date, value_cents
+            FROM investment_snapshots
+            WHERE investment_type_id = ?
+            ORDER BY date ASC
+        """, investmentTypeId);
+    }
 
-            return querySeries("""
-                SELECT date, amount_cents
+    /** Servida inteira pelo índice de cobertura (investment_type_id, date, value_cents). */
+    @Override
+    public void scanSeries(long investmentTypeId, LongLongMap.LongLongConsumer sink) {
+        try (Connection conn = Database.leaseRead();
+             PreparedStatement ps = conn.prepareStatement("""
+                SELECT date, value_cents
                 FROM investment_snapshots
                 WHERE investment_type_id = ?
                 ORDER BY date ASC
-            """, investmentTypeId);
+            """)) {
+            ps.setLong(1, investmentTypeId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(rs.getLong(1), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to scan investment series", e);
         }
     }
 
     // ---------------- helpers ----------------
 
+    private void writeSnapshot(LocalDate date, Long cashCents, Map<Long, Long> investmentValuesCents) {
+        long day = date.toEpochDay();
+        try (Connection conn = Database.lease()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                if (cashCents != null) {
+                    try (PreparedStatement ps = conn.prepareStatement("""
+                            INSERT INTO cash_snapshots(date, value_cents) VALUES(?, ?)
+                            ON CONFLICT(date) DO UPDATE SET value_cents = excluded.value_cents
+                            """)) {
+                        ps.setLong(1, day);
+                        ps.setLong(2, cashCents);
+                        ps.executeUpdate();
+                    }
+                }
+                if (!investmentValuesCents.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement("""
+                            INSERT INTO investment_snapshots(date, investment_type_id, value_cents, note)
+                            VALUES(?, ?, ?, NULL)
+                            ON CONFLICT(date, investment_type_id)
+                            DO UPDATE SET value_cents = excluded.value_cents, note = excluded.note
+                            """)) {
+                        for (var e : investmentValuesCents.entrySet()) {
+                            ps.setLong(1, day);
+                            ps.setLong(2, e.getKey());
+                            ps.setLong(3, e.getValue());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to write daily snapshot", e);
+        }
+    }
+
     private long querySingleLong(String sql, LocalDate date) {
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.leaseRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, date.toString());
+            DateCodec.bind(ps, 1, date);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) return rs.getLong(1);
                 return 0L;
@@ -154,9 +187,9 @@ public final class SnapshotRepository implements ISnapshotRepository {
     }
 
     private void execUpdate(String sql, LocalDate date, long cents) {
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, date.toString());
+            DateCodec.bind(ps, 1, date);
             ps.setLong(2, cents);
             ps.executeUpdate();
         } catch (SQLException e) {
@@ -164,11 +197,46 @@ public final class SnapshotRepository implements ISnapshotRepository {
         }
     }
 
-    private Map<Long, Long> queryInvestmentMap(String sql, LocalDate date) {
-        Map<Long, Long> out = new LinkedHashMap<>();
-        try (Connection conn = Database.open();
+    private SnapshotRange queryRange(LocalDate from, LocalDate to) {
+        String sql = """
+                SELECT date, NULL AS investment_type_id, value_cents FROM cash_snapshots
+                WHERE date BETWEEN ? AND ?
+                UNION ALL
+                SELECT date, investment_type_id, value_cents FROM investment_snapshots
+                WHERE date BETWEEN ? AND ?
+                ORDER BY 1
+                """;
+
+        SnapshotRange range = new SnapshotRange(from, to);
+        try (Connection conn = Database.leaseRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            long fromDay = from.toEpochDay();
+            ps.setLong(1, fromDay);
+            ps.setLong(2, to.toEpochDay());
+            ps.setLong(3, fromDay);
+            ps.setLong(4, to.toEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int dayIndex = (int) (rs.getLong(1) - fromDay);
+                    long typeId = rs.getLong(2);
+                    if (rs.wasNull()) {
+                        range.putCashAt(dayIndex, rs.getLong(3));
+                    } else {
+                        range.putInvestmentAt(dayIndex, typeId, rs.getLong(3));
+                    }
+                }
+            }
+            return range;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load snapshot range", e);
+        }
+    }
+
+    private LongLongMap queryInvestmentMap(String sql, LocalDate date) {
+        LongLongMap out = new LongLongMap();
+        try (Connection conn = Database.leaseRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, date.toString());
+            DateCodec.bind(ps, 1, date);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     out.put(rs.getLong(1), rs.getLong(2));
@@ -182,12 +250,12 @@ public final class SnapshotRepository implements ISnapshotRepository {
 
     private Map<String, Long> querySeries(String sql, long investmentTypeId) {
         Map<String, Long> out = new TreeMap<>();
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.leaseRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, investmentTypeId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    out.put(rs.getString(1), rs.getLong(2));
+                    out.put(LocalDate.ofEpochDay(rs.getLong(1)).toString(), rs.getLong(2));
                 }
             }
             return out;
@@ -195,14 +263,4 @@ public final class SnapshotRepository implements ISnapshotRepository {
             throw new RuntimeException("Failed to load investment series", e);
         }
     }
-
-    private static boolean looksLikeMissingColumn(RuntimeException ex) {
-        Throwable t = ex;
-        while (t != null) {
-            String msg = t.getMessage();
-            if (msg != null && msg.toLowerCase().contains("no such column")) return true;
-            t = t.getCause();
-        }
-        return false;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.repository.ITickerRepository;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class TickerRepository implements ITickerRepository {
+
+    @Override
+    public List<String> loadAll() {
+        String sql = "SELECT ticker FROM tickers ORDER BY ticker";
+        List<String> out = new ArrayList<>();
+        try (Connection conn = Database.leaseRead();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                out.add(rs.getString(1));
+            }
+            return out;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load tickers", e);
+        }
+    }
+
+    @Override
+    public void replaceAll(Collection<String> tickers, long updatedAtMillis) {
+        try (Connection conn = Database.lease()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement del = conn.createStatement();
+                 PreparedStatement ps = conn.prepareStatement(
+                         "INSERT OR REPLACE INTO tickers(ticker, updated_at) VALUES(?, ?)")) {
+                del.executeUpdate("DELETE FROM tickers");
+                for (String t : tickers) {
+                    ps.setString(1, t);
+                    ps.setLong(2, updatedAtMillis);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save tickers", e);
+        }
+    }
+
+    @Override
+    public long lastUpdatedMillis() {
+        try (Connection conn = Database.leaseRead();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(updated_at), 0) FROM tickers")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load tickers timestamp", e);
+        }
+    }
+}
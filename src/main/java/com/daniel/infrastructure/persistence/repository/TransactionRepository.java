@@ -19,9 +19,9 @@ public final class TransactionRepository implements ITransactionRepository {
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.lease();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, t.date().toString());
+            DateCodec.bind(ps, 1, t.date());
             ps.setInt(2, t.investmentTypeId());
             ps.setString(3, t.type());
             ps.setString(4, t.name());
@@ -62,10 +62,10 @@ public final class TransactionRepository implements ITransactionRepository {
             """;
 
         List<Transaction> list = new ArrayList<>();
-        try (Connection conn = Database.open();
+        try (Connection conn = Database.leaseRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, start.toString());
-            ps.setString(2, end.toString());
+            DateCodec.bind(ps, 1, start);
+            DateCodec.bind(ps, 2, end);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -87,7 +87,7 @@ public final class TransactionRepository implements ITransactionRepository {
 
         return new Transaction(
                 rs.getLong("id"),
-                LocalDate.parse(rs.getString("date")),
+                DateCodec.read(rs, "date"),
                 rs.getInt("investment_type_id"),
                 rs.getString("type"),
                 rs.getString("name"),
@@ -1,6 +1,7 @@
 package com.daniel.main;
 
 import com.daniel.infrastructure.config.AppConfig;
+import com.daniel.infrastructure.config.AppExecutors;
 import com.daniel.infrastructure.persistence.config.Database;
 import com.daniel.core.service.DailyTrackingUseCase;
 import com.daniel.presentation.view.AppShell;
@@ -16,27 +17,25 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 
-import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 public class App extends Application {
 
     private static final boolean USE_CUSTOM_CHROME = true;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
 
-    private Connection conn;
     private AppConfig appConfig;
 
     @Override
     public void init() {
         this.appConfig = new AppConfig();
-        Database.open();
     }
 
     @Override
     public void start(Stage stage) {
-        conn = Database.open();
-
         DailyTrackingUseCase dailyTrackingUseCase = appConfig.getDailyTrackingUseCase();
-        AppShell shell = new AppShell(dailyTrackingUseCase);
+        AppShell shell = new AppShell(dailyTrackingUseCase, appConfig.getBenchmarkHistory());
 
         final Scene scene;
 
@@ -73,12 +72,30 @@ public class App extends Application {
         stage.setScene(scene);
         stage.show();
 
-        dailyTrackingUseCase.takeSnapshotIfNeeded(java.time.LocalDate.now());
+        // O snapshot avalia a carteira (cotações na brapi): fora da FX thread.
+        CompletableFuture.runAsync(() ->
+                dailyTrackingUseCase.takeSnapshotIfNeeded(java.time.LocalDate.now()), AppExecutors.io())
+                .exceptionally(e -> {
+                    System.err.println("[SNAPSHOT] Falha ao registrar o dia: " + e.getMessage());
+                    return null;
+                });
+
+        // Séries históricas do BCB: só o que falta desde a última execução
+        CompletableFuture.runAsync(appConfig::ingestBenchmarkHistory, AppExecutors.io())
+                .exceptionally(e -> {
+                    System.err.println("[BCB] Falha ao ingerir séries históricas: " + e.getMessage());
+                    return null;
+                });
     }
 
     @Override
     public void stop() {
-        try { if (conn != null) conn.close(); } catch (Exception ignored) {}
+        // Escritas em andamento terminam antes de a conexão fechar
+        if (!AppExecutors.shutdown(SHUTDOWN_TIMEOUT)) {
+            System.err.println("[APP] Tarefas em segundo plano não terminaram em "
+                    + SHUTDOWN_TIMEOUT.toSeconds() + "s; encerrando assim mesmo");
+        }
+        Database.close();
     }
 
     public static void main(String[] args) {
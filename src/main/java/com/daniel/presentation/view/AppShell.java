@@ -1,5 +1,6 @@
 package com.daniel.presentation.view;
 
+import com.daniel.core.service.BenchmarkHistory;
 import com.daniel.core.service.DailyTrackingUseCase;
 import com.daniel.presentation.view.components.ToastHost;
 import com.daniel.presentation.view.components.WelcomeOverlay;
@@ -27,12 +28,13 @@ public final class AppShell {
     private final DailyTrackingUseCase daily;
     private final StackPane content = new StackPane();
     private final Map<String, Page> pages = new LinkedHashMap<>();
+    private Page currentPage;
     private final Map<String, Button> nav = new LinkedHashMap<>();
     private Consumer<String> pageChangeListener;
 
-    public AppShell(DailyTrackingUseCase dailyTrackingUseCase) {
+    public AppShell(DailyTrackingUseCase dailyTrackingUseCase, BenchmarkHistory benchmarkHistory) {
         this.daily = dailyTrackingUseCase;
-        pages.put("Dashboard",                 new DashboardPage(dailyTrackingUseCase));
+        pages.put("Dashboard",                 new DashboardPage(dailyTrackingUseCase, benchmarkHistory));
         pages.put("Cadastrar Investimento",    new InvestmentTypesPage(dailyTrackingUseCase));
         pages.put("Diversificação",            new DiversificationPage(dailyTrackingUseCase));
         pages.put("Simulação",                 new SimulationPage());
@@ -172,6 +174,9 @@ public final class AppShell {
         Page p = pages.get(key);
         if (p == null) return;
 
+        if (currentPage != null && currentPage != p) currentPage.onHide();
+        currentPage = p;
+
         nav.values().forEach(b -> b.getStyleClass().remove("active"));
         if (nav.get(key) != null) nav.get(key).getStyleClass().add("active");
         if (pageChangeListener != null) pageChangeListener.accept(key);
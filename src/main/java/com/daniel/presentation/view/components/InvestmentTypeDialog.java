@@ -9,6 +9,7 @@ import com.daniel.infrastructure.api.BrapiClient;
 import com.daniel.presentation.view.components.ToastHost;
 
 import com.daniel.presentation.view.util.DialogChrome;
+import com.daniel.presentation.view.util.LatestRequest;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -21,7 +22,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.CompletableFuture;
 
 public final class InvestmentTypeDialog extends Dialog<InvestmentTypeDialog.InvestmentTypeData> {
 
@@ -69,6 +69,7 @@ public final class InvestmentTypeDialog extends Dialog<InvestmentTypeDialog.Inve
     private VBox hybridBox;
 
     private Timer debounceTimer;
+    private final LatestRequest<BrapiClient.StockData> pendingQuote = new LatestRequest<>();
     private final boolean isEdit;
 
     public InvestmentTypeDialog(String title, InvestmentTypeData existing) {
@@ -155,6 +156,14 @@ public final class InvestmentTypeDialog extends Dialog<InvestmentTypeDialog.Inve
             return null;
         });
 
+        // Fechado (confirmar ou cancelar): auto-preenchimento e cotação pendentes
+        // não devem mais escrever nos campos. Handler adicional: quem abre o
+        // diálogo usa setOnHidden para os próprios ajustes.
+        addEventHandler(DialogEvent.DIALOG_HIDDEN, e -> {
+            if (debounceTimer != null) debounceTimer.cancel();
+            pendingQuote.cancel();
+        });
+
         Button btn = (Button) getDialogPane().lookupButton(confirmButton);
         btn.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
             if (!validate()) event.consume();
@@ -514,13 +523,7 @@ public final class InvestmentTypeDialog extends Dialog<InvestmentTypeDialog.Inve
     }
 
     private void loadStockDataFromBrapi(String ticker) {
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return BrapiClient.fetchStockData(ticker);
-            } catch (Exception e) {
-                return null;
-            }
-        }).thenAcceptAsync(data -> {
+        pendingQuote.replace(BrapiClient.fetchStockDataAsync(ticker)).thenAccept(data -> {
             if (data != null && data.isValid()) {
                 Platform.runLater(() -> {
                     if (purchasePriceField.getText().isBlank()) {
@@ -1,26 +1,42 @@
 package com.daniel.presentation.view.components;
 
 import com.daniel.infrastructure.api.BrapiClient;
+import com.daniel.infrastructure.config.AppExecutors;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.geometry.Side;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.CustomMenuItem;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.util.Duration;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Ticker text field with an autocomplete popup. Lookups are debounced while
+ * the user types, and a result that arrives after a newer query was issued
+ * is dropped instead of replacing fresher suggestions.
+ */
 public final class TickerAutocompleteField extends TextField {
 
+    private static final Duration DEBOUNCE = Duration.millis(150);
+
     private final ContextMenu suggestionsMenu = new ContextMenu();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
     private String lastQuery = "";
+    private long generation;
+    private CompletableFuture<?> pending;
 
     public TickerAutocompleteField() {
         setPromptText("Digite o ticker (ex: PETR4, VALE3)...");
 
         textProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal == null || newVal.length() < 2) {
+                debounce.stop();
+                cancelPending();
+                lastQuery = "";
                 suggestionsMenu.hide();
                 return;
             }
@@ -30,7 +46,8 @@ public final class TickerAutocompleteField extends TextField {
             }
 
             lastQuery = newVal;
-            loadSuggestions(newVal);
+            debounce.setOnFinished(e -> loadSuggestions(newVal));
+            debounce.playFromStart();
         });
 
         focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
@@ -52,17 +69,29 @@ public final class TickerAutocompleteField extends TextField {
     }
 
     private void loadSuggestions(String query) {
-        CompletableFuture.supplyAsync(() -> {
+        cancelPending();
+        long requested = ++generation;
+        pending = CompletableFuture.supplyAsync(() -> {
             try {
                 return BrapiClient.searchTickers(query);
             } catch (Exception e) {
                 return List.<BrapiClient.TickerSuggestion>of();
             }
-        }).thenAcceptAsync(suggestions -> {
-            Platform.runLater(() -> updateSuggestionsMenu(suggestions));
+        }, AppExecutors.io()).thenAccept(suggestions -> {
+            Platform.runLater(() -> {
+                if (requested == generation) updateSuggestionsMenu(suggestions);
+            });
         });
     }
 
+    private void cancelPending() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
     private void updateSuggestionsMenu(List<BrapiClient.TickerSuggestion> suggestions) {
         suggestionsMenu.getItems().clear();
 
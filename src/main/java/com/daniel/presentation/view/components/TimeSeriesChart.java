@@ -0,0 +1,508 @@
+package com.daniel.presentation.view.components;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleFunction;
+
+/**
+ * Gráfico de linha/área desenhado em Canvas, para séries temporais densas.
+ *
+ * As séries são arrays {@code double[]} de x/y (x crescente); nada vira nó do
+ * scene graph. A cada quadro só a faixa visível de cada série é percorrida
+ * (achada por busca binária) e, quando há mais pontos que pixels, reduzida a
+ * uma coluna de mín/máx por pixel: o custo acompanha a largura do gráfico, não
+ * o tamanho dos dados.
+ *
+ * O desenho é feito em duas camadas: o canvas do plot só é redesenhado quando
+ * mudam os dados, o tamanho ou a janela visível (pan/zoom); o canvas de
+ * sobreposição (mira e caixa de hover), a cada movimento do mouse. Os dois são
+ * agrupados em no máximo um redesenho por pulso do JavaFX.
+ *
+ * Mouse: arrastar desloca, roda dá zoom em torno do cursor, duplo clique
+ * restaura a visão completa.
+ */
+public final class TimeSeriesChart extends Region {
+
+    /** Uma linha; {@code filled} pinta também a área abaixo dela. */
+    public record Series(String name, double[] xs, double[] ys, Color color, boolean filled) {
+        public Series {
+            if (xs.length != ys.length) {
+                throw new IllegalArgumentException("xs e ys com tamanhos diferentes: " + xs.length + " / " + ys.length);
+            }
+        }
+
+        public int size() {
+            return xs.length;
+        }
+    }
+
+    // Mesmos tokens do app.css (-color-border, -color-text-2, -color-surface)
+    private static final Color GRID = Color.rgb(255, 255, 255, 0.08);
+    private static final Color LABEL = Color.web("#B0BAC9");
+    private static final Color HOVER_BG = Color.web("#162032", 0.94);
+    private static final Color CROSSHAIR = Color.rgb(255, 255, 255, 0.25);
+    private static final Font FONT = Font.font(11);
+
+    private static final double PAD_LEFT = 72;
+    private static final double PAD_RIGHT = 12;
+    private static final double PAD_TOP = 10;
+    private static final double PAD_BOTTOM = 26;
+    private static final int MAX_HOVER_ROWS = 8;
+
+    private final Canvas plot = new Canvas();
+    private final Canvas overlay = new Canvas();
+
+    private final List<Series> series = new ArrayList<>();
+    private double dataMinX = 0;
+    private double dataMaxX = 1;
+    private double viewMinX = 0;
+    private double viewMaxX = 1;
+    private double viewMinY = 0;
+    private double viewMaxY = 1;
+
+    private DoubleFunction<String> xFormatter = v -> String.format("%.0f", v);
+    private DoubleFunction<String> yFormatter = v -> String.format("%.2f", v);
+
+    private boolean plotDirty = true;
+    private boolean overlayDirty = true;
+    private double hoverPx = Double.NaN;
+
+    private double dragAnchorPx = Double.NaN;
+    private double dragAnchorMinX;
+
+    // buffers reaproveitados entre quadros (polilinha da série sendo desenhada)
+    private double[] bufX = new double[256];
+    private double[] bufY = new double[256];
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (plotDirty) {
+                plotDirty = false;
+                drawPlot();
+                overlayDirty = true;
+            }
+            if (overlayDirty) {
+                overlayDirty = false;
+                drawOverlay();
+            }
+        }
+    };
+
+    public TimeSeriesChart() {
+        getStyleClass().add("ts-chart");
+        overlay.setMouseTransparent(true);
+        getChildren().addAll(plot, overlay);
+        setMinSize(120, 80);
+        setPrefSize(600, 400);
+
+        sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) pulse.start();
+            else pulse.stop();
+        });
+
+        addEventHandler(MouseEvent.MOUSE_MOVED, e -> setHover(e.getX()));
+        addEventHandler(MouseEvent.MOUSE_EXITED, e -> setHover(Double.NaN));
+        addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            if (e.getButton() == MouseButton.PRIMARY) {
+                dragAnchorPx = e.getX();
+                dragAnchorMinX = viewMinX;
+            }
+        });
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, e -> {
+            if (Double.isNaN(dragAnchorPx)) return;
+            double span = viewMaxX - viewMinX;
+            double dx = (e.getX() - dragAnchorPx) / plotWidth() * span;
+            setViewX(dragAnchorMinX - dx, dragAnchorMinX - dx + span);
+            setHover(e.getX());
+        });
+        addEventHandler(MouseEvent.MOUSE_RELEASED, e -> dragAnchorPx = Double.NaN);
+        addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) resetView();
+        });
+        addEventHandler(ScrollEvent.SCROLL, e -> {
+            if (series.isEmpty() || e.getDeltaY() == 0) return;
+            double factor = Math.pow(1.0015, -e.getDeltaY());
+            double anchor = toDataX(e.getX());
+            setViewX(anchor - (anchor - viewMinX) * factor, anchor + (viewMaxX - anchor) * factor);
+            e.consume();
+        });
+    }
+
+    // ---------------- API pública ----------------
+
+    /** Troca todas as séries e volta a janela visível para o intervalo x inteiro. */
+    public void setSeries(List<Series> newSeries) {
+        series.clear();
+        series.addAll(newSeries);
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Series s : series) {
+            if (s.size() == 0) continue;
+            min = Math.min(min, s.xs()[0]);
+            max = Math.max(max, s.xs()[s.size() - 1]);
+        }
+        if (min > max) {
+            min = 0;
+            max = 1;
+        } else if (min == max) {
+            min -= 1;
+            max += 1;
+        }
+        dataMinX = min;
+        dataMaxX = max;
+        resetView();
+    }
+
+    public void setSeries(Series... newSeries) {
+        setSeries(Arrays.asList(newSeries));
+    }
+
+    public void clear() {
+        setSeries(List.of());
+    }
+
+    public boolean isEmpty() {
+        return series.stream().allMatch(s -> s.size() == 0);
+    }
+
+    /** Formata os valores de x nos rótulos do eixo e na caixa de hover (ex.: epoch day → data). */
+    public void setXFormatter(DoubleFunction<String> formatter) {
+        this.xFormatter = formatter;
+        invalidatePlot();
+    }
+
+    public void setYFormatter(DoubleFunction<String> formatter) {
+        this.yFormatter = formatter;
+        invalidatePlot();
+    }
+
+    public void resetView() {
+        viewMinX = dataMinX;
+        viewMaxX = dataMaxX;
+        invalidatePlot();
+    }
+
+    // ---------------- layout ----------------
+
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth());
+        double h = snapSizeY(getHeight());
+        if (plot.getWidth() != w || plot.getHeight() != h) {
+            plot.setWidth(w);
+            plot.setHeight(h);
+            overlay.setWidth(w);
+            overlay.setHeight(h);
+            invalidatePlot();
+        }
+    }
+
+    private void invalidatePlot() {
+        plotDirty = true;
+    }
+
+    private void setHover(double px) {
+        hoverPx = px;
+        overlayDirty = true;
+    }
+
+    private void setViewX(double min, double max) {
+        double fullSpan = dataMaxX - dataMinX;
+        double span = Math.max(max - min, fullSpan / 10_000);
+        span = Math.min(span, fullSpan);
+        min = Math.max(dataMinX, Math.min(min, dataMaxX - span));
+        viewMinX = min;
+        viewMaxX = min + span;
+        invalidatePlot();
+    }
+
+    private double plotWidth() {
+        return Math.max(1, plot.getWidth() - PAD_LEFT - PAD_RIGHT);
+    }
+
+    private double plotHeight() {
+        return Math.max(1, plot.getHeight() - PAD_TOP - PAD_BOTTOM);
+    }
+
+    private double toPx(double x) {
+        return PAD_LEFT + (x - viewMinX) / (viewMaxX - viewMinX) * plotWidth();
+    }
+
+    private double toPy(double y) {
+        return PAD_TOP + (viewMaxY - y) / (viewMaxY - viewMinY) * plotHeight();
+    }
+
+    private double toDataX(double px) {
+        return viewMinX + (px - PAD_LEFT) / plotWidth() * (viewMaxX - viewMinX);
+    }
+
+    // ---------------- camada do plot ----------------
+
+    private void drawPlot() {
+        GraphicsContext gc = plot.getGraphicsContext2D();
+        gc.clearRect(0, 0, plot.getWidth(), plot.getHeight());
+        if (isEmpty() || plot.getWidth() <= PAD_LEFT + PAD_RIGHT) return;
+
+        fitYToView();
+        drawGrid(gc);
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(PAD_LEFT, PAD_TOP, plotWidth(), plotHeight());
+        gc.clip();
+        for (Series s : series) {
+            drawSeries(gc, s);
+        }
+        gc.restore();
+    }
+
+    /** Faixa de y = mín/máx dos pontos dentro da janela x atual (+5%). */
+    private void fitYToView() {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Series s : series) {
+            int from = firstVisible(s);
+            int to = lastVisible(s);
+            for (int i = from; i <= to; i++) {
+                double y = s.ys()[i];
+                if (y < min) min = y;
+                if (y > max) max = y;
+            }
+        }
+        if (min > max) {
+            min = 0;
+            max = 1;
+        }
+        double pad = (max - min) * 0.05;
+        if (pad == 0) pad = Math.max(1, Math.abs(max) * 0.05);
+        viewMinY = min - pad;
+        viewMaxY = max + pad;
+    }
+
+    private void drawGrid(GraphicsContext gc) {
+        gc.setFont(FONT);
+        gc.setLineWidth(1);
+
+        double yStep = niceStep((viewMaxY - viewMinY) / Math.max(2, plotHeight() / 60));
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (double v = Math.ceil(viewMinY / yStep) * yStep; v <= viewMaxY; v += yStep) {
+            double py = Math.round(toPy(v)) + 0.5;
+            gc.setStroke(GRID);
+            gc.strokeLine(PAD_LEFT, py, PAD_LEFT + plotWidth(), py);
+            gc.setFill(LABEL);
+            gc.fillText(yFormatter.apply(v), PAD_LEFT - 8, py);
+        }
+
+        double xStep = niceStep((viewMaxX - viewMinX) / Math.max(2, plotWidth() / 110));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        double baseline = PAD_TOP + plotHeight();
+        for (double v = Math.ceil(viewMinX / xStep) * xStep; v <= viewMaxX; v += xStep) {
+            double px = Math.round(toPx(v)) + 0.5;
+            gc.setStroke(GRID);
+            gc.strokeLine(px, PAD_TOP, px, baseline);
+            gc.setFill(LABEL);
+            gc.fillText(xFormatter.apply(v), px, baseline + 6);
+        }
+    }
+
+    /**
+     * Monta nos buffers reaproveitados a polilinha da parte visível de
+     * {@code s}. Trechos densos guardam, por coluna de pixel, os pontos de
+     * entrada, mínimo, máximo e saída: visualmente igual a desenhar todos.
+     */
+    private void drawSeries(GraphicsContext gc, Series s) {
+        int from = firstVisible(s);
+        int to = lastVisible(s);
+        if (from > to) return;
+
+        double[] xs = s.xs();
+        double[] ys = s.ys();
+        int n = 0;
+        boolean dense = (to - from + 1) > plotWidth() * 2;
+
+        if (!dense) {
+            ensureBuffer(to - from + 3);
+            for (int i = from; i <= to; i++) {
+                bufX[n] = toPx(xs[i]);
+                bufY[n] = toPy(ys[i]);
+                n++;
+            }
+        } else {
+            ensureBuffer((int) plotWidth() * 4 + 12);
+            int column = Integer.MIN_VALUE;
+            double colMin = 0;
+            double colMax = 0;
+            double last = 0;
+            for (int i = from; i <= to; i++) {
+                double px = toPx(xs[i]);
+                double py = toPy(ys[i]);
+                int c = (int) px;
+                if (c != column) {
+                    if (column != Integer.MIN_VALUE) {
+                        n = flushColumn(n, column, colMin, colMax, last);
+                    }
+                    column = c;
+                    bufX[n] = c;
+                    bufY[n] = py;
+                    n++;
+                    colMin = py;
+                    colMax = py;
+                } else {
+                    if (py < colMin) colMin = py;
+                    if (py > colMax) colMax = py;
+                }
+                last = py;
+            }
+            n = flushColumn(n, column, colMin, colMax, last);
+        }
+
+        if (s.filled() && n > 1) {
+            double bottom = PAD_TOP + plotHeight();
+            bufX[n] = bufX[n - 1];
+            bufY[n] = bottom;
+            bufX[n + 1] = bufX[0];
+            bufY[n + 1] = bottom;
+            gc.setFill(s.color().deriveColor(0, 1, 1, 0.15));
+            gc.fillPolygon(bufX, bufY, n + 2);
+        }
+
+        gc.setStroke(s.color());
+        gc.setLineWidth(series.size() > 10 ? 1.0 : 2.0);
+        if (n == 1) {
+            gc.setFill(s.color());
+            gc.fillOval(bufX[0] - 2.5, bufY[0] - 2.5, 5, 5);
+        } else {
+            gc.strokePolyline(bufX, bufY, n);
+        }
+    }
+
+    private int flushColumn(int n, int column, double colMin, double colMax, double last) {
+        bufX[n] = column;
+        bufY[n] = colMin;
+        bufX[n + 1] = column;
+        bufY[n + 1] = colMax;
+        bufX[n + 2] = column;
+        bufY[n + 2] = last;
+        return n + 3;
+    }
+
+    private void ensureBuffer(int capacity) {
+        capacity += 2; // espaço para os dois pontos que fecham a área preenchida
+        if (bufX.length < capacity) {
+            bufX = new double[capacity];
+            bufY = new double[capacity];
+        }
+    }
+
+    /** Um ponto antes da janela visível, para a linha entrar pela borda. */
+    private int firstVisible(Series s) {
+        return Math.max(0, lowerBound(s.xs(), viewMinX) - 1);
+    }
+
+    /** Um ponto depois da janela visível. */
+    private int lastVisible(Series s) {
+        return Math.min(s.size() - 1, lowerBound(s.xs(), viewMaxX));
+    }
+
+    private static int lowerBound(double[] xs, double x) {
+        int lo = 0;
+        int hi = xs.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int nearest(double[] xs, double x) {
+        if (xs.length == 0) return -1;
+        int i = Math.min(lowerBound(xs, x), xs.length - 1);
+        if (i > 0 && x - xs[i - 1] <= xs[i] - x) return i - 1;
+        return i;
+    }
+
+    private static double niceStep(double raw) {
+        if (raw <= 0 || Double.isNaN(raw) || Double.isInfinite(raw)) return 1;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(raw)));
+        double f = raw / magnitude;
+        double nice = f <= 1 ? 1 : f <= 2 ? 2 : f <= 5 ? 5 : 10;
+        return nice * magnitude;
+    }
+
+    // ---------------- camada de sobreposição ----------------
+
+    private void drawOverlay() {
+        GraphicsContext gc = overlay.getGraphicsContext2D();
+        gc.clearRect(0, 0, overlay.getWidth(), overlay.getHeight());
+        if (Double.isNaN(hoverPx) || isEmpty()) return;
+        if (hoverPx < PAD_LEFT || hoverPx > PAD_LEFT + plotWidth()) return;
+
+        double x = toDataX(hoverPx);
+
+        // ponto mais próximo de cada série (busca binária); a mira se prende à primeira série com dados
+        List<String> rows = new ArrayList<>();
+        double snapPx = Double.NaN;
+        double snapX = x;
+        gc.setLineWidth(1);
+        for (Series s : series) {
+            int i = nearest(s.xs(), x);
+            if (i < 0) continue;
+            double px = toPx(s.xs()[i]);
+            double py = toPy(s.ys()[i]);
+            if (Double.isNaN(snapPx)) {
+                snapPx = px;
+                snapX = s.xs()[i];
+            }
+            gc.setFill(s.color());
+            gc.fillOval(px - 3.5, py - 3.5, 7, 7);
+            if (rows.size() < MAX_HOVER_ROWS) {
+                String label = s.name() == null || s.name().isBlank() ? "" : s.name() + ": ";
+                rows.add(label + yFormatter.apply(s.ys()[i]));
+            }
+        }
+        if (Double.isNaN(snapPx)) return;
+        if (series.size() > MAX_HOVER_ROWS) rows.add("… +" + (series.size() - MAX_HOVER_ROWS));
+
+        gc.setStroke(CROSSHAIR);
+        double lx = Math.round(snapPx) + 0.5;
+        gc.strokeLine(lx, PAD_TOP, lx, PAD_TOP + plotHeight());
+
+        String title = xFormatter.apply(snapX);
+        double lineH = 16;
+        double boxW = 12 + 7 * Math.max(title.length(), rows.stream().mapToInt(String::length).max().orElse(0));
+        double boxH = 10 + lineH * (rows.size() + 1);
+        double bx = snapPx + 12;
+        if (bx + boxW > overlay.getWidth() - 4) bx = snapPx - 12 - boxW;
+        double by = PAD_TOP + 6;
+
+        gc.setFill(HOVER_BG);
+        gc.fillRoundRect(bx, by, boxW, boxH, 8, 8);
+        gc.setFont(FONT);
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.TOP);
+        gc.setFill(LABEL);
+        gc.fillText(title, bx + 6, by + 5);
+        gc.setFill(Color.WHITE);
+        for (int r = 0; r < rows.size(); r++) {
+            gc.fillText(rows.get(r), bx + 6, by + 5 + lineH * (r + 1));
+        }
+    }
+}
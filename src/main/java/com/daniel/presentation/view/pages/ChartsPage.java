@@ -2,18 +2,21 @@ package com.daniel.presentation.view.pages;
 
 import com.daniel.core.domain.entity.InvestmentType;
 import com.daniel.core.service.DailyTrackingUseCase;
+import com.daniel.core.service.TimeSeriesStore;
 import com.daniel.presentation.view.PageHeader;
+import com.daniel.presentation.view.components.TimeSeriesChart;
+import com.daniel.presentation.view.util.PageLoader;
 import javafx.collections.FXCollections;
-import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
-import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
 import javafx.util.StringConverter;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.List;
 
 public final class ChartsPage implements Page {
 
@@ -26,11 +29,15 @@ public final class ChartsPage implements Page {
     private VBox noDataOverlay;
     private Label noDataHint;
 
-    private final CategoryAxis x = new CategoryAxis();
-    private final NumberAxis y = new NumberAxis();
-    private final LineChart<String, Number> chart = new LineChart<>(x, y);
+    // Canvas: desenha direto dos arrays, com pan/zoom e hover próprios
+    private final TimeSeriesChart chart = new TimeSeriesChart();
+
+    private final PageLoader typesLoader = new PageLoader("Gráficos/ativos");
+    private final PageLoader seriesLoader = new PageLoader("Gráficos/série");
 
     private static final DateTimeFormatter DMY = DateTimeFormatter.ofPattern("dd/MM");
+    private static final DateTimeFormatter MY = DateTimeFormatter.ofPattern("MM/yy");
+    private static final Color SERIES_COLOR = Color.web("#22C55E"); // -color-accent
 
     public ChartsPage(DailyTrackingUseCase dailyTrackingUseCase) {
         this.daily = dailyTrackingUseCase;
@@ -40,7 +47,6 @@ public final class ChartsPage implements Page {
         PageHeader header = new PageHeader("Gráficos", "Acompanhe a evolução do valor de cada ativo");
 
         // ── Picker Toolbar ────────────────────────────────────────────────────
-        picker.setItems(FXCollections.observableArrayList(daily.listTypes()));
         picker.setPromptText("Selecione um investimento...");
         picker.setMaxWidth(Double.MAX_VALUE);
 
@@ -88,10 +94,8 @@ public final class ChartsPage implements Page {
         pickerToolbar.getChildren().addAll(investLabel, picker, windowLabel, range);
 
         // ── Chart Card ────────────────────────────────────────────────────────
-        chart.setAnimated(true);
-        chart.setLegendVisible(false);
-        chart.setCreateSymbols(true);
         chart.setMinHeight(420);
+        chart.setYFormatter(v -> daily.brl(Math.round(v * 100)));
 
         // No-data overlay
         noDataOverlay = new VBox(8);
@@ -140,7 +144,17 @@ public final class ChartsPage implements Page {
 
     @Override
     public void onShow() {
-        picker.setItems(FXCollections.observableArrayList(daily.listTypes()));
+        typesLoader.load(daily::listTypes, this::applyTypes);
+    }
+
+    @Override
+    public void onHide() {
+        typesLoader.cancel();
+        seriesLoader.cancel();
+    }
+
+    private void applyTypes(List<InvestmentType> types) {
+        picker.setItems(FXCollections.observableArrayList(types));
         if (picker.getItems().isEmpty()) {
             if (noDataHint != null) {
                 noDataHint.setText("Cadastre um investimento em \"Meus Investimentos\" para começar");
@@ -167,42 +181,42 @@ public final class ChartsPage implements Page {
     private void reload() {
         InvestmentType t = picker.getValue();
         if (t == null) {
-            chart.getData().clear();
+            seriesLoader.cancel();
+            chart.clear();
             setNoDataVisible(true);
             return;
         }
 
-        var points = daily.seriesForInvestment(t.id());
         int days = range.getValue() == null ? 90 : range.getValue();
+        // A janela pode ler o banco (primeira carga do ativo), por isso o io();
+        // copiar os dois arrays é barato demais para justificar outro pool
+        seriesLoader.load(() -> toSeries(daily.seriesWindow(t.id(), days)), series -> applySeries(t, series));
+    }
 
-        if (points.size() > days) {
-            points = new ArrayList<>(points.subList(points.size() - days, points.size()));
+    /** Eixos do gráfico em reais; null se a janela está vazia. */
+    private record SeriesArrays(double[] xs, double[] ys, int spanDays) {}
+
+    private static SeriesArrays toSeries(TimeSeriesStore.Window points) {
+        if (points.isEmpty()) return null;
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = points.days()[i];
+            ys[i] = points.centsAt(i) / 100.0;
         }
+        return new SeriesArrays(xs, ys, points.days()[points.size() - 1] - points.days()[0]);
+    }
 
-        if (points.isEmpty()) {
-            chart.getData().clear();
+    private void applySeries(InvestmentType t, SeriesArrays series) {
+        if (series == null) {
+            chart.clear();
             setNoDataVisible(true);
             return;
         }
 
         setNoDataVisible(false);
-        XYChart.Series<String, Number> s = new XYChart.Series<>();
-        s.setName(t.name());
-
-        for (var p : points) {
-            var node = new XYChart.Data<String, Number>(DMY.format(p.date()), p.valueCents() / 100.0);
-            s.getData().add(node);
-        }
-
-        chart.getData().setAll(s);
-
-        for (var d : s.getData()) {
-            d.nodeProperty().addListener((obs, oldN, n) -> {
-                if (n != null) {
-                    double value = ((Number) d.getYValue()).doubleValue();
-                    Tooltip.install(n, new Tooltip(String.format("R$ %.2f", value).replace('.', ',')));
-                }
-            });
-        }
+        DateTimeFormatter tickFormat = series.spanDays() > 400 ? MY : DMY;
+        chart.setXFormatter(day -> tickFormat.format(LocalDate.ofEpochDay(Math.round(day))));
+        chart.setSeries(new TimeSeriesChart.Series(t.name(), series.xs(), series.ys(), SERIES_COLOR, true));
     }
 }
@@ -2,6 +2,11 @@ package com.daniel.presentation.view.pages;
 
 import com.daniel.infrastructure.api.BcbClient;
 import com.daniel.infrastructure.api.BrapiClient;
+import com.daniel.infrastructure.api.HttpMetrics;
+import com.daniel.infrastructure.api.HttpTransport;
+import com.daniel.infrastructure.api.ResilienceInterceptor;
+import com.daniel.infrastructure.api.SingleFlight;
+import com.daniel.infrastructure.config.AppExecutors;
 import com.daniel.infrastructure.persistence.repository.AppSettingsRepository;
 import com.daniel.presentation.view.PageHeader;
 import com.daniel.presentation.view.components.ToastHost;
@@ -15,9 +20,11 @@ import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
 public final class ConfiguracoesPage implements Page {
 
@@ -39,13 +46,26 @@ public final class ConfiguracoesPage implements Page {
     private final Label ipcaValueLabel = new Label("—");
     private final Label bcbLastUpdateLabel = new Label("Nunca atualizado");
 
+    // Resilience section
+    private final Label circuitValueLabel = new Label("—");
+    private final Label rateValueLabel = new Label("—");
+    private final Label retryValueLabel = new Label("—");
+    private final Label resilienceDetailLabel = new Label();
+    private final Label executorStatsLabel = new Label();
+
+    // HTTP metrics section
+    private final VBox httpMetricsRows = new VBox(6);
+    private final Label httpCacheLabel = new Label();
+    private final Spinner<Integer> rateLimitSpinner = new Spinner<>(1, 10_000, BrapiClient.DEFAULT_REQUESTS_PER_MINUTE);
+
     public ConfiguracoesPage() {
         root.getStyleClass().add("page-root");
 
         PageHeader header = new PageHeader("Configurações",
                 "Gerencie tokens de API e preferências do app");
 
-        root.getChildren().addAll(header, buildBrapiSection(), buildBcbSection(), buildAboutSection());
+        root.getChildren().addAll(header, buildBrapiSection(), buildResilienceSection(),
+                buildBcbSection(), buildHttpMetricsSection(), buildAboutSection());
 
         scrollPane.setContent(root);
         scrollPane.setFitToWidth(true);
@@ -70,7 +90,10 @@ public final class ConfiguracoesPage implements Page {
         autoUpdateCheckbox.setSelected(Boolean.parseBoolean(autoUpdate));
 
         updateTokenStatus(savedToken);
+        rateLimitSpinner.getValueFactory().setValue(BrapiClient.requestsPerMinuteFrom(settings));
         loadBcbCachedValues();
+        refreshResilienceStatus();
+        refreshHttpMetrics();
     }
 
     private void updateTokenStatus(String token) {
@@ -85,15 +108,20 @@ public final class ConfiguracoesPage implements Page {
     }
 
     private void loadBcbCachedValues() {
-        String cdi = settings.get("rate_cdi").orElse(null);
-        String selic = settings.get("rate_selic").orElse(null);
-        String ipca = settings.get("rate_ipca").orElse(null);
-        String lastUpdate = settings.get("rate_last_update").orElse(null);
-
-        cdiValueLabel.setText(cdi != null ? String.format("%.2f%%", Double.parseDouble(cdi) * 100) : "—");
-        selicValueLabel.setText(selic != null ? String.format("%.2f%%", Double.parseDouble(selic) * 100) : "—");
-        ipcaValueLabel.setText(ipca != null ? String.format("%.2f%%", Double.parseDouble(ipca) * 100) : "—");
-        bcbLastUpdateLabel.setText(lastUpdate != null ? "Atualizado em: " + lastUpdate : "Nunca atualizado");
+        BcbClient.Rates rates = BcbClient.cachedRates();
+
+        cdiValueLabel.setText(rates.cdi().map(v -> String.format("%.2f%%", v * 100)).orElse("—"));
+        selicValueLabel.setText(rates.selic().map(v -> String.format("%.2f%%", v * 100)).orElse("—"));
+        ipcaValueLabel.setText(rates.ipca().map(v -> String.format("%.2f%%", v * 100)).orElse("—"));
+        bcbLastUpdateLabel.setText(lastUpdateText(rates));
+    }
+
+    private static String lastUpdateText(BcbClient.Rates rates) {
+        if (rates.updatedAtMillis() <= 0) {
+            return rates.cdi().isPresent() ? "Valores salvos — ainda não atualizados" : "Nunca atualizado";
+        }
+        LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochMilli(rates.updatedAtMillis()), ZoneId.systemDefault());
+        return "Atualizado em: " + at.format(DT_FMT);
     }
 
     private VBox buildBrapiSection() {
@@ -150,6 +178,110 @@ public final class ConfiguracoesPage implements Page {
         return card;
     }
 
+    private VBox buildResilienceSection() {
+        VBox card = new VBox(14);
+        card.getStyleClass().add("card");
+
+        Label title = new Label("RESILIÊNCIA DA API BRAPI");
+        title.getStyleClass().add("card-title");
+
+        Label hint = new Label("Limite de requisições, retentativas e disjuntor. Com o circuito aberto, "
+                + "as cotações vêm do cache local até a API voltar.");
+        hint.getStyleClass().add("text-helper");
+        hint.setWrapText(true);
+
+        HBox kpiRow = new HBox(12,
+                statusKpi("Circuito", circuitValueLabel),
+                statusKpi("Limite / fichas", rateValueLabel),
+                statusKpi("Retentativas", retryValueLabel)
+        );
+
+        resilienceDetailLabel.getStyleClass().add("text-helper");
+        resilienceDetailLabel.setWrapText(true);
+
+        Label rateLabel = new Label("Requisições por minuto (conforme o plano brapi)");
+        rateLabel.getStyleClass().add("form-label");
+        rateLimitSpinner.setEditable(true);
+        rateLimitSpinner.setPrefWidth(120);
+
+        Button applyBtn = new Button("Aplicar Limite");
+        applyBtn.getStyleClass().add("secondary-btn");
+        applyBtn.setOnAction(e -> applyRateLimit());
+
+        Button refreshBtn = new Button("Atualizar Status");
+        refreshBtn.getStyleClass().add("ghost-btn");
+        refreshBtn.setOnAction(e -> refreshResilienceStatus());
+
+        HBox rateRow = new HBox(10, rateLimitSpinner, applyBtn, refreshBtn);
+        rateRow.setAlignment(Pos.CENTER_LEFT);
+
+        card.getChildren().addAll(title, hint, kpiRow, resilienceDetailLabel,
+                new Separator(), new VBox(6, rateLabel, rateRow));
+        return card;
+    }
+
+    private VBox statusKpi(String label, Label valueLabel) {
+        VBox box = new VBox(4);
+        box.getStyleClass().add("kpi-card");
+        HBox.setHgrow(box, Priority.ALWAYS);
+        Label lbl = new Label(label);
+        lbl.getStyleClass().add("kpi-label");
+        valueLabel.getStyleClass().addAll("kpi-value", "num");
+        box.getChildren().addAll(lbl, valueLabel);
+        return box;
+    }
+
+    private void refreshResilienceStatus() {
+        ResilienceInterceptor.Status s = BrapiClient.resilienceStatus();
+
+        circuitValueLabel.getStyleClass().removeAll("state-positive", "state-warning", "state-negative");
+        switch (s.circuit()) {
+            case CLOSED -> {
+                circuitValueLabel.setText("Fechado");
+                circuitValueLabel.getStyleClass().add("state-positive");
+            }
+            case HALF_OPEN -> {
+                circuitValueLabel.setText("Em teste");
+                circuitValueLabel.getStyleClass().add("state-warning");
+            }
+            case OPEN -> {
+                circuitValueLabel.setText("Aberto (" + (s.circuitOpenRemainingMillis() + 999) / 1000 + "s)");
+                circuitValueLabel.getStyleClass().add("state-negative");
+            }
+        }
+
+        rateValueLabel.setText(String.format("%.0f/min · %.0f", s.ratePerMinute(), Math.floor(s.rateTokens())));
+        retryValueLabel.setText(s.retries() + " / " + s.retriesDenied() + " negadas");
+
+        SingleFlight.Stats flights = BrapiClient.requestCoalescingStats();
+        resilienceDetailLabel.setText(String.format(
+                "Falhas consecutivas: %d · Aberturas do circuito: %d · Rejeitadas pelo circuito: %d · "
+                        + "Barradas pelo limite: %d · Orçamento de retentativas: %.1f · "
+                        + "Chamadas coalescidas: %d de %d (%.0f%%)",
+                s.consecutiveFailures(), s.circuitOpens(), s.rejectedByCircuit(),
+                s.rateLimited(), s.retryTokens(),
+                flights.coalesced(), flights.requests(), flights.savedRate() * 100));
+
+        StringBuilder tasks = new StringBuilder("Tarefas em segundo plano —");
+        for (AppExecutors.Stats e : AppExecutors.stats()) {
+            tasks.append(String.format(" %s: %d ativas, %d na fila, %d concluídas ·",
+                    e.name(), e.active(), e.queued(), e.completed()));
+        }
+        executorStatsLabel.setText(tasks.substring(0, tasks.length() - 2));
+    }
+
+    private void applyRateLimit() {
+        Integer value = rateLimitSpinner.getValue();
+        if (value == null || value <= 0) {
+            ToastHost.showWarn("Informe um limite válido de requisições por minuto.");
+            return;
+        }
+        settings.set(BrapiClient.SETTINGS_KEY_RATE_LIMIT, String.valueOf(value));
+        BrapiClient.setRequestsPerMinute(value);
+        refreshResilienceStatus();
+        ToastHost.showSuccess("Limite de " + value + " requisições/min aplicado.");
+    }
+
     private VBox buildBcbSection() {
         VBox card = new VBox(14);
         card.getStyleClass().add("card");
@@ -177,6 +309,65 @@ public final class ConfiguracoesPage implements Page {
         return card;
     }
 
+    private VBox buildHttpMetricsSection() {
+        VBox card = new VBox(14);
+        card.getStyleClass().add("card");
+
+        Label title = new Label("REDE — MÉTRICAS HTTP");
+        title.getStyleClass().add("card-title");
+
+        Label hint = new Label("Latência por endpoint (média, p50 e p95 por faixa do histograma), "
+                + "erros, respostas do cache em disco e bytes recebidos desde a abertura do app.");
+        hint.getStyleClass().add("text-helper");
+        hint.setWrapText(true);
+
+        httpCacheLabel.getStyleClass().add("text-helper");
+
+        Button refreshBtn = new Button("Atualizar Métricas");
+        refreshBtn.getStyleClass().add("ghost-btn");
+        refreshBtn.setOnAction(e -> refreshHttpMetrics());
+
+        card.getChildren().addAll(title, hint, httpMetricsRows, httpCacheLabel, refreshBtn);
+        return card;
+    }
+
+    private void refreshHttpMetrics() {
+        httpMetricsRows.getChildren().clear();
+        List<HttpMetrics.EndpointStats> stats = HttpTransport.metrics().snapshot();
+        if (stats.isEmpty()) {
+            Label empty = new Label("Nenhuma requisição feita ainda.");
+            empty.getStyleClass().add("muted");
+            httpMetricsRows.getChildren().add(empty);
+        }
+        for (HttpMetrics.EndpointStats e : stats) {
+            Label name = new Label(e.endpoint());
+            name.getStyleClass().add("form-label");
+            Label values = new Label(String.format(
+                    "%d req · média %.0f ms · p50 ≤ %s · p95 ≤ %s · %d erros · %d do cache · %s",
+                    e.requests(), e.meanMillis(), bucketLabel(e.p50Millis()), bucketLabel(e.p95Millis()),
+                    e.errors(), e.cacheHits(), formatBytes(e.bytesReceived())));
+            values.getStyleClass().addAll("text-helper", "num");
+            values.setWrapText(true);
+            httpMetricsRows.getChildren().add(new VBox(2, name, values));
+        }
+
+        HttpTransport.CacheStats cache = HttpTransport.cacheStats();
+        httpCacheLabel.setText(String.format("Cache em disco: %d respostas servidas, %d idas à rede, %s ocupados",
+                cache.hits(), cache.networkCount(), formatBytes(cache.sizeBytes())));
+    }
+
+    private static String bucketLabel(long millis) {
+        if (millis < 0) return "—";
+        if (millis == Long.MAX_VALUE) return "∞";
+        return millis >= 1_000 ? String.format("%.1f s", millis / 1000.0) : millis + " ms";
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
     private VBox rateKpi(String label, Label valueLabel) {
         VBox box = new VBox(4);
         box.getStyleClass().add("kpi-card");
@@ -207,7 +398,10 @@ public final class ConfiguracoesPage implements Page {
         privacy.getStyleClass().add("text-helper");
         privacy.setWrapText(true);
 
-        card.getChildren().addAll(title, version, new Separator(), apis, privacy);
+        executorStatsLabel.getStyleClass().add("text-helper");
+        executorStatsLabel.setWrapText(true);
+
+        card.getChildren().addAll(title, version, new Separator(), apis, privacy, executorStatsLabel);
         return card;
     }
 
@@ -222,8 +416,8 @@ public final class ConfiguracoesPage implements Page {
         tokenStatusLabel.setText("Testando conexão...");
         setTokenStatusClass("status-neutral");
 
-        CompletableFuture.supplyAsync(() -> BrapiClient.testConnectionWithToken(token))
-                .thenAcceptAsync(ok -> Platform.runLater(() -> {
+        BrapiClient.testConnectionWithTokenAsync(token)
+                .thenAccept(ok -> Platform.runLater(() -> {
                     if (ok) {
                         tokenStatusLabel.setText("Token válido! Conexão estabelecida com sucesso.");
                         setTokenStatusClass("status-success");
@@ -262,42 +456,25 @@ public final class ConfiguracoesPage implements Page {
         btn.setDisable(true);
         btn.setText("Atualizando...");
 
-        CompletableFuture.supplyAsync(() -> {
-            double cdi = BcbClient.fetchCdi().orElse(-1.0);
-            double selic = BcbClient.fetchSelic().orElse(-1.0);
-            double ipca = BcbClient.fetchIpca().orElse(-1.0);
-            return new double[]{cdi, selic, ipca};
-        }).thenAcceptAsync(rates -> Platform.runLater(() -> {
-            btn.setDisable(false);
-            btn.setText("Atualizar CDI / SELIC / IPCA");
-
-            boolean anySuccess = false;
-
-            if (rates[0] > 0) {
-                settings.set("rate_cdi", String.valueOf(rates[0]));
-                Motion.animateLabelChange(cdiValueLabel, String.format("%.2f%%", rates[0] * 100));
-                anySuccess = true;
-            }
-            if (rates[1] > 0) {
-                settings.set("rate_selic", String.valueOf(rates[1]));
-                Motion.animateLabelChange(selicValueLabel, String.format("%.2f%%", rates[1] * 100));
-                anySuccess = true;
-            }
-            if (rates[2] > 0) {
-                settings.set("rate_ipca", String.valueOf(rates[2]));
-                Motion.animateLabelChange(ipcaValueLabel, String.format("%.2f%%", rates[2] * 100));
-                anySuccess = true;
-            }
+        long before = BcbClient.cachedRates().updatedAtMillis();
+        BcbClient.refreshRatesAsync().thenAccept(rates ->
+                Platform.runLater(() -> applyBcbRates(btn, rates, before)));
+    }
 
-            if (anySuccess) {
-                String now = LocalDateTime.now().format(DT_FMT);
-                settings.set("rate_last_update", now);
-                bcbLastUpdateLabel.setText("Atualizado em: " + now);
-                ToastHost.showSuccess("Taxas BCB atualizadas!");
-            } else {
-                bcbLastUpdateLabel.setText("Falha ao buscar taxas. Verifique sua conexão.");
-                ToastHost.showError("Falha ao buscar taxas do BCB.");
-            }
-        }));
+    private void applyBcbRates(Button btn, BcbClient.Rates rates, long before) {
+        btn.setDisable(false);
+        btn.setText("Atualizar CDI / SELIC / IPCA");
+
+        rates.cdi().ifPresent(v -> Motion.animateLabelChange(cdiValueLabel, String.format("%.2f%%", v * 100)));
+        rates.selic().ifPresent(v -> Motion.animateLabelChange(selicValueLabel, String.format("%.2f%%", v * 100)));
+        rates.ipca().ifPresent(v -> Motion.animateLabelChange(ipcaValueLabel, String.format("%.2f%%", v * 100)));
+
+        if (rates.upToDate() || rates.updatedAtMillis() > before) {
+            bcbLastUpdateLabel.setText(lastUpdateText(rates));
+            ToastHost.showSuccess("Taxas BCB atualizadas!");
+        } else {
+            bcbLastUpdateLabel.setText("Falha ao buscar taxas. Verifique sua conexão.");
+            ToastHost.showError("Falha ao buscar taxas do BCB.");
+        }
     }
 }
@@ -3,12 +3,19 @@ package com.daniel.presentation.view.pages;
 import com.daniel.core.domain.entity.InvestmentType;
 import com.daniel.core.domain.entity.Transaction;
 import com.daniel.core.domain.entity.Enums.CategoryEnum;
+import com.daniel.core.service.BenchmarkHistory;
+import com.daniel.core.service.BenchmarkSeries;
 import com.daniel.core.service.DailyTrackingUseCase;
+import com.daniel.core.service.PortfolioValuation;
+import com.daniel.core.util.LongLongMap;
+import com.daniel.presentation.view.util.LatestRequest;
 import com.daniel.presentation.view.util.Motion;
+import com.daniel.presentation.view.util.PageLoader;
 import com.daniel.core.service.DiversificationCalculator;
 import com.daniel.core.service.DiversificationCalculator.*;
 import com.daniel.infrastructure.api.BcbClient;
 import com.daniel.infrastructure.api.BrapiClient;
+import com.daniel.infrastructure.config.AppExecutors;
 import com.daniel.infrastructure.persistence.repository.AppSettingsRepository;
 import com.daniel.presentation.view.PageHeader;
 
@@ -32,6 +39,7 @@ import java.util.concurrent.CompletableFuture;
 public final class DashboardPage implements Page {
 
     private final DailyTrackingUseCase daily;
+    private final BenchmarkHistory benchmarks;
     private final ScrollPane scrollPane = new ScrollPane();
     private final VBox root = new VBox(20);
 
@@ -61,6 +69,8 @@ public final class DashboardPage implements Page {
     private double rateIpca = 0.045;
     private double rateIbov = Double.NaN;
     private boolean ratesFetched = false;
+    // Taxas em busca; canceladas ao sair da página (ratesFetched segue false e a busca se repete)
+    private List<CompletableFuture<?>> pendingRates = List.of();
 
     private String selectedBenchmark = "CDI";
     private final Label metricRendimentoLabel = new Label("—");
@@ -84,9 +94,15 @@ public final class DashboardPage implements Page {
             "⚠️  Token Brapi não configurado — cotações de ações usam preço de compra como referência. " +
             "Configure seu token na página Configurações para ver rentabilidade real.");
     private final AppSettingsRepository settingsRepo = new AppSettingsRepository();
+    private final PageLoader loader = new PageLoader("Dashboard");
+    // Séries do gráfico de comparação (acúmulo mês a mês): só cálculo
+    private final PageLoader comparisonLoader = new PageLoader("Dashboard/comparação", AppExecutors.cpu());
+    // Cotações do ranking: um refresh novo descarta a consulta do anterior
+    private final LatestRequest<Map<String, BrapiClient.StockData>> pendingRankQuotes = new LatestRequest<>();
 
-    public DashboardPage(DailyTrackingUseCase dailyTrackingUseCase) {
+    public DashboardPage(DailyTrackingUseCase dailyTrackingUseCase, BenchmarkHistory benchmarkHistory) {
         this.daily = dailyTrackingUseCase;
+        this.benchmarks = benchmarkHistory;
 
         CategoryAxis xAxis = new CategoryAxis();
         NumberAxis yAxis = new NumberAxis();
@@ -191,29 +207,55 @@ public final class DashboardPage implements Page {
     }
 
     private void fetchRealRates() {
-        CompletableFuture.supplyAsync(() -> {
-            double cdi = BcbClient.fetchCdi().orElse(-1.0);
-            double selic = BcbClient.fetchSelic().orElse(-1.0);
-            double ipca = BcbClient.fetchIpca().orElse(-1.0);
-
-            double ibov = BrapiClient.fetchIbovespaReturn().orElse(Double.NaN);
-
-            return new double[]{cdi, selic, ipca, ibov};
-        }).thenAcceptAsync(rates -> Platform.runLater(() -> {
-            if (rates[0] > 0) rateCdi = rates[0];
-            if (rates[1] > 0) rateSelic = rates[1];
-            if (rates[2] > 0) rateIpca = rates[2];
-            if (!Double.isNaN(rates[3])) rateIbov = rates[3];
+        // Valores salvos na hora; a consulta ao BCB atualiza em seguida
+        applyRates(BcbClient.cachedRates());
+
+        var rates = BcbClient.refreshRatesAsync();
+        var ibov = BrapiClient.fetchIbovespaReturnAsync();
+        pendingRates = List.of(rates, ibov);
+
+        CompletableFuture.allOf(rates, ibov).thenRun(() -> Platform.runLater(() -> {
+            applyRates(rates.join());
+            ibov.join().ifPresent(v -> rateIbov = v);
             ratesFetched = true;
             refreshData();
         }));
     }
 
+    private void applyRates(BcbClient.Rates rates) {
+        rates.cdi().filter(v -> v > 0).ifPresent(v -> rateCdi = v);
+        rates.selic().filter(v -> v > 0).ifPresent(v -> rateSelic = v);
+        rates.ipca().filter(v -> v > 0).ifPresent(v -> rateIpca = v);
+    }
+
+    @Override
+    public void onHide() {
+        loader.cancel();
+        comparisonLoader.cancel();
+        pendingRates.forEach(f -> f.cancel(true));
+        pendingRankQuotes.cancel();
+    }
+
+    /** Tudo o que o refresh precisa do use case, carregado fora da FX thread. */
+    private record DashboardData(LocalDate today, PortfolioValuation valuation, List<Transaction> recentTx) {}
+
     private void refreshData() {
         LocalDate today = LocalDate.now();
         dateLabel.setText(formatDate(today));
 
-        List<InvestmentType> investments = daily.listTypes();
+        loader.load(() -> {
+            benchmarks.ensureLoaded();
+            return new DashboardData(
+                    today,
+                    daily.valuation(today),
+                    daily.listTransactions(YearMonth.from(today)));
+        }, this::applyData);
+    }
+
+    private void applyData(DashboardData data) {
+        LocalDate today = data.today();
+        PortfolioValuation valuation = data.valuation();
+        List<InvestmentType> investments = valuation.investments();
 
         if (investments.isEmpty()) {
             totalLabel.setText("—");
@@ -226,13 +268,13 @@ public final class DashboardPage implements Page {
             healthBar.setProgress(0);
             healthScoreLabel.setText("—");
             healthDescLabel.setText("Sem investimentos cadastrados.");
-            updateRecentActivity();
+            updateRecentActivity(data.recentTx());
             return;
         }
 
-        Map<Long, Long> currentValues = daily.getAllCurrentValues(today);
-        long totalPatrimony = daily.getTotalPatrimony(today);
-        long totalProfit = daily.getTotalProfit(today);
+        LongLongMap currentValues = valuation.currentValuesCents();
+        long totalPatrimony = valuation.totalCurrentCents();
+        long totalProfit = valuation.totalProfitCents();
 
         Motion.animateLabelChange(totalLabel, daily.brl(totalPatrimony));
 
@@ -252,7 +294,7 @@ public final class DashboardPage implements Page {
         updateInvestmentsByCategory(investments, currentValues, totalPatrimony);
         updateRankPanel(investments, currentValues);
         updateHealthScore(investments, currentValues, totalPatrimony, totalProfit);
-        updateRecentActivity();
+        updateRecentActivity(data.recentTx());
     }
 
     private void updateCDIComparison(LocalDate today, List<InvestmentType> investments, long totalPatrimony) {
@@ -280,12 +322,12 @@ public final class DashboardPage implements Page {
         long months = java.time.temporal.ChronoUnit.MONTHS.between(oldestDate, today);
         if (months < 1) months = 1;
 
-        CDIComparison comparison = DiversificationCalculator.compareWithCDI(
-                totalInvested,
-                totalPatrimony,
-                (int) months,
-                rateCdi
-        );
+        // Com histórico local, o CDI real acumulado; senão, a taxa atual projetada
+        BenchmarkSeries cdi = benchmarks.series(BenchmarkHistory.CDI);
+        CDIComparison comparison = cdi.coversStart(oldestDate)
+                ? DiversificationCalculator.compareWithCDIFactor(totalInvested, totalPatrimony,
+                        cdi.factor(oldestDate, today))
+                : DiversificationCalculator.compareWithCDI(totalInvested, totalPatrimony, (int) months, rateCdi);
 
         String text;
         if (comparison.outperformsCDI()) {
@@ -301,7 +343,7 @@ public final class DashboardPage implements Page {
         cdiComparisonLabel.setText(text);
     }
 
-    private void updatePieChart(List<InvestmentType> investments, Map<Long, Long> currentValues) {
+    private void updatePieChart(List<InvestmentType> investments, LongLongMap currentValues) {
         DiversificationData data = DiversificationCalculator.calculateCurrent(
                 investments,
                 currentValues
@@ -335,7 +377,7 @@ public final class DashboardPage implements Page {
         }
     }
 
-    private void updateWaterfallChart(List<InvestmentType> investments, Map<Long, Long> currentValues) {
+    private void updateWaterfallChart(List<InvestmentType> investments, LongLongMap currentValues) {
         waterfallChart.getData().clear();
 
         XYChart.Series<String, Number> series = new XYChart.Series<>();
@@ -343,7 +385,7 @@ public final class DashboardPage implements Page {
 
         List<InvestmentValue> invValues = new ArrayList<>();
         for (InvestmentType inv : investments) {
-            long value = currentValues.getOrDefault((long) inv.id(), 0L);
+            long value = currentValues.getOrDefault(inv.id(), 0L);
             if (value > 0) {
                 invValues.add(new InvestmentValue(inv.name(), value));
             }
@@ -516,12 +558,17 @@ public final class DashboardPage implements Page {
         datePickerBox.setManaged(false);
     }
 
+    /** Séries mensais do gráfico de comparação e as métricas do período. */
+    private record ComparisonData(String benchmark, List<String> labels, double[] carteira, double[] bench,
+                                  double rentCartPeriodo, double rentBenchPeriodo, long rendimentoPeriodo) {}
+
     private void updateComparisonChart(List<InvestmentType> investments,
-                                       Map<Long, Long> currentValues,
+                                       LongLongMap currentValues,
                                        LocalDate today) {
         comparisonChart.getData().clear();
 
         if (investments.isEmpty()) {
+            comparisonLoader.cancel();
             noComparisonHint.setVisible(true);
             noComparisonHint.setManaged(true);
             return;
@@ -536,6 +583,7 @@ public final class DashboardPage implements Page {
             }
         }
         if (totalInvestido == 0) {
+            comparisonLoader.cancel();
             noComparisonHint.setVisible(true);
             noComparisonHint.setManaged(true);
             return;
@@ -543,8 +591,7 @@ public final class DashboardPage implements Page {
         noComparisonHint.setVisible(false);
         noComparisonHint.setManaged(false);
 
-        long patrimonioAtual = currentValues.values().stream()
-                .mapToLong(Long::longValue).sum();
+        long patrimonioAtual = currentValues.sumValues();
 
         // Data de início: filtro selecionado ou a data do investimento mais antigo
         LocalDate dataInicio;
@@ -562,6 +609,34 @@ public final class DashboardPage implements Page {
             if (maisAntiga.isAfter(dataInicio)) dataInicio = maisAntiga;
         }
 
+        // Taxa anual do benchmark selecionado
+        String benchmark = selectedBenchmark;
+        double taxaAnualBench = switch (benchmark) {
+            case "SELIC"    -> rateSelic;
+            case "IPCA"     -> rateIpca;
+            case "IBOVESPA" -> Double.isNaN(rateIbov) ? 0.0 : rateIbov;
+            default         -> rateCdi;
+        };
+
+        // Estado da tela lido acima, na FX thread; séries no pool de CPU
+        long investido = totalInvestido;
+        LocalDate inicio = dataInicio;
+        LocalDate fim = dataFim;
+        comparisonLoader.load(
+                () -> computeComparison(investments, investido, patrimonioAtual, today,
+                        inicio, fim, benchmark, taxaAnualBench),
+                this::applyComparison);
+    }
+
+    /** Só cálculo (sem nós JavaFX): roda fora da FX thread. */
+    private ComparisonData computeComparison(List<InvestmentType> investments,
+                                             long totalInvestido,
+                                             long patrimonioAtual,
+                                             LocalDate today,
+                                             LocalDate dataInicio,
+                                             LocalDate dataFim,
+                                             String benchmark,
+                                             double taxaAnualBench) {
         long totalMeses = java.time.temporal.ChronoUnit.MONTHS.between(dataInicio, dataFim);
         if (totalMeses < 1) totalMeses = 1;
 
@@ -575,56 +650,75 @@ public final class DashboardPage implements Page {
                 Math.pow(1 + rentTotalCarteira / 100.0, 1.0 / mesesTotaisCarteira) - 1;
 
         // Taxa mensal do benchmark selecionado
-        double taxaAnualBench = switch (selectedBenchmark) {
-            case "SELIC"    -> rateSelic;
-            case "IPCA"     -> rateIpca;
-            case "IBOVESPA" -> Double.isNaN(rateIbov) ? 0.0 : rateIbov;
-            default         -> rateCdi;
-        };
         double taxaMensalBench = Math.pow(1 + taxaAnualBench, 1.0 / 12) - 1;
 
-        // Séries
-        XYChart.Series<String, Number> carteiraSeries = new XYChart.Series<>();
-        carteiraSeries.setName("Carteira");
-
-        XYChart.Series<String, Number> benchSeries = new XYChart.Series<>();
-        benchSeries.setName(selectedBenchmark);
+        // CDI/SELIC/IPCA com histórico local desde o início: fatores reais acumulados
+        BenchmarkSeries benchHistory = benchmarks.series(benchmark);
+        boolean realBench = benchHistory.coversStart(dataInicio);
 
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/yy");
         long pontosGrafico = Math.min(totalMeses, mesesTotaisCarteira);
 
-        for (long m = 0; m <= pontosGrafico; m++) {
-            String label = dataInicio.plusMonths(m).format(fmt);
-            double rentCart  = (Math.pow(1 + taxaMensalCarteira, m) - 1) * 100;
-            double rentBench = (Math.pow(1 + taxaMensalBench,   m) - 1) * 100;
-            carteiraSeries.getData().add(new XYChart.Data<>(label, rentCart));
-            benchSeries.getData().add(new XYChart.Data<>(label, rentBench));
+        // Um ponto por mês: mesmo o período mais longo fica abaixo da largura do gráfico
+        int n = (int) pontosGrafico + 1;
+        List<String> labels = new ArrayList<>(n);
+        double[] carteira = new double[n];
+        double[] bench = new double[n];
+        for (int m = 0; m < n; m++) {
+            labels.add(dataInicio.plusMonths(m).format(fmt));
+            carteira[m] = (Math.pow(1 + taxaMensalCarteira, m) - 1) * 100;
+            bench[m] = realBench
+                    ? benchHistory.accumulatedRate(dataInicio, dataInicio.plusMonths(m)) * 100
+                    : (Math.pow(1 + taxaMensalBench, m) - 1) * 100;
         }
 
-        comparisonChart.getData().addAll(carteiraSeries, benchSeries);
-
-        // Atualizar métricas laterais — sincronizadas com o período do filtro selecionado
+        // Métricas laterais — sincronizadas com o período do filtro selecionado
         double rentCartPeriodo  = (Math.pow(1 + taxaMensalCarteira, (double) totalMeses) - 1) * 100;
-        double rentBenchPeriodo = (Math.pow(1 + taxaMensalBench,    (double) totalMeses) - 1) * 100;
+        double rentBenchPeriodo = realBench
+                ? benchHistory.accumulatedRate(dataInicio, dataFim) * 100
+                : (Math.pow(1 + taxaMensalBench, (double) totalMeses) - 1) * 100;
         long rendimentoPeriodo  = Math.round(totalInvestido * rentCartPeriodo / 100.0);
 
-        String corClass = rendimentoPeriodo >= 0 ? "pos" : "neg";
+        return new ComparisonData(benchmark, labels, carteira, bench,
+                rentCartPeriodo, rentBenchPeriodo, rendimentoPeriodo);
+    }
+
+    private void applyComparison(ComparisonData data) {
+        XYChart.Series<String, Number> carteiraSeries = new XYChart.Series<>();
+        carteiraSeries.setName("Carteira");
+
+        XYChart.Series<String, Number> benchSeries = new XYChart.Series<>();
+        benchSeries.setName(data.benchmark());
+
+        List<XYChart.Data<String, Number>> carteiraData = new ArrayList<>(data.labels().size());
+        List<XYChart.Data<String, Number>> benchData = new ArrayList<>(data.labels().size());
+        for (int k = 0; k < data.labels().size(); k++) {
+            String label = data.labels().get(k);
+            carteiraData.add(new XYChart.Data<>(label, data.carteira()[k]));
+            benchData.add(new XYChart.Data<>(label, data.bench()[k]));
+        }
+        carteiraSeries.getData().setAll(carteiraData);
+        benchSeries.getData().setAll(benchData);
+
+        comparisonChart.getData().setAll(List.of(carteiraSeries, benchSeries));
 
-        metricRendimentoLabel.setText(daily.brl(rendimentoPeriodo));
+        String corClass = data.rendimentoPeriodo() >= 0 ? "pos" : "neg";
+
+        metricRendimentoLabel.setText(daily.brl(data.rendimentoPeriodo()));
         metricRendimentoLabel.getStyleClass().removeAll("pos", "neg");
         metricRendimentoLabel.getStyleClass().add(corClass);
 
-        metricRentabilidadeLabel.setText(String.format("%.2f%%", rentCartPeriodo));
+        metricRentabilidadeLabel.setText(String.format("%.2f%%", data.rentCartPeriodo()));
         metricRentabilidadeLabel.getStyleClass().removeAll("pos", "neg");
         metricRentabilidadeLabel.getStyleClass().add(corClass);
 
-        boolean ibovUnavailable = "IBOVESPA".equals(selectedBenchmark) && Double.isNaN(rateIbov);
-        metricBenchmarkLabel.setText(ibovUnavailable ? "—" : String.format("%.2f%%", rentBenchPeriodo));
+        boolean ibovUnavailable = "IBOVESPA".equals(data.benchmark()) && Double.isNaN(rateIbov);
+        metricBenchmarkLabel.setText(ibovUnavailable ? "—" : String.format("%.2f%%", data.rentBenchPeriodo()));
     }
 
     private record RankEntry(String name, String ticker, double changePercent, long valueCents) {}
 
-    private void updateRankPanel(List<InvestmentType> investments, Map<Long, Long> currentValues) {
+    private void updateRankPanel(List<InvestmentType> investments, LongLongMap currentValues) {
         // Keep the titles, show loading
         rankPanelAltas.getChildren().removeIf(n -> !(n instanceof Label l && l.getStyleClass().contains("card-title")));
         rankPanelBaixas.getChildren().removeIf(n -> !(n instanceof Label l && l.getStyleClass().contains("card-title")));
@@ -632,78 +726,40 @@ public final class DashboardPage implements Page {
         loading.getStyleClass().add("muted");
         rankPanelAltas.getChildren().add(loading);
 
-        CompletableFuture.supplyAsync(() -> {
-            List<RankEntry> entries = new ArrayList<>();
-
-            // Collect tickers that need Brapi lookup
-            List<InvestmentType> withTicker = new ArrayList<>();
-            List<InvestmentType> withoutTicker = new ArrayList<>();
-
-            for (InvestmentType inv : investments) {
-                if (inv.ticker() != null && !inv.ticker().isBlank()) {
-                    withTicker.add(inv);
-                } else {
-                    withoutTicker.add(inv);
-                }
+        // Agrupar por ticker — garante uma entrada única por ticker no ranking
+        Map<String, List<InvestmentType>> tickerGroups = new LinkedHashMap<>();
+        List<InvestmentType> withoutTicker = new ArrayList<>();
+        for (InvestmentType inv : investments) {
+            if (inv.ticker() != null && !inv.ticker().isBlank()) {
+                tickerGroups.computeIfAbsent(
+                        inv.ticker().trim().toUpperCase(), k -> new ArrayList<>()
+                ).add(inv);
+            } else {
+                withoutTicker.add(inv);
             }
+        }
 
-            // Agrupar por ticker — garante uma entrada única por ticker no ranking
-            if (!withTicker.isEmpty()) {
-                Map<String, List<InvestmentType>> tickerGroups = new LinkedHashMap<>();
-                for (InvestmentType inv : withTicker) {
-                    tickerGroups.computeIfAbsent(
-                            inv.ticker().trim().toUpperCase(), k -> new ArrayList<>()
-                    ).add(inv);
-                }
-
-                // Buscar tickers únicos em batch (sem chamadas individuais por compra)
-                String tickersStr = String.join(",", tickerGroups.keySet());
-                Map<String, BrapiClient.StockData> rawMap = new HashMap<>();
-                try {
-                    rawMap = BrapiClient.fetchMultipleStocks(tickersStr);
-                } catch (Exception ignored) {}
-
-                // Normalizar chaves para uppercase — evita falha de lookup por casing da API
-                final Map<String, BrapiClient.StockData> stockMap = new HashMap<>();
-                for (var e : rawMap.entrySet()) {
-                    stockMap.put(e.getKey().toUpperCase().trim(), e.getValue());
-                }
-
-                // Uma entrada por ticker (soma dos valores de todas as compras do grupo)
-                for (var tickerEntry : tickerGroups.entrySet()) {
-                    String ticker = tickerEntry.getKey();
-                    List<InvestmentType> group = tickerEntry.getValue();
-
-                    BrapiClient.StockData data = stockMap.get(ticker);
-                    double change = (data != null && data.isValid()) ? data.regularMarketChangePercent() : 0;
-
-                    long totalValue = group.stream()
-                            .mapToLong(inv -> currentValues.getOrDefault((long) inv.id(), 0L))
-                            .sum();
+        // Buscar tickers únicos em batch (sem chamadas individuais por compra), sem prender thread na rede
+        CompletableFuture<Map<String, BrapiClient.StockData>> quotes = pendingRankQuotes.replace(tickerGroups.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : BrapiClient.fetchMultipleStocksAsync(String.join(",", tickerGroups.keySet())));
 
-                    if (totalValue <= 0) continue; // ignorar tickers sem valor atual
+        // whenComplete é o fim da cadeia: falha na cotação ou no ranking também tira o "Carregando..."
+        quotes.thenApply(raw -> rankEntries(tickerGroups, withoutTicker, raw, currentValues)).whenComplete((entries, err) -> Platform.runLater(() -> {
+            // cancelada por um refresh mais novo ou pela saída da página
+            if (quotes.isCancelled()) return;
 
-                    String displayName = group.size() == 1 ? group.get(0).name() : ticker;
-                    entries.add(new RankEntry(displayName, ticker, change, totalValue));
-                }
-            }
-
-            // Renda fixa: variação diária estimada = taxa anual / 252
-            for (InvestmentType inv : withoutTicker) {
-                long value = currentValues.getOrDefault((long) inv.id(), 0L);
-                if (value <= 0) continue; // ignorar ativos sem valor atual
-                double dailyChange = inv.profitability() != null
-                        ? inv.profitability().doubleValue() / 252.0
-                        : 0;
-                entries.add(new RankEntry(inv.name(), null, dailyChange, value));
-            }
-
-            // Retornar lista completa; separação em altas/baixas feita no Platform.runLater
-            return entries;
-        }).thenAcceptAsync(entries -> Platform.runLater(() -> {
             rankPanelAltas.getChildren().removeIf(n -> !(n instanceof Label l && l.getStyleClass().contains("card-title")));
             rankPanelBaixas.getChildren().removeIf(n -> !(n instanceof Label l && l.getStyleClass().contains("card-title")));
 
+            if (err != null) {
+                System.err.println("[Dashboard/ranking] Falha ao carregar cotações: " + err.getMessage());
+                Label failed = new Label("Cotações indisponíveis");
+                failed.getStyleClass().add("muted");
+                rankPanelAltas.getChildren().add(failed);
+                return;
+            }
+
             if (entries.isEmpty()) {
                 Label empty = new Label("Nenhum ativo");
                 empty.getStyleClass().add("muted");
@@ -745,6 +801,50 @@ public final class DashboardPage implements Page {
         }));
     }
 
+    private static List<RankEntry> rankEntries(Map<String, List<InvestmentType>> tickerGroups,
+                                               List<InvestmentType> withoutTicker,
+                                               Map<String, BrapiClient.StockData> rawMap,
+                                               LongLongMap currentValues) {
+        List<RankEntry> entries = new ArrayList<>();
+
+        // Normalizar chaves para uppercase — evita falha de lookup por casing da API
+        Map<String, BrapiClient.StockData> stockMap = new HashMap<>();
+        for (var e : rawMap.entrySet()) {
+            stockMap.put(e.getKey().toUpperCase().trim(), e.getValue());
+        }
+
+        // Uma entrada por ticker (soma dos valores de todas as compras do grupo)
+        for (var tickerEntry : tickerGroups.entrySet()) {
+            String ticker = tickerEntry.getKey();
+            List<InvestmentType> group = tickerEntry.getValue();
+
+            BrapiClient.StockData data = stockMap.get(ticker);
+            double change = (data != null && data.isValid()) ? data.regularMarketChangePercent() : 0;
+
+            long totalValue = group.stream()
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L))
+                    .sum();
+
+            if (totalValue <= 0) continue; // ignorar tickers sem valor atual
+
+            String displayName = group.size() == 1 ? group.get(0).name() : ticker;
+            entries.add(new RankEntry(displayName, ticker, change, totalValue));
+        }
+
+        // Renda fixa: variação diária estimada = taxa anual / 252
+        for (InvestmentType inv : withoutTicker) {
+            long value = currentValues.getOrDefault(inv.id(), 0L);
+            if (value <= 0) continue; // ignorar ativos sem valor atual
+            double dailyChange = inv.profitability() != null
+                    ? inv.profitability().doubleValue() / 252.0
+                    : 0;
+            entries.add(new RankEntry(inv.name(), null, dailyChange, value));
+        }
+
+        // Lista completa; separação em altas/baixas feita no Platform.runLater
+        return entries;
+    }
+
     private HBox buildRankRow(RankEntry entry) {
         HBox row = new HBox(6);
         row.setAlignment(Pos.CENTER_LEFT);
@@ -787,7 +887,7 @@ public final class DashboardPage implements Page {
     }
 
     private void updateInvestmentsByCategory(List<InvestmentType> investments,
-                                             Map<Long, Long> currentValues,
+                                             LongLongMap currentValues,
                                              long totalPatrimony) {
         investmentsByCategoryContainer.getChildren().clear();
 
@@ -809,9 +909,9 @@ public final class DashboardPage implements Page {
         List<Map.Entry<CategoryEnum, List<InvestmentType>>> sortedCategories = new ArrayList<>(byCategory.entrySet());
         sortedCategories.sort((a, b) -> {
             long totalA = a.getValue().stream()
-                    .mapToLong(inv -> currentValues.getOrDefault((long)inv.id(), 0L)).sum();
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L)).sum();
             long totalB = b.getValue().stream()
-                    .mapToLong(inv -> currentValues.getOrDefault((long)inv.id(), 0L)).sum();
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L)).sum();
             return Long.compare(totalB, totalA);
         });
 
@@ -820,7 +920,7 @@ public final class DashboardPage implements Page {
             List<InvestmentType> categoryInvestments = entry.getValue();
 
             long categoryTotal = categoryInvestments.stream()
-                    .mapToLong(inv -> currentValues.getOrDefault((long)inv.id(), 0L)).sum();
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L)).sum();
 
             if (categoryTotal == 0) continue;
 
@@ -834,7 +934,7 @@ public final class DashboardPage implements Page {
     }
 
     private VBox buildCategorySection(CategoryEnum category, List<InvestmentType> investments,
-                                      Map<Long, Long> currentValues, double categoryPercent,
+                                      LongLongMap currentValues, double categoryPercent,
                                       long categoryTotal, long totalPatrimony) {
         VBox section = new VBox(12);
         section.getStyleClass().add("card");
@@ -876,9 +976,9 @@ public final class DashboardPage implements Page {
         List<Map.Entry<String, List<InvestmentType>>> sortedGroups = new ArrayList<>(grouped.entrySet());
         sortedGroups.sort((a, b) -> {
             long totalA = a.getValue().stream()
-                    .mapToLong(inv -> currentValues.getOrDefault((long)inv.id(), 0L)).sum();
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L)).sum();
             long totalB = b.getValue().stream()
-                    .mapToLong(inv -> currentValues.getOrDefault((long)inv.id(), 0L)).sum();
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L)).sum();
             return Long.compare(totalB, totalA);
         });
 
@@ -888,7 +988,7 @@ public final class DashboardPage implements Page {
             List<InvestmentType> tickerInvs = entry.getValue();
 
             long groupTotal = tickerInvs.stream()
-                    .mapToLong(inv -> currentValues.getOrDefault((long)inv.id(), 0L)).sum();
+                    .mapToLong(inv -> currentValues.getOrDefault(inv.id(), 0L)).sum();
 
             if (groupTotal == 0) continue;
 
@@ -898,13 +998,13 @@ public final class DashboardPage implements Page {
 
         // Adicionar investimentos não agrupados
         nonTickered.sort((a, b) -> {
-            long valA = currentValues.getOrDefault((long)a.id(), 0L);
-            long valB = currentValues.getOrDefault((long)b.id(), 0L);
+            long valA = currentValues.getOrDefault(a.id(), 0L);
+            long valB = currentValues.getOrDefault(b.id(), 0L);
             return Long.compare(valB, valA);
         });
 
         for (InvestmentType inv : nonTickered) {
-            long currentValue = currentValues.getOrDefault((long)inv.id(), 0L);
+            long currentValue = currentValues.getOrDefault(inv.id(), 0L);
             if (currentValue == 0) continue;
 
             HBox invRow = buildInvestmentRow(inv, currentValue, totalPatrimony);
@@ -995,13 +1095,7 @@ public final class DashboardPage implements Page {
 
         // ─── Busca assíncrona do preço atual via Brapi ───
         if (BrapiClient.hasToken() && qtdFinal > 0) {
-            CompletableFuture.supplyAsync(() -> {
-                try {
-                    return BrapiClient.fetchStockData(tickerFinal);
-                } catch (Exception e) {
-                    return null;
-                }
-            }).thenAcceptAsync(data -> Platform.runLater(() -> {
+            BrapiClient.fetchStockDataAsync(tickerFinal).thenAccept(data -> Platform.runLater(() -> {
                 if (data != null && data.isValid()) {
                     double precoAtual = data.regularMarketPrice();
                     long posicaoAtualCents = (long)(precoAtual * qtdFinal * 100);
@@ -1277,7 +1371,7 @@ public final class DashboardPage implements Page {
         return card;
     }
 
-    private void updateHealthScore(List<InvestmentType> investments, Map<Long, Long> currentValues,
+    private void updateHealthScore(List<InvestmentType> investments, LongLongMap currentValues,
                                    long totalPatrimony, long totalProfit) {
         int score = 0;
         long categories = investments.stream()
@@ -1320,9 +1414,8 @@ public final class DashboardPage implements Page {
         healthDescLabel.setText(desc);
     }
 
-    private void updateRecentActivity() {
+    private void updateRecentActivity(List<Transaction> txs) {
         recentActivityList.getChildren().clear();
-        List<Transaction> txs = daily.listTransactions(YearMonth.now());
         if (txs.isEmpty()) {
             Label empty = new Label("Nenhum lançamento este mês");
             empty.getStyleClass().add("text-helper");
@@ -6,9 +6,12 @@ import com.daniel.core.service.ARCADiversificationStrategy;
 import com.daniel.core.service.ARCADiversificationStrategy.*;
 import com.daniel.core.service.DailyTrackingUseCase;
 import com.daniel.core.service.DiversificationCalculator;
+import com.daniel.core.service.PortfolioValuation;
+import com.daniel.core.util.LongLongMap;
 import com.daniel.core.service.DiversificationCalculator.*;
 import com.daniel.core.util.Money;
 import com.daniel.presentation.view.PageHeader;
+import com.daniel.presentation.view.util.PageLoader;
 
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -47,6 +50,7 @@ public final class DiversificationPage implements Page {
     private final TableView<SuggestionRow> suggestionsTable = new TableView<>();
 
     private final Label totalPatrimonyLabel = new Label("—");
+    private final PageLoader loader = new PageLoader("Diversificação");
 
     // Empty state — shown when no investments are registered
     private final VBox noInvestmentsPanel = buildNoInvestmentsPanel();
@@ -102,6 +106,11 @@ public final class DiversificationPage implements Page {
         refreshData();
     }
 
+    @Override
+    public void onHide() {
+        loader.cancel();
+    }
+
     // Seletor de tipo de cálculo
     private VBox buildCalculationType() {
         VBox box = new VBox(12);
@@ -451,7 +460,11 @@ public final class DiversificationPage implements Page {
 
     private void refreshData() {
         LocalDate today = LocalDate.now();
-        List<InvestmentType> investments = daily.listTypes();
+        loader.load(() -> daily.valuation(today), this::applyValuation);
+    }
+
+    private void applyValuation(PortfolioValuation valuation) {
+        List<InvestmentType> investments = valuation.investments();
 
         if (investments.isEmpty()) {
             totalPatrimonyLabel.setText("—");
@@ -465,8 +478,8 @@ public final class DiversificationPage implements Page {
         noInvestmentsPanel.setVisible(false);
         noInvestmentsPanel.setManaged(false);
 
-        Map<Long, Long> currentValues = daily.getAllCurrentValues(today);
-        long totalPatrimony = daily.getTotalPatrimony(today);
+        LongLongMap currentValues = valuation.currentValuesCents();
+        long totalPatrimony = valuation.totalCurrentCents();
 
         totalPatrimonyLabel.setText(daily.brl(totalPatrimony));
 
@@ -4,6 +4,7 @@ import com.daniel.core.domain.entity.InvestmentType;
 import com.daniel.core.domain.entity.Enums.CategoryEnum;
 import com.daniel.core.domain.entity.Enums.LiquidityEnum;
 import com.daniel.core.service.DailyTrackingUseCase;
+import com.daniel.infrastructure.config.AppExecutors;
 import com.daniel.presentation.view.PageHeader;
 import com.daniel.core.util.Money;
 import com.daniel.presentation.view.components.ColorBadge;
@@ -13,6 +14,7 @@ import com.daniel.presentation.view.components.ToastHost;
 import com.daniel.presentation.view.util.Dialogs;
 import com.daniel.presentation.view.util.Icons;
 import com.daniel.presentation.view.util.Motion;
+import com.daniel.presentation.view.util.PageLoader;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -30,6 +32,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public final class InvestmentTypesPage implements Page {
 
@@ -39,6 +42,7 @@ public final class InvestmentTypesPage implements Page {
     private final TableView<InvestmentType> table = new TableView<>();
 
     private final ObservableList<InvestmentType> allItems = FXCollections.observableArrayList();
+    private final PageLoader loader = new PageLoader("Investimentos");
     private FilteredList<InvestmentType> filteredItems;
 
     private final TextField searchField = new TextField();
@@ -206,6 +210,11 @@ public final class InvestmentTypesPage implements Page {
         refresh();
     }
 
+    @Override
+    public void onHide() {
+        loader.cancel();
+    }
+
     private void buildTable() {
         table.getStyleClass().add("table-analytic");
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
@@ -511,7 +520,28 @@ public final class InvestmentTypesPage implements Page {
     }
 
     private void refresh() {
-        allItems.setAll(daily.listTypes());
+        loader.load(daily::listTypes, this::applyItems);
+    }
+
+    /**
+     * Depois de criar/editar: o snapshot do dia avalia a carteira (cotações na
+     * brapi), então roda fora da FX thread. É uma escrita: vai como tarefa
+     * própria, fora do loader, para não ser cancelada ao trocar de página ou
+     * por outro refresh; só a recarga da lista é cancelável.
+     */
+    private void refreshWithSnapshot() {
+        CompletableFuture.runAsync(() -> daily.takeSnapshotIfNeeded(LocalDate.now()), AppExecutors.io())
+                .whenComplete((v, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        System.err.println("[SNAPSHOT] Falha ao registrar o dia: " + err.getMessage());
+                        ToastHost.showError("Falha ao registrar o snapshot do dia.");
+                    }
+                    refresh();
+                }));
+    }
+
+    private void applyItems(java.util.List<InvestmentType> items) {
+        allItems.setAll(items);
         applyFilter();
         updateKpis();
         table.getSelectionModel().clearSelection();
@@ -587,8 +617,7 @@ public final class InvestmentTypesPage implements Page {
                             data.quantity(), unitCents, totalCents, txDate);
                 }
 
-                daily.takeSnapshotIfNeeded(java.time.LocalDate.now());
-                refresh();
+                refreshWithSnapshot();
                 ToastHost.showSuccess("Investimento criado com sucesso!");
             } catch (Exception e) {
                 Dialogs.error("Erro: " + e.getMessage());
@@ -638,8 +667,7 @@ public final class InvestmentTypesPage implements Page {
                         data.purchasePrice(),
                         data.quantity()
                 );
-                daily.takeSnapshotIfNeeded(java.time.LocalDate.now());
-                refresh();
+                refreshWithSnapshot();
                 ToastHost.showSuccess("Investimento atualizado!");
             } catch (Exception e) {
                 Dialogs.error("Erro: " + e.getMessage());
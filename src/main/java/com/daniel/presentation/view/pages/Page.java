@@ -5,4 +5,5 @@ import javafx.scene.Parent;
 public interface Page {
     Parent view();
     default void onShow() {}
+    default void onHide() {}
 }
@@ -3,6 +3,7 @@ package com.daniel.presentation.view.pages;
 import com.daniel.core.domain.entity.Transaction;
 import com.daniel.core.service.DailyTrackingUseCase;
 import com.daniel.presentation.view.PageHeader;
+import com.daniel.presentation.view.util.PageLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
@@ -33,6 +34,7 @@ public final class ReportsPage implements Page {
     private final Label lucroRealizadoLabel = new Label("—");
 
     private final TableView<ExtractRow> table = new TableView<>();
+    private final PageLoader loader = new PageLoader("Extrato");
 
     private YearMonth currentMonth = YearMonth.now();
 
@@ -106,6 +108,11 @@ public final class ReportsPage implements Page {
         reload();
     }
 
+    @Override
+    public void onHide() {
+        loader.cancel();
+    }
+
     private VBox kpiCard(String title, Label value) {
         VBox b = new VBox(6);
         b.getStyleClass().add("kpi-card");
@@ -185,8 +192,11 @@ public final class ReportsPage implements Page {
         monthLabel.setText(currentMonth.format(
                 DateTimeFormatter.ofPattern("MMMM 'de' yyyy", new Locale("pt", "BR"))));
 
-        List<Transaction> transactions = daily.listTransactions(currentMonth);
+        YearMonth month = currentMonth;
+        loader.load(() -> daily.listTransactions(month), this::applyTransactions);
+    }
 
+    private void applyTransactions(List<Transaction> transactions) {
         List<ExtractRow> rows = new ArrayList<>();
         long totalCompras = 0;
         long totalVendas = 0;
@@ -6,6 +6,7 @@ import com.daniel.core.util.Money;
 import com.daniel.infrastructure.api.BcbClient;
 import com.daniel.infrastructure.api.BrapiClient;
 import com.daniel.presentation.view.PageHeader;
+import com.daniel.presentation.view.util.LatestRequest;
 
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -15,7 +16,8 @@ import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
-import java.time.LocalTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.CompletableFuture;
 
@@ -64,6 +66,10 @@ public final class SimulationPage implements Page {
     private double rateSelic = 0.15;
     private double rateIpca = 0.045;
 
+    // Chamadas em curso, canceladas ao sair da página
+    private CompletableFuture<BcbClient.Rates> pendingRates;
+    private final LatestRequest<BrapiClient.StockData> pendingQuote = new LatestRequest<>();
+
     private InvestmentTypeEnum currentType = InvestmentTypeEnum.PREFIXADO;
 
     // Visibility-controlled VBoxes
@@ -122,35 +128,48 @@ public final class SimulationPage implements Page {
         fetchRealRates();
     }
 
+    @Override
+    public void onHide() {
+        if (pendingRates != null) pendingRates.cancel(true);
+        pendingQuote.cancel();
+    }
+
     private void fetchRealRates() {
-        ratesStatusLabel.setText("Buscando taxas...");
+        // Valores salvos na hora; a consulta ao BCB atualiza em seguida
+        BcbClient.Rates cached = BcbClient.cachedRates();
+        if (cached.isComplete()) {
+            applyRates(cached);
+            ratesStatusLabel.setText("Atualizando taxas...");
+        } else {
+            ratesStatusLabel.setText("Buscando taxas...");
+        }
         applyRatesStatusStyle("text-helper");
 
-        CompletableFuture.supplyAsync(() -> {
-            var cdi = BcbClient.fetchCdi();
-            var selic = BcbClient.fetchSelic();
-            var ipca = BcbClient.fetchIpca();
-            return new double[]{
-                    cdi.orElse(-1.0), selic.orElse(-1.0), ipca.orElse(-1.0)
-            };
-        }).thenAcceptAsync(rates -> Platform.runLater(() -> {
-            boolean anyFailed = false;
-
-            if (rates[0] > 0) { rateCdi = rates[0]; } else { anyFailed = true; }
-            if (rates[1] > 0) { rateSelic = rates[1]; } else { anyFailed = true; }
-            if (rates[2] > 0) { rateIpca = rates[2]; } else { anyFailed = true; }
-
-            if (anyFailed) {
-                ratesStatusLabel.setText("Algumas taxas usando valor estimado");
-                applyRatesStatusStyle("text-xs", "state-warning");
-            } else {
-                String time = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm"));
-                ratesStatusLabel.setText(String.format(
-                        "Taxas atualizadas %s — CDI: %.2f%% | SELIC: %.2f%% | IPCA: %.2f%%",
-                        time, rateCdi * 100, rateSelic * 100, rateIpca * 100));
-                applyRatesStatusStyle("text-xs", "state-positive");
-            }
-        }));
+        pendingRates = BcbClient.refreshRatesAsync();
+        pendingRates.thenAccept(r -> Platform.runLater(() -> applyRates(r)));
+    }
+
+    private void applyRates(BcbClient.Rates rates) {
+        rates.cdi().filter(v -> v > 0).ifPresent(v -> rateCdi = v);
+        rates.selic().filter(v -> v > 0).ifPresent(v -> rateSelic = v);
+        rates.ipca().filter(v -> v > 0).ifPresent(v -> rateIpca = v);
+
+        boolean anyMissing = rates.cdi().filter(v -> v > 0).isEmpty()
+                || rates.selic().filter(v -> v > 0).isEmpty()
+                || rates.ipca().filter(v -> v > 0).isEmpty();
+        if (anyMissing) {
+            ratesStatusLabel.setText("Algumas taxas usando valor estimado");
+            applyRatesStatusStyle("text-xs", "state-warning");
+        } else {
+            String when = rates.updatedAtMillis() > 0
+                    ? "de " + Instant.ofEpochMilli(rates.updatedAtMillis()).atZone(ZoneId.systemDefault())
+                            .format(DateTimeFormatter.ofPattern("dd/MM HH:mm"))
+                    : "salvas";
+            ratesStatusLabel.setText(String.format(
+                    "Taxas %s — CDI: %.2f%% | SELIC: %.2f%% | IPCA: %.2f%%",
+                    when, rateCdi * 100, rateSelic * 100, rateIpca * 100));
+            applyRatesStatusStyle("text-xs", "state-positive");
+        }
     }
 
     private HBox buildTypeSelector() {
@@ -463,13 +482,7 @@ public final class SimulationPage implements Page {
     }
 
     private void loadStockDataFromBrapi(String ticker) {
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return BrapiClient.fetchStockData(ticker);
-            } catch (Exception e) {
-                return null;
-            }
-        }).thenAcceptAsync(data -> {
+        pendingQuote.replace(BrapiClient.fetchStockDataAsync(ticker)).thenAccept(data -> {
             if (data != null && data.isValid()) {
                 Platform.runLater(() -> {
                     currentPriceField.setText(Money.centsToText((long)(data.regularMarketPrice() * 100)));
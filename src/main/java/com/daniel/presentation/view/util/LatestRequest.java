@@ -0,0 +1,25 @@
+package com.daniel.presentation.view.util;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Guarda só a requisição mais recente de um campo de busca (ex.: cotação do
+ * ticker digitado): uma nova cancela a anterior, cujo resultado deixou de
+ * interessar, e {@link #cancel()} descarta a pendente ao fechar a tela.
+ */
+public final class LatestRequest<T> {
+
+    private CompletableFuture<T> pending;
+
+    /** Cancela a requisição anterior e passa a acompanhar {@code request}. */
+    public synchronized CompletableFuture<T> replace(CompletableFuture<T> request) {
+        if (pending != null) pending.cancel(true);
+        pending = request;
+        return request;
+    }
+
+    public synchronized void cancel() {
+        if (pending != null) pending.cancel(true);
+        pending = null;
+    }
+}
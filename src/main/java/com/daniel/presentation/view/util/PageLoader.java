@@ -0,0 +1,84 @@
+package com.daniel.presentation.view.util;
+
+import com.daniel.infrastructure.config.AppExecutors;
+import javafx.application.Platform;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carregamento de dados de página fora da FX Application Thread.
+ *
+ * Cada página tem o seu PageLoader. Um novo {@link #load} cancela o anterior
+ * (troca de filtro, refresh repetido) e só o resultado do pedido mais recente
+ * é aplicado — de uma vez, num único {@code Platform.runLater}.
+ *
+ * O cancelamento nunca interrompe a thread: um load interrompido no meio de
+ * uma leitura JDBC ou de uma chamada HTTP produz dados degradados que podem
+ * acabar em cache. O load antigo termina e o resultado é descartado pela
+ * checagem de geração.
+ */
+public final class PageLoader {
+
+    private final String name;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> running;
+
+    /** Carregamento de I/O (JDBC, cotações): {@link AppExecutors#io()}. */
+    public PageLoader(String name) {
+        this(name, AppExecutors.io());
+    }
+
+    /** Ex.: {@link AppExecutors#cpu()} para páginas cujo load é só cálculo. */
+    public PageLoader(String name, ExecutorService executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    /**
+     * Executa {@code loader} em segundo plano e entrega o resultado a
+     * {@code apply} na FX thread, a menos que um load mais novo ou um
+     * {@link #cancel()} tenha acontecido nesse meio tempo.
+     */
+    public <T> void load(Supplier<T> loader, Consumer<T> apply) {
+        load(loader, apply, e -> System.err.println("[" + name + "] Falha ao carregar dados: " + e.getMessage()));
+    }
+
+    public <T> void load(Supplier<T> loader, Consumer<T> apply, Consumer<Throwable> onError) {
+        long gen;
+        synchronized (this) {
+            gen = generation.incrementAndGet();
+            if (running != null) running.cancel(false);
+            running = executor.submit(() -> {
+                T result;
+                try {
+                    result = loader.get();
+                } catch (RuntimeException e) {
+                    if (generation.get() == gen) {
+                        Platform.runLater(() -> {
+                            if (generation.get() == gen) onError.accept(e);
+                        });
+                    }
+                    return;
+                }
+                if (generation.get() != gen) return;
+                Platform.runLater(() -> {
+                    if (generation.get() == gen) apply.accept(result);
+                });
+            });
+        }
+    }
+
+    /** Descarta o load em andamento (ex.: a página saiu de cena). */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (running != null) {
+            running.cancel(false);
+            running = null;
+        }
+    }
+}
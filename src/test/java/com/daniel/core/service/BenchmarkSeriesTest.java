@@ -0,0 +1,76 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.entity.IndexPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkSeriesTest {
+
+    private static final LocalDate D0 = LocalDate.of(2024, 1, 1);
+
+    private static BenchmarkSeries daily(double... percents) {
+        List<IndexPoint> points = new ArrayList<>();
+        for (int i = 0; i < percents.length; i++) {
+            points.add(new IndexPoint("CDI", D0.plusDays(i), percents[i]));
+        }
+        return BenchmarkSeries.of("CDI", BenchmarkSeries.Periodicity.DAILY, points);
+    }
+
+    @Test
+    void daily_multipliesPointsInHalfOpenRange() {
+        BenchmarkSeries s = daily(1.0, 2.0, 3.0);
+
+        assertEquals(1.01 * 1.02, s.factor(D0, D0.plusDays(2)), 1e-12);
+        assertEquals(1.02 * 1.03, s.factor(D0.plusDays(1), D0.plusDays(10)), 1e-12);
+        assertEquals(1.0, s.factor(D0.plusDays(1), D0.plusDays(1)), 1e-12);
+        assertEquals(1.0, s.factor(D0.plusDays(2), D0), 1e-12);
+    }
+
+    @Test
+    void daily_gapsSuchAsWeekendsDoNotAccrue() {
+        BenchmarkSeries s = BenchmarkSeries.of("CDI", BenchmarkSeries.Periodicity.DAILY, List.of(
+                new IndexPoint("CDI", LocalDate.of(2024, 1, 5), 0.05),
+                new IndexPoint("CDI", LocalDate.of(2024, 1, 8), 0.05)));
+
+        assertEquals(1.0005 * 1.0005, s.factor(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 9)), 1e-12);
+        assertEquals(LocalDate.of(2024, 1, 9), s.coveredUntil());
+    }
+
+    @Test
+    void monthly_proRataForPartialMonths() {
+        BenchmarkSeries s = BenchmarkSeries.of("IPCA", BenchmarkSeries.Periodicity.MONTHLY, List.of(
+                new IndexPoint("IPCA", LocalDate.of(2024, 2, 1), 1.0),
+                new IndexPoint("IPCA", LocalDate.of(2024, 1, 1), 0.5)));
+
+        assertEquals(1.005 * 1.01, s.factor(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)), 1e-12);
+        // metade de janeiro (31 dias) e 14 dos 29 dias de fevereiro
+        double expected = Math.pow(1.005, 16 / 31.0) * Math.pow(1.01, 14 / 29.0);
+        assertEquals(expected, s.factor(LocalDate.of(2024, 1, 16), LocalDate.of(2024, 2, 15)), 1e-12);
+        assertEquals(LocalDate.of(2024, 3, 1), s.coveredUntil());
+    }
+
+    @Test
+    void rangeOutsideHistory_isClippedToPublishedData() {
+        BenchmarkSeries s = daily(1.0, 1.0);
+
+        assertEquals(1.01 * 1.01, s.factor(D0.minusDays(30), D0.plusDays(30)), 1e-12);
+        assertFalse(s.coversStart(D0.minusDays(1)));
+        assertTrue(s.coversStart(D0));
+    }
+
+    @Test
+    void emptySeries_isNeutral() {
+        BenchmarkSeries s = BenchmarkSeries.empty("SELIC", BenchmarkSeries.Periodicity.DAILY);
+
+        assertTrue(s.isEmpty());
+        assertNull(s.firstDate());
+        assertFalse(s.coversStart(D0));
+        assertEquals(1.0, s.factor(D0, D0.plusYears(1)), 0.0);
+        assertEquals(0.0, s.accumulatedRate(D0, D0.plusYears(1)), 0.0);
+    }
+}
@@ -4,6 +4,7 @@ import com.daniel.core.domain.entity.*;
 import com.daniel.core.domain.entity.Enums.FlowKind;
 import com.daniel.core.domain.repository.*;
 import com.daniel.core.domain.repository.IStockPriceProvider;
+import com.daniel.core.util.LongLongMap;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -62,12 +63,14 @@ class DailyTrackingUseCaseTest {
 
     static class StubFlowRepo implements IFlowRepository {
         final Map<LocalDate, List<Flow>> byDate = new HashMap<>();
+        int queries = 0;
 
         void add(LocalDate date, Flow flow) {
             byDate.computeIfAbsent(date, k -> new ArrayList<>()).add(flow);
         }
 
         @Override public List<Flow> listForDate(LocalDate date) {
+            queries++;
             return byDate.getOrDefault(date, List.of());
         }
         @Override public void save(Flow flow) {}
@@ -88,13 +91,16 @@ class DailyTrackingUseCaseTest {
         final Map<LocalDate, Map<Long, Long>> upsertedInvestments = new HashMap<>();
 
         final Map<Long, Map<String, Long>> seriesData = new HashMap<>();
+        int snapshotWrites = 0;
+        int rangeLoads = 0;
+        long rangeDaysLoaded = 0;
 
         void putSeries(long typeId, Map<String, Long> series) { seriesData.put(typeId, series); }
 
         @Override public long getCash(LocalDate date) { return cash.getOrDefault(date, 0L); }
         @Override public void setCash(LocalDate date) {}
-        @Override public Map<Long, Long> getAllInvestimentsForDate(LocalDate date) {
-            return investments.getOrDefault(date, Map.of());
+        @Override public LongLongMap getAllInvestimentsForDate(LocalDate date) {
+            return LongLongMap.copyOf(investments.getOrDefault(date, Map.of()));
         }
         @Override public void setInvestimentValue(LocalDate date, long typeId, long cents) {}
         @Override public Map<String, Long> seriesForInvestiments(long investimentsTypeId) {
@@ -109,6 +115,16 @@ class DailyTrackingUseCaseTest {
             upsertedInvestments.computeIfAbsent(date, k -> new HashMap<>())
                                .put(investmentTypeId, valueCents);
         }
+        @Override public SnapshotRange loadRange(LocalDate from, LocalDate to) {
+            rangeLoads++;
+            rangeDaysLoaded += java.time.temporal.ChronoUnit.DAYS.between(from, to) + 1;
+            return ISnapshotRepository.super.loadRange(from, to);
+        }
+        @Override public void upsertSnapshot(LocalDate date, Long cashCents,
+                                             Map<Long, Long> investmentValuesCents) {
+            snapshotWrites++;
+            ISnapshotRepository.super.upsertSnapshot(date, cashCents, investmentValuesCents);
+        }
     }
 
     static class StubPriceProvider implements IStockPriceProvider {
@@ -118,11 +134,21 @@ class DailyTrackingUseCaseTest {
         void put(String ticker, double price) { prices.put(ticker, price); }
         void throwFor(String ticker) { throwing.add(ticker); }
 
+        int singleCalls;
+        int batchCalls;
+
         @Override
         public Double fetchPrice(String ticker) {
+            singleCalls++;
             if (throwing.contains(ticker)) throw new RuntimeException("simulated network error");
             return prices.get(ticker);
         }
+
+        @Override
+        public Map<String, Double> fetchPrices(Collection<String> tickers) {
+            batchCalls++;
+            return IStockPriceProvider.super.fetchPrices(tickers);
+        }
     }
 
     static class StubTxRepo implements ITransactionRepository {
@@ -588,6 +614,143 @@ class DailyTrackingUseCaseTest {
         assertEquals(-49000L, range.profitByInvestmentCents().get(1L));
     }
 
+    @Test
+    void rangeSummary_multiYear_readsOnlyTheEndpointDays() {
+        typeRepo.add(new InvestmentType(
+                1, "Tesouro", "RENDA_FIXA", "ALTA",
+                LocalDate.of(2020, 1, 1), BigDecimal.valueOf(0.12), BigDecimal.valueOf(1000)
+        ));
+        LocalDate from = LocalDate.of(2020, 1, 2);
+        LocalDate to   = LocalDate.of(2024, 12, 31);
+        snapRepo.putInvestment(from, 1L, 100000L);
+        snapRepo.putInvestment(to.minusDays(1), 1L, 150000L);
+        snapRepo.putInvestment(to, 1L, 150500L);
+
+        DailyTrackingUseCase.RangeSummary range = uc.rangeSummary(from, to);
+
+        // from: 100000 - 0; to: 150500 - 150000
+        assertEquals(500L - 100000L, range.totalProfitCents());
+        assertEquals(2, snapRepo.rangeLoads);
+        assertEquals(4, snapRepo.rangeDaysLoaded);
+    }
+
+    // ===== summariesBetween =====
+
+    @Test
+    void summariesBetween_matchesSummaryForEachDay() {
+        typeRepo.add(new InvestmentType(
+                1, "Tesouro", "RENDA_FIXA", "ALTA",
+                LocalDate.of(2023, 1, 1), BigDecimal.valueOf(0.12), BigDecimal.valueOf(1000)
+        ));
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to   = LocalDate.of(2024, 3, 5);
+        for (int i = 0; i < 5; i++) {
+            snapRepo.putInvestment(from.plusDays(i), 1L, 50000L + i * 700L);
+            snapRepo.putCash(from.plusDays(i), 1000L * i);
+        }
+
+        List<DailySummary> summaries = uc.summariesBetween(from, to);
+
+        assertEquals(5, summaries.size());
+        for (DailySummary s : summaries) {
+            assertEquals(uc.summaryFor(s.date()), s);
+        }
+    }
+
+    @Test
+    void summariesBetween_readsSnapshotsOnce() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to   = LocalDate.of(2024, 6, 30);
+
+        uc.summariesBetween(from, to);
+
+        assertEquals(1, snapRepo.rangeLoads);
+    }
+
+    @Test
+    void summariesBetween_toBeforeFrom_returnsEmpty() {
+        assertTrue(uc.summariesBetween(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1)).isEmpty());
+    }
+
+    // ===== summaryFor — flows aggregated once =====
+
+    @Test
+    void summaryFor_manyInvestments_queriesFlowsOnce() {
+        for (int id = 1; id <= 200; id++) {
+            typeRepo.add(new InvestmentType(id, "Inv" + id));
+        }
+
+        uc.summaryFor(LocalDate.of(2024, 3, 7));
+
+        assertEquals(1, flowRepo.queries);
+    }
+
+    @Test
+    void summaryFor_matchesPerInvestmentScanReference() {
+        Random rnd = new Random(42);
+        int n = 60;
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to   = LocalDate.of(2024, 3, 10);
+
+        for (int id = 1; id <= n; id++) {
+            typeRepo.add(new InvestmentType(id, "Inv" + id));
+        }
+        long flowId = 1;
+        for (LocalDate d = from.minusDays(1); !d.isAfter(to); d = d.plusDays(1)) {
+            snapRepo.putCash(d, rnd.nextInt(100_000));
+            for (long id = 1; id <= n; id++) {
+                if (rnd.nextInt(4) > 0) snapRepo.putInvestment(d, id, rnd.nextInt(1_000_000));
+            }
+            for (int k = 0; k < 15; k++) {
+                Long toId = rnd.nextBoolean() ? (long) (1 + rnd.nextInt(n)) : null;
+                Long fromId = rnd.nextBoolean() ? (long) (1 + rnd.nextInt(n)) : null;
+                flowRepo.add(d, new Flow(flowId++, d,
+                        fromId == null ? FlowKind.CASH : FlowKind.INVESTMENT, fromId,
+                        toId == null ? FlowKind.CASH : FlowKind.INVESTMENT, toId,
+                        1 + rnd.nextInt(10_000), null));
+            }
+        }
+
+        List<DailySummary> range = uc.summariesBetween(from, to);
+        for (DailySummary actual : range) {
+            DailySummary expected = referenceSummary(actual.date());
+            assertEquals(expected, actual);
+            assertEquals(expected, uc.summaryFor(actual.date()));
+        }
+    }
+
+    /** The original quadratic algorithm: per-investment scans of flows and yesterday's values. */
+    private DailySummary referenceSummary(LocalDate date) {
+        LocalDate prev = date.minusDays(1);
+        Map<Long, Long> today = snapRepo.getAllInvestimentsForDate(date);
+        Map<Long, Long> yesterday = snapRepo.getAllInvestimentsForDate(prev);
+        List<Flow> flows = flowRepo.byDate.getOrDefault(date, List.of());
+
+        Map<Long, Long> values = new HashMap<>();
+        Map<Long, Long> profits = new HashMap<>();
+        long totalInv = 0, totalProfit = 0;
+        for (InvestmentType t : typeRepo.listAll()) {
+            long todayCents = today.getOrDefault((long) t.id(), 0L);
+            long yesterdayCents = 0;
+            for (var e : yesterday.entrySet()) {
+                if (e.getKey() == t.id()) yesterdayCents = e.getValue();
+            }
+            long in = 0, out = 0;
+            for (Flow f : flows) {
+                if (f.toInvestmentTypeId() != null && f.toInvestmentTypeId() == t.id()) in += f.amountCents();
+                if (f.fromInvestmentTypeId() != null && f.fromInvestmentTypeId() == t.id()) out += f.amountCents();
+            }
+            long profit = todayCents - yesterdayCents - in + out;
+            values.put((long) t.id(), todayCents);
+            profits.put((long) t.id(), profit);
+            totalInv += todayCents;
+            totalProfit += profit;
+        }
+        long cash = snapRepo.getCash(date);
+        return new DailySummary(date, cash + totalInv, totalProfit, cash,
+                cash - snapRepo.getCash(prev), LongLongMap.copyOf(values), LongLongMap.copyOf(profits));
+    }
+
     // ===== groupByTicker — blank ticker excluded =====
 
     @Test
@@ -795,6 +958,7 @@ class DailyTrackingUseCaseTest {
         assertNotNull(saved);
         assertEquals(10000L, saved.get(1L));
         assertEquals(20000L, saved.get(2L));
+        assertEquals(1, snapRepo.snapshotWrites);
     }
 
     @Test
@@ -956,6 +1120,20 @@ class DailyTrackingUseCaseTest {
         assertEquals(100000L, upserted.get(3L));
     }
 
+    @Test
+    void takeSnapshotIfNeeded_manyTypes_writtenInSingleBatch() {
+        for (int id = 1; id <= 50; id++) {
+            typeRepo.add(new InvestmentType(id, "Inv" + id, "RENDA_FIXA", "MUITO_ALTA",
+                    null, null, BigDecimal.valueOf(100.0)));
+        }
+        LocalDate date = LocalDate.of(2024, 5, 1);
+
+        uc.takeSnapshotIfNeeded(date);
+
+        assertEquals(1, snapRepo.snapshotWrites);
+        assertEquals(50, snapRepo.upsertedInvestments.get(date).size());
+    }
+
     @Test
     void takeSnapshotIfNeeded_typeWithZeroValue_notUpserted() {
         // type with no investedValue/profitability/ticker → getCurrentValue = 0 → not upserted
@@ -1024,6 +1202,20 @@ class DailyTrackingUseCaseTest {
         assertEquals(33000L, total);
     }
 
+    @Test
+    void seriesWindow_afterSaveEntry_includesNewPointFromMemory() {
+        snapRepo.putSeries(1L, Map.of("2024-03-01", 10000L, "2024-03-02", 11000L));
+        assertEquals(2, uc.seriesWindow(1, 30).size());
+
+        uc.saveEntry(new DailyEntry(LocalDate.of(2024, 3, 3), -1L,
+                Map.of(new InvestmentType(1, "A"), 12000L)));
+        TimeSeriesStore.Window w = uc.seriesWindow(1, 2);
+
+        assertEquals(2, w.size());
+        assertEquals(LocalDate.of(2024, 3, 3), w.dateAt(1));
+        assertEquals(12000L, w.centsAt(1));
+    }
+
     // ===== getCurrentValue — ticker-path branch coverage =====
 
     @Test
@@ -1114,4 +1306,170 @@ class DailyTrackingUseCaseTest {
         );
         assertEquals(9999L, uc.getCurrentValue(inv, LocalDate.now()));
     }
+
+    // ===== getAllCurrentValues — batch pricing =====
+
+    @Test
+    void getAllCurrentValues_pricesAllTickersInOneBatch_dedupingLots() {
+        priceProvider.put("PETR4", 35.0);
+        priceProvider.put("VALE3", 45.0);
+        typeRepo.add(new InvestmentType(
+                1, "PETR4 A", "ACOES", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(3000),
+                "ACAO", null, null, "PETR4", BigDecimal.valueOf(30.0), 100, null
+        ));
+        typeRepo.add(new InvestmentType(
+                2, "PETR4 B", "ACOES", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(2000),
+                "ACAO", null, null, "PETR4", BigDecimal.valueOf(40.0), 50, null
+        ));
+        typeRepo.add(new InvestmentType(
+                3, "VALE3", "ACOES", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(1500),
+                "ACAO", null, null, "VALE3", BigDecimal.valueOf(40.0), 50, null
+        ));
+
+        Map<Long, Long> values = uc.getAllCurrentValues(LocalDate.now());
+
+        assertEquals(350000L, values.get(1L));
+        assertEquals(175000L, values.get(2L));
+        assertEquals(225000L, values.get(3L));
+        assertEquals(1, priceProvider.batchCalls);
+        assertEquals(2, priceProvider.singleCalls, "duplicate ticker must be fetched once");
+    }
+
+    @Test
+    void getAllCurrentValues_tickerFailsInBatch_fallsBackToPurchasePrice() {
+        priceProvider.throwFor("ITUB4");
+        typeRepo.add(new InvestmentType(
+                1, "ITUB4", "ACOES", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(1000),
+                "ACAO", null, null, "ITUB4", BigDecimal.valueOf(25.0), 50, null
+        ));
+
+        assertEquals(125000L, uc.getAllCurrentValues(LocalDate.now()).get(1L));
+    }
+
+    // ===== valuation — shared snapshot =====
+
+    private InvestmentType petr(int id, int qty) {
+        return new InvestmentType(
+                id, "PETR4", "ACOES", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(3000),
+                "ACAO", null, null, "PETR4", BigDecimal.valueOf(30.0), qty, null
+        );
+    }
+
+    @Test
+    void valuation_reusedAcrossTotalsForSameDate() {
+        priceProvider.put("PETR4", 35.0);
+        typeRepo.add(petr(1, 100));
+        LocalDate today = LocalDate.now();
+
+        Map<Long, Long> values = uc.getAllCurrentValues(today);
+        long patrimony = uc.getTotalPatrimony(today);
+        long profit = uc.getTotalProfit(today);
+
+        assertEquals(350000L, values.get(1L));
+        assertEquals(350000L, patrimony);
+        assertEquals(50000L, profit);
+        assertEquals(1, priceProvider.batchCalls);
+    }
+
+    @Test
+    void valuation_totalsMatchPerPositionValues() {
+        priceProvider.put("PETR4", 35.0);
+        typeRepo.add(petr(1, 100));
+        typeRepo.add(new InvestmentType(2, "Poupança", "RENDA_FIXA", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(1000.0)));
+
+        PortfolioValuation v = uc.valuation(LocalDate.now());
+
+        assertEquals(2, v.investments().size());
+        assertEquals(450000L, v.totalCurrentCents());
+        assertEquals(400000L, v.totalInvestedCents());
+        assertEquals(50000L, v.totalProfitCents());
+        assertEquals(100000L, v.currentValueCents(2L));
+        assertEquals(0L, v.currentValueCents(99L));
+    }
+
+    @Test
+    void valuation_recomputedAfterWrite() {
+        priceProvider.put("PETR4", 35.0);
+        typeRepo.add(petr(1, 100));
+        LocalDate today = LocalDate.now();
+
+        PortfolioValuation first = uc.valuation(today);
+        uc.recordBuy(1, "PETR4", "PETR4", 10, 3500L, 35000L, today);
+        PortfolioValuation second = uc.valuation(today);
+
+        assertNotSame(first, second);
+        assertTrue(second.dataVersion() > first.dataVersion());
+        assertEquals(2, priceProvider.batchCalls);
+    }
+
+    @Test
+    void valuation_differentDate_recomputed() {
+        typeRepo.add(new InvestmentType(1, "Poupança", "RENDA_FIXA", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(1000.0)));
+
+        PortfolioValuation a = uc.valuation(LocalDate.of(2024, 1, 1));
+        PortfolioValuation b = uc.valuation(LocalDate.of(2024, 1, 2));
+
+        assertNotSame(a, b);
+        assertSame(b, uc.valuation(LocalDate.of(2024, 1, 2)));
+    }
+
+    @Test
+    void valuation_invalidate_forcesRecompute() {
+        typeRepo.add(new InvestmentType(1, "Poupança", "RENDA_FIXA", "MUITO_ALTA",
+                null, null, BigDecimal.valueOf(1000.0)));
+        LocalDate today = LocalDate.now();
+
+        PortfolioValuation a = uc.valuation(today);
+        uc.invalidateValuation();
+
+        assertNotSame(a, uc.valuation(today));
+    }
+
+    // ===== Indexed fixed income — real index history =====
+
+    private static BenchmarkHistory cdiHistory(LocalDate from, int days, double percentPerDay) {
+        List<IndexPoint> points = new ArrayList<>();
+        for (int i = 0; i < days; i++) points.add(new IndexPoint("CDI", from.plusDays(i), percentPerDay));
+        BenchmarkHistory history = new BenchmarkHistory(new IIndexHistoryRepository() {
+            @Override public void upsertAll(Collection<IndexPoint> p) { }
+            @Override public List<IndexPoint> load(String series) { return series.equals("CDI") ? points : List.of(); }
+            @Override public LocalDate lastDate(String series) { return null; }
+        });
+        history.reload();
+        return history;
+    }
+
+    @Test
+    void getCurrentValue_posFixado_accruesPercentOfCdiHistory() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        uc = new DailyTrackingUseCase(flowRepo, typeRepo, snapRepo, txRepo, priceProvider,
+                cdiHistory(start, 10, 0.1));
+        InvestmentType inv = new InvestmentType(1, "CDB 120%", "RENDA_FIXA", "ALTA",
+                start, BigDecimal.valueOf(10.0), BigDecimal.valueOf(1000.0),
+                "POS_FIXADO", "CDI", BigDecimal.valueOf(120), null, null, null, null);
+
+        long expected = (long) (100000 * Math.pow(1.0012, 10));
+        assertEquals(expected, uc.getCurrentValue(inv, start.plusDays(10)));
+    }
+
+    @Test
+    void getCurrentValue_posFixado_withoutHistoryCoveringStart_usesProfitability() {
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        DailyTrackingUseCase plain = new DailyTrackingUseCase(flowRepo, typeRepo, snapRepo, txRepo, priceProvider);
+        uc = new DailyTrackingUseCase(flowRepo, typeRepo, snapRepo, txRepo, priceProvider,
+                cdiHistory(LocalDate.of(2024, 1, 1), 10, 0.1));
+        InvestmentType inv = new InvestmentType(1, "CDB", "RENDA_FIXA", "ALTA",
+                start, BigDecimal.valueOf(12.0), BigDecimal.valueOf(1000.0),
+                "POS_FIXADO", "CDI", BigDecimal.valueOf(100), null, null, null, null);
+
+        LocalDate today = LocalDate.of(2024, 1, 1);
+        assertEquals(plain.getCurrentValue(inv, today), uc.getCurrentValue(inv, today));
+    }
 }
@@ -236,6 +236,16 @@ class DiversificationCalculatorTest {
         assertTrue(result.cdiProfitCents() > 0);
     }
 
+    @Test
+    void compareWithCDIFactor_usesGivenAccumulatedFactor() {
+        var result = DiversificationCalculator.compareWithCDIFactor(100000L, 115000L, 1.12);
+
+        assertEquals(112000L, result.cdiProjectedCents());
+        assertEquals(12.0, result.cdiRate(), 1e-9);
+        assertEquals(3.0, result.difference(), 1e-9);
+        assertTrue(result.outperformsCDI());
+    }
+
     // ===== calculateTotalPatrimony — additional =====
 
     @Test
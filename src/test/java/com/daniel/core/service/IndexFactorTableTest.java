@@ -0,0 +1,100 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.entity.IndexPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cumulative-product lookups must match the naive period-by-period product,
+ * including X% of the index, partial IPCA months and the projected tail.
+ */
+class IndexFactorTableTest {
+
+    private static final LocalDate D0 = LocalDate.of(2020, 1, 1);
+
+    private static BenchmarkSeries dailyBusinessDays(int count, double percent) {
+        List<IndexPoint> points = new ArrayList<>();
+        LocalDate d = D0;
+        while (points.size() < count) {
+            if (d.getDayOfWeek().getValue() <= 5) points.add(new IndexPoint("CDI", d, percent));
+            d = d.plusDays(1);
+        }
+        return BenchmarkSeries.of("CDI", BenchmarkSeries.Periodicity.DAILY, points);
+    }
+
+    /** Product of (1 + p·r) for business days in [from, to), as the old loop did. */
+    private static double naiveDaily(double percentPerDay, double p, LocalDate from, LocalDate to, LocalDate last) {
+        double f = 1.0;
+        for (LocalDate d = from; d.isBefore(to) && !d.isAfter(last); d = d.plusDays(1)) {
+            if (!d.isBefore(D0) && d.getDayOfWeek().getValue() <= 5) f *= 1 + p * percentPerDay / 100.0;
+        }
+        return f;
+    }
+
+    @Test
+    void daily_matchesNaiveProductForRandomRanges() {
+        BenchmarkSeries s = dailyBusinessDays(500, 0.04);
+        LocalDate last = s.coveredUntil().minusDays(1);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        for (int k = 0; k < 200; k++) {
+            LocalDate from = D0.plusDays(rnd.nextInt(-10, 700));
+            LocalDate to = from.plusDays(rnd.nextInt(0, 400));
+            assertEquals(naiveDaily(0.04, 1.0, from, to, last), s.factor(from, to), 1e-12);
+            assertEquals(naiveDaily(0.04, 1.1, from, to, last), s.table().factor(from, to, 1.1), 1e-12);
+        }
+    }
+
+    @Test
+    void percentOfIndex_scalesEachPeriodRate() {
+        BenchmarkSeries s = BenchmarkSeries.of("CDI", BenchmarkSeries.Periodicity.DAILY, List.of(
+                new IndexPoint("CDI", D0, 1.0),
+                new IndexPoint("CDI", D0.plusDays(1), 2.0)));
+
+        assertEquals(1.011 * 1.022, s.table().factor(D0, D0.plusDays(2), 1.10), 1e-12);
+        assertEquals(1.005 * 1.01, s.table().factor(D0, D0.plusDays(2), 0.50), 1e-12);
+        // segunda consulta reaproveita a tabela escalada
+        assertEquals(1.011 * 1.022, s.table().factor(D0, D0.plusDays(2), 1.10), 1e-12);
+    }
+
+    @Test
+    void monthly_spanningSeveralMonths_proRataOnlyAtTheEnds() {
+        BenchmarkSeries s = BenchmarkSeries.of("IPCA", BenchmarkSeries.Periodicity.MONTHLY, List.of(
+                new IndexPoint("IPCA", LocalDate.of(2024, 1, 1), 0.5),
+                new IndexPoint("IPCA", LocalDate.of(2024, 2, 1), 1.0),
+                new IndexPoint("IPCA", LocalDate.of(2024, 3, 1), 0.2),
+                new IndexPoint("IPCA", LocalDate.of(2024, 4, 1), 0.4)));
+
+        double expected = Math.pow(1.005, 16 / 31.0) * 1.01 * 1.002 * Math.pow(1.004, 9 / 30.0);
+        assertEquals(expected, s.factor(LocalDate.of(2024, 1, 16), LocalDate.of(2024, 4, 10)), 1e-12);
+        assertEquals(1.01 * 1.002, s.factor(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 4, 1)), 1e-12);
+    }
+
+    @Test
+    void projectedFactor_repeatsLastRateAfterHistory() {
+        BenchmarkSeries s = BenchmarkSeries.of("CDI", BenchmarkSeries.Periodicity.DAILY, List.of(
+                new IndexPoint("CDI", D0, 0.05)));
+        IndexFactorTable t = s.table();
+
+        assertEquals(1.0005, t.factor(D0, D0.plusDays(366), 1.0), 1e-12);
+        double tail = Math.pow(1.0005, 365 * IndexFactorTable.BUSINESS_DAYS_PER_YEAR / 365.0);
+        assertEquals(1.0005 * tail, t.projectedFactor(D0, D0.plusDays(366), 1.0), 1e-9);
+        assertEquals(1.0005, t.projectedFactor(D0, D0.plusDays(1), 1.0), 1e-12);
+    }
+
+    @Test
+    void emptyTable_isNeutral() {
+        IndexFactorTable t = BenchmarkSeries.empty("CDI", BenchmarkSeries.Periodicity.DAILY).table();
+
+        assertTrue(t.isEmpty());
+        assertEquals(1.0, t.factor(D0, D0.plusDays(30), 1.2), 1e-12);
+        assertEquals(1.0, t.projectedFactor(D0, D0.plusDays(30), 1.2), 1e-12);
+        assertEquals(0.0, t.lastRate());
+    }
+}
@@ -0,0 +1,155 @@
+package com.daniel.core.service;
+
+import com.daniel.core.domain.repository.ISnapshotRepository;
+import com.daniel.core.util.LongLongMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesStoreTest {
+
+    private static final LocalDate D0 = LocalDate.of(2024, 1, 1);
+
+    /** Serves (epochDay → cents) per investment and counts full scans. */
+    static class SeriesRepo implements ISnapshotRepository {
+        final Map<Long, TreeMap<Long, Long>> series = new HashMap<>();
+        int scans;
+
+        void put(long typeId, LocalDate date, long cents) {
+            series.computeIfAbsent(typeId, k -> new TreeMap<>()).put(date.toEpochDay(), cents);
+        }
+
+        @Override public void scanSeries(long investmentTypeId, LongLongMap.LongLongConsumer sink) {
+            scans++;
+            series.getOrDefault(investmentTypeId, new TreeMap<>()).forEach(sink::accept);
+        }
+
+        @Override public long getCash(LocalDate date) { return 0; }
+        @Override public void setCash(LocalDate date) {}
+        @Override public LongLongMap getAllInvestimentsForDate(LocalDate date) { return new LongLongMap(); }
+        @Override public void setInvestimentValue(LocalDate date, long typeId, long cents) {}
+        @Override public Map<String, Long> seriesForInvestiments(long investimentsTypeId) { return Map.of(); }
+    }
+
+    private SeriesRepo repo;
+    private TimeSeriesStore store;
+
+    @BeforeEach
+    void setUp() {
+        repo = new SeriesRepo();
+        store = new TimeSeriesStore(repo);
+    }
+
+    @Test
+    void firstQuery_loadsOnce_laterQueriesServedFromMemory() {
+        for (int i = 0; i < 10; i++) repo.put(1L, D0.plusDays(i), 100L * i);
+
+        assertFalse(store.isLoaded(1L));
+        assertEquals(10, store.all(1L).size());
+        store.window(1L, D0, D0.plusDays(3));
+        store.lastDays(1L, 5);
+
+        assertEquals(1, repo.scans);
+        assertTrue(store.isLoaded(1L));
+    }
+
+    @Test
+    void window_bounds_areInclusive() {
+        for (int i = 0; i < 10; i++) repo.put(1L, D0.plusDays(i), i);
+
+        TimeSeriesStore.Window w = store.window(1L, D0.plusDays(2), D0.plusDays(4));
+
+        assertEquals(3, w.size());
+        assertEquals(D0.plusDays(2), w.dateAt(0));
+        assertEquals(4L, w.centsAt(2));
+    }
+
+    @Test
+    void window_withGaps_picksOnlyExistingDays() {
+        repo.put(1L, D0, 1L);
+        repo.put(1L, D0.plusDays(10), 2L);
+        repo.put(1L, D0.plusDays(20), 3L);
+
+        assertTrue(store.window(1L, D0.plusDays(1), D0.plusDays(9)).isEmpty());
+        assertEquals(List.of(2L, 3L), cents(store.window(1L, D0.plusDays(5), D0.plusDays(25))));
+    }
+
+    @Test
+    void lastDays_countsCalendarDaysBackFromLastPoint() {
+        for (int i = 0; i < 100; i++) repo.put(1L, D0.plusDays(i), i);
+
+        TimeSeriesStore.Window w = store.lastDays(1L, 30);
+
+        assertEquals(30, w.size());
+        assertEquals(D0.plusDays(70), w.dateAt(0));
+        assertEquals(D0.plusDays(99), w.dateAt(29));
+    }
+
+    @Test
+    void emptySeries_returnsEmptyWindows() {
+        assertTrue(store.all(9L).isEmpty());
+        assertTrue(store.lastDays(9L, 30).isEmpty());
+    }
+
+    @Test
+    void record_appendsOverwritesAndInsertsWithoutRescan() {
+        repo.put(1L, D0, 10L);
+        repo.put(1L, D0.plusDays(2), 30L);
+        store.all(1L);
+
+        store.record(D0.plusDays(3), LongLongMap.copyOf(Map.of(1L, 40L)));   // append
+        store.record(D0.plusDays(2), Map.of(1L, 31L));                       // overwrite
+        store.record(D0.plusDays(1), Map.of(1L, 20L));                       // insert in the middle
+
+        assertEquals(List.of(10L, 20L, 31L, 40L), cents(store.all(1L)));
+        assertEquals(1, repo.scans);
+    }
+
+    @Test
+    void record_unloadedSeries_isLeftForLazyLoad() {
+        store.record(D0, Map.of(2L, 5L));
+
+        assertFalse(store.isLoaded(2L));
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        repo.put(1L, D0, 1L);
+        store.all(1L);
+        repo.put(1L, D0.plusDays(1), 2L);
+
+        store.invalidate(1L);
+
+        assertEquals(2, store.all(1L).size());
+        assertEquals(2, repo.scans);
+    }
+
+    @Test
+    void randomWindows_matchLinearFilter() {
+        Random rnd = new Random(11);
+        TreeMap<LocalDate, Long> reference = new TreeMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            LocalDate d = D0.plusDays(rnd.nextInt(3_000));
+            long v = rnd.nextInt(1_000_000);
+            reference.put(d, v);
+            repo.put(1L, d, v);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate a = D0.plusDays(rnd.nextInt(3_200) - 100);
+            LocalDate b = a.plusDays(rnd.nextInt(400));
+            assertEquals(new ArrayList<>(reference.subMap(a, true, b, true).values()),
+                    cents(store.window(1L, a, b)));
+        }
+    }
+
+    private static List<Long> cents(TimeSeriesStore.Window w) {
+        List<Long> out = new ArrayList<>();
+        for (int i = 0; i < w.size(); i++) out.add(w.centsAt(i));
+        return out;
+    }
+}
@@ -0,0 +1,137 @@
+package com.daniel.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LongLongMapTest {
+
+    // ===== primitive API =====
+
+    @Test
+    void getOrDefault_missingKey_returnsDefault() {
+        LongLongMap m = new LongLongMap();
+        assertEquals(-1L, m.getOrDefault(42L, -1L));
+        assertNull(m.get(42L));
+    }
+
+    @Test
+    void put_overwrite_keepsSingleEntry() {
+        LongLongMap m = new LongLongMap();
+        m.put(1L, 10L);
+        m.put(1L, 20L);
+        assertEquals(1, m.size());
+        assertEquals(20L, m.getOrDefault(1L, 0L));
+    }
+
+    @Test
+    void addTo_accumulates() {
+        LongLongMap m = new LongLongMap();
+        m.addTo(7L, 100L);
+        assertEquals(150L, m.addTo(7L, 50L));
+        assertEquals(150L, m.getOrDefault(7L, 0L));
+    }
+
+    @Test
+    void iteration_followsInsertionOrder() {
+        LongLongMap m = new LongLongMap();
+        m.put(30L, 3L);
+        m.put(10L, 1L);
+        m.put(20L, 2L);
+        assertEquals(List.of(30L, 10L, 20L), new ArrayList<>(m.keySet()));
+        assertEquals(10L, m.keyAt(1));
+        assertEquals(6L, m.sumValues());
+    }
+
+    @Test
+    void remove_keepsOtherKeysReachable() {
+        LongLongMap m = new LongLongMap();
+        for (long k = 0; k < 100; k++) m.put(k * 16, k); // long probe chains to shift on removal
+        for (long k = 0; k < 100; k += 2) assertEquals(k, m.remove(k * 16));
+
+        assertEquals(50, m.size());
+        for (long k = 1; k < 100; k += 2) assertEquals(k, m.getOrDefault(k * 16, -1L));
+        for (long k = 0; k < 100; k += 2) assertFalse(m.containsKey(k * 16));
+    }
+
+    @Test
+    void randomOperations_matchHashMap() {
+        Random rnd = new Random(7);
+        LongLongMap m = new LongLongMap();
+        Map<Long, Long> ref = new HashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            long k = rnd.nextInt(2_000) - 1_000;
+            switch (rnd.nextInt(3)) {
+                case 0 -> { m.put(k, i); ref.put(k, (long) i); }
+                case 1 -> { m.addTo(k, 3); ref.merge(k, 3L, Long::sum); }
+                default -> assertEquals(ref.remove(k), m.remove(k));
+            }
+        }
+        assertEquals(ref, m);
+        assertEquals(m, ref);
+        assertEquals(ref.hashCode(), m.hashCode());
+    }
+
+    @Test
+    void copyOf_boxedMap_equalAndIndependent() {
+        Map<Long, Long> src = new HashMap<>(Map.of(1L, 100L, 2L, 200L));
+        LongLongMap copy = LongLongMap.copyOf(src);
+        src.put(3L, 300L);
+        assertEquals(2, copy.size());
+        assertEquals(Map.of(1L, 100L, 2L, 200L), copy);
+    }
+
+    @Test
+    void freeze_rejectsMutation() {
+        LongLongMap m = new LongLongMap();
+        m.put(1L, 1L);
+        m.freeze();
+        assertThrows(UnsupportedOperationException.class, () -> m.put(2L, 2L));
+        assertThrows(UnsupportedOperationException.class, () -> m.addTo(1L, 1L));
+        assertThrows(UnsupportedOperationException.class, () -> m.remove(1L));
+        assertThrows(UnsupportedOperationException.class, m::clear);
+    }
+
+    // ===== allocation vs boxed map =====
+
+    /**
+     * Smoke test, not a benchmark: builds (presized, as the valuation does)
+     * and reads a 10k-position map both ways and only checks that the
+     * primitive map allocates less than the boxed one on the current thread.
+     * Boxed maps pay a node plus two Longs per entry and the primitive map
+     * only its backing arrays, so the real gap (about 4x) leaves plenty of
+     * room for JIT noise; the byte counts go in the failure message.
+     */
+    @Test
+    void buildAndLookup_allocatesLessThanHashMap() {
+        var bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        var threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long tid = Thread.currentThread().getId();
+        int n = 10_000;
+
+        long before = threads.getThreadAllocatedBytes(tid);
+        Map<Long, Long> boxed = new HashMap<>(n * 2);
+        for (long id = 1_000; id < 1_000 + n; id++) boxed.put(id, id * 100);
+        long boxedSum = 0;
+        for (long id = 1_000; id < 1_000 + n; id++) boxedSum += boxed.getOrDefault(id, 0L);
+        long boxedBytes = threads.getThreadAllocatedBytes(tid) - before;
+
+        before = threads.getThreadAllocatedBytes(tid);
+        LongLongMap primitive = new LongLongMap(n);
+        for (long id = 1_000; id < 1_000 + n; id++) primitive.put(id, id * 100);
+        long primitiveSum = 0;
+        for (long id = 1_000; id < 1_000 + n; id++) primitiveSum += primitive.getOrDefault(id, 0L);
+        long primitiveBytes = threads.getThreadAllocatedBytes(tid) - before;
+
+        assertEquals(boxedSum, primitiveSum);
+        assertTrue(primitiveBytes < boxedBytes,
+                "primitive=" + primitiveBytes + "B boxed=" + boxedBytes + "B");
+    }
+}
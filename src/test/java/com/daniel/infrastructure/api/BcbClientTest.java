@@ -0,0 +1,85 @@
+package com.daniel.infrastructure.api;
+
+import com.daniel.core.domain.entity.BenchmarkRate;
+import com.daniel.core.domain.entity.IndexPoint;
+import com.daniel.core.domain.repository.IBenchmarkRateRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming SGS decoder and the persisted-rate seeding — no HTTP.
+ */
+class BcbClientTest {
+
+    @Test
+    void readLastValue_takesLastEntry_withCommaDecimal() throws IOException {
+        String json = "[{\"data\":\"01/05/2024\",\"valor\":\"0,040168\"},"
+                + "{\"data\":\"02/05/2024\",\"valor\":\"0.041\"}]";
+        assertEquals(0.041, BcbClient.readLastValue(new StringReader(json)), 1e-12);
+        assertEquals(0.040168,
+                BcbClient.readLastValue(new StringReader("[{\"data\":\"x\",\"valor\":\"0,040168\"}]")), 1e-12);
+    }
+
+    @Test
+    void readSeries_parsesDatesAndValues_skippingBlankEntries() throws IOException {
+        String json = "[{\"data\":\"02/01/2024\",\"valor\":\"0,043739\"},"
+                + "{\"data\":\"03/01/2024\",\"valor\":\"\"},"
+                + "{\"data\":\"04/01/2024\",\"valor\":null},"
+                + "{\"data\":\"05/01/2024\",\"valor\":\"0.043739\",\"extra\":1}]";
+
+        List<IndexPoint> points = BcbClient.readSeries("CDI", new StringReader(json));
+
+        assertEquals(List.of(
+                new IndexPoint("CDI", LocalDate.of(2024, 1, 2), 0.043739),
+                new IndexPoint("CDI", LocalDate.of(2024, 1, 5), 0.043739)), points);
+    }
+
+    @Test
+    void readLastValue_emptyArray_isNaN() throws IOException {
+        assertTrue(Double.isNaN(BcbClient.readLastValue(new StringReader("[]"))));
+    }
+
+    @Test
+    void useStore_seedsCachedRatesWithoutNetwork() {
+        long now = System.currentTimeMillis();
+        IBenchmarkRateRepository store = new IBenchmarkRateRepository() {
+            @Override
+            public Map<String, BenchmarkRate> loadAll() {
+                return Map.of(
+                        "CDI", new BenchmarkRate("CDI", 0.1065, now),
+                        "SELIC", new BenchmarkRate("SELIC", 0.1075, now - 1_000),
+                        "IPCA", new BenchmarkRate("IPCA", 0.045, 0),
+                        "XPTO", new BenchmarkRate("XPTO", 1.0, now));
+            }
+
+            @Override
+            public void upsert(BenchmarkRate rate) {
+            }
+        };
+
+        BcbClient.useStore(store);
+        BcbClient.Rates rates = BcbClient.cachedRates();
+
+        assertEquals(0.1065, rates.cdi().orElseThrow(), 1e-12);
+        assertEquals(0.1075, rates.selic().orElseThrow(), 1e-12);
+        assertEquals(0.045, rates.ipca().orElseThrow(), 1e-12);
+        assertEquals(now, rates.updatedAtMillis());
+        assertTrue(rates.isComplete());
+        assertFalse(rates.upToDate(), "IPCA saved with timestamp 0 must count as stale");
+    }
+
+    @Test
+    void seriesNames_roundTrip() {
+        for (String name : new String[]{"CDI", "SELIC", "IPCA"}) {
+            assertEquals(name, BcbClient.seriesName(BcbClient.seriesId(name)));
+        }
+        assertNull(BcbClient.seriesId("XPTO"));
+    }
+}
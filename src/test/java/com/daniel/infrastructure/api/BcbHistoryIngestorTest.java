@@ -0,0 +1,113 @@
+package com.daniel.infrastructure.api;
+
+import com.daniel.core.domain.entity.IndexPoint;
+import com.daniel.core.domain.repository.IIndexHistoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the incremental SGS ingestion with an in-memory store and a
+ * scripted fetcher — no HTTP.
+ */
+class BcbHistoryIngestorTest {
+
+    private static final BcbHistoryIngestor.Series CDI = new BcbHistoryIngestor.Series("CDI", 12);
+    private static final LocalDate START = LocalDate.of(2010, 1, 1);
+
+    private final MemoryRepo repo = new MemoryRepo();
+    private final List<LocalDate[]> requests = new ArrayList<>();
+
+    /** One point per requested day, so every request is visible in the store. */
+    private List<IndexPoint> fetch(String name, int id, LocalDate from, LocalDate to) {
+        requests.add(new LocalDate[]{from, to});
+        List<IndexPoint> out = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            out.add(new IndexPoint(name, d, 0.04));
+        }
+        return out;
+    }
+
+    private BcbHistoryIngestor ingestor(BcbHistoryIngestor.Fetcher fetcher) {
+        return new BcbHistoryIngestor(repo, List.of(CDI), START, fetcher);
+    }
+
+    @Test
+    void firstRun_fetchesFromStartInWindows() {
+        LocalDate today = LocalDate.of(2021, 6, 30);
+
+        int added = ingestor(this::fetch).ingestAll(today);
+
+        assertEquals(3, requests.size());
+        assertEquals(START, requests.get(0)[0]);
+        assertEquals(LocalDate.of(2014, 12, 31), requests.get(0)[1]);
+        assertEquals(LocalDate.of(2020, 1, 1), requests.get(2)[0]);
+        assertEquals(today, requests.get(2)[1]);
+        assertEquals(ChronoUnit.DAYS.between(START, today) + 1, added);
+        assertEquals(today, repo.lastDate("CDI"));
+    }
+
+    @Test
+    void laterRun_fetchesOnlyMissingDays() {
+        ingestor(this::fetch).ingestAll(LocalDate.of(2024, 5, 10));
+        requests.clear();
+
+        int added = ingestor(this::fetch).ingestAll(LocalDate.of(2024, 5, 13));
+
+        assertEquals(1, requests.size());
+        assertEquals(LocalDate.of(2024, 5, 11), requests.get(0)[0]);
+        assertEquals(3, added);
+    }
+
+    @Test
+    void upToDate_makesNoRequest() {
+        ingestor(this::fetch).ingestAll(LocalDate.of(2024, 5, 10));
+        requests.clear();
+
+        assertEquals(0, ingestor(this::fetch).ingestAll(LocalDate.of(2024, 5, 10)));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    void failureMidway_keepsEarlierWindows_andResumesFromThere() {
+        LocalDate today = LocalDate.of(2021, 6, 30);
+        int[] calls = {0};
+        ingestor((name, id, from, to) -> {
+            if (++calls[0] == 2) throw new RuntimeException("offline");
+            return fetch(name, id, from, to);
+        }).ingestAll(today);
+
+        assertEquals(LocalDate.of(2014, 12, 31), repo.lastDate("CDI"));
+
+        requests.clear();
+        ingestor(this::fetch).ingestAll(today);
+        assertEquals(LocalDate.of(2015, 1, 1), requests.get(0)[0]);
+        assertEquals(today, repo.lastDate("CDI"));
+    }
+
+    private static final class MemoryRepo implements IIndexHistoryRepository {
+        final TreeMap<LocalDate, IndexPoint> points = new TreeMap<>();
+
+        @Override
+        public void upsertAll(Collection<IndexPoint> pts) {
+            pts.forEach(p -> points.put(p.date(), p));
+        }
+
+        @Override
+        public List<IndexPoint> load(String series) {
+            return new ArrayList<>(points.values());
+        }
+
+        @Override
+        public LocalDate lastDate(String series) {
+            return points.isEmpty() ? null : points.lastKey();
+        }
+    }
+}
@@ -156,6 +156,14 @@ class BrapiClientTest {
         assertEquals("stock", s.type());
     }
 
+    // ===== canonicalTickers — batch coalescing key =====
+
+    @Test
+    void canonicalTickers_sortsDeduplicatesAndNormalizes() {
+        assertEquals("PETR4,VALE3", BrapiClient.canonicalTickers(" vale3,PETR4, ,petr4"));
+        assertEquals(BrapiClient.canonicalTickers("PETR4,VALE3"), BrapiClient.canonicalTickers("VALE3,PETR4"));
+    }
+
     // ===== Helpers =====
 
     private static BrapiClient.StockData stockDataWithError(String error) {
@@ -0,0 +1,182 @@
+package com.daniel.infrastructure.api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BrapiJsonTest {
+
+    private static final String ONE_QUOTE = """
+            {"results":[{"symbol":"PETR4","longName":"Petrobras PN","logourl":"https://x/p.svg",
+              "currency":"BRL","regularMarketPrice":38.5,"regularMarketChange":-0.2,
+              "regularMarketChangePercent":"-0.51","regularMarketOpen":38.7,
+              "regularMarketDayHigh":39.0,"regularMarketDayLow":38.1,"regularMarketVolume":45123400,
+              "fiftyTwoWeekHigh":42.1,"fiftyTwoWeekLow":30.2,"twoHundredDayAverage":36.9,
+              "dividendYield":null,"historicalDataPrice":[{"date":1,"close":2}],
+              "summaryProfile":{"sector":"Energy","nested":[1,2,{"a":true}]}}],
+             "requestedAt":"2024-01-01T00:00:00Z","took":"12ms"}
+            """;
+
+    @Test
+    void readQuotes_decodesKnownFieldsAndSkipsTheRest() throws IOException {
+        BrapiJson.Quotes q = BrapiJson.readQuotes(new StringReader(ONE_QUOTE));
+
+        assertFalse(q.hasError());
+        assertEquals(1, q.results().size());
+        BrapiClient.StockData d = q.results().get(0);
+        assertEquals("PETR4", d.ticker());
+        assertEquals("Petrobras PN", d.longName());
+        assertEquals("BRL", d.currency());
+        assertEquals(38.5, d.regularMarketPrice(), 1e-9);
+        assertEquals(-0.51, d.regularMarketChangePercent(), 1e-9);   // número vindo como string
+        assertEquals(45_123_400L, d.regularMarketVolume());
+        assertEquals(0.0, d.dividendYield());                        // null → 0
+        assertTrue(d.isValid());
+    }
+
+    @Test
+    void readQuotes_matchesTreeDecoding() throws IOException {
+        String body = quotesBody(50);
+        assertEquals(treeDecode(body), BrapiJson.readQuotes(new StringReader(body)).results());
+    }
+
+    @Test
+    void readQuotes_errorField() throws IOException {
+        assertEquals("Ticker não encontrado",
+                BrapiJson.readQuotes(new StringReader("{\"error\":\"Ticker não encontrado\"}")).error());
+        assertTrue(BrapiJson.readQuotes(new StringReader("{\"error\":true,\"message\":\"x\"}")).hasError());
+        assertFalse(BrapiJson.readQuotes(new StringReader("{\"error\":false,\"results\":[]}")).hasError());
+    }
+
+    @Test
+    void readQuotes_badTypes_becomeZeroOrNull() throws IOException {
+        BrapiClient.StockData d = BrapiJson.readQuotes(new StringReader(
+                "{\"results\":[{\"symbol\":\"X\",\"regularMarketPrice\":\"n/a\",\"regularMarketVolume\":1.5E7,"
+                        + "\"longName\":{\"a\":1}}]}")).results().get(0);
+
+        assertEquals(0.0, d.regularMarketPrice());
+        assertEquals(15_000_000L, d.regularMarketVolume());
+        assertNull(d.longName());
+    }
+
+    @Test
+    void readAvailable_readsOnlyStocks() throws IOException {
+        List<String> tickers = BrapiJson.readAvailable(new StringReader(
+                "{\"indexes\":[\"^BVSP\"],\"stocks\":[\"PETR4\",\"VALE3\",null]}"));
+        assertEquals(List.of("PETR4", "VALE3"), tickers);
+    }
+
+    /**
+     * Allocation smoke test, not a benchmark: the old path (body as String +
+     * Gson tree + per-field lookups) and the streaming decoder read the same
+     * UTF-8 bytes, and streaming must allocate clearly less in total. The
+     * margin is wide on purpose so JIT and TLAB noise cannot flip the result;
+     * the figures only show up in the failure message.
+     */
+    @Test
+    void streaming_allocatesLessPerQuoteThanTree() throws IOException {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        assumeTrue(mx instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) mx;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        int quotes = 200;
+        int rounds = 50;
+        byte[] body = quotesBody(quotes).getBytes(StandardCharsets.UTF_8);
+        long tid = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20; i++) {           // aquecimento
+            treeDecode(readAll(reader(body)));
+            BrapiJson.readQuotes(reader(body));
+        }
+
+        long t0 = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < rounds; i++) treeDecode(readAll(reader(body)));
+        long tree = threads.getThreadAllocatedBytes(tid) - t0;
+
+        long s0 = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < rounds; i++) BrapiJson.readQuotes(reader(body));
+        long streaming = threads.getThreadAllocatedBytes(tid) - s0;
+
+        long decoded = (long) rounds * quotes;
+        assertTrue(streaming * 2 < tree,
+                "streaming " + streaming / decoded + " B/quote vs tree " + tree / decoded + " B/quote");
+    }
+
+    // ---------------- helpers ----------------
+
+    private static Reader reader(byte[] body) {
+        return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+    }
+
+    private static String readAll(Reader r) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[8192];
+        int n;
+        while ((n = r.read(buf)) > 0) sb.append(buf, 0, n);
+        return sb.toString();
+    }
+
+    private static String quotesBody(int n) {
+        StringBuilder sb = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"symbol\":\"TCK").append(i).append("\",\"longName\":\"Company ").append(i)
+                    .append("\",\"shortName\":\"CO").append(i).append("\",\"logourl\":\"https://icons/").append(i)
+                    .append(".svg\",\"currency\":\"BRL\",\"regularMarketPrice\":").append(10 + i * 0.01)
+                    .append(",\"regularMarketChange\":0.12,\"regularMarketChangePercent\":1.05")
+                    .append(",\"regularMarketOpen\":10.1,\"regularMarketDayHigh\":10.9,\"regularMarketDayLow\":9.8")
+                    .append(",\"regularMarketVolume\":").append(1_000_000 + i)
+                    .append(",\"fiftyTwoWeekHigh\":12.3,\"fiftyTwoWeekLow\":8.1,\"twoHundredDayAverage\":10.4")
+                    .append(",\"dividendYield\":4.2,\"marketCap\":123456789012,\"priceEarnings\":7.3")
+                    .append(",\"regularMarketTime\":\"2024-05-10T17:07:00.000Z\",\"historicalDataPrice\":[");
+            for (int d = 0; d < 5; d++) {
+                if (d > 0) sb.append(',');
+                sb.append("{\"date\":").append(1_700_000_000 + d * 86_400)
+                        .append(",\"open\":10.0,\"high\":10.5,\"low\":9.5,\"close\":10.2,\"volume\":1000}");
+            }
+            sb.append("]}");
+        }
+        return sb.append("],\"requestedAt\":\"2024-05-10T17:10:00Z\",\"took\":\"3ms\"}").toString();
+    }
+
+    /** The pre-streaming decoding path, kept here as the allocation baseline. */
+    private static List<BrapiClient.StockData> treeDecode(String json) {
+        JsonObject root = new Gson().fromJson(json, JsonObject.class);
+        List<BrapiClient.StockData> out = new ArrayList<>();
+        for (JsonElement e : root.getAsJsonArray("results")) {
+            JsonObject s = e.getAsJsonObject();
+            out.add(new BrapiClient.StockData(str(s, "symbol"), str(s, "logourl"), str(s, "longName"),
+                    dbl(s, "regularMarketPrice"), dbl(s, "regularMarketChange"),
+                    dbl(s, "regularMarketChangePercent"), dbl(s, "regularMarketOpen"),
+                    dbl(s, "regularMarketDayHigh"), dbl(s, "regularMarketDayLow"),
+                    s.has("regularMarketVolume") ? s.get("regularMarketVolume").getAsLong() : 0L,
+                    dbl(s, "fiftyTwoWeekHigh"), dbl(s, "fiftyTwoWeekLow"), dbl(s, "twoHundredDayAverage"),
+                    str(s, "currency"), dbl(s, "dividendYield"), null));
+        }
+        return out;
+    }
+
+    private static String str(JsonObject o, String k) {
+        return o.has(k) && !o.get(k).isJsonNull() ? o.get(k).getAsString() : null;
+    }
+
+    private static double dbl(JsonObject o, String k) {
+        return o.has(k) && !o.get(k).isJsonNull() ? o.get(k).getAsDouble() : 0.0;
+    }
+}
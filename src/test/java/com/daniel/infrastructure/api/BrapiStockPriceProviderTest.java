@@ -0,0 +1,174 @@
+package com.daniel.infrastructure.api;
+
+import com.daniel.core.domain.entity.Flow;
+import com.daniel.core.domain.entity.InvestmentType;
+import com.daniel.core.domain.entity.Quote;
+import com.daniel.core.domain.entity.Transaction;
+import com.daniel.core.domain.repository.*;
+import com.daniel.core.service.DailyTrackingUseCase;
+import com.daniel.core.util.LongLongMap;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BrapiStockPriceProvider: the chunking logic, the fallback to the
+ * saved quote and how the cached portfolio valuation follows the quote TTL.
+ * Loaders are faked, so no network is involved.
+ */
+class BrapiStockPriceProviderTest {
+
+    @Test
+    void chunk_empty_returnsNoChunks() {
+        assertTrue(BrapiStockPriceProvider.chunk(List.of()).isEmpty());
+    }
+
+    @Test
+    void chunk_respectsMaxTickersPerRequest() {
+        List<String> tickers = new ArrayList<>();
+        for (int i = 0; i < 300; i++) tickers.add("T" + i);
+
+        List<List<String>> chunks = BrapiStockPriceProvider.chunk(tickers);
+
+        assertEquals(300 / BrapiStockPriceProvider.MAX_TICKERS_PER_REQUEST, chunks.size());
+        assertTrue(chunks.stream().allMatch(c -> c.size() <= BrapiStockPriceProvider.MAX_TICKERS_PER_REQUEST));
+        assertEquals(300, chunks.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void chunk_respectsMaxCharsPerRequest() {
+        List<String> tickers = new ArrayList<>();
+        for (int i = 0; i < 15; i++) tickers.add("X".repeat(50) + i);
+
+        for (List<String> c : BrapiStockPriceProvider.chunk(tickers)) {
+            int chars = String.join(",", c).length();
+            assertTrue(chars <= BrapiStockPriceProvider.MAX_TICKERS_CHARS_PER_REQUEST, "chars=" + chars);
+        }
+    }
+
+    @Test
+    void chunk_preservesOrder() {
+        List<List<String>> chunks = BrapiStockPriceProvider.chunk(List.of("PETR4", "VALE3", "ITUB4"));
+        assertEquals(List.of(List.of("PETR4", "VALE3", "ITUB4")), chunks);
+    }
+
+    // ===== fallback para a cotação salva =====
+
+    /** Repository with one saved quote that is not seeded into the cache at startup. */
+    private static IQuoteRepository savedQuote(String ticker, double price) {
+        Quote quote = new Quote(ticker, LocalDate.of(2024, 1, 2), price, 0, 0, 0, 0L);
+        return new IQuoteRepository() {
+            @Override public void upsert(Quote q) { }
+            @Override public void upsertAll(Collection<Quote> quotes) { }
+            @Override public Map<String, Quote> latestAll() { return Map.of(); }
+            @Override public Quote latest(String t) { return t.equals(ticker) ? quote : null; }
+            @Override public Map<String, Quote> latest(Collection<String> tickers) {
+                return tickers.contains(ticker) ? Map.of(ticker, quote) : Map.of();
+            }
+            @Override public List<Quote> history(String t, LocalDate from, LocalDate to) { return List.of(); }
+        };
+    }
+
+    private static BrapiStockPriceProvider provider(IQuoteRepository repo,
+                                                    Function<String, BrapiClient.StockData> loader) {
+        return new BrapiStockPriceProvider(Duration.ofMinutes(5), 100, repo, loader,
+                tickers -> Map.of());
+    }
+
+    @Test
+    void fetchPrice_invalidQuoteFromBrapi_fallsBackToSavedQuote() {
+        BrapiStockPriceProvider p = provider(savedQuote("PETR4", 37.5),
+                t -> BrapiClient.failedData(t, new RuntimeException("Erro HTTP: 500")));
+
+        assertEquals(37.5, p.fetchPrice("PETR4"));
+        assertNull(p.fetchPrice("VALE3"));
+    }
+
+    @Test
+    void fetchPrice_circuitOpen_fallsBackToSavedQuote() {
+        BrapiStockPriceProvider p = provider(savedQuote("PETR4", 37.5),
+                t -> BrapiClient.failedData(t, new ResilienceInterceptor.CircuitOpenException(30_000)));
+
+        assertEquals(37.5, p.fetchPrice("PETR4"));
+        assertEquals(Map.of("PETR4", 37.5), p.fetchPrices(List.of("PETR4")));
+    }
+
+    // ===== valuation em cache x TTL das cotações =====
+
+    private static BrapiClient.StockData quote(String ticker, double price) {
+        return BrapiClient.fromQuote(new Quote(ticker, LocalDate.now(), price, 0, 0, 0, 0L));
+    }
+
+    /** Use case with a single stock position (100 x PETR4) and no other data. */
+    private static DailyTrackingUseCase useCaseWithStock(IStockPriceProvider prices) {
+        InvestmentType petr4 = new InvestmentType(
+                1, "PETR4", "ACOES", "MUITO_ALTA",
+                LocalDate.now(), null, BigDecimal.valueOf(3000),
+                "ACAO", null, null, "PETR4", BigDecimal.valueOf(30.0), 100, null);
+        IInvestmentTypeRepository types = new IInvestmentTypeRepository() {
+            @Override public List<InvestmentType> listAll() { return List.of(petr4); }
+            @Override public void save(String name) { }
+            @Override public void rename(int id, String newName) { }
+            @Override public void delete(long id) { }
+        };
+        IFlowRepository flows = new IFlowRepository() {
+            @Override public List<Flow> listForDate(LocalDate date) { return List.of(); }
+            @Override public void save(Flow flow) { }
+            @Override public void delete(long id) { }
+            @Override public long create(Flow flow) { return 0; }
+        };
+        ISnapshotRepository snapshots = new ISnapshotRepository() {
+            @Override public long getCash(LocalDate date) { return 0; }
+            @Override public void setCash(LocalDate date) { }
+            @Override public LongLongMap getAllInvestimentsForDate(LocalDate date) { return new LongLongMap(0); }
+            @Override public void setInvestimentValue(LocalDate date, long typeId, long cents) { }
+            @Override public Map<String, Long> seriesForInvestiments(long id) { return Map.of(); }
+        };
+        ITransactionRepository txs = new ITransactionRepository() {
+            @Override public long insert(Transaction transaction) { return 0; }
+            @Override public List<Transaction> listBetween(LocalDate start, LocalDate end) { return List.of(); }
+        };
+        return new DailyTrackingUseCase(flows, types, snapshots, txs, prices);
+    }
+
+    @Test
+    void valuation_afterQuoteTtl_picksUpRefreshedPrice() {
+        AtomicLong now = new AtomicLong(1_000);
+        AtomicReference<Double> brapiPrice = new AtomicReference<>(30.0);
+        QuoteCache cache = new QuoteCache(Duration.ofMinutes(5), 100,
+                t -> quote(t, brapiPrice.get()),
+                tickers -> {
+                    Map<String, BrapiClient.StockData> out = new HashMap<>();
+                    for (String t : tickers) out.put(t, quote(t, brapiPrice.get()));
+                    return out;
+                },
+                Runnable::run, now::get);
+        DailyTrackingUseCase uc = useCaseWithStock(new BrapiStockPriceProvider(cache, null));
+        cache.addRefreshListener(q -> uc.invalidateValuation());
+        uc.expireValuationAfter(cache.ttl(), now::get);
+        LocalDate today = LocalDate.now();
+
+        assertEquals(3_000_00L, uc.valuation(today).totalCurrentCents());
+
+        brapiPrice.set(35.0);
+        now.addAndGet(Duration.ofMinutes(1).toMillis());
+        assertEquals(3_000_00L, uc.valuation(today).totalCurrentCents());
+
+        now.addAndGet(Duration.ofMinutes(5).toMillis());
+        // vencida: serve o preço antigo e revalida a cotação (executor síncrono aqui)
+        uc.valuation(today);
+        assertEquals(3_500_00L, uc.valuation(today).totalCurrentCents());
+    }
+}
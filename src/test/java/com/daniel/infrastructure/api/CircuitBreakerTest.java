@@ -0,0 +1,82 @@
+package com.daniel.infrastructure.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the circuit breaker state machine, driven by a fake clock.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30), now::get);
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    void opensAfterThreshold_andFailsFast() {
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        fail(1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(1, breaker.opens());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.rejected());
+        assertEquals(30_000, breaker.openRemainingMillis());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        fail(2);
+        breaker.onSuccess();
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(2, breaker.consecutiveFailures());
+    }
+
+    @Test
+    void halfOpen_allowsSingleTrial_successCloses() {
+        fail(3);
+        now.addAndGet(30_000);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.allowRequest());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpen_trialFailureReopens() {
+        fail(3);
+        now.addAndGet(30_000);
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(2, breaker.opens());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpen_ignoredTrialReleasesSlot() {
+        fail(3);
+        now.addAndGet(30_000);
+        assertTrue(breaker.allowRequest());
+
+        breaker.onIgnored();
+        assertTrue(breaker.allowRequest());
+    }
+}
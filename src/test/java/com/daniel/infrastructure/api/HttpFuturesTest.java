@@ -0,0 +1,121 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the OkHttp enqueue → CompletableFuture bridge. Responses are
+ * faked by an interceptor, so no network is involved.
+ */
+class HttpFuturesTest {
+
+    private static final Request REQUEST = new Request.Builder().url("https://example.test/x").build();
+
+    private static OkHttpClient client(Interceptor interceptor, int maxRequests) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(interceptor)
+                .dispatcher(HttpFutures.boundedDispatcher("test-http", maxRequests, maxRequests))
+                .build();
+    }
+
+    private static Response ok(Interceptor.Chain chain, String body) {
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(body, MediaType.get("application/json")))
+                .build();
+    }
+
+    @Test
+    void enqueue_decodesOnDispatcherThread() throws Exception {
+        OkHttpClient c = client(chain -> ok(chain, "hello"), 2);
+
+        String result = HttpFutures.enqueue(c, REQUEST, r -> {
+            Thread t = Thread.currentThread();
+            boolean dispatcherThread = t.isDaemon() && !(t instanceof ForkJoinWorkerThread);
+            return r.body().string() + "@" + dispatcherThread;
+        }, e -> "failed").get(5, TimeUnit.SECONDS);
+
+        assertEquals("hello@true", result);
+    }
+
+    @Test
+    void enqueue_networkOrDecodeFailure_usesFallback() throws Exception {
+        OkHttpClient failing = client(chain -> {
+            throw new IOException("offline");
+        }, 2);
+        assertEquals("offline", HttpFutures.enqueue(failing, REQUEST, r -> "x",
+                Throwable::getMessage).get(5, TimeUnit.SECONDS));
+
+        OkHttpClient okClient = client(chain -> ok(chain, "{"), 2);
+        assertEquals("bad", HttpFutures.enqueue(okClient, REQUEST, r -> {
+            throw new IllegalStateException("bad");
+        }, Throwable::getMessage).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancellingFuture_cancelsCall() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean sawCancel = new AtomicBoolean();
+        OkHttpClient c = client(chain -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            sawCancel.set(chain.call().isCanceled());
+            return ok(chain, "late");
+        }, 2);
+
+        CompletableFuture<String> f = HttpFutures.enqueue(c, REQUEST, r -> "done", e -> "failed");
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        HttpFutures.linked(f.thenApply(String::length), f).cancel(true);
+        release.countDown();
+
+        assertTrue(f.isCancelled());
+        c.dispatcher().executorService().shutdown();
+        assertTrue(c.dispatcher().executorService().awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(sawCancel.get());
+    }
+
+    @Test
+    void boundedDispatcher_capsConcurrentCalls() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        OkHttpClient c = client(chain -> {
+            int now = running.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException ignored) {
+            } finally {
+                running.decrementAndGet();
+            }
+            return ok(chain, "x");
+        }, 2);
+
+        List<CompletableFuture<String>> all = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            all.add(HttpFutures.enqueue(c, REQUEST, r -> "ok", e -> "failed"));
+        }
+        CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, peak.get());
+        all.forEach(f -> assertEquals("ok", f.join()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-endpoint HTTP metrics. The network interceptor is
+ * chained as a plain interceptor in front of a fake server, so bodies are
+ * counted without any socket.
+ */
+class HttpMetricsTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final HttpMetrics metrics = new HttpMetrics(nanos::get);
+
+    private OkHttpClient client(Interceptor server) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(metrics.interceptor())
+                .addInterceptor(metrics.networkInterceptor())
+                .addInterceptor(server)
+                .build();
+    }
+
+    private static Response response(Interceptor.Chain chain, int code, String body) {
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("x")
+                .body(ResponseBody.create(body, MediaType.get("application/json")))
+                .build();
+    }
+
+    private static Request get(String url) {
+        return new Request.Builder().url(url).build();
+    }
+
+    @Test
+    void recordsLatencyBytesAndErrorsPerEndpoint() throws Exception {
+        OkHttpClient c = client(chain -> {
+            nanos.addAndGet(chain.request().url().pathSegments().contains("VALE3") ? 700_000_000L : 80_000_000L);
+            boolean missing = chain.request().url().encodedPath().endsWith("XXXX3");
+            return response(chain, missing ? 404 : 200, "{\"results\":[]}");
+        });
+
+        for (String t : List.of("PETR4", "VALE3", "XXXX3")) {
+            try (Response r = c.newCall(get("https://brapi.dev/api/quote/" + t)).execute()) {
+                r.body().string();
+            }
+        }
+
+        List<HttpMetrics.EndpointStats> stats = metrics.snapshot();
+        assertEquals(1, stats.size());
+        HttpMetrics.EndpointStats quote = stats.get(0);
+        assertEquals("brapi.dev/api/quote", quote.endpoint());
+        assertEquals(3, quote.requests());
+        assertEquals(1, quote.errors());
+        assertEquals(3 * "{\"results\":[]}".length(), quote.bytesReceived());
+        assertEquals((80 + 700 + 80) / 3.0, quote.meanMillis(), 1e-6);
+        assertEquals(100, quote.p50Millis());
+        assertEquals(1_000, quote.p95Millis());
+    }
+
+    @Test
+    void networkFailure_countsAsError() {
+        OkHttpClient c = client(chain -> {
+            throw new IOException("offline");
+        });
+
+        assertThrows(IOException.class, () -> c.newCall(get("https://api.bcb.gov.br/dados/serie/x")).execute());
+
+        HttpMetrics.EndpointStats bcb = metrics.snapshot().get(0);
+        assertEquals("api.bcb.gov.br/dados/serie", bcb.endpoint());
+        assertEquals(1, bcb.requests());
+        assertEquals(1, bcb.errors());
+        assertEquals(0, bcb.bytesReceived());
+    }
+
+    @Test
+    void callRefusedByResilience_isNotRecorded() throws Exception {
+        // uma ficha e nenhuma espera: a segunda chamada nem sai para a rede
+        TokenBucket bucket = new TokenBucket(1, 6, Duration.ofMinutes(1), nanos::get);
+        ResilienceInterceptor resilience = new ResilienceInterceptor(bucket, new RetryBudget(0.1, 10),
+                new CircuitBreaker(5, Duration.ofSeconds(30)), Duration.ZERO);
+        OkHttpClient c = new OkHttpClient.Builder()
+                .addInterceptor(metrics.interceptor())
+                .addInterceptor(resilience)
+                .addInterceptor(metrics.networkInterceptor())
+                .addInterceptor(chain -> {
+                    nanos.addAndGet(80_000_000L);
+                    return response(chain, 200, "{}");
+                })
+                .build();
+
+        try (Response r = c.newCall(get("https://brapi.dev/api/quote/PETR4")).execute()) {
+            r.body().string();
+        }
+        assertThrows(ResilienceInterceptor.RateLimitedException.class,
+                () -> c.newCall(get("https://brapi.dev/api/quote/PETR4")).execute());
+
+        HttpMetrics.EndpointStats quote = metrics.snapshot().get(0);
+        assertEquals(1, quote.requests());
+        assertEquals(0, quote.errors());
+        assertEquals(80.0, quote.meanMillis(), 1e-6);
+    }
+
+    @Test
+    void endpointName_keepsHostAndTwoSegments() {
+        assertEquals("brapi.dev/api/available", HttpMetrics.endpointName(HttpUrl.get("https://brapi.dev/api/available")));
+        assertEquals("example.test", HttpMetrics.endpointName(HttpUrl.get("https://example.test/")));
+    }
+
+    @Test
+    void histogramBucketsAndQuantiles() {
+        assertEquals(0, HttpMetrics.bucketOf(0));
+        assertEquals(0, HttpMetrics.bucketOf(50));
+        assertEquals(1, HttpMetrics.bucketOf(51));
+        assertEquals(HttpMetrics.BUCKET_BOUNDS_MILLIS.length, HttpMetrics.bucketOf(60_000));
+
+        long[] empty = new long[HttpMetrics.BUCKET_BOUNDS_MILLIS.length + 1];
+        assertEquals(-1, HttpMetrics.quantileMillis(empty, 0.5));
+
+        long[] h = empty.clone();
+        h[0] = 9;
+        h[h.length - 1] = 1;
+        assertEquals(50, HttpMetrics.quantileMillis(h, 0.5));
+        assertEquals(Long.MAX_VALUE, HttpMetrics.quantileMillis(h, 0.95));
+    }
+}
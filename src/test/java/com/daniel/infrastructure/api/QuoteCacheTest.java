@@ -0,0 +1,200 @@
+package com.daniel.infrastructure.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for QuoteCache using fake loaders, a manual clock and a
+ * same-thread executor — no HTTP involved.
+ */
+class QuoteCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final Map<String, Double> prices = new HashMap<>();
+    private final List<String> singleLoads = new ArrayList<>();
+    private final List<Collection<String>> batchLoads = new ArrayList<>();
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    private QuoteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(Duration.ofMinutes(5), 100);
+    }
+
+    private QuoteCache newCache(Duration ttl, int max) {
+        return new QuoteCache(ttl, max,
+                t -> {
+                    singleLoads.add(t);
+                    return quote(t);
+                },
+                ts -> {
+                    batchLoads.add(List.copyOf(ts));
+                    Map<String, BrapiClient.StockData> out = new HashMap<>();
+                    for (String t : ts) {
+                        BrapiClient.StockData q = quote(t);
+                        if (q != null) out.put(t, q);
+                    }
+                    return out;
+                },
+                pendingRefreshes::add,
+                now::get);
+    }
+
+    private BrapiClient.StockData quote(String ticker) {
+        Double p = prices.get(ticker);
+        if (p == null) return null;
+        return new BrapiClient.StockData(ticker, null, null,
+                p, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0, null);
+    }
+
+    private void runRefreshes() {
+        List<Runnable> tasks = new ArrayList<>(pendingRefreshes);
+        pendingRefreshes.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void get_miss_loadsOnce_thenHits() {
+        prices.put("PETR4", 35.0);
+
+        assertEquals(35.0, cache.get("petr4").regularMarketPrice());
+        assertEquals(35.0, cache.get("PETR4").regularMarketPrice());
+
+        assertEquals(1, singleLoads.size());
+        QuoteCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void get_stale_returnsOldValueAndRefreshesInBackground() {
+        prices.put("PETR4", 35.0);
+        cache.get("PETR4");
+
+        prices.put("PETR4", 36.0);
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+
+        assertEquals(35.0, cache.get("PETR4").regularMarketPrice(), "stale value served immediately");
+        assertEquals(1, pendingRefreshes.size());
+
+        runRefreshes();
+        assertEquals(36.0, cache.get("PETR4").regularMarketPrice());
+        assertEquals(1, cache.stats().staleHits());
+    }
+
+    @Test
+    void get_stale_twice_schedulesSingleRefresh() {
+        prices.put("PETR4", 35.0);
+        cache.get("PETR4");
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+
+        cache.get("PETR4");
+        cache.get("PETR4");
+
+        assertEquals(1, pendingRefreshes.size());
+    }
+
+    @Test
+    void invalidQuote_isNotCached() {
+        assertNull(cache.get("XPTO3"));
+        assertNull(cache.get("XPTO3"));
+        assertEquals(2, singleLoads.size());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void getAll_missesGoInOneBatch() {
+        prices.put("PETR4", 35.0);
+        prices.put("VALE3", 45.0);
+
+        Map<String, BrapiClient.StockData> result = cache.getAll(List.of("PETR4", "vale3", "PETR4"));
+
+        assertEquals(2, result.size());
+        assertEquals(1, batchLoads.size());
+        assertEquals(List.of("PETR4", "VALE3"), batchLoads.get(0));
+    }
+
+    @Test
+    void getAll_staleEntriesRefreshedTogether() {
+        prices.put("PETR4", 35.0);
+        prices.put("VALE3", 45.0);
+        cache.getAll(List.of("PETR4", "VALE3"));
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+
+        Map<String, BrapiClient.StockData> result = cache.getAll(List.of("PETR4", "VALE3"));
+        assertEquals(2, result.size());
+        assertEquals(1, pendingRefreshes.size());
+
+        runRefreshes();
+        assertEquals(2, batchLoads.size());
+    }
+
+    @Test
+    void sizeLimit_evictsLeastRecentlyUsed() {
+        cache = newCache(Duration.ofMinutes(5), 2);
+        prices.put("A", 1.0);
+        prices.put("B", 2.0);
+        prices.put("C", 3.0);
+
+        cache.get("A");
+        cache.get("B");
+        cache.get("A"); // A becomes most recent
+        cache.get("C"); // evicts B
+
+        singleLoads.clear();
+        cache.get("A");
+        cache.get("B");
+        assertEquals(List.of("B"), singleLoads);
+    }
+
+    @Test
+    void refreshListener_notifiedOnPriceChange() {
+        List<String> notified = new ArrayList<>();
+        cache.addRefreshListener(q -> notified.add(q.ticker()));
+        prices.put("PETR4", 35.0);
+        cache.get("PETR4");
+
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+        prices.put("PETR4", 36.0);
+        cache.get("PETR4");
+        runRefreshes();
+
+        assertEquals(List.of("PETR4"), notified);
+    }
+
+    @Test
+    void refreshListener_notNotifiedWhenPriceUnchanged() {
+        List<String> notified = new ArrayList<>();
+        cache.addRefreshListener(q -> notified.add(q.ticker()));
+        prices.put("PETR4", 35.0);
+        cache.get("PETR4");
+
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+        cache.get("PETR4");
+        runRefreshes();
+
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    void seed_servesPersistedQuoteAsStaleAndRevalidates() {
+        prices.put("PETR4", 36.0);
+        cache.seed(new BrapiClient.StockData("PETR4", null, null,
+                35.0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, 0, null),
+                now.get() - Duration.ofHours(12).toMillis());
+
+        assertEquals(35.0, cache.get("PETR4").regularMarketPrice());
+        assertTrue(singleLoads.isEmpty(), "seeded quote must not block on the network");
+
+        runRefreshes();
+        assertEquals(36.0, cache.get("PETR4").regularMarketPrice());
+    }
+}
@@ -0,0 +1,237 @@
+package com.daniel.infrastructure.api;
+
+import okhttp3.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the rate limit / retry / circuit breaker interceptor. The
+ * "server" is a scripted interceptor behind it; sleeps advance a fake clock
+ * instead of blocking.
+ */
+class ResilienceInterceptorTest {
+
+    private static final Request REQUEST = new Request.Builder().url("https://example.test/quote").build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong millis = new AtomicLong(1_000);
+    private final List<Long> sleeps = new ArrayList<>();
+    private final Deque<Object> script = new ArrayDeque<>();
+    private final AtomicInteger serverCalls = new AtomicInteger();
+
+    private final RetryBudget budget = new RetryBudget(0.1, 10);
+    private final CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(30), millis::get);
+
+    private ResilienceInterceptor interceptor(TokenBucket bucket, Duration maxRateWait) {
+        return new ResilienceInterceptor(bucket, budget, breaker, maxRateWait, ms -> {
+            sleeps.add(ms);
+            nanos.addAndGet(ms * 1_000_000);
+            millis.addAndGet(ms);
+        }, nanos::get);
+    }
+
+    private ResilienceInterceptor interceptor() {
+        return interceptor(new TokenBucket(100, 100, Duration.ofSeconds(1), nanos::get), Duration.ZERO);
+    }
+
+    private OkHttpClient client(ResilienceInterceptor resilience) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(resilience)
+                .addInterceptor(chain -> {
+                    serverCalls.incrementAndGet();
+                    Object next = script.isEmpty() ? 200 : script.poll();
+                    if (next instanceof IOException e) throw e;
+                    return response(chain, (Integer) next);
+                })
+                .build();
+    }
+
+    private static Response response(Interceptor.Chain chain, int code) {
+        Response.Builder b = new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("x")
+                .body(ResponseBody.create("{}", MediaType.get("application/json")));
+        if (code == 429) b.header("Retry-After", "2");
+        return b.build();
+    }
+
+    private static int execute(OkHttpClient c) throws IOException {
+        try (Response r = c.newCall(REQUEST).execute()) {
+            return r.code();
+        }
+    }
+
+    @Test
+    void retriesTransientErrors_thenSucceeds() throws Exception {
+        script.add(503);
+        script.add(new IOException("reset"));
+        script.add(200);
+        OkHttpClient c = client(interceptor());
+
+        assertEquals(200, execute(c));
+        assertEquals(3, serverCalls.get());
+        assertEquals(2, budget.retries());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.consecutiveFailures());
+    }
+
+    @Test
+    void honoursRetryAfterOn429() throws Exception {
+        script.add(429);
+        OkHttpClient c = client(interceptor());
+
+        assertEquals(200, execute(c));
+        assertEquals(List.of(2_000L), sleeps);
+    }
+
+    @Test
+    void clientErrors_areNotRetried() throws Exception {
+        script.add(404);
+        OkHttpClient c = client(interceptor());
+
+        assertEquals(404, execute(c));
+        assertEquals(1, serverCalls.get());
+        assertEquals(0, breaker.consecutiveFailures());
+    }
+
+    @Test
+    void retriesStopAtMaxAttempts_andFeedBreaker() throws Exception {
+        for (int i = 0; i < 6; i++) script.add(500);
+        OkHttpClient c = client(interceptor());
+
+        assertEquals(500, execute(c));
+        assertEquals(1 + ResilienceInterceptor.MAX_RETRIES, serverCalls.get());
+        assertEquals(1, breaker.consecutiveFailures());
+
+        assertEquals(500, execute(c));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        int before = serverCalls.get();
+        assertThrows(ResilienceInterceptor.CircuitOpenException.class, () -> execute(c));
+        assertEquals(before, serverCalls.get());
+    }
+
+    @Test
+    void emptyRetryBudget_deniesRetries() throws Exception {
+        RetryBudget empty = new RetryBudget(0.0, 0);
+        ResilienceInterceptor resilience = new ResilienceInterceptor(
+                new TokenBucket(100, 100, Duration.ofSeconds(1), nanos::get), empty, breaker,
+                Duration.ZERO, sleeps::add, nanos::get);
+        script.add(new IOException("offline"));
+        OkHttpClient c = client(resilience);
+
+        assertThrows(IOException.class, () -> execute(c));
+        assertEquals(1, serverCalls.get());
+        assertEquals(1, empty.denied());
+    }
+
+    @Test
+    void rateLimiter_waitsForTokenWithinLimit() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 60, Duration.ofMinutes(1), nanos::get);
+        OkHttpClient c = client(interceptor(bucket, Duration.ofSeconds(3)));
+
+        assertEquals(200, execute(c));
+        assertEquals(200, execute(c));
+        assertEquals(List.of(1_000L), sleeps);
+    }
+
+    @Test
+    void rateLimiter_failsWhenWaitExceedsLimit() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 6, Duration.ofMinutes(1), nanos::get);
+        ResilienceInterceptor resilience = interceptor(bucket, Duration.ofSeconds(3));
+        OkHttpClient c = client(resilience);
+
+        assertEquals(200, execute(c));
+        assertThrows(ResilienceInterceptor.RateLimitedException.class, () -> execute(c));
+        assertEquals(1, serverCalls.get());
+        assertEquals(1, resilience.status().rateLimited());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void backoff_isBoundedByExponentialCeiling() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ResilienceInterceptor.backoffMillis(0) <= 250);
+            assertTrue(ResilienceInterceptor.backoffMillis(2) <= 1_000);
+            assertTrue(ResilienceInterceptor.backoffMillis(30) <= 4_000);
+        }
+        assertTrue(ResilienceInterceptor.isRetryable(429));
+        assertTrue(ResilienceInterceptor.isRetryable(503));
+        assertFalse(ResilienceInterceptor.isRetryable(401));
+    }
+
+    // ===== enqueue: nunca dorme na thread do dispatcher =====
+
+    private static int enqueue(OkHttpClient c) throws Exception {
+        return HttpFutures.enqueue(c, REQUEST, Response::code,
+                e -> e instanceof ResilienceInterceptor.RateLimitedException ? -1 : -2)
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void async_rateLimitedBeyondMaxWait_failsWithoutSleeping() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 6, Duration.ofMinutes(1), nanos::get);
+        ResilienceInterceptor resilience = interceptor(bucket, Duration.ofSeconds(3));
+        OkHttpClient c = client(resilience);
+
+        assertEquals(200, enqueue(c));
+        assertEquals(-1, enqueue(c));
+        assertTrue(sleeps.isEmpty());
+        assertEquals(1, serverCalls.get());
+        assertEquals(1, resilience.status().rateLimited());
+    }
+
+    @Test
+    void async_rateLimited_isRescheduledWithinMaxWait() throws Exception {
+        // ficha nova a cada 100ms de relógio real: o reagendamento espera de verdade
+        TokenBucket bucket = new TokenBucket(1, 600, Duration.ofMinutes(1));
+        ResilienceInterceptor resilience = interceptor(bucket, Duration.ofSeconds(3));
+        OkHttpClient c = client(resilience);
+
+        assertEquals(200, enqueue(c));
+        assertEquals(200, enqueue(c));
+        assertTrue(sleeps.isEmpty());
+        assertEquals(2, serverCalls.get());
+        assertEquals(0, resilience.status().rateLimited());
+        assertEquals(0, budget.retries());
+    }
+
+    @Test
+    void async_retriesAreRescheduledInsteadOfSleeping() throws Exception {
+        script.add(503);
+        script.add(new IOException("reset"));
+        script.add(200);
+        OkHttpClient c = client(interceptor());
+
+        assertEquals(200, enqueue(c));
+        assertTrue(sleeps.isEmpty());
+        assertEquals(3, serverCalls.get());
+        assertEquals(2, budget.retries());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void async_exhaustedRetries_feedBreaker() throws Exception {
+        script.add(503);
+        script.add(503);
+        script.add(503);
+        OkHttpClient c = client(interceptor());
+
+        assertEquals(503, enqueue(c));
+        assertEquals(3, serverCalls.get());
+        assertEquals(1, breaker.consecutiveFailures());
+    }
+}
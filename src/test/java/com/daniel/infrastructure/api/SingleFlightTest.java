@@ -0,0 +1,155 @@
+package com.daniel.infrastructure.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flights = new SingleFlight<>();
+
+    @Test
+    void submit_sameKeyWhileInFlight_sharesOneCall() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<Integer> a = flights.submit("PETR4", () -> { started.incrementAndGet(); return source; });
+        CompletableFuture<Integer> b = flights.submit("PETR4", () -> { started.incrementAndGet(); return source; });
+        CompletableFuture<Integer> other = flights.submit("VALE3", () -> CompletableFuture.completedFuture(7));
+
+        source.complete(42);
+
+        assertEquals(42, a.join());
+        assertEquals(42, b.join());
+        assertEquals(7, other.join());
+        assertEquals(1, started.get());
+        assertEquals(new SingleFlight.Stats(2, 1), flights.stats());
+    }
+
+    @Test
+    void completedCall_releasesKey_nextRequestCallsAgain() {
+        flights.submit("PETR4", () -> CompletableFuture.completedFuture(1)).join();
+        assertEquals(0, flights.inFlightCount());
+
+        assertEquals(2, flights.submit("PETR4", () -> CompletableFuture.completedFuture(2)).join());
+        assertEquals(0, flights.stats().coalesced());
+    }
+
+    @Test
+    void oneCallerCancelling_keepsSharedCallForTheOthers() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Integer> a = flights.submit("K", () -> source);
+        CompletableFuture<Integer> b = flights.submit("K", () -> source);
+
+        a.cancel(true);
+        assertFalse(source.isCancelled());
+
+        source.complete(5);
+        assertEquals(5, b.join());
+    }
+
+    @Test
+    void allCallersCancelling_cancelsSharedCall() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Integer> a = flights.submit("K", () -> source);
+        CompletableFuture<Integer> b = flights.submit("K", () -> source);
+
+        a.cancel(true);
+        b.cancel(true);
+
+        assertTrue(source.isCancelled());
+        assertEquals(0, flights.inFlightCount());
+        assertEquals(9, flights.submit("K", () -> CompletableFuture.completedFuture(9)).join());
+    }
+
+    @Test
+    void failure_isSharedWithAllCallers() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Integer> a = flights.submit("K", () -> source);
+        CompletableFuture<Integer> b = flights.submit("K", () -> source);
+
+        source.completeExceptionally(new IllegalStateException("boom"));
+
+        assertThrows(CompletionException.class, a::join);
+        assertThrows(CompletionException.class, b::join);
+        assertEquals(0, flights.inFlightCount());
+    }
+
+    @Test
+    void run_concurrentBlockingCallers_executeOnce() throws Exception {
+        int threads = 8;
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flights.run("K", () -> {
+                executions.incrementAndGet();
+                inCall.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 11;
+            })));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(pool.submit(() -> flights.run("K", () -> {
+                    executions.incrementAndGet();
+                    return -1;
+                })));
+            }
+            while (flights.stats().coalesced() < threads - 1) Thread.onSpinWait();
+            release.countDown();
+
+            for (Future<Integer> f : results) assertEquals(11, f.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+            assertEquals(threads - 1, flights.stats().coalesced());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void run_exception_propagatesAndReleasesKey() {
+        assertThrows(IllegalArgumentException.class, () -> flights.run("K", () -> {
+            throw new IllegalArgumentException("bad");
+        }));
+        assertEquals(3, flights.run("K", () -> 3));
+    }
+
+    @Test
+    void run_error_propagatesAndReleasesKey() {
+        assertThrows(StackOverflowError.class, () -> flights.run("K", () -> {
+            throw new StackOverflowError("deep");
+        }));
+        assertEquals(0, flights.inFlightCount());
+        assertEquals(4, flights.run("K", () -> 4));
+    }
+
+    @Test
+    void submit_errorFromCall_failsViewAndReleasesKey() {
+        CompletableFuture<Integer> failed = flights.submit("K", () -> {
+            throw new StackOverflowError("deep");
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, flights.inFlightCount());
+        assertEquals(5, flights.submit("K", () -> CompletableFuture.completedFuture(5)).join());
+    }
+
+    @Test
+    void stats_savedRate() {
+        SingleFlight.Stats s = new SingleFlight.Stats(3, 1);
+        assertEquals(4, s.requests());
+        assertEquals(0.25, s.savedRate(), 1e-12);
+        assertEquals(0.0, new SingleFlight.Stats(0, 0).savedRate());
+    }
+}
@@ -0,0 +1,68 @@
+package com.daniel.infrastructure.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickerIndexTest {
+
+    private static final TickerIndex INDEX = TickerIndex.of(List.of(
+            "PETR4", "PETR3", "petr4f", "VALE3", "ITUB4", "BPET3", "PETZ3", "PRIO3"));
+
+    @Test
+    void of_normalizesAndDeduplicates() {
+        TickerIndex idx = TickerIndex.of(List.of(" vale3 ", "VALE3", "", "ITUB4"));
+        assertEquals(List.of("ITUB4", "VALE3"), idx.tickers());
+        assertTrue(TickerIndex.of(List.of()).isEmpty());
+    }
+
+    @Test
+    void search_ranksShortPrefixesFirst_thenInnerMatches() {
+        assertEquals(List.of("PETR3", "PETR4", "PETZ3", "PETR4F", "BPET3"), INDEX.search("pet", 10));
+    }
+
+    @Test
+    void search_exactMatchComesFirst() {
+        assertEquals("PETR4", INDEX.search("PETR4", 10).get(0));
+        assertEquals(List.of("PETR4", "PETR4F"), INDEX.search("PETR4", 10));
+    }
+
+    @Test
+    void search_innerMatch_usesBigramIndex() {
+        assertEquals(List.of("PETR4", "PETR4F"), INDEX.search("TR4", 10));
+        assertTrue(INDEX.search("XYZ", 10).isEmpty());
+    }
+
+    @Test
+    void search_respectsLimitAndBlankQueries() {
+        assertEquals(2, INDEX.search("PE", 2).size());
+        assertTrue(INDEX.search("  ", 10).isEmpty());
+        assertTrue(INDEX.search(null, 10).isEmpty());
+        assertTrue(INDEX.search("PE", 0).isEmpty());
+    }
+
+    @Test
+    void randomQueries_matchLinearContainsScan() {
+        Random rnd = new Random(5);
+        List<String> universe = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 4; j++) sb.append((char) ('A' + rnd.nextInt(6)));
+            sb.append(3 + rnd.nextInt(9));
+            universe.add(sb.toString());
+        }
+        TickerIndex idx = TickerIndex.of(universe);
+
+        for (int i = 0; i < 200; i++) {
+            String t = universe.get(rnd.nextInt(universe.size()));
+            int a = rnd.nextInt(t.length() - 1);
+            String q = t.substring(a, a + 2 + rnd.nextInt(t.length() - a - 1));
+            long expected = idx.tickers().stream().filter(s -> s.contains(q)).count();
+            assertEquals(expected, idx.search(q, Integer.MAX_VALUE).size(), q);
+        }
+    }
+}
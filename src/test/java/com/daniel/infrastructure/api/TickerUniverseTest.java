@@ -0,0 +1,103 @@
+package com.daniel.infrastructure.api;
+
+import com.daniel.core.domain.repository.ITickerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickerUniverseTest {
+
+    /** In-memory ticker store. */
+    static class MemoryStore implements ITickerRepository {
+        List<String> tickers = new ArrayList<>();
+        long updatedAt;
+        int saves;
+
+        @Override public List<String> loadAll() { return new ArrayList<>(tickers); }
+        @Override public void replaceAll(Collection<String> t, long at) {
+            tickers = new ArrayList<>(t);
+            updatedAt = at;
+            saves++;
+        }
+        @Override public long lastUpdatedMillis() { return updatedAt; }
+    }
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final AtomicInteger downloads = new AtomicInteger();
+    private List<String> remote;
+    private MemoryStore store;
+    private TickerUniverse universe;
+
+    @BeforeEach
+    void setUp() {
+        remote = List.of("PETR4", "PETR3", "VALE3");
+        store = new MemoryStore();
+        universe = new TickerUniverse(Duration.ofDays(1), () -> {
+            downloads.incrementAndGet();
+            return remote;
+        }, store, Runnable::run, now::get);
+    }
+
+    @Test
+    void firstSearch_downloadsOnceAndPersists() {
+        assertEquals(List.of("PETR3", "PETR4"), universe.search("PE", 10));
+        universe.search("VA", 10);
+
+        assertEquals(1, downloads.get());
+        assertEquals(List.of("PETR3", "PETR4", "VALE3"), store.tickers);
+    }
+
+    @Test
+    void savedList_isUsedWithoutDownload() {
+        store.replaceAll(List.of("ITUB4"), now.get());
+
+        assertEquals(List.of("ITUB4"), universe.search("IT", 10));
+        assertEquals(0, downloads.get());
+    }
+
+    @Test
+    void staleList_refreshesAfterInterval() {
+        store.replaceAll(List.of("ITUB4"), now.get());
+        universe.search("IT", 10);
+
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        universe.search("IT", 10);
+
+        assertEquals(1, downloads.get());
+        assertEquals(List.of("VALE3"), universe.search("VA", 10));
+    }
+
+    @Test
+    void failedDownload_keepsListAndBacksOff() {
+        store.replaceAll(List.of("ITUB4"), now.get());
+        remote = List.of();
+        now.addAndGet(Duration.ofDays(2).toMillis());
+
+        universe.search("IT", 10);
+        universe.search("IT", 10);
+        assertEquals(1, downloads.get());
+        assertEquals(List.of("ITUB4"), universe.search("IT", 10));
+
+        now.addAndGet(TickerUniverse.RETRY_BACKOFF.toMillis());
+        universe.search("IT", 10);
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    void downloaderThrowing_isTreatedAsFailure() {
+        TickerUniverse failing = new TickerUniverse(Duration.ofDays(1), () -> {
+            throw new IllegalStateException("offline");
+        }, store, Runnable::run, now::get);
+
+        assertTrue(failing.search("PE", 10).isEmpty());
+        assertEquals(0, store.saves);
+    }
+}
@@ -0,0 +1,55 @@
+package com.daniel.infrastructure.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the token-bucket rate limiter, driven by a fake nano clock.
+ */
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void burstUpToCapacity_thenEmpty() {
+        TokenBucket bucket = new TokenBucket(3, 60, Duration.ofMinutes(1), now::get);
+
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void refillsAtConfiguredRate_cappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, Duration.ofMinutes(1), now::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        assertEquals(1_000_000_000L, bucket.nanosUntilAvailable());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, bucket.nanosUntilAvailable());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        now.addAndGet(Duration.ofHours(1).toNanos());
+        assertEquals(2.0, bucket.available(), 1e-9);
+    }
+
+    @Test
+    void perMinute_reportsRate() {
+        assertEquals(60.0, TokenBucket.perMinute(60, 10).ratePerMinute(), 1e-6);
+        assertEquals(10.0, TokenBucket.perMinute(60, 10).available(), 1e-9);
+    }
+
+    @Test
+    void invalidParameters_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 1, Duration.ZERO));
+    }
+}
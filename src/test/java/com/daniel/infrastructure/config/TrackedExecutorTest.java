@@ -0,0 +1,81 @@
+package com.daniel.infrastructure.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the task counters kept by {@link TrackedExecutor}.
+ */
+class TrackedExecutorTest {
+
+    private final TrackedExecutor executor = new TrackedExecutor("test", Executors.newFixedThreadPool(1));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void countsActiveQueuedAndCompleted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> first = executor.submit(() -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        Future<?> second = executor.submit(() -> { });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AppExecutors.Stats busy = executor.stats();
+        assertEquals(1, busy.active());
+        assertEquals(1, busy.queued());
+        assertEquals(0, busy.completed());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        AppExecutors.Stats idle = executor.stats();
+        assertEquals(0, idle.active());
+        assertEquals(0, idle.queued());
+        assertEquals(2, idle.completed());
+    }
+
+    @Test
+    void failingTask_stillCountsAsCompleted() throws Exception {
+        Future<?> f = executor.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThrows(Exception.class, () -> f.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.stats().completed());
+    }
+
+    @Test
+    void rejectedTask_isNotLeftQueued() {
+        executor.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(0, executor.stats().queued());
+    }
+
+    @Test
+    void ioExecutor_runsOnVirtualThreads() throws Exception {
+        ExecutorService io = AppExecutors.io();
+        assertTrue(io.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+        assertFalse(AppExecutors.cpu().submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+    }
+}
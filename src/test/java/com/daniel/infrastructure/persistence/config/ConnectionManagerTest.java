@@ -0,0 +1,118 @@
+package com.daniel.infrastructure.persistence.config;
+
+import com.daniel.infrastructure.persistence.repository.AppSettingsRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ConnectionManager / Database leases.
+ *
+ * Uses a temp-file SQLite DB so the read pool is active.
+ */
+class ConnectionManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        String dbPath = tempDir.resolve("test.db").toString().replace("\\", "/");
+        Database.configure("jdbc:sqlite:" + dbPath);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Database.close();
+    }
+
+    @Test
+    void closingLease_keepsPhysicalConnectionOpen() throws Exception {
+        Connection raw = Database.open();
+        try (Connection lease = Database.lease()) {
+            assertFalse(lease.isClosed());
+        }
+        assertFalse(raw.isClosed());
+    }
+
+    @Test
+    void closedLease_reportsClosedAndRejectsUse() throws Exception {
+        Connection lease = Database.lease();
+        lease.close();
+        assertTrue(lease.isClosed());
+        assertThrows(SQLException.class, lease::createStatement);
+    }
+
+    @Test
+    void manyRepositoryCalls_openOnceAndRunSchemaOnce() {
+        AppSettingsRepository repo = new AppSettingsRepository();
+        for (int i = 0; i < 50; i++) {
+            repo.set("k" + i, "v" + i);
+            assertEquals("v" + i, repo.get("k" + i).orElseThrow());
+        }
+
+        ConnectionManager.Stats stats = Database.stats();
+        assertEquals(1, stats.schemaRuns());
+        // 1 writer + at most the read pool
+        assertTrue(stats.opens() <= 3, "opens=" + stats.opens());
+        assertEquals(100, stats.leases());
+    }
+
+    @Test
+    void inMemoryDb_readsShareWriterConnection() {
+        Database.configure("jdbc:sqlite::memory:");
+        AppSettingsRepository repo = new AppSettingsRepository();
+        repo.set("a", "1");
+        assertEquals("1", repo.get("a").orElseThrow());
+
+        ConnectionManager.Stats stats = Database.stats();
+        assertEquals(1, stats.opens());
+        assertEquals(0, stats.readerLeases());
+    }
+
+    @Test
+    void writerLease_isExclusiveAcrossThreads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean acquired = new AtomicBoolean(false);
+
+        try (Connection ignored = Database.lease()) {
+            Thread other = new Thread(() -> {
+                started.countDown();
+                try (Connection c = Database.lease()) {
+                    acquired.set(true);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            other.start();
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            assertFalse(acquired.get());
+
+            // release and let the other thread proceed
+            ignored.close();
+            other.join(1000);
+        }
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    void writerLease_isReentrantOnSameThread() throws Exception {
+        try (Connection outer = Database.lease();
+             Connection inner = Database.lease()) {
+            assertFalse(inner.isClosed());
+            assertFalse(outer.isClosed());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.daniel.infrastructure.persistence.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the user_version migration runner on in-memory SQLite databases:
+ * fresh install, re-runs, legacy layouts and rollback of a failing step.
+ */
+class SchemaMigratorTest {
+
+    private Connection conn;
+    private Connection reference;
+
+    @BeforeEach
+    void openInMemoryDb() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    void closeDb() throws Exception {
+        if (conn != null && !conn.isClosed()) {
+            conn.close();
+        }
+        if (reference != null) {
+            reference.close();
+        }
+    }
+
+    @Test
+    void migrate_freshDb_reachesLatestVersion() throws Exception {
+        SchemaInfo info = SchemaMigrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), info.version());
+        assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.userVersion(conn));
+        assertTrue(info.hasColumn("investment_type", "ticker"));
+        assertTrue(info.hasColumn("investment_snapshots", "value_cents"));
+        assertTrue(info.hasColumn("cash_snapshots", "value_cents"));
+        assertFalse(info.hasColumn("cash_snapshots", "amount_cents"));
+    }
+
+    @Test
+    void migrate_freshDb_matchesCurrentSchema() throws Exception {
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(describe(currentSchemaDb()), describe(conn));
+    }
+
+    @Test
+    void migrate_fromBaselineVersion_matchesCurrentSchemaAndDropsBaselineIndexes() throws Exception {
+        List<SchemaMigrator.Migration> upTo4 = SchemaMigrator.migrations().stream()
+                .filter(m -> m.version() <= 4)
+                .toList();
+        SchemaMigrator.migrate(conn, upTo4);
+        exec("INSERT INTO investment_type(name, investment_date) VALUES('CDB', '2024-01-02')");
+        exec("INSERT INTO transactions(date, investment_type_id, type, name, total_cents) "
+                + "VALUES('2024-01-02', 1, 'BUY', 'CDB', 10000)");
+        assertEquals(2L, queryLong("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' "
+                + "AND name IN ('idx_transactions_type_id', 'idx_investment_snapshots_type')"));
+
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(describe(currentSchemaDb()), describe(conn));
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' "
+                + "AND name IN ('idx_transactions_type_id', 'idx_investment_snapshots_type')"));
+        assertEquals(LocalDate.of(2024, 1, 2).toEpochDay(), queryLong("SELECT date FROM transactions"));
+    }
+
+    @Test
+    void migrate_secondRun_appliesNothing() throws Exception {
+        SchemaMigrator.migrate(conn);
+        int[] applied = {0};
+        List<SchemaMigrator.Migration> counting = SchemaMigrator.migrations().stream()
+                .map(m -> new SchemaMigrator.Migration(m.version(), m.description(), c -> {
+                    applied[0]++;
+                    m.step().apply(c);
+                }))
+                .toList();
+
+        SchemaMigrator.migrate(conn, counting);
+
+        assertEquals(0, applied[0]);
+    }
+
+    @Test
+    void migrate_legacyDb_addsColumnsAndRenamesValueColumn() throws Exception {
+        exec("CREATE TABLE investment_type (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE, "
+                + "category TEXT, liquidity TEXT, investment_date TEXT, profitability REAL, invested_value REAL)");
+        exec("CREATE TABLE cash_snapshots (date TEXT PRIMARY KEY, amount_cents INTEGER NOT NULL)");
+        exec("CREATE TABLE investment_snapshots (date TEXT NOT NULL, investment_type_id INTEGER NOT NULL, "
+                + "amount_cents INTEGER NOT NULL, note TEXT, PRIMARY KEY(date, investment_type_id))");
+        exec("INSERT INTO cash_snapshots(date, amount_cents) VALUES('2024-01-02', 1234)");
+        exec("INSERT INTO investment_snapshots(date, investment_type_id, amount_cents) VALUES('2024-01-02', 1, 500)");
+
+        SchemaInfo info = SchemaMigrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), info.version());
+        assertTrue(info.hasColumn("investment_type", "type_of_investment"));
+        assertTrue(info.hasColumn("investment_type", "quantity"));
+        assertTrue(info.hasColumn("cash_snapshots", "value_cents"));
+        assertFalse(info.hasColumn("investment_snapshots", "amount_cents"));
+        long day = LocalDate.of(2024, 1, 2).toEpochDay();
+        assertEquals(1234L, queryLong("SELECT value_cents FROM cash_snapshots WHERE date = " + day));
+        assertEquals(500L, queryLong("SELECT value_cents FROM investment_snapshots WHERE investment_type_id = 1"));
+    }
+
+    @Test
+    void migrate_textDates_becomeEpochDayIntegers() throws Exception {
+        exec("CREATE TABLE investment_type (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, "
+                + "investment_date TEXT, type_of_investment TEXT, index_type TEXT, index_percentage REAL, "
+                + "ticker TEXT, purchase_price REAL, quantity INTEGER, category TEXT)");
+        exec("CREATE INDEX idx_investment_date ON investment_type(investment_date)");
+        exec("CREATE TABLE transactions (id INTEGER PRIMARY KEY AUTOINCREMENT, date TEXT NOT NULL, "
+                + "investment_type_id INTEGER NOT NULL, type TEXT NOT NULL, name TEXT NOT NULL, ticker TEXT, "
+                + "quantity INTEGER, unit_price_cents INTEGER, total_cents INTEGER NOT NULL, note TEXT)");
+        exec("INSERT INTO investment_type(name, investment_date) VALUES('CDB', '2023-12-31')");
+        exec("INSERT INTO investment_type(name, investment_date) VALUES('Caixinha', NULL)");
+        exec("INSERT INTO transactions(date, investment_type_id, type, name, total_cents) "
+                + "VALUES('2024-02-29', 1, 'BUY', 'CDB', 10000)");
+
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(LocalDate.of(2023, 12, 31).toEpochDay(),
+                queryLong("SELECT investment_date FROM investment_type WHERE name = 'CDB'"));
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM investment_type WHERE investment_date IS NOT NULL "
+                + "AND name = 'Caixinha'"));
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), queryLong("SELECT date FROM transactions"));
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM transactions WHERE typeof(date) = 'integer'"));
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM sqlite_master "
+                + "WHERE type = 'index' AND name = 'idx_investment_snapshots_series'"));
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM sqlite_master "
+                + "WHERE type = 'index' AND name = 'idx_investment_date'"));
+    }
+
+    @Test
+    void migrate_textQuoteDates_becomeEpochDayIntegers() throws Exception {
+        exec("CREATE TABLE quotes (ticker TEXT NOT NULL, date TEXT NOT NULL, price REAL NOT NULL, "
+                + "change REAL, change_percent REAL, volume INTEGER, updated_at INTEGER NOT NULL, "
+                + "PRIMARY KEY (ticker, date))");
+        exec("INSERT INTO quotes(ticker, date, price, updated_at) VALUES('PETR4', '2024-03-07', 35.5, 1)");
+
+        SchemaMigrator.migrate(conn);
+
+        assertEquals("INTEGER", queryString("SELECT type FROM pragma_table_info('quotes') WHERE name = 'date'"));
+        assertEquals(LocalDate.of(2024, 3, 7).toEpochDay(), queryLong("SELECT date FROM quotes"));
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM quotes WHERE typeof(date) = 'integer'"));
+    }
+
+    @Test
+    void migrate_blankOrMalformedDates_dropsThoseRowsAndKeepsTheRest() throws Exception {
+        exec("CREATE TABLE cash_snapshots (date TEXT PRIMARY KEY, value_cents INTEGER NOT NULL)");
+        exec("CREATE TABLE flows (id INTEGER PRIMARY KEY AUTOINCREMENT, date TEXT NOT NULL, "
+                + "from_kind TEXT NOT NULL, from_investment_type_id INTEGER, to_kind TEXT NOT NULL, "
+                + "to_investment_type_id INTEGER, amount_cents INTEGER NOT NULL, note TEXT)");
+        exec("INSERT INTO cash_snapshots(date, value_cents) VALUES('2024-01-02', 100)");
+        exec("INSERT INTO cash_snapshots(date, value_cents) VALUES('', 200)");
+        exec("INSERT INTO cash_snapshots(date, value_cents) VALUES('02/01/2024', 300)");
+        exec("INSERT INTO flows(date, from_kind, to_kind, amount_cents) VALUES('2024-01-03', 'CASH', 'INVESTMENT', 50)");
+        exec("INSERT INTO flows(date, from_kind, to_kind, amount_cents) VALUES('abc', 'CASH', 'INVESTMENT', 60)");
+
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.userVersion(conn));
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM cash_snapshots"));
+        assertEquals(LocalDate.of(2024, 1, 2).toEpochDay(), queryLong("SELECT date FROM cash_snapshots"));
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM flows"));
+        assertEquals(50L, queryLong("SELECT amount_cents FROM flows"));
+    }
+
+    @Test
+    void migrate_partialInvestmentTypeColumns_addsOnlyTheMissingOnes() throws Exception {
+        exec("CREATE TABLE investment_type (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, "
+                + "category TEXT, liquidity TEXT, investment_date TEXT, profitability REAL, invested_value REAL, "
+                + "type_of_investment TEXT, index_type TEXT)");
+
+        SchemaInfo info = SchemaMigrator.migrate(conn);
+
+        assertTrue(info.hasColumn("investment_type", "index_percentage"));
+        assertTrue(info.hasColumn("investment_type", "ticker"));
+        assertTrue(info.hasColumn("investment_type", "purchase_price"));
+        assertTrue(info.hasColumn("investment_type", "quantity"));
+    }
+
+    @Test
+    void migrate_seriesQuery_usesCoveringIndex() throws Exception {
+        SchemaMigrator.migrate(conn);
+
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN SELECT date, value_cents "
+                     + "FROM investment_snapshots WHERE investment_type_id = 1 ORDER BY date ASC")) {
+            while (rs.next()) plan.append(rs.getString("detail")).append('\n');
+        }
+
+        assertTrue(plan.toString().contains("COVERING INDEX idx_investment_snapshots_series"), plan.toString());
+        assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+    }
+
+    @Test
+    void migrate_failingStep_rollsBackAndKeepsVersion() throws Exception {
+        List<SchemaMigrator.Migration> migrations = List.of(
+                new SchemaMigrator.Migration(1, "ok", c -> exec(c, "CREATE TABLE a (x INTEGER)")),
+                new SchemaMigrator.Migration(2, "boom", c -> {
+                    exec(c, "CREATE TABLE b (x INTEGER)");
+                    throw new SQLException("boom");
+                }));
+
+        assertThrows(SQLException.class, () -> SchemaMigrator.migrate(conn, migrations));
+
+        SchemaInfo info = SchemaMigrator.inspect(conn);
+        assertEquals(1, info.version());
+        assertTrue(info.columnsByTable().containsKey("a"));
+        assertFalse(info.columnsByTable().containsKey("b"));
+        assertTrue(conn.getAutoCommit());
+    }
+
+    @Test
+    void migrate_benchmarkRates_importsLegacySettings() throws Exception {
+        List<SchemaMigrator.Migration> upTo7 = SchemaMigrator.migrations().stream()
+                .filter(m -> m.version() <= 7)
+                .toList();
+        SchemaMigrator.migrate(conn, upTo7);
+        exec("INSERT INTO app_settings(key, value) VALUES('rate_cdi', '0.1065')");
+        exec("INSERT INTO app_settings(key, value) VALUES('rate_ipca', 'lixo')");
+
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM benchmark_rates"));
+        assertEquals(0, queryLong("SELECT updated_at FROM benchmark_rates WHERE series = 'CDI'"));
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT annual_rate FROM benchmark_rates WHERE series = 'CDI'")) {
+            assertTrue(rs.next());
+            assertEquals(0.1065, rs.getDouble(1), 1e-12);
+        }
+    }
+
+    // ===== helpers =====
+
+    /** In-memory database built straight from {@link Schema#tables()} and {@link Schema#indexes()}. */
+    private Connection currentSchemaDb() throws SQLException {
+        Connection ref = DriverManager.getConnection("jdbc:sqlite::memory:");
+        reference = ref;
+        for (String sql : Schema.tables()) exec(ref, sql);
+        for (String sql : Schema.indexes()) exec(ref, sql);
+        return ref;
+    }
+
+    /**
+     * Columns (in order), foreign keys and index definitions of every user
+     * table. Table SQL is not compared because ALTER TABLE rewrites it.
+     */
+    private static List<String> describe(Connection c) throws SQLException {
+        List<String> out = new ArrayList<>();
+        try (Statement st = c.createStatement();
+             ResultSet tables = st.executeQuery("SELECT name FROM sqlite_master "
+                     + "WHERE type = 'table' AND name NOT LIKE 'sqlite_%' ORDER BY name")) {
+            while (tables.next()) {
+                String table = tables.getString(1);
+                try (Statement q = c.createStatement();
+                     ResultSet rs = q.executeQuery("PRAGMA table_info(" + table + ")")) {
+                    while (rs.next()) {
+                        out.add(table + " column " + rs.getString("name") + " " + rs.getString("type")
+                                + " notnull=" + rs.getInt("notnull") + " pk=" + rs.getInt("pk")
+                                + " default=" + rs.getString("dflt_value"));
+                    }
+                }
+                try (Statement q = c.createStatement();
+                     ResultSet rs = q.executeQuery("PRAGMA foreign_key_list(" + table + ")")) {
+                    while (rs.next()) {
+                        out.add(table + " fk " + rs.getString("from") + " -> " + rs.getString("table")
+                                + "(" + rs.getString("to") + ") " + rs.getString("on_delete"));
+                    }
+                }
+            }
+        }
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT tbl_name, name, sql FROM sqlite_master "
+                     + "WHERE type = 'index' ORDER BY name")) {
+            while (rs.next()) {
+                out.add(rs.getString(1) + " index " + rs.getString(2) + " " + rs.getString(3));
+            }
+        }
+        return out;
+    }
+
+    private void exec(String sql) throws SQLException {
+        exec(conn, sql);
+    }
+
+    private static void exec(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
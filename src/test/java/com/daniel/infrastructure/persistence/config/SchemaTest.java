@@ -26,8 +26,6 @@ import static org.junit.jupiter.api.Assertions.*;
  *   2. The DDL executes without errors on a fresh in-memory DB.
  *   3. Expected tables exist after DDL execution.
  *   4. Expected columns exist in key tables.
- *   5. Schema.needsMigration() returns false on a fully-migrated DB.
- *   6. Schema.needsMigration() returns true on an old DB without new columns.
  */
 class SchemaTest {
 
@@ -146,6 +144,14 @@ class SchemaTest {
         assertTrue(tableExists("app_settings"));
     }
 
+    @Test
+    void afterDdl_quotesTableExists() throws Exception {
+        applyDdl();
+        assertTrue(tableExists("quotes"));
+        List<String> cols = columnsOf("quotes");
+        assertTrue(cols.containsAll(List.of("ticker", "date", "price", "change", "volume", "updated_at")));
+    }
+
     @Test
     void afterDdl_investmentType_hasExpectedColumns() throws Exception {
         applyDdl();
@@ -185,61 +191,6 @@ class SchemaTest {
         assertTrue(cols.contains("total_cents"));
     }
 
-    // ===== Schema.needsMigration() =====
-
-    @Test
-    void needsMigration_afterFullDdl_returnsFalse() throws Exception {
-        applyDdl();
-        assertFalse(Schema.needsMigration(conn),
-                "A freshly created schema should NOT need migration");
-    }
-
-    @Test
-    void needsMigration_oldSchemaWithoutTypeColumn_returnsTrue() throws Exception {
-        // Simulate an old DB without the type_of_investment column
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute("""
-                    CREATE TABLE investment_type (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        name TEXT NOT NULL,
-                        category TEXT,
-                        liquidity TEXT
-                    )
-                    """);
-        }
-        assertTrue(Schema.needsMigration(conn),
-                "Old schema without type_of_investment should need migration");
-    }
-
-    @Test
-    void needsMigration_tableWithColumn_returnsFalse() throws Exception {
-        // Table with type_of_investment present → no migration needed
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute("""
-                    CREATE TABLE investment_type (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        name TEXT NOT NULL,
-                        type_of_investment TEXT
-                    )
-                    """);
-        }
-        assertFalse(Schema.needsMigration(conn));
-    }
-
-    // ===== Schema.migrationScript() =====
-
-    @Test
-    void migrationScript_returnsNonEmptyString() {
-        String script = Schema.migrationScript();
-        assertNotNull(script);
-        assertFalse(script.isBlank());
-    }
-
-    @Test
-    void migrationScript_containsTypeOfInvestmentAlter() {
-        assertTrue(Schema.migrationScript().contains("type_of_investment"));
-    }
-
     // ===== Helpers =====
 
     private void applyDdl() throws Exception {
@@ -0,0 +1,64 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.entity.BenchmarkRate;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for BenchmarkRateRepository on an isolated temp-file SQLite DB.
+ */
+class BenchmarkRateRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BenchmarkRateRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        String dbPath = tempDir.resolve("test.db").toString().replace("\\\\", "/");
+        Database.configure("jdbc:sqlite:" + dbPath);
+        Database.open();
+        repo = new BenchmarkRateRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Database.close();
+    }
+
+    @Test
+    void emptyDb_hasNoRates() {
+        assertTrue(repo.loadAll().isEmpty());
+    }
+
+    @Test
+    void upsert_replacesValueOfSameSeries() {
+        repo.upsert(new BenchmarkRate("CDI", 0.10, 1_000L));
+        repo.upsert(new BenchmarkRate("SELIC", 0.1075, 1_000L));
+        repo.upsert(new BenchmarkRate("CDI", 0.1065, 2_000L));
+
+        Map<String, BenchmarkRate> all = repo.loadAll();
+        assertEquals(2, all.size());
+        assertEquals(new BenchmarkRate("CDI", 0.1065, 2_000L), all.get("CDI"));
+        assertEquals(0.1075, all.get("SELIC").annualRate(), 1e-12);
+    }
+
+    @Test
+    void rates_surviveReopen() {
+        repo.upsert(new BenchmarkRate("IPCA", 0.045, 5_000L));
+        Database.close();
+        Database.open();
+
+        assertEquals(5_000L, new BenchmarkRateRepository().loadAll().get("IPCA").updatedAtMillis());
+    }
+}
@@ -0,0 +1,68 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.entity.IndexPoint;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for IndexHistoryRepository on an isolated temp-file SQLite DB.
+ */
+class IndexHistoryRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private IndexHistoryRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        String dbPath = tempDir.resolve("test.db").toString().replace("\\\\", "/");
+        Database.configure("jdbc:sqlite:" + dbPath);
+        Database.open();
+        repo = new IndexHistoryRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Database.close();
+    }
+
+    @Test
+    void emptySeries_hasNoLastDate() {
+        assertNull(repo.lastDate("CDI"));
+        assertTrue(repo.load("CDI").isEmpty());
+    }
+
+    @Test
+    void upsertAll_loadsInDateOrder_perSeries() {
+        LocalDate d = LocalDate.of(2024, 3, 1);
+        repo.upsertAll(List.of(
+                new IndexPoint("CDI", d.plusDays(1), 0.041),
+                new IndexPoint("CDI", d, 0.040),
+                new IndexPoint("IPCA", d, 0.16)));
+
+        List<IndexPoint> cdi = repo.load("CDI");
+        assertEquals(List.of(new IndexPoint("CDI", d, 0.040), new IndexPoint("CDI", d.plusDays(1), 0.041)), cdi);
+        assertEquals(d.plusDays(1), repo.lastDate("CDI"));
+        assertEquals(d, repo.lastDate("IPCA"));
+    }
+
+    @Test
+    void upsertAll_replacesExistingPoint() {
+        LocalDate d = LocalDate.of(2024, 3, 1);
+        repo.upsertAll(List.of(new IndexPoint("SELIC", d, 0.040)));
+        repo.upsertAll(List.of(new IndexPoint("SELIC", d, 0.042)));
+
+        assertEquals(List.of(new IndexPoint("SELIC", d, 0.042)), repo.load("SELIC"));
+    }
+}
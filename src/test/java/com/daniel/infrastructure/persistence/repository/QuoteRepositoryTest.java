@@ -0,0 +1,118 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.core.domain.entity.Quote;
+import com.daniel.infrastructure.persistence.config.Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for QuoteRepository on an isolated temp-file SQLite DB.
+ */
+class QuoteRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private QuoteRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        String dbPath = tempDir.resolve("test.db").toString().replace("\\\\", "/");
+        Database.configure("jdbc:sqlite:" + dbPath);
+        Database.open();
+        repo = new QuoteRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Database.close();
+    }
+
+    private static Quote quote(String ticker, LocalDate date, double price) {
+        return new Quote(ticker, date, price, 0.5, 1.2, 1000L, 123L);
+    }
+
+    @Test
+    void latest_emptyDb_returnsNull() {
+        assertNull(repo.latest("PETR4"));
+        assertTrue(repo.latestAll().isEmpty());
+    }
+
+    @Test
+    void upsert_roundTrip() {
+        LocalDate d = LocalDate.of(2024, 3, 7);
+        repo.upsert(quote("PETR4", d, 35.5));
+
+        Quote q = repo.latest("PETR4");
+        assertNotNull(q);
+        assertEquals(d, q.date());
+        assertEquals(35.5, q.price(), 1e-9);
+        assertEquals(1000L, q.volume());
+        assertEquals(123L, q.updatedAtMillis());
+    }
+
+    @Test
+    void upsert_sameDay_overwrites() {
+        LocalDate d = LocalDate.of(2024, 3, 7);
+        repo.upsert(quote("PETR4", d, 35.0));
+        repo.upsert(quote("PETR4", d, 36.0));
+
+        assertEquals(1, repo.history("PETR4", d, d).size());
+        assertEquals(36.0, repo.latest("PETR4").price(), 1e-9);
+    }
+
+    @Test
+    void latestAll_returnsMostRecentDayPerTicker() {
+        repo.upsertAll(List.of(
+                quote("PETR4", LocalDate.of(2024, 3, 6), 34.0),
+                quote("PETR4", LocalDate.of(2024, 3, 7), 35.0),
+                quote("VALE3", LocalDate.of(2024, 3, 5), 60.0)
+        ));
+
+        Map<String, Quote> latest = repo.latestAll();
+        assertEquals(2, latest.size());
+        assertEquals(35.0, latest.get("PETR4").price(), 1e-9);
+        assertEquals(60.0, latest.get("VALE3").price(), 1e-9);
+    }
+
+    @Test
+    void history_returnsAscendingWithinRange() {
+        repo.upsertAll(List.of(
+                quote("PETR4", LocalDate.of(2024, 3, 7), 35.0),
+                quote("PETR4", LocalDate.of(2024, 3, 5), 33.0),
+                quote("PETR4", LocalDate.of(2024, 3, 6), 34.0),
+                quote("PETR4", LocalDate.of(2024, 3, 8), 36.0)
+        ));
+
+        List<Quote> h = repo.history("PETR4", LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 7));
+        assertEquals(3, h.size());
+        assertEquals(LocalDate.of(2024, 3, 5), h.get(0).date());
+        assertEquals(LocalDate.of(2024, 3, 7), h.get(2).date());
+    }
+
+    @Test
+    void latestBatch_returnsLastQuoteOfEachRequestedTicker() {
+        repo.upsertAll(List.of(
+                quote("PETR4", LocalDate.of(2024, 3, 6), 35.0),
+                quote("PETR4", LocalDate.of(2024, 3, 7), 35.5),
+                quote("VALE3", LocalDate.of(2024, 3, 5), 60.0),
+                quote("ITUB4", LocalDate.of(2024, 3, 7), 30.0)));
+
+        Map<String, Quote> latest = repo.latest(List.of("PETR4", "VALE3", "BBDC4"));
+
+        assertEquals(2, latest.size());
+        assertEquals(35.5, latest.get("PETR4").price(), 1e-9);
+        assertEquals(LocalDate.of(2024, 3, 5), latest.get("VALE3").date());
+        assertTrue(repo.latest(List.<String>of()).isEmpty());
+    }
+}
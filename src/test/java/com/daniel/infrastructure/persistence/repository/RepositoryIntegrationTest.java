@@ -2,6 +2,7 @@ package com.daniel.infrastructure.persistence.repository;
 
 import com.daniel.core.domain.entity.Flow;
 import com.daniel.core.domain.entity.InvestmentType;
+import com.daniel.core.domain.entity.SnapshotRange;
 import com.daniel.core.domain.entity.Transaction;
 import com.daniel.core.domain.entity.Enums.FlowKind;
 import com.daniel.core.domain.repository.ISnapshotRepository;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -26,10 +28,8 @@ import static org.junit.jupiter.api.Assertions.*;
  * Each test gets a fresh SQLite database (temp file) via Database.configure().
  * No production DB file is touched. Temp files are cleaned up by JUnit @TempDir.
  *
- * Note: in-memory SQLite is not used because the repositories close the
- * singleton connection after each statement (try-with-resources), and each
- * new :memory: connection is a fresh empty DB. A temp file persists across
- * reconnects within the same test.
+ * Note: a temp file (instead of :memory:) is used so the read-connection
+ * pool of ConnectionManager is exercised alongside the writer connection.
  */
 class RepositoryIntegrationTest {
 
@@ -161,6 +161,57 @@ class RepositoryIntegrationTest {
         assertEquals(60000L, all.get(1L));
     }
 
+    @Test
+    void snapshot_upsertSnapshot_writesCashAndAllInvestments() {
+        SnapshotRepository repo = new SnapshotRepository();
+        LocalDate date = LocalDate.of(2024, 3, 8);
+        Map<Long, Long> values = new java.util.LinkedHashMap<>();
+        for (long id = 1; id <= 500; id++) values.put(id, id * 100);
+
+        repo.upsertSnapshot(date, 12345L, values);
+
+        assertEquals(12345L, repo.getCash(date));
+        Map<Long, Long> all = repo.getAllInvestmentsForDate(date);
+        assertEquals(500, all.size());
+        assertEquals(50000L, all.get(500L));
+    }
+
+    @Test
+    void snapshot_upsertInvestments_overwritesExistingRows() {
+        SnapshotRepository repo = new SnapshotRepository();
+        LocalDate date = LocalDate.of(2024, 3, 8);
+        repo.upsertInvestment(date, 1L, 50000L, "old");
+
+        repo.upsertInvestments(date, Map.of(1L, 70000L, 2L, 80000L));
+
+        Map<Long, Long> all = repo.getAllInvestmentsForDate(date);
+        assertEquals(70000L, all.get(1L));
+        assertEquals(80000L, all.get(2L));
+        assertEquals(0L, repo.getCash(date), "cash untouched when not given");
+    }
+
+    @Test
+    void snapshot_loadRange_returnsCashAndInvestmentsPerDay() {
+        SnapshotRepository repo = new SnapshotRepository();
+        LocalDate d1 = LocalDate.of(2024, 3, 1);
+        LocalDate d3 = LocalDate.of(2024, 3, 3);
+        repo.upsertCash(d1, 1000L);
+        repo.upsertInvestment(d1, 1L, 50000L, null);
+        repo.upsertInvestment(d3, 1L, 52000L, null);
+        repo.upsertInvestment(d3, 2L, 9000L, null);
+        repo.upsertInvestment(LocalDate.of(2024, 3, 4), 1L, 99999L, null); // fora do intervalo
+
+        SnapshotRange range = repo.loadRange(d1, d3);
+
+        assertEquals(3, range.days());
+        assertEquals(1000L, range.cashCents(d1));
+        assertEquals(0L, range.cashCents(d3));
+        assertEquals(50000L, range.investmentCents(d1, 1L));
+        assertEquals(0L, range.investmentCents(d1.plusDays(1), 1L));
+        assertEquals(52000L, range.investmentCents(d3, 1L));
+        assertEquals(Map.of(1L, 52000L, 2L, 9000L), range.investmentsOn(d3));
+    }
+
     @Test
     void snapshot_getAllInvestments_emptyDate_returnsEmpty() {
         SnapshotRepository repo = new SnapshotRepository();
@@ -181,6 +232,21 @@ class RepositoryIntegrationTest {
         assertTrue(keys.get(0).compareTo(keys.get(1)) < 0, "Dates should be in ascending order");
     }
 
+    @Test
+    void snapshot_scanSeries_streamsEpochDaysInOrder() {
+        SnapshotRepository repo = new SnapshotRepository();
+        repo.upsertInvestment(LocalDate.of(2024, 3, 1), 5L, 12000L, null);
+        repo.upsertInvestment(LocalDate.of(2024, 1, 1), 5L, 10000L, null);
+        repo.upsertInvestment(LocalDate.of(2024, 2, 1), 6L, 99999L, null);
+
+        List<Long> days = new ArrayList<>();
+        List<Long> cents = new ArrayList<>();
+        repo.scanSeries(5L, (day, value) -> { days.add(day); cents.add(value); });
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 1).toEpochDay(), LocalDate.of(2024, 3, 1).toEpochDay()), days);
+        assertEquals(List.of(10000L, 12000L), cents);
+    }
+
     @Test
     void snapshot_seriesForInvestment_noData_returnsEmpty() {
         SnapshotRepository repo = new SnapshotRepository();
@@ -0,0 +1,52 @@
+package com.daniel.infrastructure.persistence.repository;
+
+import com.daniel.infrastructure.persistence.config.Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for TickerRepository on an isolated temp-file SQLite DB.
+ */
+class TickerRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TickerRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        String dbPath = tempDir.resolve("test.db").toString().replace("\\\\", "/");
+        Database.configure("jdbc:sqlite:" + dbPath);
+        Database.open();
+        repo = new TickerRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Database.close();
+    }
+
+    @Test
+    void emptyDb_hasNoTickers() {
+        assertTrue(repo.loadAll().isEmpty());
+        assertEquals(0L, repo.lastUpdatedMillis());
+    }
+
+    @Test
+    void replaceAll_swapsWholeList() {
+        repo.replaceAll(List.of("VALE3", "PETR4"), 100L);
+        repo.replaceAll(List.of("ITUB4", "PETR4"), 200L);
+
+        assertEquals(List.of("ITUB4", "PETR4"), repo.loadAll());
+        assertEquals(200L, repo.lastUpdatedMillis());
+    }
+}